@@ -25,6 +25,7 @@ package com.viaversion.viaversion.api;
 import com.viaversion.viaversion.api.connection.ConnectionManager;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.legacy.LegacyViaAPI;
+import com.viaversion.viaversion.api.metrics.TransformMetrics;
 import com.viaversion.viaversion.api.platform.ViaPlatform;
 import com.viaversion.viaversion.api.protocol.ProtocolManager;
 import com.viaversion.viaversion.api.protocol.version.ServerProtocolVersion;
@@ -147,6 +148,15 @@ public interface ViaAPI<T> {
      */
     SortedSet<Integer> getFullSupportedVersions();
 
+    /**
+     * Returns the packet transformation metrics, aggregated over all connections.
+     *
+     * @return transformation metrics, only recorded if enabled in the config
+     */
+    default TransformMetrics getTransformMetrics() {
+        return TransformMetrics.empty();
+    }
+
     /**
      * Returns legacy api only applicable on/to legacy versions.
      * <p>
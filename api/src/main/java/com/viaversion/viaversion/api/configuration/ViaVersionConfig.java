@@ -305,6 +305,65 @@ public interface ViaVersionConfig extends Config {
      */
     boolean isSuppressConversionWarnings();
 
+    /**
+     * Transforms heavy packets, such as chunks, on a separate pool of worker threads instead of the network threads.
+     * Packet order is kept per connection.
+     *
+     * @return true if enabled
+     */
+    boolean isAsyncChunkTransform();
+
+    /**
+     * Get the amount of worker threads used for async chunk transformation.
+     *
+     * @return amount of worker threads, or 0 to use half of the available processors
+     */
+    int getAsyncChunkTransformThreads();
+
+    /**
+     * Get the maximum amount of packets waiting for a worker thread.
+     * Further heavy packets are transformed on the network threads until the workers catch up.
+     *
+     * @return maximum amount of packets waiting for a worker thread
+     */
+    int getAsyncChunkTransformQueueSize();
+
+    /**
+     * Get the maximum amount of packets of a single player queued for transformation.
+     * Further packets of the player are transformed on the network thread until the queue is empty.
+     *
+     * @return maximum amount of queued packets per player
+     */
+    int getAsyncChunkTransformPlayerQueueSize();
+
+    /**
+     * Records packet transformation metrics, viewable with /viaversion stats.
+     *
+     * @return true if enabled
+     */
+    boolean isTransformMetrics();
+
+    /**
+     * Get how often packet transformations are timed when recording metrics.
+     *
+     * @return sample rate, e.g. 64 to time about one in 64 transformations
+     */
+    int getTransformMetricsSampleRate();
+
+    /**
+     * Should loaded mapping data be cached in a binary file in the data folder to speed up later startups?
+     *
+     * @return true if mapping data should be cached
+     */
+    boolean isMappingCache();
+
+    /**
+     * Get how loaded id mappings are stored in memory.
+     *
+     * @return "auto" to store them as ranges if smaller than arrays, "array" or "ranges" to force either
+     */
+    String getMappingStorage();
+
     /**
      * Should we disable the 1.13 auto-complete feature to stop spam kicks? (for any server lower than 1.13)
      *
@@ -340,6 +399,14 @@ public interface ViaVersionConfig extends Config {
      */
     boolean isReduceBlockStorageMemory();
 
+    /**
+     * Returns the maximum memory in KiB the block storage of a single player may use.
+     * Once exceeded, sections are evicted down to 3/4 of the limit, farthest from the player and least recently used first.
+     *
+     * @return maximum memory in KiB, or 0 if unlimited
+     */
+    int getBlockStorageMemoryLimit();
+
     /**
      * When activated with serverside-blockconnections, flower parts with blocks above will be sent as stems.
      * Useful for lobbyservers where users can't build and those stems are used decoratively.
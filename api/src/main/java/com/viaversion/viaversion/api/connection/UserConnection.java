@@ -223,6 +223,63 @@ public interface UserConnection {
      */
     void transformServerbound(ByteBuf buf, Function<Throwable, Exception> cancelSupplier) throws Exception;
 
+    /**
+     * Transforms the clientbound packet contained in the ByteBuf without copying it back into the input buffer.
+     * <p>
+     * The input buffer is fully consumed, but neither modified nor released. The returned buffer has to be released
+     * or passed on by the caller, and may be the (retained) input buffer itself if no protocol changed the packet.
+     * <p>
+     * The default implementation falls back to {@link #transformClientbound(ByteBuf, Function)}, transforming the
+     * input buffer in place and returning it retained.
+     *
+     * @param buf            ByteBuf with packet id and packet contents
+     * @param cancelSupplier function called with original CancelException for generating the Exception when the packet is cancelled
+     * @return buffer containing the transformed packet
+     * @throws CancelException      if the packet should be cancelled
+     * @throws InformativeException if packet transforming failed
+     * @throws Exception            if any other processing outside of transforming fails
+     */
+    default ByteBuf transformClientboundBuffer(ByteBuf buf, Function<Throwable, Exception> cancelSupplier) throws Exception {
+        transformClientbound(buf, cancelSupplier);
+        return buf.retain();
+    }
+
+    /**
+     * Transforms the serverbound packet contained in the ByteBuf without copying it back into the input buffer.
+     *
+     * @param buf            ByteBuf with packet id and packet contents
+     * @param cancelSupplier function called with original CancelException for generating the Exception when the packet is cancelled
+     * @return buffer containing the transformed packet
+     * @throws CancelException      if the packet should be cancelled
+     * @throws InformativeException if packet transforming failed
+     * @throws Exception            if any other processing outside of transforming fails
+     * @see #transformClientboundBuffer(ByteBuf, Function)
+     */
+    default ByteBuf transformServerboundBuffer(ByteBuf buf, Function<Throwable, Exception> cancelSupplier) throws Exception {
+        transformServerbound(buf, cancelSupplier);
+        return buf.retain();
+    }
+
+    /**
+     * Transforms the packet depending on whether the connection is clientside or not.
+     *
+     * @see #transformClientboundBuffer(ByteBuf, Function)
+     * @see #transformServerboundBuffer(ByteBuf, Function)
+     */
+    default ByteBuf transformOutgoingBuffer(ByteBuf buf, Function<Throwable, Exception> cancelSupplier) throws Exception {
+        return isClientSide() ? transformServerboundBuffer(buf, cancelSupplier) : transformClientboundBuffer(buf, cancelSupplier);
+    }
+
+    /**
+     * Transforms the packet depending on whether the connection is clientside or not.
+     *
+     * @see #transformClientboundBuffer(ByteBuf, Function)
+     * @see #transformServerboundBuffer(ByteBuf, Function)
+     */
+    default ByteBuf transformIncomingBuffer(ByteBuf buf, Function<Throwable, Exception> cancelSupplier) throws Exception {
+        return isClientSide() ? transformClientboundBuffer(buf, cancelSupplier) : transformServerboundBuffer(buf, cancelSupplier);
+    }
+
     /**
      * Transforms the packet depending on whether the connection is clientside or not.
      *
@@ -332,6 +389,7 @@ public interface UserConnection {
     /**
      * Returns a newly generated uuid that will let a packet be passed through without
      * transformig its contents if used together with {@link PacketWrapper#PASSTHROUGH_ID}.
+     * A token can only be used once, and expires after a number of newer tokens have been generated.
      *
      * @return generated passthrough token
      */
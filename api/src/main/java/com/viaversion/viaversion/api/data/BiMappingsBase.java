@@ -58,6 +58,11 @@ public class BiMappingsBase implements BiMappings {
         return mappings.mappedSize();
     }
 
+    @Override
+    public long memoryUsage() {
+        return mappings.memoryUsage();
+    }
+
     @Override
     public BiMappings inverse() {
         return this.inverse;
@@ -22,33 +22,21 @@
  */
 package com.viaversion.viaversion.api.data;
 
-import com.viaversion.viaversion.util.Key;
-import it.unimi.dsi.fastutil.objects.Object2IntMap;
-import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import java.util.List;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class FullMappingsBase implements FullMappings {
-    private static final String[] EMPTY_ARRAY = new String[0];
-    private final Object2IntMap<String> stringToId;
-    private final Object2IntMap<String> mappedStringToId;
-    private final String[] idToString;
-    private final String[] mappedIdToString;
+    private final IdentifierTable identifiers;
+    private final IdentifierTable mappedIdentifiers;
     private final Mappings mappings;
 
     public FullMappingsBase(final List<String> unmappedIdentifiers, final List<String> mappedIdentifiers, final Mappings mappings) {
-        this.mappings = mappings;
-        this.stringToId = toInverseMap(unmappedIdentifiers);
-        this.mappedStringToId = toInverseMap(mappedIdentifiers);
-        this.idToString = unmappedIdentifiers.toArray(EMPTY_ARRAY);
-        this.mappedIdToString = mappedIdentifiers.toArray(EMPTY_ARRAY);
+        this(IdentifierTable.of(unmappedIdentifiers), IdentifierTable.of(mappedIdentifiers), mappings);
     }
 
-    private FullMappingsBase(final Object2IntMap<String> stringToId, final Object2IntMap<String> mappedStringToId, final String[] idToString, final String[] mappedIdToString, final Mappings mappings) {
-        this.stringToId = stringToId;
-        this.mappedStringToId = mappedStringToId;
-        this.idToString = idToString;
-        this.mappedIdToString = mappedIdToString;
+    public FullMappingsBase(final IdentifierTable identifiers, final IdentifierTable mappedIdentifiers, final Mappings mappings) {
+        this.identifiers = identifiers;
+        this.mappedIdentifiers = mappedIdentifiers;
         this.mappings = mappings;
     }
 
@@ -59,24 +47,22 @@ public class FullMappingsBase implements FullMappings {
 
     @Override
     public int id(final String identifier) {
-        return stringToId.getInt(Key.stripMinecraftNamespace(identifier));
+        return identifiers.id(identifier);
     }
 
     @Override
     public int mappedId(final String mappedIdentifier) {
-        return mappedStringToId.getInt(Key.stripMinecraftNamespace(mappedIdentifier));
+        return mappedIdentifiers.id(mappedIdentifier);
     }
 
     @Override
     public String identifier(final int id) {
-        final String identifier = idToString[id];
-        return Key.namespaced(identifier);
+        return identifiers.namespacedIdentifier(id);
     }
 
     @Override
     public String mappedIdentifier(final int mappedId) {
-        final String identifier = mappedIdToString[mappedId];
-        return Key.namespaced(identifier);
+        return mappedIdentifiers.namespacedIdentifier(mappedId);
     }
 
     @Override
@@ -111,16 +97,13 @@ public class FullMappingsBase implements FullMappings {
     }
 
     @Override
-    public FullMappings inverse() {
-        return new FullMappingsBase(mappedStringToId, stringToId, mappedIdToString, idToString, mappings.inverse());
+    public long memoryUsage() {
+        // Only counts the id mappings
+        return mappings.memoryUsage();
     }
 
-    private static Object2IntMap<String> toInverseMap(final List<String> list) {
-        final Object2IntMap<String> map = new Object2IntOpenHashMap<>(list.size());
-        map.defaultReturnValue(-1);
-        for (int i = 0; i < list.size(); i++) {
-            map.put(list.get(i), i);
-        }
-        return map;
+    @Override
+    public FullMappings inverse() {
+        return new FullMappingsBase(mappedIdentifiers, identifiers, mappings.inverse());
     }
 }
@@ -0,0 +1,118 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.viaversion.viaversion.api.data;
+
+import com.viaversion.viaversion.util.Key;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable table of a registry's identifiers by their id, shared between all mappings using the same identifiers.
+ * <p>
+ * Both the stored and the namespaced forms of the identifiers are precomputed, so neither looking up an identifier
+ * nor an id allocates.
+ */
+public final class IdentifierTable {
+    private static final Map<List<String>, IdentifierTable> TABLES = new ConcurrentHashMap<>();
+    private final String[] identifiers;
+    private final String[] namespacedIdentifiers;
+    private final Object2IntMap<String> ids;
+
+    private IdentifierTable(final String[] identifiers) {
+        this.identifiers = identifiers;
+        this.namespacedIdentifiers = new String[identifiers.length];
+        this.ids = new Object2IntOpenHashMap<>(identifiers.length * 2);
+        ids.defaultReturnValue(-1);
+        for (int id = 0; id < identifiers.length; id++) {
+            final String namespacedIdentifier = Key.namespaced(identifiers[id]).intern();
+            namespacedIdentifiers[id] = namespacedIdentifier;
+            ids.putIfAbsent(identifiers[id], id);
+            ids.putIfAbsent(namespacedIdentifier, id);
+        }
+    }
+
+    /**
+     * Returns the shared table of the given identifiers, creating it if none with the same identifiers exists yet.
+     *
+     * @param identifiers identifiers by their id
+     * @return shared identifier table
+     */
+    public static IdentifierTable of(final List<String> identifiers) {
+        final String[] array = new String[identifiers.size()];
+        for (int id = 0; id < array.length; id++) {
+            array[id] = identifiers.get(id).intern();
+        }
+        return TABLES.computeIfAbsent(Arrays.asList(array), key -> new IdentifierTable(array));
+    }
+
+    /**
+     * Clears the shared tables. Existing tables stay valid, but are no longer shared with new ones.
+     */
+    public static void clearCache() {
+        TABLES.clear();
+    }
+
+    /**
+     * Returns the id of the given identifier, with or without the minecraft namespace.
+     *
+     * @param identifier identifier
+     * @return id of the identifier, or -1 if not found
+     */
+    public int id(final String identifier) {
+        final int id = ids.getInt(identifier);
+        if (id == -1 && !identifier.isEmpty() && identifier.charAt(0) == ':') {
+            return ids.getInt(Key.stripMinecraftNamespace(identifier));
+        }
+        return id;
+    }
+
+    /**
+     * Returns the identifier of the given id as stored, usually without the minecraft namespace.
+     *
+     * @param id id
+     * @return identifier
+     * @throws IndexOutOfBoundsException if the id is invalid
+     */
+    public String identifier(final int id) {
+        return identifiers[id];
+    }
+
+    /**
+     * Returns the namespaced identifier of the given id.
+     *
+     * @param id id
+     * @return namespaced identifier
+     * @throws IndexOutOfBoundsException if the id is invalid
+     */
+    public String namespacedIdentifier(final int id) {
+        return namespacedIdentifiers[id];
+    }
+
+    public int size() {
+        return identifiers.length;
+    }
+}
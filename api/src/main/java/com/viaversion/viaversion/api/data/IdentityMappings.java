@@ -56,4 +56,9 @@ public class IdentityMappings implements Mappings {
     public Mappings inverse() {
         return new IdentityMappings(mappedSize, size);
     }
+
+    @Override
+    public long memoryUsage() {
+        return 0;
+    }
 }
@@ -63,6 +63,12 @@ public class Int2IntMapMappings implements Mappings {
         return mappedIds;
     }
 
+    @Override
+    public long memoryUsage() {
+        // Keys and values
+        return (long) mappings.size() * 2 * Integer.BYTES;
+    }
+
     @Override
     public Mappings inverse() {
         final Int2IntMap inverse = new Int2IntOpenHashMap();
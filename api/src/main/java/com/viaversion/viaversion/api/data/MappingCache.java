@@ -0,0 +1,332 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.viaversion.viaversion.api.data;
+
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.minecraft.TagData;
+import com.viaversion.viaversion.util.VersionInfo;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Binary cache of fully loaded mappings, identifier tables, tags and plain int arrays, stored in the platform's data folder.
+ * <p>
+ * Cache files are read through a memory mapped file without any NBT parsing or expansion of
+ * serialization strategies. They are bound to the implementation version, so every build starts with a fresh cache.
+ */
+public final class MappingCache {
+
+    private static final int MAGIC = 0x5669614D;
+    private static final int FORMAT_VERSION = 2;
+    private static final byte MAPPINGS_ID = 0;
+    private static final byte IDENTITY_ID = 1;
+    private static final byte IDENTIFIERS_ID = 2;
+    private static final byte TAGS_ID = 3;
+    private static final byte INT_ARRAY_ID = 4;
+    private static final char IDENTIFIER_SEPARATOR = '\0';
+    private static @Nullable File directory;
+
+    private MappingCache() {
+    }
+
+    /**
+     * Returns the cached entries of the given name if present and valid.
+     *
+     * @param name cache name
+     * @return cached entries, or null if not cached
+     */
+    public static @Nullable Entries read(final String name) {
+        final File file = new File(directory(), name + ".bin");
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (final IOException | RuntimeException e) {
+            Via.getPlatform().getLogger().log(Level.WARNING, "Failed to read cached mappings " + name + ", loading them from scratch", e);
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Writes the given entries to the cache, replacing any previous file of the same name.
+     * Failing to write the cache is logged, but otherwise ignored.
+     *
+     * @param name    cache name
+     * @param entries entries to cache
+     */
+    public static void write(final String name, final Entries entries) {
+        final File file = new File(directory(), name + ".bin");
+        final File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                write(out, entries);
+            }
+
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (final IOException | RuntimeException e) {
+            Via.getPlatform().getLogger().log(Level.WARNING, "Failed to cache mappings " + name, e);
+            tempFile.delete();
+        }
+    }
+
+    private static synchronized File directory() {
+        if (directory != null) {
+            return directory;
+        }
+
+        final File cacheDirectory = new File(Via.getPlatform().getDataFolder(), "cache" + File.separator + "mappings");
+        final String version = VersionInfo.getImplementationVersion().replaceAll("[^A-Za-z0-9._-]", "_");
+        final File[] files = cacheDirectory.listFiles();
+        if (files != null) {
+            // Remove caches of other builds
+            for (final File file : files) {
+                if (!file.getName().equals(version)) {
+                    deleteRecursively(file);
+                }
+            }
+        }
+
+        directory = new File(cacheDirectory, version);
+        directory.mkdirs();
+        return directory;
+    }
+
+    private static void deleteRecursively(final File file) {
+        final File[] files = file.listFiles();
+        if (files != null) {
+            for (final File child : files) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static Entries read(final ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            throw new IOException("Unknown cache format");
+        }
+
+        final Entries entries = new Entries();
+        final int size = buffer.getInt();
+        for (int i = 0; i < size; i++) {
+            final byte type = buffer.get();
+            final String key = readString(buffer);
+            switch (type) {
+                case MAPPINGS_ID: {
+                    final int mappedSize = buffer.getInt();
+                    entries.entries.put(key, IntArrayMappings.of(readIntArray(buffer), mappedSize));
+                    break;
+                }
+                case IDENTITY_ID: {
+                    final int mappingsSize = buffer.getInt();
+                    entries.entries.put(key, new IdentityMappings(mappingsSize, buffer.getInt()));
+                    break;
+                }
+                case IDENTIFIERS_ID: {
+                    final int identifiersSize = buffer.getInt();
+                    entries.putIdentifiers(key, splitIdentifiers(readString(buffer), identifiersSize));
+                    break;
+                }
+                case TAGS_ID: {
+                    final int tagsSize = buffer.getInt();
+                    final List<TagData> tags = new ArrayList<>(tagsSize);
+                    for (int j = 0; j < tagsSize; j++) {
+                        tags.add(new TagData(readString(buffer), readIntArray(buffer)));
+                    }
+                    entries.putTags(key, tags);
+                    break;
+                }
+                case INT_ARRAY_ID:
+                    entries.putIntArray(key, readIntArray(buffer));
+                    break;
+                default:
+                    throw new IOException("Unknown cache entry type " + type);
+            }
+        }
+        return entries;
+    }
+
+    private static void write(final DataOutputStream out, final Entries entries) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(entries.entries.size());
+        for (final Map.Entry<String, Object> entry : entries.entries.entrySet()) {
+            final Object value = entry.getValue();
+            if (value instanceof IdentityMappings) {
+                final Mappings mappings = (Mappings) value;
+                out.writeByte(IDENTITY_ID);
+                writeString(out, entry.getKey());
+                out.writeInt(mappings.size());
+                out.writeInt(mappings.mappedSize());
+            } else if (value instanceof Mappings) {
+                final Mappings mappings = (Mappings) value;
+                out.writeByte(MAPPINGS_ID);
+                writeString(out, entry.getKey());
+                out.writeInt(mappings.mappedSize());
+                out.writeInt(mappings.size());
+                for (int id = 0; id < mappings.size(); id++) {
+                    out.writeInt(mappings.getNewId(id));
+                }
+            } else if (value instanceof IdentifierList) {
+                final List<String> identifiers = ((IdentifierList) value).identifiers;
+                out.writeByte(IDENTIFIERS_ID);
+                writeString(out, entry.getKey());
+                out.writeInt(identifiers.size());
+                writeString(out, String.join(String.valueOf(IDENTIFIER_SEPARATOR), identifiers));
+            } else if (value instanceof int[]) {
+                final int[] array = (int[]) value;
+                out.writeByte(INT_ARRAY_ID);
+                writeString(out, entry.getKey());
+                out.writeInt(array.length);
+                for (final int i : array) {
+                    out.writeInt(i);
+                }
+            } else {
+                final List<TagData> tags = ((TagList) value).tags;
+                out.writeByte(TAGS_ID);
+                writeString(out, entry.getKey());
+                out.writeInt(tags.size());
+                for (final TagData tag : tags) {
+                    writeString(out, tag.identifier());
+                    out.writeInt(tag.entries().length);
+                    for (final int id : tag.entries()) {
+                        out.writeInt(id);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int[] readIntArray(final ByteBuffer buffer) {
+        final int[] array = new int[buffer.getInt()];
+        buffer.asIntBuffer().get(array);
+        buffer.position(buffer.position() + array.length * Integer.BYTES);
+        return array;
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(final DataOutputStream out, final String s) throws IOException {
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static List<String> splitIdentifiers(final String joined, final int size) {
+        final String[] identifiers = new String[size];
+        int start = 0;
+        for (int i = 0; i < size; i++) {
+            final int end = i == size - 1 ? joined.length() : joined.indexOf(IDENTIFIER_SEPARATOR, start);
+            identifiers[i] = joined.substring(start, end);
+            start = end + 1;
+        }
+        return Arrays.asList(identifiers);
+    }
+
+    /**
+     * Named mappings, identifier tables, tags and int arrays to be cached together.
+     */
+    public static final class Entries {
+        private final Map<String, Object> entries = new HashMap<>();
+
+        public void putMappings(final String key, @Nullable final Mappings mappings) {
+            if (mappings != null) {
+                entries.put(key, mappings);
+            }
+        }
+
+        public void putIdentifiers(final String key, final List<String> identifiers) {
+            entries.put(key, new IdentifierList(identifiers));
+        }
+
+        public void putTags(final String key, final List<TagData> tags) {
+            entries.put(key, new TagList(tags));
+        }
+
+        public void putIntArray(final String key, final int[] array) {
+            entries.put(key, array);
+        }
+
+        public @Nullable Mappings mappings(final String key) {
+            return (Mappings) entries.get(key);
+        }
+
+        public @Nullable List<String> identifiers(final String key) {
+            final IdentifierList identifiers = (IdentifierList) entries.get(key);
+            return identifiers != null ? identifiers.identifiers : null;
+        }
+
+        public @Nullable List<TagData> tags(final String key) {
+            final TagList tags = (TagList) entries.get(key);
+            return tags != null ? tags.tags : null;
+        }
+
+        public int @Nullable [] intArray(final String key) {
+            return (int[]) entries.get(key);
+        }
+    }
+
+    // Wrappers to tell the lists apart when writing
+    private static final class IdentifierList {
+        private final List<String> identifiers;
+
+        private IdentifierList(final List<String> identifiers) {
+            this.identifiers = identifiers;
+        }
+    }
+
+    private static final class TagList {
+        private final List<TagData> tags;
+
+        private TagList(final List<TagData> tags) {
+            this.tags = tags;
+        }
+    }
+}
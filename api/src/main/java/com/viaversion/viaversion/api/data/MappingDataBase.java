@@ -29,6 +29,7 @@ import com.github.steveice10.opennbt.tag.builtin.Tag;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.minecraft.RegistryType;
 import com.viaversion.viaversion.api.minecraft.TagData;
+import com.viaversion.viaversion.util.Key;
 import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
@@ -66,7 +67,16 @@ public class MappingDataBase implements MappingData {
             getLogger().info("Loading " + unmappedVersion + " -> " + mappedVersion + " mappings...");
         }
 
-        final CompoundTag data = readNBTFile("mappings-" + unmappedVersion + "to" + mappedVersion + ".nbt");
+        final String cacheName = cacheName();
+        if (cacheName != null) {
+            final MappingCache.Entries cached = MappingCache.read(cacheName);
+            if (cached != null) {
+                loadCached(cached);
+                return;
+            }
+        }
+
+        final CompoundTag data = readNBTFile(mappingsFileName());
         blockMappings = loadMappings(data, "blocks");
         blockStateMappings = loadMappings(data, "blockstates");
         blockEntityMappings = loadMappings(data, "blockentities");
@@ -104,15 +114,164 @@ public class MappingDataBase implements MappingData {
             loadTags(RegistryType.BLOCK, tagsTag);
         }
 
+        if (cacheName != null) {
+            // Cache before loading extras, as they are loaded again when read from the cache
+            MappingCache.write(cacheName, cacheEntries());
+        }
+
         loadExtras(data);
     }
 
+    private String mappingsFileName() {
+        return "mappings-" + unmappedVersion + "to" + mappedVersion + ".nbt";
+    }
+
+    /**
+     * Returns the name of this mapping data in the {@link MappingCache}, or null if it should not be cached.
+     * Mapping data is only cached if enabled in the config and if it is loaded from the bundled
+     * files through the default loading methods.
+     *
+     * @return cache name, or null if it should not be cached
+     */
+    protected @Nullable String cacheName() {
+        if (!Via.getConfig().isMappingCache() || overrides("readNBTFile", String.class)
+                || overrides("loadMappings", CompoundTag.class, String.class)
+                || overrides("loadBiMappings", CompoundTag.class, String.class)
+                || overrides("loadFullMappings", CompoundTag.class, CompoundTag.class, CompoundTag.class, String.class)) {
+            return null;
+        }
+        return getClass().getName() + "-" + unmappedVersion + "to" + mappedVersion;
+    }
+
+    /**
+     * Returns whether {@link #loadExtras(CompoundTag)} reads from the given mappings data. If not, an empty tag is
+     * passed when loading from the {@link MappingCache} instead of reading the mappings file.
+     *
+     * @return whether extras are loaded from the mappings data
+     */
+    protected boolean loadsExtrasFromMappingsData() {
+        return overrides("loadExtras", CompoundTag.class);
+    }
+
+    private boolean overrides(final String methodName, final Class<?>... parameterTypes) {
+        for (Class<?> clazz = getClass(); clazz != MappingDataBase.class; clazz = clazz.getSuperclass()) {
+            try {
+                clazz.getDeclaredMethod(methodName, parameterTypes);
+                return true;
+            } catch (final NoSuchMethodException ignored) {
+            }
+        }
+        return false;
+    }
+
+    private void loadCached(final MappingCache.Entries cached) {
+        blockMappings = compact(cached.mappings("blocks"));
+        blockStateMappings = compact(cached.mappings("blockstates"));
+        blockEntityMappings = compact(cached.mappings("blockentities"));
+        soundMappings = compact(cached.mappings("sounds"));
+        statisticsMappings = compact(cached.mappings("statistics"));
+        menuMappings = compact(cached.mappings("menus"));
+        enchantmentMappings = compact(cached.mappings("enchantments"));
+        paintingMappings = compact(cached.mappings("paintings"));
+        final Mappings items = compact(cached.mappings("items"));
+        itemMappings = items != null ? BiMappings.of(items) : null;
+
+        entityMappings = cachedFullMappings(cached, "entities");
+        argumentTypeMappings = cachedFullMappings(cached, "argumenttypes");
+        final Mappings particles = compact(cached.mappings("particles"));
+        if (particles != null) {
+            particleMappings = new ParticleMappings(cached.identifiers("particles.unmapped"), cached.identifiers("particles.mapped"), particles);
+        }
+
+        for (final RegistryType type : new RegistryType[]{RegistryType.ITEM, RegistryType.BLOCK}) {
+            final List<TagData> tagsList = cached.tags("tags." + type.resourceLocation());
+            if (tagsList != null) {
+                if (tags == null) {
+                    tags = new EnumMap<>(RegistryType.class);
+                }
+                tags.put(type, tagsList);
+            }
+        }
+
+        loadExtras(loadsExtrasFromMappingsData() ? readNBTFile(mappingsFileName()) : new CompoundTag());
+    }
+
+    private @Nullable FullMappings cachedFullMappings(final MappingCache.Entries cached, final String key) {
+        final Mappings mappings = cached.mappings(key);
+        return mappings != null ? new FullMappingsBase(cached.identifiers(key + ".unmapped"), cached.identifiers(key + ".mapped"), mappings) : null;
+    }
+
+    private MappingCache.Entries cacheEntries() {
+        final MappingCache.Entries entries = new MappingCache.Entries();
+        entries.putMappings("blocks", blockMappings);
+        entries.putMappings("blockstates", blockStateMappings);
+        entries.putMappings("blockentities", blockEntityMappings);
+        entries.putMappings("sounds", soundMappings);
+        entries.putMappings("statistics", statisticsMappings);
+        entries.putMappings("menus", menuMappings);
+        entries.putMappings("enchantments", enchantmentMappings);
+        entries.putMappings("paintings", paintingMappings);
+        entries.putMappings("items", itemMappings);
+        putFullMappings(entries, "entities", entityMappings);
+        putFullMappings(entries, "argumenttypes", argumentTypeMappings);
+        putFullMappings(entries, "particles", particleMappings);
+        if (tags != null) {
+            for (final Map.Entry<RegistryType, List<TagData>> entry : tags.entrySet()) {
+                entries.putTags("tags." + entry.getKey().resourceLocation(), entry.getValue());
+            }
+        }
+        return entries;
+    }
+
+    private void putFullMappings(final MappingCache.Entries entries, final String key, @Nullable final FullMappings mappings) {
+        if (mappings == null) {
+            return;
+        }
+
+        final List<String> identifiers = new ArrayList<>(mappings.size());
+        for (int id = 0; id < mappings.size(); id++) {
+            identifiers.add(Key.stripMinecraftNamespace(mappings.identifier(id)));
+        }
+        final List<String> mappedIdentifiers = new ArrayList<>(mappings.mappedSize());
+        for (int id = 0; id < mappings.mappedSize(); id++) {
+            mappedIdentifiers.add(Key.stripMinecraftNamespace(mappings.mappedIdentifier(id)));
+        }
+
+        entries.putMappings(key, mappings.mappings());
+        entries.putIdentifiers(key + ".unmapped", identifiers);
+        entries.putIdentifiers(key + ".mapped", mappedIdentifiers);
+    }
+
     protected @Nullable CompoundTag readNBTFile(final String name) {
         return MappingDataLoader.loadNBT(name);
     }
 
     protected @Nullable Mappings loadMappings(final CompoundTag data, final String key) {
-        return MappingDataLoader.loadMappings(data, key);
+        return compact(MappingDataLoader.loadMappings(data, key));
+    }
+
+    /**
+     * Returns the given mappings as {@link RangeMappings} if they are smaller than the dense array,
+     * or as configured by {@link com.viaversion.viaversion.api.configuration.ViaVersionConfig#getMappingStorage()}.
+     *
+     * @param mappings mappings
+     * @return mappings in the configured storage
+     */
+    protected @Nullable Mappings compact(@Nullable final Mappings mappings) {
+        if (!(mappings instanceof IntArrayMappings)) {
+            return mappings;
+        }
+
+        final int[] raw = ((IntArrayMappings) mappings).raw();
+        final String storage = Via.getConfig().getMappingStorage();
+        if (storage.equalsIgnoreCase("array")) {
+            return mappings;
+        } else if (storage.equalsIgnoreCase("ranges")) {
+            return RangeMappings.of(raw, mappings.mappedSize());
+        }
+
+        final RangeMappings rangeMappings = RangeMappings.ofIfSmaller(raw, mappings.mappedSize());
+        return rangeMappings != null ? rangeMappings : mappings;
     }
 
     protected @Nullable FullMappings loadFullMappings(final CompoundTag data, final CompoundTag unmappedIdentifiers, final CompoundTag mappedIdentifiers, final String key) {
@@ -44,30 +44,70 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.lang.ref.SoftReference;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class MappingDataLoader {
 
-    private static final Map<String, CompoundTag> MAPPINGS_CACHE = new HashMap<>();
+    // Shared by every Via instance and addon in the JVM, see retainCache
+    private static final Map<String, CachedTag> MAPPINGS_CACHE = new ConcurrentHashMap<>();
     private static final TagReader<CompoundTag> MAPPINGS_READER = NBTIO.reader(CompoundTag.class).named();
     private static final byte DIRECT_ID = 0;
     private static final byte SHIFTS_ID = 1;
     private static final byte CHANGES_ID = 2;
     private static final byte IDENTITY_ID = 3;
-    private static boolean cacheValid = true;
+    private static int cacheHolders;
 
     @Deprecated/*(forRemoval = true)*/
     public static void enableMappingsCache() {
         // Always enabled
     }
 
+    /**
+     * Keeps files loaded with caching enabled strongly referenced until released again.
+     * Every call has to be followed by a call to {@link #releaseCache()} once done loading mapping data.
+     * <p>
+     * Outside of that, loaded files are only softly referenced, so that protocols registered late or by
+     * other Via instances in the same JVM may still reuse them until the garbage collector needs the memory.
+     */
+    public static void retainCache() {
+        synchronized (MAPPINGS_CACHE) {
+            if (cacheHolders++ == 0) {
+                for (final CachedTag cachedTag : MAPPINGS_CACHE.values()) {
+                    cachedTag.setPinned(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases a hold on the cache previously acquired with {@link #retainCache()}.
+     * Once all holds are released, cached files are only kept softly referenced.
+     */
+    public static void releaseCache() {
+        synchronized (MAPPINGS_CACHE) {
+            if (cacheHolders == 0 || --cacheHolders != 0) {
+                return;
+            }
+
+            MAPPINGS_CACHE.values().removeIf(cachedTag -> !cachedTag.setPinned(false));
+            IdentifierTable.clearCache();
+        }
+    }
+
+    /**
+     * Drops all cached files and identifier tables, without releasing holds acquired with {@link #retainCache()}.
+     * Files are loaded again when next requested.
+     */
     public static void clearCache() {
-        MAPPINGS_CACHE.clear();
-        cacheValid = false;
+        synchronized (MAPPINGS_CACHE) {
+            MAPPINGS_CACHE.clear();
+            IdentifierTable.clearCache();
+        }
     }
 
     /**
@@ -111,22 +151,24 @@ public final class MappingDataLoader {
         }
     }
 
+    /**
+     * Loads the file from the bundled resources, reusing a previous cached load if still present.
+     *
+     * @param name  name of the file
+     * @param cache whether the file should be cached, strongly referenced while the cache is retained
+     * @return loaded tag, or null if not found
+     * @see #retainCache()
+     */
     public static @Nullable CompoundTag loadNBT(final String name, final boolean cache) {
-        if (!cacheValid) {
-            return loadNBTFromFile(name);
-        }
-
-        CompoundTag data = MAPPINGS_CACHE.get(name);
-        if (data != null) {
-            return data;
-        }
-
-        data = loadNBTFromFile(name);
-
-        if (cache && data != null) {
-            MAPPINGS_CACHE.put(name, data);
+        final CachedTag cachedTag;
+        synchronized (MAPPINGS_CACHE) {
+            if (cache) {
+                cachedTag = MAPPINGS_CACHE.computeIfAbsent(name, key -> new CachedTag(key, cacheHolders != 0));
+            } else {
+                cachedTag = MAPPINGS_CACHE.get(name);
+            }
         }
-        return data;
+        return cachedTag != null ? cachedTag.get() : loadNBTFromFile(name);
     }
 
     public static @Nullable CompoundTag loadNBT(final String name) {
@@ -334,6 +376,47 @@ public final class MappingDataLoader {
         return MappingDataLoader.class.getClassLoader().getResourceAsStream("assets/viaversion/data/" + name);
     }
 
+    private static final class CachedTag {
+        private final String name;
+        private SoftReference<CompoundTag> softReference = new SoftReference<>(null);
+        private CompoundTag strongReference;
+        private boolean pinned;
+
+        private CachedTag(final String name, final boolean pinned) {
+            this.name = name;
+            this.pinned = pinned;
+        }
+
+        synchronized @Nullable CompoundTag get() {
+            CompoundTag tag = softReference.get();
+            if (tag == null) {
+                tag = loadNBTFromFile(name);
+                if (tag == null) {
+                    return null;
+                }
+
+                softReference = new SoftReference<>(tag);
+            }
+            if (pinned) {
+                strongReference = tag;
+            }
+            return tag;
+        }
+
+        /**
+         * Sets whether the tag should be kept strongly referenced.
+         *
+         * @param pinned whether the tag should be kept strongly referenced
+         * @return whether the tag is still present
+         */
+        synchronized boolean setPinned(final boolean pinned) {
+            final CompoundTag tag = softReference.get();
+            this.pinned = pinned;
+            strongReference = this.pinned ? tag : null;
+            return tag != null;
+        }
+    }
+
     @FunctionalInterface
     public interface AddConsumer<T> {
 
@@ -90,6 +90,15 @@ public interface Mappings {
      */
     Mappings inverse();
 
+    /**
+     * Returns an estimate of the memory retained by the stored ids in bytes, not counting object headers.
+     *
+     * @return estimated retained memory in bytes
+     */
+    default long memoryUsage() {
+        return (long) size() * Integer.BYTES;
+    }
+
     static <T extends Mappings> Builder<T> builder(final MappingsSupplier<T> supplier) {
         return new Builder<>(supplier);
     }
@@ -0,0 +1,198 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.viaversion.viaversion.api.data;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Mappings stored as runs of consecutive ids that are shifted by the same amount, or are unmapped.
+ * <p>
+ * Lookups go through a table holding the run at the start of each block of 64 ids, followed by a short
+ * scan over the runs starting inside that block. Most mappings only consist of a few hundred shifted ranges,
+ * making this a fraction of the size of the dense array.
+ */
+public class RangeMappings implements Mappings {
+    private static final int BLOCK_BITS = 6;
+    private static final int UNMAPPED = Integer.MIN_VALUE;
+    private final int[] starts;
+    private final int[] shifts;
+    private final int[] blockRuns;
+    private final int size;
+    private final int mappedIds;
+    private Int2IntMap overrides;
+
+    protected RangeMappings(final int[] starts, final int[] shifts, final int size, final int mappedIds) {
+        this.starts = starts;
+        this.shifts = shifts;
+        this.size = size;
+        this.mappedIds = mappedIds;
+        this.blockRuns = new int[((size - 1) >> BLOCK_BITS) + 1];
+
+        int run = 0;
+        for (int block = 0; block < blockRuns.length; block++) {
+            final int firstId = block << BLOCK_BITS;
+            while (run + 1 < starts.length && starts[run + 1] <= firstId) {
+                run++;
+            }
+            blockRuns[block] = run;
+        }
+    }
+
+    /**
+     * Returns range mappings of the given dense mappings.
+     *
+     * @param mappings  mapped ids indexed by their unmapped id, -1 if unmapped
+     * @param mappedIds amount of mapped ids
+     * @return range mappings of the given mappings
+     */
+    public static RangeMappings of(final int[] mappings, final int mappedIds) {
+        final int runs = countRuns(mappings);
+        final int[] starts = new int[runs];
+        final int[] shifts = new int[runs];
+        int run = -1;
+        int previousShift = 0;
+        for (int id = 0; id < mappings.length; id++) {
+            final int shift = shift(id, mappings[id]);
+            if (id == 0 || shift != previousShift) {
+                run++;
+                starts[run] = id;
+                shifts[run] = shift;
+                previousShift = shift;
+            }
+        }
+        return new RangeMappings(starts, shifts, mappings.length, mappedIds);
+    }
+
+    /**
+     * Returns range mappings of the given dense mappings if they take up less memory than the array itself.
+     *
+     * @param mappings  mapped ids indexed by their unmapped id, -1 if unmapped
+     * @param mappedIds amount of mapped ids
+     * @return range mappings of the given mappings, or null if they would not be smaller
+     */
+    public static @Nullable RangeMappings ofIfSmaller(final int[] mappings, final int mappedIds) {
+        if (mappings.length == 0) {
+            return null;
+        }
+
+        // Starts and shifts per run, plus one run index per block
+        final long rangeSize = (long) countRuns(mappings) * 2 + ((mappings.length - 1) >> BLOCK_BITS) + 1;
+        return rangeSize < mappings.length ? of(mappings, mappedIds) : null;
+    }
+
+    private static int countRuns(final int[] mappings) {
+        int runs = 0;
+        int previousShift = 0;
+        for (int id = 0; id < mappings.length; id++) {
+            final int shift = shift(id, mappings[id]);
+            if (id == 0 || shift != previousShift) {
+                runs++;
+                previousShift = shift;
+            }
+        }
+        return runs;
+    }
+
+    private static int shift(final int id, final int mappedId) {
+        return mappedId == -1 ? UNMAPPED : mappedId - id;
+    }
+
+    @Override
+    public int getNewId(final int id) {
+        if (id < 0 || id >= size) {
+            return -1;
+        }
+
+        if (overrides != null) {
+            final int mappedId = overrides.get(id);
+            if (mappedId != UNMAPPED) {
+                return mappedId;
+            }
+        }
+
+        int run = blockRuns[id >> BLOCK_BITS];
+        while (run + 1 < starts.length && starts[run + 1] <= id) {
+            run++;
+        }
+
+        final int shift = shifts[run];
+        return shift != UNMAPPED ? id + shift : -1;
+    }
+
+    @Override
+    public void setNewId(final int id, final int mappedId) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Index " + id + " out of bounds for length " + size);
+        }
+
+        // Rare enough to not be worth splitting runs for
+        if (overrides == null) {
+            overrides = new Int2IntOpenHashMap();
+            overrides.defaultReturnValue(UNMAPPED);
+        }
+        overrides.put(id, mappedId);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int mappedSize() {
+        return mappedIds;
+    }
+
+    @Override
+    public Mappings inverse() {
+        final int[] inverse = new int[mappedIds];
+        Arrays.fill(inverse, -1);
+        for (int id = 0; id < size; id++) {
+            final int mappedId = getNewId(id);
+            if (mappedId != -1 && inverse[mappedId] == -1) {
+                inverse[mappedId] = id;
+            }
+        }
+
+        final RangeMappings rangeMappings = ofIfSmaller(inverse, size);
+        return rangeMappings != null ? rangeMappings : IntArrayMappings.of(inverse, size);
+    }
+
+    @Override
+    public long memoryUsage() {
+        final long overrideBytes = overrides != null ? (long) overrides.size() * 2 * Integer.BYTES : 0;
+        return (long) (starts.length + shifts.length + blockRuns.length) * Integer.BYTES + overrideBytes;
+    }
+
+    /**
+     * Returns the amount of runs of equally shifted or unmapped ids.
+     *
+     * @return amount of runs
+     */
+    public int runs() {
+        return starts.length;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.viaversion.viaversion.api.metrics;
+
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Metrics that never record anything.
+ */
+final class EmptyTransformMetrics implements TransformMetrics, PipelineStats {
+    static final EmptyTransformMetrics INSTANCE = new EmptyTransformMetrics();
+
+    private EmptyTransformMetrics() {
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public int sampleRate() {
+        return 1;
+    }
+
+    @Override
+    public PipelineStats pipeline(final Direction direction) {
+        return this;
+    }
+
+    @Override
+    public Map<Class<? extends Protocol>, TransformStats> protocols() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Map<String, TransformStats> packets(final Class<? extends Protocol> protocolClass) {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public long inputBytes() {
+        return 0;
+    }
+
+    @Override
+    public long outputBytes() {
+        return 0;
+    }
+
+    @Override
+    public long invocations() {
+        return 0;
+    }
+
+    @Override
+    public long cancellations() {
+        return 0;
+    }
+
+    @Override
+    public long samples() {
+        return 0;
+    }
+
+    @Override
+    public long sampledNanos() {
+        return 0;
+    }
+}
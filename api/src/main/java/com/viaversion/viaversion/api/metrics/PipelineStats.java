@@ -0,0 +1,54 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.viaversion.viaversion.api.metrics;
+
+/**
+ * Counters of packets passing through a whole protocol pipeline, including their sizes.
+ */
+public interface PipelineStats extends TransformStats {
+
+    /**
+     * Returns the summed up size of all packets before being transformed, including the packet id.
+     *
+     * @return input size in bytes
+     */
+    long inputBytes();
+
+    /**
+     * Returns the summed up size of all packets after being transformed, including the packet id.
+     * Cancelled packets do not count towards this.
+     *
+     * @return output size in bytes
+     */
+    long outputBytes();
+
+    /**
+     * Returns the amount of packets that no protocol had a handler for, and which were passed on with at most their id changed.
+     * These are included in the {@link #invocations()}.
+     *
+     * @return amount of passthrough packets
+     */
+    default long passthroughs() {
+        return 0;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.viaversion.viaversion.api.metrics;
+
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import java.util.Map;
+
+/**
+ * Transformation counters aggregated over all connections, per protocol and per packet type.
+ * <p>
+ * Metrics are only recorded if enabled in the config. Invocations, cancellations and sizes are always counted,
+ * while the time of a transformation is only measured for one in {@link #sampleRate()} transformations.
+ */
+public interface TransformMetrics {
+
+    /**
+     * Returns metrics that are never enabled and have no counters.
+     *
+     * @return empty metrics
+     */
+    static TransformMetrics empty() {
+        return EmptyTransformMetrics.INSTANCE;
+    }
+
+    /**
+     * Returns whether metrics are currently being recorded.
+     *
+     * @return true if metrics are being recorded
+     */
+    boolean isEnabled();
+
+    /**
+     * Returns how often transformations are timed, e.g. 64 to time about one in 64 transformations.
+     *
+     * @return sample rate, 1 to time every transformation
+     */
+    int sampleRate();
+
+    /**
+     * Returns the counters of whole protocol pipelines in the given direction.
+     * Passthrough packets, which are not handled by any protocol, are counted without being timed.
+     *
+     * @param direction packet direction
+     * @return pipeline counters of the given direction
+     */
+    PipelineStats pipeline(Direction direction);
+
+    /**
+     * Returns the counters of every protocol that has transformed a packet since the last reset.
+     *
+     * @return unmodifiable view of the counters by protocol class
+     */
+    Map<Class<? extends Protocol>, TransformStats> protocols();
+
+    /**
+     * Returns the counters of a protocol by its unmapped packet types,
+     * keyed by state, direction and packet name, e.g. {@code PLAY/CLIENTBOUND/CHUNK_DATA}.
+     * Packets without a known packet type are named by their hexadecimal packet id.
+     *
+     * @param protocolClass protocol class
+     * @return counters by packet, empty if the protocol has not transformed any packets
+     */
+    Map<String, TransformStats> packets(Class<? extends Protocol> protocolClass);
+
+    /**
+     * Resets all counters.
+     */
+    void reset();
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.viaversion.viaversion.api.metrics;
+
+/**
+ * Aggregated counters of packet transformations.
+ * <p>
+ * Counters are updated concurrently and read without a snapshot, so values read
+ * one after another may belong to slightly different points in time.
+ */
+public interface TransformStats {
+
+    /**
+     * Returns the amount of transformations, including cancelled ones.
+     *
+     * @return amount of transformations
+     */
+    long invocations();
+
+    /**
+     * Returns the amount of transformations that cancelled the packet.
+     *
+     * @return amount of cancelled transformations
+     */
+    long cancellations();
+
+    /**
+     * Returns the amount of transformations that were timed.
+     *
+     * @return amount of timed transformations
+     * @see TransformMetrics#sampleRate()
+     */
+    long samples();
+
+    /**
+     * Returns the summed up time of all timed transformations.
+     *
+     * @return summed up time of timed transformations in nanoseconds
+     */
+    long sampledNanos();
+
+    /**
+     * Returns the average time of a single transformation, estimated from the timed transformations.
+     *
+     * @return average time of a transformation in nanoseconds, or 0 if none have been timed
+     */
+    default long averageNanos() {
+        final long samples = samples();
+        return samples == 0 ? 0 : sampledNanos() / samples;
+    }
+
+    /**
+     * Returns the estimated total time spent on all transformations.
+     *
+     * @return estimated total time in nanoseconds
+     */
+    default long estimatedNanos() {
+        return averageNanos() * invocations();
+    }
+}
@@ -22,6 +22,8 @@
  */
 package com.viaversion.viaversion.api.minecraft.chunks;
 
+import java.util.function.IntUnaryOperator;
+
 public interface DataPalette {
 
     /**
@@ -92,6 +94,17 @@ public interface DataPalette {
      */
     void setIdByIndex(int index, int id);
 
+    /**
+     * Maps all ids in the palette with the given function.
+     *
+     * @param mapper function mapping old ids to new ids
+     */
+    default void mapIds(final IntUnaryOperator mapper) {
+        for (int i = 0; i < size(); i++) {
+            setIdByIndex(i, mapper.applyAsInt(idByIndex(i)));
+        }
+    }
+
     /**
      * Returns the palette index of the given section index.
      *
@@ -25,13 +25,14 @@ package com.viaversion.viaversion.api.minecraft.chunks;
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
 import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
-import it.unimi.dsi.fastutil.ints.IntList;
+import java.util.function.IntUnaryOperator;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class DataPaletteImpl implements DataPalette {
 
     private static final int DEFAULT_INITIAL_SIZE = 16;
 
-    private final IntList palette;
+    private final IntArrayList palette;
     private final Int2IntMap inversePalette;
     private final int sizeBits;
     private ChunkData values;
@@ -110,6 +111,21 @@ public final class DataPaletteImpl implements DataPalette {
         }
     }
 
+    @Override
+    public void mapIds(final IntUnaryOperator mapper) {
+        // Map all ids at once and only rebuild the inverse palette after
+        final int[] ids = palette.elements();
+        final int size = palette.size();
+        for (int i = 0; i < size; i++) {
+            ids[i] = mapper.applyAsInt(ids[i]);
+        }
+
+        inversePalette.clear();
+        for (int i = 0; i < size; i++) {
+            inversePalette.putIfAbsent(ids[i], i);
+        }
+    }
+
     @Override
     public void replaceId(final int oldId, final int newId) {
         final int index = inversePalette.remove(oldId);
@@ -135,9 +151,78 @@ public final class DataPaletteImpl implements DataPalette {
         inversePalette.clear();
     }
 
+    /**
+     * Sets the ids of all entries at once, building the palette in a single pass.
+     * The given array is overwritten with the resulting palette indexes.
+     *
+     * @param ids ids of all entries, at least as long as the section
+     */
+    public void setIds(final int[] ids) {
+        final int length = values.size();
+        int lastId = -1;
+        int lastIndex = -1;
+        for (int i = 0; i < length; i++) {
+            // Neighbouring entries are mostly the same
+            final int id = ids[i];
+            if (id != lastId) {
+                lastIndex = inversePalette.get(id);
+                if (lastIndex == -1) {
+                    lastIndex = palette.size();
+                    palette.add(id);
+                    inversePalette.put(id, lastIndex);
+                }
+                lastId = id;
+            }
+            ids[i] = lastIndex;
+        }
+
+        values = palette.size() <= 0x100 ? new ByteChunkData(ids, length) : new ShortChunkData(ids, length);
+    }
+
+    /**
+     * Writes the ids of all entries into the given array.
+     *
+     * @param output output, at least as long as the section
+     */
+    public void ids(final int[] output) {
+        values.ids(palette.elements(), output);
+    }
+
+    /**
+     * Sets the palette indexes to the given padded compact array, which is only unpacked once a value exceeds its bits.
+     * Until then, the array can be written back as is if the bits per value stay the same.
+     *
+     * @param data         padded compact array of palette indexes
+     * @param bitsPerValue bits per value
+     */
+    public void setPackedPaletteIndexes(final long[] data, final int bitsPerValue) {
+        values = new PackedChunkData(data, bitsPerValue, values.size());
+    }
+
+    /**
+     * Returns the palette indexes as a padded compact array if they are still packed with the given bits per value.
+     *
+     * @param bitsPerValue bits per value
+     * @return padded compact array of palette indexes, or null if it has to be created
+     */
+    public long @Nullable [] packedPaletteIndexes(final int bitsPerValue) {
+        if (values instanceof PackedChunkData) {
+            final PackedChunkData packedData = (PackedChunkData) values;
+            return packedData.bitsPerValue == bitsPerValue ? packedData.data : null;
+        }
+        return null;
+    }
+
     interface ChunkData {
         int get(int idx);
         void set(int idx, int val);
+        int size();
+
+        default void ids(int[] palette, int[] output) {
+            for (int i = 0; i < size(); i++) {
+                output[i] = palette[get(i)];
+            }
+        }
     }
 
     private class EmptyChunkData implements ChunkData {
@@ -153,6 +238,11 @@ public final class DataPaletteImpl implements DataPalette {
             return 0;
         }
 
+        @Override
+        public int size() {
+            return size;
+        }
+
         @Override
         public void set(int idx, int val) {
             if (val != 0) {
@@ -169,11 +259,30 @@ public final class DataPaletteImpl implements DataPalette {
             this.data = new byte[size];
         }
 
+        public ByteChunkData(int[] indexes, int size) {
+            this.data = new byte[size];
+            for (int i = 0; i < size; i++) {
+                data[i] = (byte) indexes[i];
+            }
+        }
+
         @Override
         public int get(int idx) {
             return data[idx] & 0xFF;
         }
 
+        @Override
+        public void ids(int[] palette, int[] output) {
+            for (int i = 0; i < data.length; i++) {
+                output[i] = palette[data[i] & 0xFF];
+            }
+        }
+
+        @Override
+        public int size() {
+            return data.length;
+        }
+
         @Override
         public void set(int idx, int val) {
             // Overflowed size of byte (over 256 different materials), go up to short
@@ -186,9 +295,61 @@ public final class DataPaletteImpl implements DataPalette {
         }
     }
 
+    private class PackedChunkData implements ChunkData {
+        private final long[] data;
+        private final int bitsPerValue;
+        private final int valuesPerLong;
+        private final long mask;
+        private final int size;
+
+        public PackedChunkData(long[] data, int bitsPerValue, int size) {
+            this.data = data;
+            this.bitsPerValue = bitsPerValue;
+            this.valuesPerLong = 64 / bitsPerValue;
+            this.mask = (1L << bitsPerValue) - 1L;
+            this.size = size;
+        }
+
+        @Override
+        public int get(int idx) {
+            final int cellIndex = idx / valuesPerLong;
+            final int bitIndex = (idx - cellIndex * valuesPerLong) * bitsPerValue;
+            return (int) (data[cellIndex] >>> bitIndex & mask);
+        }
+
+        @Override
+        public void set(int idx, int val) {
+            // Value doesn't fit into the packed bits anymore, unpack all
+            if ((val & ~mask) != 0) {
+                values = new EmptyChunkData(size);
+                for (int i = 0; i < size; i++) {
+                    values.set(i, get(i));
+                }
+                values.set(idx, val);
+                return;
+            }
+
+            final int cellIndex = idx / valuesPerLong;
+            final int bitIndex = (idx - cellIndex * valuesPerLong) * bitsPerValue;
+            data[cellIndex] = data[cellIndex] & ~(mask << bitIndex) | ((long) val & mask) << bitIndex;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
     private static class ShortChunkData implements ChunkData {
         private final short[] data;
 
+        public ShortChunkData(int[] indexes, int size) {
+            this.data = new short[size];
+            for (int i = 0; i < size; i++) {
+                data[i] = (short) indexes[i];
+            }
+        }
+
         public ShortChunkData(byte[] data) {
             this.data = new short[data.length];
             for (int i = 0; i < data.length; i++) {
@@ -201,6 +362,18 @@ public final class DataPaletteImpl implements DataPalette {
             return data[idx];
         }
 
+        @Override
+        public void ids(int[] palette, int[] output) {
+            for (int i = 0; i < data.length; i++) {
+                output[i] = palette[data[i]];
+            }
+        }
+
+        @Override
+        public int size() {
+            return data.length;
+        }
+
         @Override
         public void set(int idx, int val) {
             data[idx] = (short) val;
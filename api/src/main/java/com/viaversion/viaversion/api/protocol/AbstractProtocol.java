@@ -41,6 +41,8 @@ import com.viaversion.viaversion.api.protocol.remapper.PacketHandler;
 import com.viaversion.viaversion.api.rewriter.Rewriter;
 import com.viaversion.viaversion.exception.CancelException;
 import com.viaversion.viaversion.exception.InformativeException;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
@@ -60,6 +62,16 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  */
 public abstract class AbstractProtocol<CU extends ClientboundPacketType, CM extends ClientboundPacketType,
         SM extends ServerboundPacketType, SU extends ServerboundPacketType> implements Protocol<CU, CM, SM, SU> {
+    private static final ClassValue<Boolean> CUSTOM_TRANSFORM = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            try {
+                return type.getMethod("transform", Direction.class, State.class, PacketWrapper.class).getDeclaringClass() != AbstractProtocol.class;
+            } catch (final NoSuchMethodException e) {
+                return true;
+            }
+        }
+    };
     protected final Class<CU> unmappedClientboundPacketType;
     protected final Class<CM> mappedClientboundPacketType;
     protected final Class<SM> mappedServerboundPacketType;
@@ -68,6 +80,7 @@ public abstract class AbstractProtocol<CU extends ClientboundPacketType, CM exte
     protected final PacketMappings clientboundMappings;
     protected final PacketMappings serverboundMappings;
     private final Map<Class<?>, Object> storedObjects = new HashMap<>();
+    private final Map<State, IntSet> heavyClientbound = new EnumMap<>(State.class);
     private boolean initialized;
 
     @Deprecated
@@ -365,6 +378,54 @@ public abstract class AbstractProtocol<CU extends ClientboundPacketType, CM exte
         throw new IllegalArgumentException("Packet type " + packetType + " in " + packetType.getClass().getSimpleName() + " could not be automatically mapped!");
     }
 
+    /**
+     * Returns the packet mapping registered for the given packet.
+     *
+     * @param direction  packet direction
+     * @param state      protocol state
+     * @param unmappedId unmapped packet id
+     * @return packet mapping if present
+     */
+    public @Nullable PacketMapping packetMapping(Direction direction, State state, int unmappedId) {
+        PacketMappings mappings = direction == Direction.CLIENTBOUND ? clientboundMappings : serverboundMappings;
+        return mappings.mappedPacket(state, unmappedId);
+    }
+
+    /**
+     * Returns whether {@link #transform(Direction, State, PacketWrapper)} does nothing but apply the registered
+     * packet mappings in the given direction and state. Packets without handlers may then skip this protocol entirely.
+     * <p>
+     * Protocols overriding the transform method also have to override this method to be included.
+     *
+     * @param direction packet direction
+     * @param state     protocol state
+     * @return whether transformation only consists of applying the packet mappings
+     */
+    public boolean hasPlainTransform(Direction direction, State state) {
+        return !CUSTOM_TRANSFORM.get(getClass());
+    }
+
+    /**
+     * Marks the clientbound packet as expensive to transform, letting it be transformed off the network threads if enabled.
+     *
+     * @param packetType unmapped clientbound packet type
+     */
+    public void registerHeavyClientbound(CU packetType) {
+        heavyClientbound.computeIfAbsent(packetType.state(), state -> new IntOpenHashSet()).add(packetType.getId());
+    }
+
+    /**
+     * Returns whether the clientbound packet has been marked as expensive to transform.
+     *
+     * @param state            protocol state
+     * @param unmappedPacketId unmapped packet id
+     * @return whether the packet is expensive to transform
+     */
+    public boolean isHeavyClientbound(State state, int unmappedPacketId) {
+        final IntSet packetIds = heavyClientbound.get(state);
+        return packetIds != null && packetIds.contains(unmappedPacketId);
+    }
+
     @Override
     public boolean hasRegisteredClientbound(State state, int unmappedPacketId) {
         return clientboundMappings.hasMapping(state, unmappedPacketId);
@@ -289,7 +289,9 @@ public interface ProtocolManager {
 
     /**
      * Returns the data loading future bound to the protocol, or null if all loading is complete.
-     * The future may or may not have already been completed.
+     * The future may or may not have already been completed. Deferred loading is not started by this method,
+     * so there is no future yet if the protocol's loading has been deferred; use
+     * {@link #completeMappingDataLoading(Class)} to load and wait for the data instead.
      *
      * @param protocolClass protocol class
      * @return data loading future bound to the protocol, or null if all loading is complete
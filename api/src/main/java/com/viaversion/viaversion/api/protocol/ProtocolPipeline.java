@@ -23,6 +23,8 @@
 package com.viaversion.viaversion.api.protocol;
 
 import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.api.protocol.packet.State;
 import java.util.Collection;
 import java.util.List;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -87,6 +89,19 @@ public interface ProtocolPipeline extends SimpleProtocol {
      */
     boolean hasNonBaseProtocols();
 
+    /**
+     * Returns the packet id a packet will end up with after passing through this pipeline if no protocol
+     * has a packet handler for it, meaning its content can be passed on without being read.
+     *
+     * @param direction packet direction
+     * @param state     protocol state
+     * @param packetId  unmapped packet id
+     * @return mapped packet id, or -1 if the packet has to go through a packet wrapper
+     */
+    default int passthroughPacketId(Direction direction, State state, int packetId) {
+        return -1;
+    }
+
     /**
      * Cleans the pipe and adds the base protocol.
      * /!\ WARNING - It doesn't add version-specific base Protocol.
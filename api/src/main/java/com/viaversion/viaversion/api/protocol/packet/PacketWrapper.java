@@ -143,6 +143,321 @@ public interface PacketWrapper {
      */
     <T> T passthrough(Type<T> type) throws Exception;
 
+    /**
+     * Read a int from the input, avoiding boxing for {@link com.viaversion.viaversion.api.type.PrimitiveType}s.
+     *
+     * @param type The type you wish to read
+     * @return The read value
+     * @throws InformativeException If it fails to read
+     * @see #read(Type)
+     */
+    default int readInt(Type<Integer> type) throws Exception {
+        return read(type);
+    }
+
+    /**
+     * Write a int to the output, avoiding boxing for {@link com.viaversion.viaversion.api.type.PrimitiveType}s.
+     *
+     * @param type  The type to write.
+     * @param value The value of the type to write.
+     * @see #write(Type, Object)
+     */
+    default void writeInt(Type<Integer> type, int value) {
+        write(type, value);
+    }
+
+    /**
+     * Take a int from the input and write it to the output.
+     *
+     * @param type The type to read and write.
+     * @return The value which was read/written.
+     * @throws Exception If it failed to read or write
+     * @see #passthrough(Type)
+     */
+    default int passthroughInt(Type<Integer> type) throws Exception {
+        final int value = readInt(type);
+        writeInt(type, value);
+        return value;
+    }
+
+    /**
+     * Get a int from the output.
+     *
+     * @param type  The type of the part you wish to get.
+     * @param index The index of the part (relative to the type)
+     * @return The requested value
+     * @throws InformativeException If it fails to find it, an exception will be thrown.
+     * @see #get(Type, int)
+     */
+    default int getInt(Type<Integer> type, int index) throws Exception {
+        return get(type, index);
+    }
+
+    /**
+     * Set a currently existing int in the output.
+     *
+     * @param type  The type of the part you wish to set.
+     * @param index The index of the part (relative to the type)
+     * @param value The value of the part you wish to set it to.
+     * @throws InformativeException If it fails to set it, an exception will be thrown.
+     * @see #set(Type, int, Object)
+     */
+    default void setInt(Type<Integer> type, int index, int value) throws Exception {
+        set(type, index, value);
+    }
+
+    /**
+     * Read a long from the input, avoiding boxing for {@link com.viaversion.viaversion.api.type.PrimitiveType}s.
+     *
+     * @param type The type you wish to read
+     * @return The read value
+     * @throws InformativeException If it fails to read
+     * @see #read(Type)
+     */
+    default long readLong(Type<Long> type) throws Exception {
+        return read(type);
+    }
+
+    /**
+     * Write a long to the output, avoiding boxing for {@link com.viaversion.viaversion.api.type.PrimitiveType}s.
+     *
+     * @param type  The type to write.
+     * @param value The value of the type to write.
+     * @see #write(Type, Object)
+     */
+    default void writeLong(Type<Long> type, long value) {
+        write(type, value);
+    }
+
+    /**
+     * Take a long from the input and write it to the output.
+     *
+     * @param type The type to read and write.
+     * @return The value which was read/written.
+     * @throws Exception If it failed to read or write
+     * @see #passthrough(Type)
+     */
+    default long passthroughLong(Type<Long> type) throws Exception {
+        final long value = readLong(type);
+        writeLong(type, value);
+        return value;
+    }
+
+    /**
+     * Get a long from the output.
+     *
+     * @param type  The type of the part you wish to get.
+     * @param index The index of the part (relative to the type)
+     * @return The requested value
+     * @throws InformativeException If it fails to find it, an exception will be thrown.
+     * @see #get(Type, int)
+     */
+    default long getLong(Type<Long> type, int index) throws Exception {
+        return get(type, index);
+    }
+
+    /**
+     * Set a currently existing long in the output.
+     *
+     * @param type  The type of the part you wish to set.
+     * @param index The index of the part (relative to the type)
+     * @param value The value of the part you wish to set it to.
+     * @throws InformativeException If it fails to set it, an exception will be thrown.
+     * @see #set(Type, int, Object)
+     */
+    default void setLong(Type<Long> type, int index, long value) throws Exception {
+        set(type, index, value);
+    }
+
+    /**
+     * Read a float from the input, avoiding boxing for {@link com.viaversion.viaversion.api.type.PrimitiveType}s.
+     *
+     * @param type The type you wish to read
+     * @return The read value
+     * @throws InformativeException If it fails to read
+     * @see #read(Type)
+     */
+    default float readFloat(Type<Float> type) throws Exception {
+        return read(type);
+    }
+
+    /**
+     * Write a float to the output, avoiding boxing for {@link com.viaversion.viaversion.api.type.PrimitiveType}s.
+     *
+     * @param type  The type to write.
+     * @param value The value of the type to write.
+     * @see #write(Type, Object)
+     */
+    default void writeFloat(Type<Float> type, float value) {
+        write(type, value);
+    }
+
+    /**
+     * Take a float from the input and write it to the output.
+     *
+     * @param type The type to read and write.
+     * @return The value which was read/written.
+     * @throws Exception If it failed to read or write
+     * @see #passthrough(Type)
+     */
+    default float passthroughFloat(Type<Float> type) throws Exception {
+        final float value = readFloat(type);
+        writeFloat(type, value);
+        return value;
+    }
+
+    /**
+     * Get a float from the output.
+     *
+     * @param type  The type of the part you wish to get.
+     * @param index The index of the part (relative to the type)
+     * @return The requested value
+     * @throws InformativeException If it fails to find it, an exception will be thrown.
+     * @see #get(Type, int)
+     */
+    default float getFloat(Type<Float> type, int index) throws Exception {
+        return get(type, index);
+    }
+
+    /**
+     * Set a currently existing float in the output.
+     *
+     * @param type  The type of the part you wish to set.
+     * @param index The index of the part (relative to the type)
+     * @param value The value of the part you wish to set it to.
+     * @throws InformativeException If it fails to set it, an exception will be thrown.
+     * @see #set(Type, int, Object)
+     */
+    default void setFloat(Type<Float> type, int index, float value) throws Exception {
+        set(type, index, value);
+    }
+
+    /**
+     * Read a double from the input, avoiding boxing for {@link com.viaversion.viaversion.api.type.PrimitiveType}s.
+     *
+     * @param type The type you wish to read
+     * @return The read value
+     * @throws InformativeException If it fails to read
+     * @see #read(Type)
+     */
+    default double readDouble(Type<Double> type) throws Exception {
+        return read(type);
+    }
+
+    /**
+     * Write a double to the output, avoiding boxing for {@link com.viaversion.viaversion.api.type.PrimitiveType}s.
+     *
+     * @param type  The type to write.
+     * @param value The value of the type to write.
+     * @see #write(Type, Object)
+     */
+    default void writeDouble(Type<Double> type, double value) {
+        write(type, value);
+    }
+
+    /**
+     * Take a double from the input and write it to the output.
+     *
+     * @param type The type to read and write.
+     * @return The value which was read/written.
+     * @throws Exception If it failed to read or write
+     * @see #passthrough(Type)
+     */
+    default double passthroughDouble(Type<Double> type) throws Exception {
+        final double value = readDouble(type);
+        writeDouble(type, value);
+        return value;
+    }
+
+    /**
+     * Get a double from the output.
+     *
+     * @param type  The type of the part you wish to get.
+     * @param index The index of the part (relative to the type)
+     * @return The requested value
+     * @throws InformativeException If it fails to find it, an exception will be thrown.
+     * @see #get(Type, int)
+     */
+    default double getDouble(Type<Double> type, int index) throws Exception {
+        return get(type, index);
+    }
+
+    /**
+     * Set a currently existing double in the output.
+     *
+     * @param type  The type of the part you wish to set.
+     * @param index The index of the part (relative to the type)
+     * @param value The value of the part you wish to set it to.
+     * @throws InformativeException If it fails to set it, an exception will be thrown.
+     * @see #set(Type, int, Object)
+     */
+    default void setDouble(Type<Double> type, int index, double value) throws Exception {
+        set(type, index, value);
+    }
+
+    /**
+     * Read a boolean from the input, avoiding boxing for {@link com.viaversion.viaversion.api.type.PrimitiveType}s.
+     *
+     * @param type The type you wish to read
+     * @return The read value
+     * @throws InformativeException If it fails to read
+     * @see #read(Type)
+     */
+    default boolean readBoolean(Type<Boolean> type) throws Exception {
+        return read(type);
+    }
+
+    /**
+     * Write a boolean to the output, avoiding boxing for {@link com.viaversion.viaversion.api.type.PrimitiveType}s.
+     *
+     * @param type  The type to write.
+     * @param value The value of the type to write.
+     * @see #write(Type, Object)
+     */
+    default void writeBoolean(Type<Boolean> type, boolean value) {
+        write(type, value);
+    }
+
+    /**
+     * Take a boolean from the input and write it to the output.
+     *
+     * @param type The type to read and write.
+     * @return The value which was read/written.
+     * @throws Exception If it failed to read or write
+     * @see #passthrough(Type)
+     */
+    default boolean passthroughBoolean(Type<Boolean> type) throws Exception {
+        final boolean value = readBoolean(type);
+        writeBoolean(type, value);
+        return value;
+    }
+
+    /**
+     * Get a boolean from the output.
+     *
+     * @param type  The type of the part you wish to get.
+     * @param index The index of the part (relative to the type)
+     * @return The requested value
+     * @throws InformativeException If it fails to find it, an exception will be thrown.
+     * @see #get(Type, int)
+     */
+    default boolean getBoolean(Type<Boolean> type, int index) throws Exception {
+        return get(type, index);
+    }
+
+    /**
+     * Set a currently existing boolean in the output.
+     *
+     * @param type  The type of the part you wish to set.
+     * @param index The index of the part (relative to the type)
+     * @param value The value of the part you wish to set it to.
+     * @throws InformativeException If it fails to set it, an exception will be thrown.
+     * @see #set(Type, int, Object)
+     */
+    default void setBoolean(Type<Boolean> type, int index, boolean value) throws Exception {
+        set(type, index, value);
+    }
+
     /**
      * Take all the inputs and write them to the output.
      *
@@ -46,6 +46,17 @@ public interface PacketMapping {
      */
     @Nullable PacketHandler handler();
 
+    /**
+     * Returns the packet id after applying this mapping.
+     * Mappings changing the packet id have to override this, by default the id is kept as is.
+     *
+     * @param unmappedPacketId unmapped packet id
+     * @return mapped packet id, or the given id if this mapping does not change it
+     */
+    default int mappedPacketId(int unmappedPacketId) {
+        return unmappedPacketId;
+    }
+
     static PacketMapping of(final int mappedPacketId, @Nullable final PacketHandler handler) {
         return new PacketIdMapping(mappedPacketId, handler);
     }
@@ -43,6 +43,11 @@ final class PacketTypeMapping implements PacketMapping {
         }
     }
 
+    @Override
+    public int mappedPacketId(final int unmappedPacketId) {
+        return mappedPacketType != null ? mappedPacketType.getId() : unmappedPacketId;
+    }
+
     @Override
     public @Nullable PacketHandler handler() {
         return handler;
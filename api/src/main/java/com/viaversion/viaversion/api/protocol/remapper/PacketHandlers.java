@@ -23,6 +23,7 @@
 package com.viaversion.viaversion.api.protocol.remapper;
 
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
+import com.viaversion.viaversion.api.type.PrimitiveType;
 import com.viaversion.viaversion.api.type.Type;
 import java.util.ArrayList;
 import java.util.List;
@@ -51,6 +52,10 @@ public abstract class PacketHandlers implements PacketHandler {
      * @param type type to map
      */
     public <T> void map(Type<T> type) {
+        if (type instanceof PrimitiveType<?>) {
+            map(type, type);
+            return;
+        }
         handler(wrapper -> wrapper.write(type, wrapper.read(type)));
     }
 
@@ -61,6 +66,26 @@ public abstract class PacketHandlers implements PacketHandler {
      * @param newType new type
      */
     public void map(Type oldType, Type newType) {
+        if (oldType instanceof PrimitiveType<?> && newType instanceof PrimitiveType<?> && oldType.getOutputClass() == newType.getOutputClass()) {
+            // Avoid boxing the value
+            final Class<?> outputClass = oldType.getOutputClass();
+            if (outputClass == Integer.class) {
+                handler(wrapper -> wrapper.writeInt(newType, wrapper.readInt(oldType)));
+                return;
+            } else if (outputClass == Long.class) {
+                handler(wrapper -> wrapper.writeLong(newType, wrapper.readLong(oldType)));
+                return;
+            } else if (outputClass == Float.class) {
+                handler(wrapper -> wrapper.writeFloat(newType, wrapper.readFloat(oldType)));
+                return;
+            } else if (outputClass == Double.class) {
+                handler(wrapper -> wrapper.writeDouble(newType, wrapper.readDouble(oldType)));
+                return;
+            } else if (outputClass == Boolean.class) {
+                handler(wrapper -> wrapper.writeBoolean(newType, wrapper.readBoolean(oldType)));
+                return;
+            }
+        }
         handler(wrapper -> wrapper.write(newType, wrapper.read(oldType)));
     }
 
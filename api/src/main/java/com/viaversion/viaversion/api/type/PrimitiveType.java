@@ -0,0 +1,53 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.viaversion.viaversion.api.type;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A type whose values can be read and written without boxing them.
+ * <p>
+ * Values are passed around as raw long bits, determined by the type's output class:
+ * integral values as their sign extended value, floats and doubles as their raw IEEE 754 bits, and booleans as 0 or 1.
+ * Types sharing the same output class must use the same raw representation.
+ *
+ * @param <T> boxed type
+ */
+public interface PrimitiveType<T> {
+
+    /**
+     * Reads a value from the buffer as raw bits.
+     *
+     * @param buffer buffer to read from
+     * @return raw value bits
+     */
+    long readRaw(ByteBuf buffer);
+
+    /**
+     * Writes the raw value bits to the buffer.
+     *
+     * @param buffer buffer to write to
+     * @param raw    raw value bits
+     */
+    void writeRaw(ByteBuf buffer, long raw);
+}
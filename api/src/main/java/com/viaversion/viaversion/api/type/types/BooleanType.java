@@ -22,11 +22,12 @@
  */
 package com.viaversion.viaversion.api.type.types;
 
+import com.viaversion.viaversion.api.type.PrimitiveType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 
-public class BooleanType extends Type<Boolean> implements TypeConverter<Boolean> {
+public class BooleanType extends Type<Boolean> implements TypeConverter<Boolean>, PrimitiveType<Boolean> {
     public BooleanType() {
         super(Boolean.class);
     }
@@ -42,6 +43,16 @@ public class BooleanType extends Type<Boolean> implements TypeConverter<Boolean>
     }
 
 
+    @Override
+    public long readRaw(ByteBuf buffer) {
+        return buffer.readBoolean() ? 1 : 0;
+    }
+
+    @Override
+    public void writeRaw(ByteBuf buffer, long raw) {
+        buffer.writeBoolean(raw != 0);
+    }
+
     @Override
     public Boolean from(Object o) {
         if (o instanceof Number) {
@@ -22,11 +22,12 @@
  */
 package com.viaversion.viaversion.api.type.types;
 
+import com.viaversion.viaversion.api.type.PrimitiveType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 
-public class DoubleType extends Type<Double> implements TypeConverter<Double> {
+public class DoubleType extends Type<Double> implements TypeConverter<Double>, PrimitiveType<Double> {
 
     public DoubleType() {
         super(Double.class);
@@ -58,6 +59,17 @@ public class DoubleType extends Type<Double> implements TypeConverter<Double> {
         buffer.writeDouble(object);
     }
 
+    @Override
+    public long readRaw(ByteBuf buffer) {
+        // Double bits are the long bits
+        return buffer.readLong();
+    }
+
+    @Override
+    public void writeRaw(ByteBuf buffer, long raw) {
+        buffer.writeLong(raw);
+    }
+
     @Override
     public Double from(Object o) {
         if (o instanceof Number) {
@@ -23,11 +23,12 @@
 package com.viaversion.viaversion.api.type.types;
 
 import com.viaversion.viaversion.api.type.OptionalType;
+import com.viaversion.viaversion.api.type.PrimitiveType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 
-public class FloatType extends Type<Float> implements TypeConverter<Float> {
+public class FloatType extends Type<Float> implements TypeConverter<Float>, PrimitiveType<Float> {
 
     public FloatType() {
         super(Float.class);
@@ -59,6 +60,17 @@ public class FloatType extends Type<Float> implements TypeConverter<Float> {
         buffer.writeFloat(object);
     }
 
+    @Override
+    public long readRaw(ByteBuf buffer) {
+        // Float bits are the int bits
+        return buffer.readInt();
+    }
+
+    @Override
+    public void writeRaw(ByteBuf buffer, long raw) {
+        buffer.writeInt((int) raw);
+    }
+
     @Override
     public Float from(Object o) {
         if (o instanceof Number) {
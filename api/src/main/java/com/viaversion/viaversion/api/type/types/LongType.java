@@ -22,11 +22,12 @@
  */
 package com.viaversion.viaversion.api.type.types;
 
+import com.viaversion.viaversion.api.type.PrimitiveType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 
-public class LongType extends Type<Long> implements TypeConverter<Long> {
+public class LongType extends Type<Long> implements TypeConverter<Long>, PrimitiveType<Long> {
 
     public LongType() {
         super(Long.class);
@@ -50,6 +51,16 @@ public class LongType extends Type<Long> implements TypeConverter<Long> {
         buffer.writeLong(object);
     }
 
+    @Override
+    public long readRaw(ByteBuf buffer) {
+        return buffer.readLong();
+    }
+
+    @Override
+    public void writeRaw(ByteBuf buffer, long raw) {
+        buffer.writeLong(raw);
+    }
+
     @Override
     public Long from(Object o) {
         if (o instanceof Number) {
@@ -22,11 +22,12 @@
  */
 package com.viaversion.viaversion.api.type.types;
 
+import com.viaversion.viaversion.api.type.PrimitiveType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 
-public class UnsignedShortType extends Type<Integer> implements TypeConverter<Integer> {
+public class UnsignedShortType extends Type<Integer> implements TypeConverter<Integer>, PrimitiveType<Integer> {
     public UnsignedShortType() {
         super(Integer.class);
     }
@@ -41,6 +42,16 @@ public class UnsignedShortType extends Type<Integer> implements TypeConverter<In
         buffer.writeShort(object);
     }
 
+    @Override
+    public long readRaw(ByteBuf buffer) {
+        return buffer.readUnsignedShort();
+    }
+
+    @Override
+    public void writeRaw(ByteBuf buffer, long raw) {
+        buffer.writeShort((int) raw);
+    }
+
     @Override
     public Integer from(Object o) {
         if (o instanceof Number) {
@@ -22,11 +22,12 @@
  */
 package com.viaversion.viaversion.api.type.types;
 
+import com.viaversion.viaversion.api.type.PrimitiveType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 
-public class VarIntType extends Type<Integer> implements TypeConverter<Integer> {
+public class VarIntType extends Type<Integer> implements TypeConverter<Integer>, PrimitiveType<Integer> {
 
     private static final int CONTINUE_BIT = 0x80;
     private static final int VALUE_BITS = 0x7F;
@@ -79,6 +80,16 @@ public class VarIntType extends Type<Integer> implements TypeConverter<Integer>
         writePrimitive(buffer, object);
     }
 
+    @Override
+    public long readRaw(ByteBuf buffer) {
+        return readPrimitive(buffer);
+    }
+
+    @Override
+    public void writeRaw(ByteBuf buffer, long raw) {
+        writePrimitive(buffer, (int) raw);
+    }
+
     @Override
     public Integer from(Object o) {
         if (o instanceof Number) {
@@ -22,11 +22,12 @@
  */
 package com.viaversion.viaversion.api.type.types;
 
+import com.viaversion.viaversion.api.type.PrimitiveType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import io.netty.buffer.ByteBuf;
 
-public class VarLongType extends Type<Long> implements TypeConverter<Long> {
+public class VarLongType extends Type<Long> implements TypeConverter<Long>, PrimitiveType<Long> {
 
     public VarLongType() {
         super("VarLong", Long.class);
@@ -80,6 +81,16 @@ public class VarLongType extends Type<Long> implements TypeConverter<Long> {
         writePrimitive(buffer, object);
     }
 
+    @Override
+    public long readRaw(ByteBuf buffer) {
+        return readPrimitive(buffer);
+    }
+
+    @Override
+    public void writeRaw(ByteBuf buffer, long raw) {
+        writePrimitive(buffer, raw);
+    }
+
     @Override
     public Long from(Object o) {
         if (o instanceof Number) {
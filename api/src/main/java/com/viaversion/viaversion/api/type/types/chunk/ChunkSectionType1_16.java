@@ -25,6 +25,7 @@ package com.viaversion.viaversion.api.type.types.chunk;
 import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
 import com.viaversion.viaversion.api.minecraft.chunks.ChunkSectionImpl;
 import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
+import com.viaversion.viaversion.api.minecraft.chunks.DataPaletteImpl;
 import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.util.CompactArrayUtil;
@@ -67,8 +68,20 @@ public class ChunkSectionType1_16 extends Type<ChunkSection> {
             int expectedLength = (ChunkSection.SIZE + valuesPerLong - 1) / valuesPerLong;
             if (blockData.length == expectedLength) {
                 DataPalette blockPalette = chunkSection.palette(PaletteType.BLOCKS);
-                CompactArrayUtil.iterateCompactArrayWithPadding(bitsPerBlock, ChunkSection.SIZE, blockData,
-                        bitsPerBlock == GLOBAL_PALETTE ? blockPalette::setIdAt : blockPalette::setPaletteIndexAt);
+                if (blockPalette instanceof DataPaletteImpl) {
+                    DataPaletteImpl paletteImpl = (DataPaletteImpl) blockPalette;
+                    if (bitsPerBlock == GLOBAL_PALETTE) {
+                        int[] ids = CompactArrayUtil.scratchBuffer(ChunkSection.SIZE);
+                        CompactArrayUtil.unpackWithPadding(bitsPerBlock, ChunkSection.SIZE, blockData, ids);
+                        paletteImpl.setIds(ids);
+                    } else {
+                        // Only unpacked if needed, most rewriters only change the palette
+                        paletteImpl.setPackedPaletteIndexes(blockData, bitsPerBlock);
+                    }
+                } else {
+                    CompactArrayUtil.iterateCompactArrayWithPadding(bitsPerBlock, ChunkSection.SIZE, blockData,
+                            bitsPerBlock == GLOBAL_PALETTE ? blockPalette::setIdAt : blockPalette::setPaletteIndexAt);
+                }
             }
         }
 
@@ -97,8 +110,21 @@ public class ChunkSectionType1_16 extends Type<ChunkSection> {
             }
         }
 
-        long[] data = CompactArrayUtil.createCompactArrayWithPadding(bitsPerBlock, ChunkSection.SIZE,
-                bitsPerBlock == GLOBAL_PALETTE ? blockPalette::idAt : blockPalette::paletteIndexAt);
+        long[] data = null;
+        if (blockPalette instanceof DataPaletteImpl) {
+            DataPaletteImpl paletteImpl = (DataPaletteImpl) blockPalette;
+            if (bitsPerBlock == GLOBAL_PALETTE) {
+                int[] ids = CompactArrayUtil.scratchBuffer(ChunkSection.SIZE);
+                paletteImpl.ids(ids);
+                data = CompactArrayUtil.packWithPadding(bitsPerBlock, ChunkSection.SIZE, ids);
+            } else {
+                data = paletteImpl.packedPaletteIndexes(bitsPerBlock);
+            }
+        }
+        if (data == null) {
+            data = CompactArrayUtil.createCompactArrayWithPadding(bitsPerBlock, ChunkSection.SIZE,
+                    bitsPerBlock == GLOBAL_PALETTE ? blockPalette::idAt : blockPalette::paletteIndexAt);
+        }
         Type.LONG_ARRAY_PRIMITIVE.write(buffer, data);
     }
 }
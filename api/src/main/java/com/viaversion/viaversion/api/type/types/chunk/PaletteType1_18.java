@@ -75,8 +75,14 @@ public final class PaletteType1_18 extends Type<DataPalette> {
             final int valuesPerLong = (char) (64 / bitsPerValue);
             final int expectedLength = (type.size() + valuesPerLong - 1) / valuesPerLong;
             if (values.length == expectedLength) { // Thanks, Hypixel
-                CompactArrayUtil.iterateCompactArrayWithPadding(bitsPerValue, type.size(), values,
-                        bitsPerValue == globalPaletteBits ? palette::setIdAt : palette::setPaletteIndexAt);
+                if (bitsPerValue == globalPaletteBits) {
+                    final int[] ids = CompactArrayUtil.scratchBuffer(type.size());
+                    CompactArrayUtil.unpackWithPadding(bitsPerValue, type.size(), values, ids);
+                    palette.setIds(ids);
+                } else {
+                    // Only unpacked if needed, most rewriters only change the palette
+                    palette.setPackedPaletteIndexes(values, bitsPerValue);
+                }
             }
         }
         return palette;
@@ -110,6 +116,20 @@ public final class PaletteType1_18 extends Type<DataPalette> {
             }
         }
 
-        Type.LONG_ARRAY_PRIMITIVE.write(buffer, CompactArrayUtil.createCompactArrayWithPadding(bitsPerValue, type.size(), bitsPerValue == globalPaletteBits ? palette::idAt : palette::paletteIndexAt));
+        long[] data = null;
+        if (palette instanceof DataPaletteImpl) {
+            final DataPaletteImpl paletteImpl = (DataPaletteImpl) palette;
+            if (bitsPerValue == globalPaletteBits) {
+                final int[] ids = CompactArrayUtil.scratchBuffer(type.size());
+                paletteImpl.ids(ids);
+                data = CompactArrayUtil.packWithPadding(bitsPerValue, type.size(), ids);
+            } else {
+                data = paletteImpl.packedPaletteIndexes(bitsPerValue);
+            }
+        }
+        if (data == null) {
+            data = CompactArrayUtil.createCompactArrayWithPadding(bitsPerValue, type.size(), bitsPerValue == globalPaletteBits ? palette::idAt : palette::paletteIndexAt);
+        }
+        Type.LONG_ARRAY_PRIMITIVE.write(buffer, data);
     }
 }
@@ -47,10 +47,73 @@ public final class CompactArrayUtil {
             0, 0, 0, 0, 0, 0, 0, 5
     };
 
+    private static final ThreadLocal<int[]> SCRATCH_BUFFER = ThreadLocal.withInitial(() -> new int[4096]);
+
     private CompactArrayUtil() {
         throw new AssertionError();
     }
 
+    /**
+     * Returns a thread local buffer of at least the given length to unpack values into.
+     * Its contents are only valid until the next call on the same thread.
+     *
+     * @param length minimum length
+     * @return thread local buffer
+     */
+    public static int[] scratchBuffer(int length) {
+        int[] buffer = SCRATCH_BUFFER.get();
+        if (buffer.length < length) {
+            buffer = new int[length];
+            SCRATCH_BUFFER.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Packs the given values into a compact array with padding, word by word.
+     *
+     * @param bitsPerEntry bits per entry
+     * @param entries      number of entries
+     * @param values       values, at least entries long
+     * @return compact array with padding
+     */
+    public static long[] packWithPadding(int bitsPerEntry, int entries, int[] values) {
+        long maxEntryValue = (1L << bitsPerEntry) - 1;
+        int valuesPerLong = 64 / bitsPerEntry;
+        long[] data = new long[(entries + valuesPerLong - 1) / valuesPerLong];
+        int i = 0;
+        for (int cellIndex = 0; cellIndex < data.length; cellIndex++) {
+            int end = Math.min(entries, i + valuesPerLong);
+            long word = 0;
+            for (int bitIndex = 0; i < end; i++, bitIndex += bitsPerEntry) {
+                word |= (values[i] & maxEntryValue) << bitIndex;
+            }
+            data[cellIndex] = word;
+        }
+        return data;
+    }
+
+    /**
+     * Unpacks a compact array with padding into the given output, word by word.
+     *
+     * @param bitsPerEntry bits per entry
+     * @param entries      number of entries
+     * @param data         compact array with padding
+     * @param output       output, at least entries long
+     */
+    public static void unpackWithPadding(int bitsPerEntry, int entries, long[] data, int[] output) {
+        long maxEntryValue = (1L << bitsPerEntry) - 1;
+        int valuesPerLong = 64 / bitsPerEntry;
+        int i = 0;
+        for (int cellIndex = 0; i < entries; cellIndex++) {
+            int end = Math.min(entries, i + valuesPerLong);
+            long word = data[cellIndex];
+            for (; i < end; i++, word >>>= bitsPerEntry) {
+                output[i] = (int) (word & maxEntryValue);
+            }
+        }
+    }
+
     public static long[] createCompactArrayWithPadding(int bitsPerEntry, int entries, IntToLongFunction valueGetter) {
         long maxEntryValue = (1L << bitsPerEntry) - 1;
         char valuesPerLong = (char) (64 / bitsPerEntry);
@@ -0,0 +1,29 @@
+plugins {
+    java
+    id("me.champeau.jmh")
+}
+
+// The benchmarks are bootstrapped with the dummy platform of the common tests
+evaluationDependsOn(":viaversion-common")
+
+dependencies {
+    jmh(projects.viaversionCommon)
+    jmh(project(":viaversion-common").sourceSets.test.get().output)
+    jmh(rootProject.libs.netty)
+    jmh(rootProject.libs.guava)
+    jmh(rootProject.libs.snakeYaml2)
+}
+
+java {
+    javaTarget(8)
+}
+
+tasks.withType<JavaCompile> {
+    options.encoding = Charsets.UTF_8.name()
+}
+
+jmh {
+    jmhVersion.set(rootProject.libs.versions.jmh)
+    // Only run selected benchmarks with e.g. -PjmhIncludes=PipelineBenchmark
+    findProperty("jmhIncludes")?.let { includes.add(it as String) }
+}
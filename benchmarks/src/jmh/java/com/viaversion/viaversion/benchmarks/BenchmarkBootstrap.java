@@ -0,0 +1,76 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.benchmarks;
+
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.ProtocolPathEntry;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import com.viaversion.viaversion.common.dummy.DummyInitializer;
+import com.viaversion.viaversion.connection.UserConnectionImpl;
+import com.viaversion.viaversion.protocol.ProtocolPipelineImpl;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sets up Via with the dummy platform of the common tests and creates connections without a channel.
+ */
+public final class BenchmarkBootstrap {
+
+    private BenchmarkBootstrap() {
+    }
+
+    public static void init() {
+        DummyInitializer.init();
+    }
+
+    /**
+     * Returns a playing connection with the protocol pipeline for the given versions,
+     * waiting for all mappings of the pipeline's protocols to be loaded.
+     *
+     * @param clientVersion client version
+     * @param serverVersion server version
+     * @return user connection in the play state
+     * @throws Exception if mapping data fails to load
+     */
+    public static UserConnection playConnection(final ProtocolVersion clientVersion, final ProtocolVersion serverVersion) throws Exception {
+        init();
+
+        final List<ProtocolPathEntry> path = Via.getManager().getProtocolManager().getProtocolPath(clientVersion.getVersion(), serverVersion.getVersion());
+        if (path == null) {
+            throw new IllegalArgumentException("No protocol path from " + serverVersion + " to " + clientVersion);
+        }
+
+        final List<Protocol> protocols = new ArrayList<>(path.size());
+        for (final ProtocolPathEntry entry : path) {
+            Via.getManager().getProtocolManager().completeMappingDataLoading(entry.protocol().getClass());
+            protocols.add(entry.protocol());
+        }
+
+        final UserConnection connection = new UserConnectionImpl(null);
+        final ProtocolPipelineImpl pipeline = new ProtocolPipelineImpl(connection);
+        connection.getProtocolInfo().setProtocolVersion(clientVersion.getVersion());
+        connection.getProtocolInfo().setServerProtocolVersion(serverVersion.getVersion());
+        pipeline.add(protocols);
+        pipeline.add(Via.getManager().getProtocolManager().getBaseProtocol(serverVersion.getVersion()));
+        connection.getProtocolInfo().setState(State.PLAY);
+        return connection;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.benchmarks;
+
+import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import com.viaversion.viaversion.api.minecraft.chunks.Chunk;
+import com.viaversion.viaversion.api.minecraft.chunks.Chunk1_18;
+import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
+import com.viaversion.viaversion.api.minecraft.chunks.ChunkSectionImpl;
+import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
+import com.viaversion.viaversion.api.minecraft.chunks.DataPaletteImpl;
+import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
+import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.api.type.types.chunk.ChunkType1_18;
+import com.viaversion.viaversion.util.CompactArrayUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkBenchmark {
+    private static final int SECTIONS = 24;
+    private static final int GLOBAL_BLOCK_BITS = 15;
+    private static final int GLOBAL_BIOME_BITS = 6;
+    private final Type<Chunk> chunkType = new ChunkType1_18(SECTIONS, GLOBAL_BLOCK_BITS, GLOBAL_BIOME_BITS);
+    private final ByteBuf output = Unpooled.buffer();
+
+    // Amount of distinct block states per section; 1 for a single value palette, 256+ for the global palette
+    @Param({"1", "16", "300"})
+    public int paletteSize;
+
+    private Chunk chunk;
+    private ByteBuf chunkData;
+    private DataPalette palette;
+    private int bitsPerEntry;
+    private int[] values;
+    private int[] ids;
+    private long[] compactValues;
+
+    @Setup
+    public void setup() throws Exception {
+        final Random random = new Random(0);
+        final ChunkSection[] sections = new ChunkSection[SECTIONS];
+        for (int i = 0; i < SECTIONS; i++) {
+            final ChunkSection section = new ChunkSectionImpl(false, paletteSize);
+            fill(section.palette(PaletteType.BLOCKS), ChunkSection.SIZE, paletteSize, random);
+
+            final DataPalette biomePalette = new DataPaletteImpl(ChunkSection.BIOME_SIZE);
+            fill(biomePalette, ChunkSection.BIOME_SIZE, 2, random);
+            section.addPalette(PaletteType.BIOMES, biomePalette);
+            section.setNonAirBlocksCount(ChunkSection.SIZE);
+            sections[i] = section;
+        }
+
+        chunk = new Chunk1_18(0, 0, sections, new CompoundTag(), new ArrayList<>());
+        chunkData = Unpooled.buffer();
+        chunkType.write(chunkData, chunk);
+
+        palette = sections[0].palette(PaletteType.BLOCKS);
+        bitsPerEntry = Math.max(4, 32 - Integer.numberOfLeadingZeros(paletteSize - 1));
+        values = new int[ChunkSection.SIZE];
+        ids = new int[ChunkSection.SIZE];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = palette.paletteIndexAt(i);
+        }
+        compactValues = CompactArrayUtil.createCompactArrayWithPadding(bitsPerEntry, values.length, i -> values[i]);
+    }
+
+    private static void fill(final DataPalette palette, final int size, final int distinctValues, final Random random) {
+        for (int i = 0; i < distinctValues; i++) {
+            palette.addId(1 + random.nextInt(20000));
+        }
+        for (int i = 0; i < size; i++) {
+            palette.setPaletteIndexAt(i, random.nextInt(distinctValues));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        output.release();
+        chunkData.release();
+    }
+
+    @Benchmark
+    public Chunk readChunk() throws Exception {
+        return chunkType.read(chunkData.readerIndex(0));
+    }
+
+    @Benchmark
+    public ByteBuf writeChunk() throws Exception {
+        chunkType.write(output.clear(), chunk);
+        return output;
+    }
+
+    @Benchmark
+    public int paletteIdAt() {
+        int sum = 0;
+        for (int i = 0; i < ChunkSection.SIZE; i++) {
+            sum += palette.idAt(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public DataPalette paletteSetIdAt() {
+        for (int i = 0; i < ChunkSection.SIZE; i++) {
+            palette.setIdAt(i, palette.idByIndex(values[i]));
+        }
+        return palette;
+    }
+
+    @Benchmark
+    public DataPalette paletteRemap() {
+        // Toggles between two sets of ids, just like mapping every entry of a palette
+        for (int i = 0; i < palette.size(); i++) {
+            palette.setIdByIndex(i, palette.idByIndex(i) ^ 1);
+        }
+        return palette;
+    }
+
+    @Benchmark
+    public DataPalette paletteMapIds() {
+        palette.mapIds(id -> id ^ 1);
+        return palette;
+    }
+
+    @Benchmark
+    public int[] paletteIds() {
+        ((DataPaletteImpl) palette).ids(ids);
+        return ids;
+    }
+
+    @Benchmark
+    public long[] createCompactArray() {
+        return CompactArrayUtil.createCompactArrayWithPadding(bitsPerEntry, values.length, i -> values[i]);
+    }
+
+    @Benchmark
+    public int[] iterateCompactArray() {
+        CompactArrayUtil.iterateCompactArrayWithPadding(bitsPerEntry, values.length, compactValues, (i, value) -> values[i] = value);
+        return values;
+    }
+
+    @Benchmark
+    public long[] packCompactArray() {
+        return CompactArrayUtil.packWithPadding(bitsPerEntry, values.length, values);
+    }
+
+    @Benchmark
+    public int[] unpackCompactArray() {
+        CompactArrayUtil.unpackWithPadding(bitsPerEntry, values.length, compactValues, values);
+        return values;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.benchmarks;
+
+import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.data.entity.EntityTracker;
+import com.viaversion.viaversion.api.minecraft.chunks.Chunk1_18;
+import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
+import com.viaversion.viaversion.api.minecraft.chunks.ChunkSectionImpl;
+import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
+import com.viaversion.viaversion.api.minecraft.chunks.DataPaletteImpl;
+import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.api.type.types.chunk.ChunkType1_18;
+import com.viaversion.viaversion.protocols.protocol1_19_3to1_19_1.ClientboundPackets1_19_3;
+import com.viaversion.viaversion.protocols.protocol1_19_4to1_19_3.Protocol1_19_4To1_19_3;
+import com.viaversion.viaversion.protocols.protocol1_8.ClientboundPackets1_8;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Transforms clientbound packets through a whole protocol pipeline, as done by the platform encoders.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineBenchmark {
+    private static final Function<Throwable, Exception> CANCEL_SUPPLIER = cause -> new IllegalStateException("Packet was cancelled", cause);
+
+    @Param
+    public Scenario scenario;
+
+    private UserConnection connection;
+    private ByteBuf packet;
+
+    @Setup
+    public void setup() throws Exception {
+        connection = BenchmarkBootstrap.playConnection(scenario.clientVersion, scenario.serverVersion);
+        scenario.prepareConnection(connection);
+        packet = Unpooled.buffer();
+        scenario.writePacket(packet);
+    }
+
+    @TearDown
+    public void tearDown() {
+        packet.release();
+    }
+
+    @Benchmark
+    public int transform() throws Exception {
+        final ByteBuf output = connection.transformClientboundBuffer(packet.readerIndex(0), CANCEL_SUPPLIER);
+        try {
+            return output.readableBytes();
+        } finally {
+            output.release();
+        }
+    }
+
+    public enum Scenario {
+        KEEP_ALIVE_1_8_TO_1_20_2(ProtocolVersion.v1_20_2, ProtocolVersion.v1_8) {
+            @Override
+            void writePacket(final ByteBuf buf) {
+                Type.VAR_INT.writePrimitive(buf, ClientboundPackets1_8.KEEP_ALIVE.getId());
+                Type.VAR_INT.writePrimitive(buf, 123456789);
+            }
+        },
+        TIME_UPDATE_1_8_TO_1_20_2(ProtocolVersion.v1_20_2, ProtocolVersion.v1_8) {
+            @Override
+            void writePacket(final ByteBuf buf) {
+                Type.VAR_INT.writePrimitive(buf, ClientboundPackets1_8.TIME_UPDATE.getId());
+                buf.writeLong(1_000_000L); // World age
+                buf.writeLong(6000L); // Time of day
+            }
+        },
+        KEEP_ALIVE_1_19_3_TO_1_19_4(ProtocolVersion.v1_19_4, ProtocolVersion.v1_19_3) {
+            @Override
+            void writePacket(final ByteBuf buf) {
+                Type.VAR_INT.writePrimitive(buf, ClientboundPackets1_19_3.KEEP_ALIVE.getId());
+                buf.writeLong(123456789L);
+            }
+        },
+        CHUNK_DATA_1_19_3_TO_1_19_4(ProtocolVersion.v1_19_4, ProtocolVersion.v1_19_3) {
+            private static final int SECTIONS = 24;
+            private static final int BIOMES = 64;
+
+            @Override
+            void prepareConnection(final UserConnection connection) {
+                final EntityTracker tracker = connection.getEntityTracker(Protocol1_19_4To1_19_3.class);
+                tracker.setCurrentWorldSectionHeight(SECTIONS);
+                tracker.setBiomesSent(BIOMES);
+            }
+
+            @Override
+            void writePacket(final ByteBuf buf) throws Exception {
+                final Random random = new Random(0);
+                final ChunkSection[] sections = new ChunkSection[SECTIONS];
+                for (int i = 0; i < SECTIONS; i++) {
+                    final ChunkSection section = new ChunkSectionImpl(false, 16);
+                    fill(section.palette(PaletteType.BLOCKS), ChunkSection.SIZE, 16, 20000, random);
+                    final DataPalette biomePalette = new DataPaletteImpl(ChunkSection.BIOME_SIZE);
+                    fill(biomePalette, ChunkSection.BIOME_SIZE, 2, BIOMES, random);
+                    section.addPalette(PaletteType.BIOMES, biomePalette);
+                    section.setNonAirBlocksCount(ChunkSection.SIZE);
+                    sections[i] = section;
+                }
+
+                Type.VAR_INT.writePrimitive(buf, ClientboundPackets1_19_3.CHUNK_DATA.getId());
+                new ChunkType1_18(SECTIONS, 15, 6).write(buf, new Chunk1_18(0, 0, sections, new CompoundTag(), new ArrayList<>()));
+
+                // Light data
+                buf.writeBoolean(true); // Trust edges
+                for (int i = 0; i < 4; i++) {
+                    Type.VAR_INT.writePrimitive(buf, 0); // Empty sky and block light masks
+                }
+                Type.VAR_INT.writePrimitive(buf, 0); // Sky light arrays
+                Type.VAR_INT.writePrimitive(buf, 0); // Block light arrays
+            }
+
+            private void fill(final DataPalette palette, final int size, final int distinctValues, final int maxId, final Random random) {
+                for (int i = 0; i < distinctValues; i++) {
+                    palette.addId(random.nextInt(maxId));
+                }
+                for (int i = 0; i < size; i++) {
+                    palette.setPaletteIndexAt(i, random.nextInt(distinctValues));
+                }
+            }
+        };
+
+        private final ProtocolVersion clientVersion;
+        private final ProtocolVersion serverVersion;
+
+        Scenario(final ProtocolVersion clientVersion, final ProtocolVersion serverVersion) {
+            this.clientVersion = clientVersion;
+            this.serverVersion = serverVersion;
+        }
+
+        void prepareConnection(final UserConnection connection) {
+        }
+
+        abstract void writePacket(ByteBuf buf) throws Exception;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.benchmarks;
+
+import com.google.gson.JsonElement;
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.data.entity.EntityTracker;
+import com.viaversion.viaversion.api.minecraft.entities.EntityTypes1_19_4;
+import com.viaversion.viaversion.api.minecraft.metadata.Metadata;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import com.viaversion.viaversion.api.type.types.version.Types1_19_3;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.Protocol1_13To1_12_2;
+import com.viaversion.viaversion.protocols.protocol1_16to1_15_2.Protocol1_16To1_15_2;
+import com.viaversion.viaversion.protocols.protocol1_19_4to1_19_3.Protocol1_19_4To1_19_3;
+import com.viaversion.viaversion.rewriter.ComponentRewriter;
+import com.viaversion.viaversion.rewriter.EntityRewriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RewriterBenchmark {
+    private static final int ENTITY_ID = 1;
+    private static final String TEXT = "{\"translate\":\"chat.type.text\",\"with\":[{\"text\":\"player\","
+            + "\"hoverEvent\":{\"action\":\"show_text\",\"value\":{\"text\":\"Level 12\",\"color\":\"gold\"}}},"
+            + "{\"translate\":\"item.minecraft.diamond_sword\",\"color\":\"aqua\"}]}";
+
+    private UserConnection metadataConnection;
+    private EntityRewriter<?, ?> entityRewriter;
+    private ComponentRewriter<?> componentRewriter1_13;
+    private ComponentRewriter<?> componentRewriter1_16;
+
+    @Setup
+    public void setup() throws Exception {
+        metadataConnection = BenchmarkBootstrap.playConnection(ProtocolVersion.v1_19_4, ProtocolVersion.v1_19_3);
+        final EntityTracker tracker = metadataConnection.getEntityTracker(Protocol1_19_4To1_19_3.class);
+        tracker.addEntity(ENTITY_ID, EntityTypes1_19_4.MINECART);
+        entityRewriter = Via.getManager().getProtocolManager().getProtocol(Protocol1_19_4To1_19_3.class).getEntityRewriter();
+
+        Via.getManager().getProtocolManager().completeMappingDataLoading(Protocol1_13To1_12_2.class);
+        Via.getManager().getProtocolManager().completeMappingDataLoading(Protocol1_16To1_15_2.class);
+        componentRewriter1_13 = Via.getManager().getProtocolManager().getProtocol(Protocol1_13To1_12_2.class).getComponentRewriter();
+        componentRewriter1_16 = Via.getManager().getProtocolManager().getProtocol(Protocol1_16To1_15_2.class).getComponentRewriter();
+    }
+
+    @Benchmark
+    public List<Metadata> handleMetadata() {
+        // Metadata is rewritten in place, so it has to be recreated for every invocation
+        final List<Metadata> metadata = new ArrayList<>(6);
+        metadata.add(new Metadata(0, Types1_19_3.META_TYPES.byteType, (byte) 0));
+        metadata.add(new Metadata(1, Types1_19_3.META_TYPES.varIntType, 300));
+        metadata.add(new Metadata(4, Types1_19_3.META_TYPES.booleanType, false));
+        metadata.add(new Metadata(5, Types1_19_3.META_TYPES.booleanType, true));
+        metadata.add(new Metadata(8, Types1_19_3.META_TYPES.varIntType, 0));
+        metadata.add(new Metadata(11, Types1_19_3.META_TYPES.varIntType, 2345));
+        entityRewriter.handleMetadata(ENTITY_ID, metadata, metadataConnection);
+        return metadata;
+    }
+
+    @Benchmark
+    public JsonElement processText1_13() {
+        return componentRewriter1_13.processText(TEXT);
+    }
+
+    @Benchmark
+    public JsonElement processText1_16() {
+        return componentRewriter1_16.processText(TEXT);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.benchmarks;
+
+import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
+import com.github.steveice10.opennbt.tag.builtin.IntTag;
+import com.github.steveice10.opennbt.tag.builtin.ListTag;
+import com.github.steveice10.opennbt.tag.builtin.StringTag;
+import com.viaversion.viaversion.api.minecraft.item.DataItem;
+import com.viaversion.viaversion.api.minecraft.item.Item;
+import com.viaversion.viaversion.api.type.Type;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeBenchmark {
+
+    private final ByteBuf output = Unpooled.buffer();
+    private ByteBuf varInts;
+    private ByteBuf string;
+    private ByteBuf tag;
+    private ByteBuf item;
+    private String stringValue;
+    private CompoundTag tagValue;
+    private Item itemValue;
+
+    @Setup
+    public void setup() throws Exception {
+        varInts = Unpooled.buffer();
+        for (int i = 0; i < 64; i++) {
+            Type.VAR_INT.writePrimitive(varInts, i * i * i * 31);
+        }
+
+        stringValue = "{\"text\":\"Welcome to the server, \",\"extra\":[{\"text\":\"player\",\"color\":\"gold\"}]}";
+        string = Unpooled.buffer();
+        Type.STRING.write(string, stringValue);
+
+        tagValue = new CompoundTag();
+        final CompoundTag display = new CompoundTag();
+        display.put("Name", new StringTag("{\"text\":\"Sword\",\"italic\":false}"));
+        final ListTag lore = new ListTag(StringTag.class);
+        for (int i = 0; i < 4; i++) {
+            lore.add(new StringTag("{\"text\":\"Line " + i + "\"}"));
+        }
+        display.put("Lore", lore);
+        tagValue.put("display", display);
+        tagValue.put("Damage", new IntTag(12));
+        tagValue.put("CustomModelData", new IntTag(1001));
+        tag = Unpooled.buffer();
+        Type.NAMED_COMPOUND_TAG.write(tag, tagValue);
+
+        itemValue = new DataItem(812, (byte) 1, (short) 0, tagValue);
+        item = Unpooled.buffer();
+        Type.ITEM1_13_2.write(item, itemValue);
+    }
+
+    @TearDown
+    public void tearDown() {
+        output.release();
+        varInts.release();
+        string.release();
+        tag.release();
+        item.release();
+    }
+
+    @Benchmark
+    public int readVarInts() {
+        varInts.readerIndex(0);
+        int sum = 0;
+        while (varInts.isReadable()) {
+            sum += Type.VAR_INT.readPrimitive(varInts);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public ByteBuf writeVarInts() {
+        output.clear();
+        for (int i = 0; i < 64; i++) {
+            Type.VAR_INT.writePrimitive(output, i * i * i * 31);
+        }
+        return output;
+    }
+
+    @Benchmark
+    public String readString() throws Exception {
+        return Type.STRING.read(string.readerIndex(0));
+    }
+
+    @Benchmark
+    public ByteBuf writeString() throws Exception {
+        Type.STRING.write(output.clear(), stringValue);
+        return output;
+    }
+
+    @Benchmark
+    public CompoundTag readTag() throws Exception {
+        return Type.NAMED_COMPOUND_TAG.read(tag.readerIndex(0));
+    }
+
+    @Benchmark
+    public ByteBuf writeTag() throws Exception {
+        Type.NAMED_COMPOUND_TAG.write(output.clear(), tagValue);
+        return output;
+    }
+
+    @Benchmark
+    public Item readItem() throws Exception {
+        return Type.ITEM1_13_2.read(item.readerIndex(0));
+    }
+
+    @Benchmark
+    public ByteBuf writeItem() throws Exception {
+        Type.ITEM1_13_2.write(output.clear(), itemValue);
+        return output;
+    }
+}
@@ -22,10 +22,16 @@ val main = setOf(
 
 // val special = setOf().map { it.dependencyProject }
 
+// Not published, configured in their own build scripts
+val internal = setOf(
+    projects.viaversionBenchmarks
+).map { it.dependencyProject }
+
 subprojects {
     when (this) {
         in main -> plugins.apply("via.shadow-conventions")
         // in special -> plugins.apply("via.base-conventions")
+        in internal -> {}
         else -> plugins.apply("via.standard-conventions")
     }
 }
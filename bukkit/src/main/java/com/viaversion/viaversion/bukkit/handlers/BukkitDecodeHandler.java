@@ -22,6 +22,7 @@ import com.viaversion.viaversion.bukkit.util.NMSUtil;
 import com.viaversion.viaversion.exception.CancelCodecException;
 import com.viaversion.viaversion.exception.CancelDecoderException;
 import com.viaversion.viaversion.exception.InformativeException;
+import com.viaversion.viaversion.handlers.OrderedTransformQueue;
 import com.viaversion.viaversion.util.PipelineUtil;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
@@ -33,9 +34,19 @@ import java.util.List;
 @ChannelHandler.Sharable
 public final class BukkitDecodeHandler extends MessageToMessageDecoder<ByteBuf> {
     private final UserConnection connection;
+    private final OrderedTransformQueue transformQueue;
 
     public BukkitDecodeHandler(final UserConnection connection) {
         this.connection = connection;
+        this.transformQueue = OrderedTransformQueue.serverbound(connection, this::decode);
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+        if (transformQueue != null && transformQueue.offerServerbound(ctx, msg)) {
+            return;
+        }
+        super.channelRead(ctx, msg);
     }
 
     @Override
@@ -48,13 +59,7 @@ public final class BukkitDecodeHandler extends MessageToMessageDecoder<ByteBuf>
             return;
         }
 
-        final ByteBuf transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
-        try {
-            connection.transformIncoming(transformedBuf, CancelDecoderException::generate);
-            out.add(transformedBuf.retain());
-        } finally {
-            transformedBuf.release();
-        }
+        out.add(connection.transformIncomingBuffer(bytebuf, CancelDecoderException::generate));
     }
 
     @Override
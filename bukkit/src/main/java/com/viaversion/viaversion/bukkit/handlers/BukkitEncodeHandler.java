@@ -22,11 +22,13 @@ import com.viaversion.viaversion.bukkit.util.NMSUtil;
 import com.viaversion.viaversion.exception.CancelCodecException;
 import com.viaversion.viaversion.exception.CancelEncoderException;
 import com.viaversion.viaversion.exception.InformativeException;
+import com.viaversion.viaversion.handlers.OrderedTransformQueue;
 import com.viaversion.viaversion.util.PipelineUtil;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.MessageToByteEncoder;
 import io.netty.handler.codec.MessageToMessageEncoder;
@@ -35,10 +37,22 @@ import java.util.List;
 @ChannelHandler.Sharable
 public final class BukkitEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
     private final UserConnection connection;
+    private final OrderedTransformQueue transformQueue;
     private boolean handledCompression = BukkitChannelInitializer.COMPRESSION_ENABLED_EVENT != null;
 
     public BukkitEncodeHandler(final UserConnection connection) {
         this.connection = connection;
+        this.transformQueue = OrderedTransformQueue.clientbound(connection, this::encode);
+    }
+
+    @Override
+    public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) throws Exception {
+        // The pipeline may only be reordered on the event loop
+        if (transformQueue != null && (handledCompression || ctx.pipeline().get(BukkitChannelInitializer.MINECRAFT_COMPRESSOR) == null)
+                && transformQueue.offerClientbound(ctx, msg, promise)) {
+            return;
+        }
+        super.write(ctx, msg, promise);
     }
 
     @Override
@@ -51,21 +65,27 @@ public final class BukkitEncodeHandler extends MessageToMessageEncoder<ByteBuf>
             return;
         }
 
-        final ByteBuf transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
+        final boolean needsCompression = !handledCompression && handleCompressionOrder(ctx);
+        if (!needsCompression) {
+            out.add(connection.transformClientboundBuffer(bytebuf, CancelEncoderException::generate));
+            return;
+        }
+
+        // Need to decompress this packet due to bad order
+        final ByteBuf decompressed = decompress(ctx, bytebuf);
         try {
-            final boolean needsCompression = !handledCompression && handleCompressionOrder(ctx, transformedBuf);
-            connection.transformClientbound(transformedBuf, CancelEncoderException::generate);
-            if (needsCompression) {
-                recompress(ctx, transformedBuf);
+            final ByteBuf transformedBuf = connection.transformClientboundBuffer(decompressed, CancelEncoderException::generate);
+            try {
+                out.add(compress(ctx, transformedBuf));
+            } finally {
+                transformedBuf.release();
             }
-
-            out.add(transformedBuf.retain());
         } finally {
-            transformedBuf.release();
+            decompressed.release();
         }
     }
 
-    private boolean handleCompressionOrder(final ChannelHandlerContext ctx, final ByteBuf buf) throws Exception {
+    private boolean handleCompressionOrder(final ChannelHandlerContext ctx) {
         final ChannelPipeline pipeline = ctx.pipeline();
         final List<String> names = pipeline.names();
         final int compressorIndex = names.indexOf(BukkitChannelInitializer.MINECRAFT_COMPRESSOR);
@@ -75,14 +95,6 @@ public final class BukkitEncodeHandler extends MessageToMessageEncoder<ByteBuf>
 
         handledCompression = true;
         if (compressorIndex > names.indexOf(BukkitChannelInitializer.VIA_ENCODER)) {
-            // Need to decompress this packet due to bad order
-            final ByteBuf decompressed = (ByteBuf) PipelineUtil.callDecode((ByteToMessageDecoder) pipeline.get(BukkitChannelInitializer.MINECRAFT_DECOMPRESSOR), ctx, buf).get(0);
-            try {
-                buf.clear().writeBytes(decompressed);
-            } finally {
-                decompressed.release();
-            }
-
             pipeline.addAfter(BukkitChannelInitializer.MINECRAFT_COMPRESSOR, BukkitChannelInitializer.VIA_ENCODER, pipeline.remove(BukkitChannelInitializer.VIA_ENCODER));
             pipeline.addAfter(BukkitChannelInitializer.MINECRAFT_DECOMPRESSOR, BukkitChannelInitializer.VIA_DECODER, pipeline.remove(BukkitChannelInitializer.VIA_DECODER));
             return true;
@@ -90,11 +102,15 @@ public final class BukkitEncodeHandler extends MessageToMessageEncoder<ByteBuf>
         return false;
     }
 
-    private void recompress(final ChannelHandlerContext ctx, final ByteBuf buf) throws Exception {
+    private ByteBuf decompress(final ChannelHandlerContext ctx, final ByteBuf buf) throws Exception {
+        return (ByteBuf) PipelineUtil.callDecode((ByteToMessageDecoder) ctx.pipeline().get(BukkitChannelInitializer.MINECRAFT_DECOMPRESSOR), ctx, buf).get(0);
+    }
+
+    private ByteBuf compress(final ChannelHandlerContext ctx, final ByteBuf buf) throws Exception {
         final ByteBuf compressed = ctx.alloc().buffer();
         try {
             PipelineUtil.callEncode((MessageToByteEncoder<ByteBuf>) ctx.pipeline().get(BukkitChannelInitializer.MINECRAFT_COMPRESSOR), ctx, buf, compressed);
-            buf.clear().writeBytes(compressed);
+            return compressed.retain();
         } finally {
             compressed.release();
         }
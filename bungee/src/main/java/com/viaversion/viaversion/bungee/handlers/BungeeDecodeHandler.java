@@ -20,6 +20,7 @@ package com.viaversion.viaversion.bungee.handlers;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.exception.CancelCodecException;
 import com.viaversion.viaversion.exception.CancelDecoderException;
+import com.viaversion.viaversion.handlers.OrderedTransformQueue;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
@@ -29,9 +30,19 @@ import java.util.List;
 @ChannelHandler.Sharable
 public class BungeeDecodeHandler extends MessageToMessageDecoder<ByteBuf> {
     private final UserConnection info;
+    private final OrderedTransformQueue transformQueue;
 
     public BungeeDecodeHandler(UserConnection info) {
         this.info = info;
+        this.transformQueue = OrderedTransformQueue.serverbound(info, this::decode);
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (transformQueue != null && transformQueue.offerServerbound(ctx, msg)) {
+            return;
+        }
+        super.channelRead(ctx, msg);
     }
 
     @Override
@@ -46,13 +57,7 @@ public class BungeeDecodeHandler extends MessageToMessageDecoder<ByteBuf> {
             return;
         }
 
-        ByteBuf transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
-        try {
-            info.transformServerbound(transformedBuf, CancelDecoderException::generate);
-            out.add(transformedBuf.retain());
-        } finally {
-            transformedBuf.release();
-        }
+        out.add(info.transformServerboundBuffer(bytebuf, CancelDecoderException::generate));
     }
 
     @Override
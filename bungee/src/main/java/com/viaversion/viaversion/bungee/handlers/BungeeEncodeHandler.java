@@ -21,19 +21,33 @@ import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.bungee.util.BungeePipelineUtil;
 import com.viaversion.viaversion.exception.CancelCodecException;
 import com.viaversion.viaversion.exception.CancelEncoderException;
+import com.viaversion.viaversion.handlers.OrderedTransformQueue;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToMessageEncoder;
 import java.util.List;
 
 @ChannelHandler.Sharable
 public class BungeeEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
     private final UserConnection info;
+    private final OrderedTransformQueue transformQueue;
     private boolean handledCompression;
 
     public BungeeEncodeHandler(UserConnection info) {
         this.info = info;
+        this.transformQueue = OrderedTransformQueue.clientbound(info, this::encode);
+    }
+
+    @Override
+    public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) throws Exception {
+        // The pipeline may only be reordered on the event loop
+        if (transformQueue != null && (handledCompression || ctx.pipeline().get("compress") == null)
+                && transformQueue.offerClientbound(ctx, msg, promise)) {
+            return;
+        }
+        super.write(ctx, msg, promise);
     }
 
     @Override
@@ -48,36 +62,33 @@ public class BungeeEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
             return;
         }
 
-        ByteBuf transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
-        try {
-            boolean needsCompress = handleCompressionOrder(ctx, transformedBuf);
-            info.transformClientbound(transformedBuf, CancelEncoderException::generate);
+        boolean needsCompress = handleCompressionOrder(ctx);
+        if (!needsCompress) {
+            out.add(info.transformClientboundBuffer(bytebuf, CancelEncoderException::generate));
+            return;
+        }
 
-            if (needsCompress) {
-                recompress(ctx, transformedBuf);
+        // Need to decompress this packet due to bad order, the decompressor may return the retained input
+        ByteBuf decompressed = BungeePipelineUtil.decompress(ctx, bytebuf);
+        try {
+            ByteBuf transformedBuf = info.transformClientboundBuffer(decompressed, CancelEncoderException::generate);
+            try {
+                out.add(BungeePipelineUtil.compress(ctx, transformedBuf));
+            } finally {
+                transformedBuf.release();
             }
-
-            out.add(transformedBuf.retain());
         } finally {
-            transformedBuf.release();
+            decompressed.release();
         }
     }
 
-    private boolean handleCompressionOrder(ChannelHandlerContext ctx, ByteBuf buf) {
-        boolean needsCompress = false;
-        if (!handledCompression && ctx.pipeline().names().indexOf("compress") > ctx.pipeline().names().indexOf("via-encoder")) {
-            // Need to decompress this packet due to bad order
-            ByteBuf decompressed = BungeePipelineUtil.decompress(ctx, buf);
-
-            // Ensure the buffer wasn't reused
-            if (buf != decompressed) {
-                try {
-                    buf.clear().writeBytes(decompressed);
-                } finally {
-                    decompressed.release();
-                }
-            }
+    private boolean handleCompressionOrder(ChannelHandlerContext ctx) {
+        if (handledCompression || ctx.pipeline().get("compress") == null) {
+            return false;
+        }
 
+        handledCompression = true;
+        if (ctx.pipeline().names().indexOf("compress") > ctx.pipeline().names().indexOf("via-encoder")) {
             // Reorder the pipeline
             ChannelHandler decoder = ctx.pipeline().get("via-decoder");
             ChannelHandler encoder = ctx.pipeline().get("via-encoder");
@@ -85,19 +96,9 @@ public class BungeeEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
             ctx.pipeline().remove(encoder);
             ctx.pipeline().addAfter("decompress", "via-decoder", decoder);
             ctx.pipeline().addAfter("compress", "via-encoder", encoder);
-            needsCompress = true;
-            handledCompression = true;
-        }
-        return needsCompress;
-    }
-
-    private void recompress(ChannelHandlerContext ctx, ByteBuf buf) {
-        ByteBuf compressed = BungeePipelineUtil.compress(ctx, buf);
-        try {
-            buf.clear().writeBytes(compressed);
-        } finally {
-            compressed.release();
+            return true;
         }
+        return false;
     }
 
     @Override
@@ -21,9 +21,11 @@ import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.ViaAPI;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.legacy.LegacyViaAPI;
+import com.viaversion.viaversion.api.metrics.TransformMetrics;
 import com.viaversion.viaversion.api.protocol.version.BlockedProtocolVersions;
 import com.viaversion.viaversion.api.protocol.version.ServerProtocolVersion;
 import com.viaversion.viaversion.legacy.LegacyAPI;
+import com.viaversion.viaversion.metrics.TransformMetricsImpl;
 import io.netty.buffer.ByteBuf;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -83,6 +85,11 @@ public abstract class ViaAPIBase<T> implements ViaAPI<T> {
         return Via.getManager().getProtocolManager().getSupportedVersions();
     }
 
+    @Override
+    public TransformMetrics getTransformMetrics() {
+        return TransformMetricsImpl.of(Via.getManager());
+    }
+
     @Override
     public LegacyViaAPI<T> legacyAPI() {
         return legacy;
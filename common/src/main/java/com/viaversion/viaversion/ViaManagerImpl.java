@@ -17,6 +17,7 @@
  */
 package com.viaversion.viaversion;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.ViaManager;
 import com.viaversion.viaversion.api.configuration.ConfigurationProvider;
@@ -36,6 +37,8 @@ import com.viaversion.viaversion.commands.ViaCommandHandler;
 import com.viaversion.viaversion.configuration.ConfigurationProviderImpl;
 import com.viaversion.viaversion.connection.ConnectionManagerImpl;
 import com.viaversion.viaversion.debug.DebugHandlerImpl;
+import com.viaversion.viaversion.metrics.BootProfiler;
+import com.viaversion.viaversion.metrics.TransformMetricsImpl;
 import com.viaversion.viaversion.protocol.ProtocolManagerImpl;
 import com.viaversion.viaversion.protocol.ServerProtocolVersionRange;
 import com.viaversion.viaversion.protocol.ServerProtocolVersionSingleton;
@@ -49,9 +52,15 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class ViaManagerImpl implements ViaManager {
     private final ProtocolManagerImpl protocolManager = new ProtocolManagerImpl();
@@ -60,6 +69,8 @@ public class ViaManagerImpl implements ViaManager {
     private final DebugHandler debugHandler = new DebugHandlerImpl();
     private final ViaProviders providers = new ViaProviders();
     private final Scheduler scheduler = new TaskScheduler();
+    private final TransformMetricsImpl transformMetrics = new TransformMetricsImpl();
+    private final BootProfiler bootProfiler = new BootProfiler();
     private final ViaPlatform<?> platform;
     private final ViaInjector injector;
     private final ViaCommandHandler commandHandler;
@@ -67,6 +78,7 @@ public class ViaManagerImpl implements ViaManager {
     private final Set<String> subPlatforms = new HashSet<>();
     private List<Runnable> enableListeners = new ArrayList<>();
     private PlatformTask<?> mappingLoadingTask;
+    private ExecutorService transformWorkers;
     private boolean initialized;
 
     public ViaManagerImpl(ViaPlatform<?> platform, ViaInjector injector, ViaCommandHandler commandHandler, ViaPlatformLoader loader) {
@@ -81,6 +93,12 @@ public class ViaManagerImpl implements ViaManager {
     }
 
     public void init() {
+        try (BootProfiler.Section ignored = bootProfiler.phase("init")) {
+            init0();
+        }
+    }
+
+    private void init0() {
         configurationProvider.register(platform.getConf());
 
         if (System.getProperty("ViaVersion") != null) {
@@ -90,14 +108,24 @@ public class ViaManagerImpl implements ViaManager {
 
         // Load supported protocol versions if we can
         if (!injector.lateProtocolVersionSetting()) {
-            loadServerProtocol();
+            bootProfiler.phase("server protocol", this::loadServerProtocol);
         }
 
         // Register protocols
-        protocolManager.registerProtocols();
+        bootProfiler.phase("protocol registration", protocolManager::registerProtocols);
+
+        transformMetrics.configure(platform.getConf().isTransformMetrics(), platform.getConf().getTransformMetricsSampleRate());
+
+        if (platform.getConf().isAsyncChunkTransform()) {
+            final int configuredThreads = platform.getConf().getAsyncChunkTransformThreads();
+            final int threads = configuredThreads > 0 ? configuredThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            final int queueSize = Math.max(1, platform.getConf().getAsyncChunkTransformQueueSize());
+            transformWorkers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+                    new ThreadFactoryBuilder().setNameFormat("Via Transformer %d").setDaemon(true).build());
+        }
 
         // Inject
-        try {
+        try (BootProfiler.Section ignored = bootProfiler.phase("injection")) {
             injector.inject();
         } catch (Exception e) {
             platform.getLogger().log(Level.SEVERE, "ViaVersion failed to inject:", e);
@@ -158,7 +186,9 @@ public class ViaManagerImpl implements ViaManager {
         unsupportedSoftwareWarning();
 
         // Load Platform
-        loader.load();
+        bootProfiler.phase("platform loader", loader::load);
+        // Now that addon protocols are registered as well, only load mapping data reachable from the server version
+        protocolManager.stopDeferringMappingData();
         // Common tasks
         mappingLoadingTask = Via.getPlatform().runRepeatingAsync(() -> {
             if (protocolManager.checkForMappingCompletion() && mappingLoadingTask != null) {
@@ -211,6 +241,9 @@ public class ViaManagerImpl implements ViaManager {
 
         loader.unload();
         scheduler.shutdown();
+        if (transformWorkers != null) {
+            transformWorkers.shutdown();
+        }
     }
 
     private void checkJavaVersion() { // Stolen from Paper
@@ -303,6 +336,23 @@ public class ViaManagerImpl implements ViaManager {
         return loader;
     }
 
+    /**
+     * Returns the bounded worker pool heavy packets are transformed on, rejecting tasks when saturated.
+     *
+     * @return transform worker pool, or null if async chunk transformation is disabled
+     */
+    public @Nullable Executor getTransformWorkers() {
+        return transformWorkers;
+    }
+
+    public BootProfiler getBootProfiler() {
+        return bootProfiler;
+    }
+
+    public TransformMetricsImpl getTransformMetrics() {
+        return transformMetrics;
+    }
+
     @Override
     public Scheduler getScheduler() {
         return scheduler;
@@ -23,6 +23,7 @@ import com.viaversion.viaversion.api.command.ViaCommandSender;
 import com.viaversion.viaversion.api.command.ViaSubCommand;
 import com.viaversion.viaversion.api.command.ViaVersionCommand;
 import com.viaversion.viaversion.commands.defaultsubs.AutoTeamSubCmd;
+import com.viaversion.viaversion.commands.defaultsubs.BootSubCmd;
 import com.viaversion.viaversion.commands.defaultsubs.DebugSubCmd;
 import com.viaversion.viaversion.commands.defaultsubs.DisplayLeaksSubCmd;
 import com.viaversion.viaversion.commands.defaultsubs.DontBugMeSubCmd;
@@ -30,6 +31,7 @@ import com.viaversion.viaversion.commands.defaultsubs.DumpSubCmd;
 import com.viaversion.viaversion.commands.defaultsubs.ListSubCmd;
 import com.viaversion.viaversion.commands.defaultsubs.PPSSubCmd;
 import com.viaversion.viaversion.commands.defaultsubs.ReloadSubCmd;
+import com.viaversion.viaversion.commands.defaultsubs.StatsSubCmd;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -188,6 +190,8 @@ public abstract class ViaCommandHandler implements ViaVersionCommand {
     private void registerDefaults() {
         registerSubCommand(new ListSubCmd());
         registerSubCommand(new PPSSubCmd());
+        registerSubCommand(new StatsSubCmd());
+        registerSubCommand(new BootSubCmd());
         registerSubCommand(new DebugSubCmd());
         registerSubCommand(new DumpSubCmd());
         registerSubCommand(new DisplayLeaksSubCmd());
@@ -0,0 +1,45 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.commands.defaultsubs;
+
+import com.viaversion.viaversion.api.command.ViaCommandSender;
+import com.viaversion.viaversion.api.command.ViaSubCommand;
+import com.viaversion.viaversion.metrics.BootProfiler;
+
+public class BootSubCmd extends ViaSubCommand {
+    private static final int MAX_PROTOCOLS = 10;
+
+    @Override
+    public String name() {
+        return "boot";
+    }
+
+    @Override
+    public String description() {
+        return "Shows how long the startup phases and protocols took to load.";
+    }
+
+    @Override
+    public boolean execute(ViaCommandSender sender, String[] args) {
+        sendMessage(sender, "&4Boot Profile &7(wall time, cpu time, allocations)");
+        for (final String line : BootProfiler.get().report(MAX_PROTOCOLS)) {
+            sendMessage(sender, line.startsWith(" ") ? "&8-&f" + line : "&c" + line);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.commands.defaultsubs;
+
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.command.ViaCommandSender;
+import com.viaversion.viaversion.api.command.ViaSubCommand;
+import com.viaversion.viaversion.api.metrics.PipelineStats;
+import com.viaversion.viaversion.api.metrics.TransformMetrics;
+import com.viaversion.viaversion.api.metrics.TransformStats;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.BlockConnectionStorage;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class StatsSubCmd extends ViaSubCommand {
+    private static final int MAX_ENTRIES = 5;
+    private static final Comparator<Map.Entry<String, TransformStats>> BY_TIME = Comparator.comparingLong(entry -> -entry.getValue().estimatedNanos());
+
+    @Override
+    public String name() {
+        return "stats";
+    }
+
+    @Override
+    public String description() {
+        return "Shows packet transformation metrics.";
+    }
+
+    @Override
+    public String usage() {
+        return "stats [reset]";
+    }
+
+    @Override
+    public boolean execute(ViaCommandSender sender, String[] args) {
+        final TransformMetrics metrics = Via.getAPI().getTransformMetrics();
+        if (args.length == 1 && args[0].equalsIgnoreCase("reset")) {
+            metrics.reset();
+            sendMessage(sender, "&6Transformation metrics have been reset.");
+            return true;
+        } else if (args.length != 0) {
+            return false;
+        }
+
+        final long blockStorageBytes = BlockConnectionStorage.totalMemoryUsage();
+        if (blockStorageBytes > 0) {
+            sendMessage(sender, "&6Block connection storage: &f%s KiB", blockStorageBytes / 1024);
+        }
+
+        if (!metrics.isEnabled()) {
+            sendMessage(sender, "&cTransformation metrics are disabled, enable transform-metrics in the config.");
+            return true;
+        }
+
+        sendMessage(sender, "&4Packet Transformation Metrics &7(timing one in %s)", metrics.sampleRate());
+        for (final Direction direction : Direction.values()) {
+            final PipelineStats stats = metrics.pipeline(direction);
+            sendMessage(sender, "&c%s: &f%s packets, %s passed through, %s cancelled, %s avg, %s KiB in, %s KiB out", direction.name().toLowerCase(Locale.ROOT),
+                    stats.invocations(), stats.passthroughs(), stats.cancellations(), formatNanos(stats.averageNanos()), stats.inputBytes() / 1024, stats.outputBytes() / 1024);
+        }
+
+        final List<Map.Entry<String, TransformStats>> protocols = new ArrayList<>();
+        final List<Map.Entry<String, TransformStats>> packets = new ArrayList<>();
+        for (final Map.Entry<Class<? extends Protocol>, TransformStats> entry : metrics.protocols().entrySet()) {
+            final String protocolName = entry.getKey().getSimpleName();
+            protocols.add(new AbstractMap.SimpleEntry<>(protocolName, entry.getValue()));
+            for (final Map.Entry<String, TransformStats> packet : metrics.packets(entry.getKey()).entrySet()) {
+                packets.add(new AbstractMap.SimpleEntry<>(protocolName + " " + packet.getKey(), packet.getValue()));
+            }
+        }
+
+        sendMessage(sender, "&4Most expensive protocols");
+        sendTop(sender, protocols);
+        sendMessage(sender, "&4Most expensive packets");
+        sendTop(sender, packets);
+        return true;
+    }
+
+    private void sendTop(final ViaCommandSender sender, final List<Map.Entry<String, TransformStats>> entries) {
+        if (entries.isEmpty()) {
+            sendMessage(sender, "&cNothing has been transformed yet.");
+            return;
+        }
+
+        Collections.sort(entries, BY_TIME);
+        for (final Map.Entry<String, TransformStats> entry : entries.subList(0, Math.min(MAX_ENTRIES, entries.size()))) {
+            final TransformStats stats = entry.getValue();
+            sendMessage(sender, "&8[&6%s&8]: &b%s calls, %s cancelled, %s avg", entry.getKey(),
+                    stats.invocations(), stats.cancellations(), formatNanos(stats.averageNanos()));
+        }
+    }
+
+    private static String formatNanos(final long nanos) {
+        return nanos >= 1_000_000 ? String.format("%.2fms", nanos / 1_000_000D) : String.format("%.1f\u00b5s", nanos / 1_000D);
+    }
+
+    @Override
+    public List<String> onTabComplete(final ViaCommandSender sender, final String[] args) {
+        if (args.length == 1) {
+            return Collections.singletonList("reset");
+        }
+        return Collections.emptyList();
+    }
+}
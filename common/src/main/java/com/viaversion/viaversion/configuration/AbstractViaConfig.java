@@ -69,11 +69,20 @@ public abstract class AbstractViaConfig extends Config implements ViaVersionConf
     private String blockedDisconnectMessage;
     private String reloadDisconnectMessage;
     private boolean suppressConversionWarnings;
+    private boolean asyncChunkTransform;
+    private int asyncChunkTransformThreads;
+    private int asyncChunkTransformQueueSize;
+    private int asyncChunkTransformPlayerQueueSize;
+    private boolean transformMetrics;
+    private int transformMetricsSampleRate;
+    private boolean mappingCache;
+    private String mappingStorage;
     private boolean disable1_13TabComplete;
     private boolean minimizeCooldown;
     private boolean teamColourFix;
     private boolean serversideBlockConnections;
     private boolean reduceBlockStorageMemory;
+    private int blockStorageMemoryLimit;
     private boolean flowerStemWhenBlockAbove;
     private boolean vineClimbFix;
     private boolean snowCollisionFix;
@@ -136,9 +145,18 @@ public abstract class AbstractViaConfig extends Config implements ViaVersionConf
         minimizeCooldown = getBoolean("minimize-cooldown", true);
         teamColourFix = getBoolean("team-colour-fix", true);
         suppressConversionWarnings = getBoolean("suppress-conversion-warnings", false);
+        asyncChunkTransform = getBoolean("async-chunk-transform", false);
+        asyncChunkTransformThreads = getInt("async-chunk-transform-threads", 0);
+        asyncChunkTransformQueueSize = getInt("async-chunk-transform-queue-size", 512);
+        asyncChunkTransformPlayerQueueSize = getInt("async-chunk-transform-player-queue-size", 256);
+        transformMetrics = getBoolean("transform-metrics", false);
+        transformMetricsSampleRate = getInt("transform-metrics-sample-rate", 64);
+        mappingCache = getBoolean("mapping-cache", false);
+        mappingStorage = getString("mapping-storage", "auto");
         disable1_13TabComplete = getBoolean("disable-1_13-auto-complete", false);
         serversideBlockConnections = getBoolean("serverside-blockconnections", true);
         reduceBlockStorageMemory = getBoolean("reduce-blockstorage-memory", false);
+        blockStorageMemoryLimit = getInt("blockstorage-memory-limit", 0);
         flowerStemWhenBlockAbove = getBoolean("flowerstem-when-block-above", false);
         vineClimbFix = getBoolean("vine-climb-fix", false);
         snowCollisionFix = getBoolean("fix-low-snow-collision", false);
@@ -421,6 +439,46 @@ public abstract class AbstractViaConfig extends Config implements ViaVersionConf
         return suppressConversionWarnings;
     }
 
+    @Override
+    public boolean isAsyncChunkTransform() {
+        return asyncChunkTransform;
+    }
+
+    @Override
+    public int getAsyncChunkTransformThreads() {
+        return asyncChunkTransformThreads;
+    }
+
+    @Override
+    public int getAsyncChunkTransformQueueSize() {
+        return asyncChunkTransformQueueSize;
+    }
+
+    @Override
+    public int getAsyncChunkTransformPlayerQueueSize() {
+        return asyncChunkTransformPlayerQueueSize;
+    }
+
+    @Override
+    public boolean isTransformMetrics() {
+        return transformMetrics;
+    }
+
+    @Override
+    public int getTransformMetricsSampleRate() {
+        return transformMetricsSampleRate;
+    }
+
+    @Override
+    public boolean isMappingCache() {
+        return mappingCache;
+    }
+
+    @Override
+    public String getMappingStorage() {
+        return mappingStorage;
+    }
+
     @Override
     public boolean isDisable1_13AutoComplete() {
         return disable1_13TabComplete;
@@ -441,6 +499,11 @@ public abstract class AbstractViaConfig extends Config implements ViaVersionConf
         return reduceBlockStorageMemory;
     }
 
+    @Override
+    public int getBlockStorageMemoryLimit() {
+        return blockStorageMemoryLimit;
+    }
+
     @Override
     public boolean isStemWhenBlockAbove() {
         return flowerStemWhenBlockAbove;
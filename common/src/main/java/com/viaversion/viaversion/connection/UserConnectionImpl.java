@@ -17,48 +17,56 @@
  */
 package com.viaversion.viaversion.connection;
 
-import com.google.common.cache.CacheBuilder;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.ProtocolInfo;
 import com.viaversion.viaversion.api.connection.StorableObject;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.data.entity.EntityTracker;
 import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.ProtocolPipeline;
 import com.viaversion.viaversion.api.protocol.packet.Direction;
 import com.viaversion.viaversion.api.protocol.packet.PacketTracker;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.packet.State;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.exception.CancelException;
+import com.viaversion.viaversion.handlers.OrderedTransformQueue;
+import com.viaversion.viaversion.metrics.TransformMetricsImpl;
+import com.viaversion.viaversion.protocol.ProtocolPipelineImpl;
 import com.viaversion.viaversion.protocol.packet.PacketWrapperImpl;
+import com.viaversion.viaversion.protocol.packet.PacketWrapperPool;
 import com.viaversion.viaversion.util.ChatColorUtil;
 import com.viaversion.viaversion.util.PipelineUtil;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
+import java.security.SecureRandom;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.Function;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class UserConnectionImpl implements UserConnection {
     private static final AtomicLong IDS = new AtomicLong();
+    private static final long PASSTHROUGH_TOKEN_SALT = new SecureRandom().nextLong();
+    private static final int PASSTHROUGH_TOKEN_WINDOW = 4096; // Tokens expire once this many newer ones have been generated
     private final long id = IDS.incrementAndGet();
     private final Map<Class<?>, StorableObject> storedObjects = new ConcurrentHashMap<>();
     private final Map<Class<? extends Protocol>, EntityTracker> entityTrackers = new HashMap<>();
     private final PacketTracker packetTracker = new PacketTracker(this);
-    private final Set<UUID> passthroughTokens = Collections.newSetFromMap(CacheBuilder.newBuilder()
-            .expireAfterWrite(10, TimeUnit.SECONDS)
-            .<UUID, Boolean>build().asMap());
+    private final PacketWrapperPool packetWrapperPool = new PacketWrapperPool(this);
+    // Outstanding passthrough token counters by counter modulo the ring size, 0 for unused slots
+    private final AtomicLongArray consumedPassthroughTokens = new AtomicLongArray(PASSTHROUGH_TOKEN_WINDOW / Long.SIZE);
+    private final AtomicLong passthroughTokenCounter = new AtomicLong();
     private final ProtocolInfo protocolInfo = new ProtocolInfoImpl(this);
+    private final TransformMetricsImpl transformMetrics = TransformMetricsImpl.of(Via.getManager());
+    private final OrderedTransformQueue transformQueue = OrderedTransformQueue.create(this);
     private final Channel channel;
     private final boolean clientSide;
     private boolean active = true;
@@ -170,7 +178,9 @@ public class UserConnectionImpl implements UserConnection {
             act = () -> channel.pipeline().context(Via.getManager().getInjector().getEncoderName()).writeAndFlush(packet);
         }
         if (currentThread) {
-            act.run();
+            if (!deferSend(packet, act)) {
+                act.run();
+            }
         } else {
             try {
                 channel.eventLoop().submit(act);
@@ -192,6 +202,11 @@ public class UserConnectionImpl implements UserConnection {
         }
     }
 
+    private boolean deferSend(final ByteBuf packet, final Runnable act) {
+        // Sends from handlers running on the transform lane are written in order with the transformed packet
+        return transformQueue != null && transformQueue.deferSend(packet, act);
+    }
+
     @Override
     public PacketTracker getPacketTracker() {
         return packetTracker;
@@ -238,7 +253,8 @@ public class UserConnectionImpl implements UserConnection {
                 // Bypass serverbound packet decoder transforming
                 try {
                     Type.VAR_INT.writePrimitive(buf, PacketWrapper.PASSTHROUGH_ID);
-                    Type.UUID.write(buf, generatePassthroughToken());
+                    buf.writeLong(passthroughTokenSalt());
+                    buf.writeLong(nextPassthroughToken());
                 } catch (Exception shouldNotHappen) {
                     throw new RuntimeException(shouldNotHappen);
                 }
@@ -253,7 +269,9 @@ public class UserConnectionImpl implements UserConnection {
                 }
             };
             if (currentThread) {
-                act.run();
+                if (!deferSend(buf, act)) {
+                    act.run();
+                }
             } else {
                 try {
                     channel.eventLoop().submit(act);
@@ -272,7 +290,9 @@ public class UserConnectionImpl implements UserConnection {
         Runnable act = () -> getChannel().pipeline()
                 .context(Via.getManager().getInjector().getEncoderName()).writeAndFlush(packet);
         if (currentThread) {
-            act.run();
+            if (!deferSend(packet, act)) {
+                act.run();
+            }
         } else {
             try {
                 getChannel().eventLoop().submit(act);
@@ -305,42 +325,145 @@ public class UserConnectionImpl implements UserConnection {
 
     @Override
     public void transformClientbound(ByteBuf buf, Function<Throwable, Exception> cancelSupplier) throws Exception {
-        transform(buf, Direction.CLIENTBOUND, cancelSupplier);
+        transformInPlace(buf, Direction.CLIENTBOUND, cancelSupplier);
     }
 
     @Override
     public void transformServerbound(ByteBuf buf, Function<Throwable, Exception> cancelSupplier) throws Exception {
-        transform(buf, Direction.SERVERBOUND, cancelSupplier);
+        transformInPlace(buf, Direction.SERVERBOUND, cancelSupplier);
     }
 
-    private void transform(ByteBuf buf, Direction direction, Function<Throwable, Exception> cancelSupplier) throws Exception {
-        if (!buf.isReadable()) return;
+    @Override
+    public ByteBuf transformClientboundBuffer(ByteBuf buf, Function<Throwable, Exception> cancelSupplier) throws Exception {
+        return transform(buf, Direction.CLIENTBOUND, cancelSupplier);
+    }
+
+    @Override
+    public ByteBuf transformServerboundBuffer(ByteBuf buf, Function<Throwable, Exception> cancelSupplier) throws Exception {
+        return transform(buf, Direction.SERVERBOUND, cancelSupplier);
+    }
 
+    private void transformInPlace(ByteBuf buf, Direction direction, Function<Throwable, Exception> cancelSupplier) throws Exception {
+        ByteBuf transformed = transform(buf, direction, cancelSupplier);
+        try {
+            if (transformed != buf) {
+                buf.clear().writeBytes(transformed);
+            }
+        } finally {
+            transformed.release();
+        }
+    }
+
+    private ByteBuf transform(ByteBuf buf, Direction direction, Function<Throwable, Exception> cancelSupplier) throws Exception {
+        if (!buf.isReadable()) return buf.retain();
+
+        int startIndex = buf.readerIndex();
         int id = Type.VAR_INT.readPrimitive(buf);
         if (id == PacketWrapper.PASSTHROUGH_ID) {
-            if (!passthroughTokens.remove(Type.UUID.read(buf))) {
+            // Read as a UUID, the salt followed by the token counter
+            long salt = buf.readLong();
+            long token = buf.readLong();
+            if (salt != passthroughTokenSalt() || !consumePassthroughToken(token)) {
                 throw new IllegalArgumentException("Invalid token");
             }
-            return;
+            // Emit the remaining packet as is
+            return buf.retain();
         }
 
-        PacketWrapper wrapper = new PacketWrapperImpl(id, buf, this);
+        int contentIndex = buf.readerIndex();
         State state = protocolInfo.getState(direction);
-        try {
-            protocolInfo.getPipeline().transform(direction, state, wrapper);
-        } catch (CancelException ex) {
-            throw cancelSupplier.apply(ex);
+        TransformMetricsImpl metrics = transformMetrics;
+        boolean recordMetrics = metrics.isEnabled();
+        int inputBytes = buf.writerIndex() - startIndex;
+        ProtocolPipeline pipeline = protocolInfo.getPipeline();
+        int passthroughId = pipeline.passthroughPacketId(direction, state, id);
+        if (passthroughId != -1) {
+            // No protocol has a handler for this packet, only the id has to be changed
+            ByteBuf output = passthroughId == id ? buf.readerIndex(startIndex).retain() : withPacketId(buf, passthroughId);
+            if (recordMetrics) {
+                metrics.recordPassthrough(direction, inputBytes, output.readableBytes());
+                if (pipeline instanceof ProtocolPipelineImpl) {
+                    ((ProtocolPipelineImpl) pipeline).recordPassthrough(metrics, direction, state, id);
+                }
+            }
+            return output;
         }
 
-        ByteBuf transformed = buf.alloc().buffer();
+        long start = recordMetrics ? metrics.startSample() : -1;
+        PacketWrapperImpl wrapper = packetWrapperPool.acquire(id, buf);
         try {
-            wrapper.writeToBuffer(transformed);
-            buf.clear().writeBytes(transformed);
+            try {
+                protocolInfo.getPipeline().transform(direction, state, wrapper);
+            } catch (CancelException ex) {
+                if (recordMetrics) {
+                    metrics.recordPipeline(direction, inputBytes, 0, start, true);
+                }
+                throw cancelSupplier.apply(ex);
+            }
+
+            ByteBuf output;
+            if (!wrapper.hasValues() && buf.readerIndex() == contentIndex && wrapper.getId() != -1) {
+                if (wrapper.getId() == id) {
+                    // Nothing changed, pass on the input buffer without copying
+                    output = buf.readerIndex(startIndex).retain();
+                } else {
+                    // Only the id changed, copy the remaining content once
+                    output = withPacketId(buf, wrapper.getId());
+                }
+            } else {
+                output = buf.alloc().buffer(inputBytes);
+                try {
+                    wrapper.writeToBuffer(output);
+                } catch (Exception e) {
+                    output.release();
+                    throw e;
+                }
+            }
+
+            if (recordMetrics) {
+                metrics.recordPipeline(direction, inputBytes, output.readableBytes(), start, false);
+            }
+            return output;
         } finally {
-            transformed.release();
+            packetWrapperPool.release(wrapper);
         }
     }
 
+    private ByteBuf withPacketId(ByteBuf content, int packetId) {
+        ByteBuf output = content.alloc().buffer(content.readableBytes() + 5);
+        Type.VAR_INT.writePrimitive(output, packetId);
+        output.writeBytes(content);
+        return output;
+    }
+
+    /**
+     * Returns the metrics this connection's transformations are recorded to.
+     *
+     * @return transformation metrics, possibly never enabled
+     */
+    public TransformMetricsImpl getTransformMetrics() {
+        return transformMetrics;
+    }
+
+    /**
+     * Returns the serial transform lane of this connection shared by its encode and decode handlers.
+     *
+     * @return transform queue, or null if async chunk transformation is disabled
+     */
+    public @Nullable OrderedTransformQueue getTransformQueue() {
+        return transformQueue;
+    }
+
+    /**
+     * Returns the pool of packet wrappers used for transforming this connection's packets.
+     * Must only be used by the thread currently transforming the connection's packets.
+     *
+     * @return packet wrapper pool
+     */
+    public PacketWrapperPool getPacketWrapperPool() {
+        return packetWrapperPool;
+    }
+
     @Override
     public long getId() {
         return id;
@@ -403,11 +526,39 @@ public class UserConnectionImpl implements UserConnection {
 
     @Override
     public UUID generatePassthroughToken() {
-        UUID token = UUID.randomUUID();
-        passthroughTokens.add(token);
+        return new UUID(passthroughTokenSalt(), nextPassthroughToken());
+    }
+
+    private long passthroughTokenSalt() {
+        return PASSTHROUGH_TOKEN_SALT ^ id;
+    }
+
+    private long nextPassthroughToken() {
+        final long token = passthroughTokenCounter.incrementAndGet();
+        // Reuse the bit of the token that just left the window
+        final int bit = (int) (token % PASSTHROUGH_TOKEN_WINDOW);
+        consumedPassthroughTokens.getAndAccumulate(bit >>> 6, ~(1L << bit), (word, mask) -> word & mask);
         return token;
     }
 
+    /**
+     * Consumes a passthrough token, accepting any token within the last {@link #PASSTHROUGH_TOKEN_WINDOW} generated ones
+     * that has not been consumed yet.
+     *
+     * @param token passthrough token
+     * @return whether the token was valid and had not been consumed before
+     */
+    private boolean consumePassthroughToken(final long token) {
+        final long counter = passthroughTokenCounter.get();
+        if (token <= 0 || token > counter || token <= counter - PASSTHROUGH_TOKEN_WINDOW) {
+            return false;
+        }
+
+        final int bit = (int) (token % PASSTHROUGH_TOKEN_WINDOW);
+        final long mask = 1L << bit;
+        return (consumedPassthroughTokens.getAndAccumulate(bit >>> 6, mask, (word, consumedMask) -> word | consumedMask) & mask) == 0;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
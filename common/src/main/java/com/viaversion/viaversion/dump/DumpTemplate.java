@@ -26,13 +26,19 @@ public class DumpTemplate {
     private final JsonObject platformDump;
     private final JsonObject injectionDump;
     private final JsonObject playerSample;
+    private final JsonObject bootProfile;
 
     public DumpTemplate(VersionInfo versionInfo, Map<String, Object> configuration, JsonObject platformDump, JsonObject injectionDump, JsonObject playerSample) {
+        this(versionInfo, configuration, platformDump, injectionDump, playerSample, null);
+    }
+
+    public DumpTemplate(VersionInfo versionInfo, Map<String, Object> configuration, JsonObject platformDump, JsonObject injectionDump, JsonObject playerSample, JsonObject bootProfile) {
         this.versionInfo = versionInfo;
         this.configuration = configuration;
         this.platformDump = platformDump;
         this.injectionDump = injectionDump;
         this.playerSample = playerSample;
+        this.bootProfile = bootProfile;
     }
 
     public VersionInfo getVersionInfo() {
@@ -54,4 +60,8 @@ public class DumpTemplate {
     public JsonObject getPlayerSample() {
         return playerSample;
     }
+
+    public JsonObject getBootProfile() {
+        return bootProfile;
+    }
 }
@@ -0,0 +1,482 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.handlers;
+
+import com.viaversion.viaversion.ViaManagerImpl;
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.connection.ProtocolInfo;
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.protocol.ProtocolPipeline;
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.connection.UserConnectionImpl;
+import com.viaversion.viaversion.protocol.ProtocolPipelineImpl;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandler;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.EncoderException;
+import io.netty.util.ReferenceCountUtil;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Serial transform lane of a connection, handing heavy clientbound packets to the transform workers while keeping packet order.
+ * <p>
+ * Once a heavy packet is offered, it and all following packets of the connection in both directions are transformed
+ * one after another on a worker, until no packets are left. Transforms of a connection thus never run concurrently,
+ * so protocol storages and the connection's packet wrapper pool are only ever used by one thread at a time.
+ * Scheduled sends of the connection join the lane as well while it is active.
+ * Transformed packets are numbered in the order they were offered in and written or passed on from a reorder buffer
+ * strictly in that order, together with the packets sent by their handlers during the transform.
+ * Apart from {@link #schedule} and {@link #deferSend}, all methods have to be called from the channel's event loop.
+ * If the workers are saturated or too many packets of the connection are queued, the lane runs on the event loop instead.
+ */
+public final class OrderedTransformQueue {
+    private final Int2ObjectMap<PendingPacket> reorderBuffer = new Int2ObjectOpenHashMap<>();
+    private final ArrayDeque<PendingPacket> pending = new ArrayDeque<>();
+    private final List<PendingPacket> completed = new ArrayList<>();
+    private final UserConnection connection;
+    private final Executor workers;
+    private final int maxQueued;
+    private Codec encoder;
+    private Codec decoder;
+    private int nextSequence;
+    private int nextWriteSequence;
+    private int queued;
+    private boolean laneActive;
+    private boolean writeScheduled;
+    // Only read and written by the thread running the lane
+    private @Nullable PendingPacket transforming;
+    private @Nullable Thread transformThread;
+
+    private OrderedTransformQueue(final UserConnection connection, final Executor workers, final int maxQueued) {
+        this.connection = connection;
+        this.workers = workers;
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Returns a new transform queue for the connection if async chunk transformation is enabled.
+     *
+     * @param connection user connection
+     * @return new transform queue, or null if disabled
+     */
+    public static @Nullable OrderedTransformQueue create(final UserConnection connection) {
+        if (!(Via.getManager() instanceof ViaManagerImpl)) {
+            return null;
+        }
+
+        final Executor workers = ((ViaManagerImpl) Via.getManager()).getTransformWorkers();
+        return workers != null ? new OrderedTransformQueue(connection, workers, Math.max(1, Via.getConfig().getAsyncChunkTransformPlayerQueueSize())) : null;
+    }
+
+    /**
+     * Returns the transform queue of the connection, setting the encoder used for clientbound packets.
+     *
+     * @param connection user connection
+     * @param encoder    encode method of the connection's encode handler
+     * @return transform queue of the connection, or null if disabled
+     */
+    public static @Nullable OrderedTransformQueue clientbound(final UserConnection connection, final Codec encoder) {
+        final OrderedTransformQueue queue = of(connection);
+        if (queue != null) {
+            queue.encoder = encoder;
+        }
+        return queue;
+    }
+
+    /**
+     * Returns the transform queue of the connection, setting the decoder used for serverbound packets.
+     *
+     * @param connection user connection
+     * @param decoder    decode method of the connection's decode handler
+     * @return transform queue of the connection, or null if disabled
+     */
+    public static @Nullable OrderedTransformQueue serverbound(final UserConnection connection, final Codec decoder) {
+        final OrderedTransformQueue queue = of(connection);
+        if (queue != null) {
+            queue.decoder = decoder;
+        }
+        return queue;
+    }
+
+    private static @Nullable OrderedTransformQueue of(final UserConnection connection) {
+        return connection instanceof UserConnectionImpl ? ((UserConnectionImpl) connection).getTransformQueue() : null;
+    }
+
+    /**
+     * Runs the task on the connection's event loop, or on the transform lane after all pending packets if it is active.
+     *
+     * @param connection user connection
+     * @param task       task transforming and sending a packet
+     */
+    public static void schedule(final UserConnection connection, final Runnable task) {
+        connection.getChannel().eventLoop().submit(() -> {
+            final OrderedTransformQueue queue = of(connection);
+            if (queue == null || !queue.offerTask(task)) {
+                task.run();
+            }
+        });
+    }
+
+    /**
+     * Queues the outgoing message if it is heavy or earlier messages are still pending.
+     * Ownership of queued messages is transferred to the queue.
+     *
+     * @param ctx     encode handler context
+     * @param msg     outgoing message
+     * @param promise write promise
+     * @return true if the message has been queued, false if it has to be encoded directly
+     */
+    public boolean offerClientbound(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) {
+        if (queued == 0 && !isHeavy(msg)) {
+            return false;
+        }
+
+        enqueue(new PendingPacket(ctx, msg, promise));
+        return true;
+    }
+
+    /**
+     * Queues the incoming message if earlier messages are still pending.
+     * Ownership of queued messages is transferred to the queue.
+     *
+     * @param ctx decode handler context
+     * @param msg incoming message
+     * @return true if the message has been queued, false if it has to be decoded directly
+     */
+    public boolean offerServerbound(final ChannelHandlerContext ctx, final Object msg) {
+        if (queued == 0) {
+            return false;
+        }
+
+        enqueue(new PendingPacket(ctx, msg, null));
+        return true;
+    }
+
+    /**
+     * Queues the task if earlier messages are still pending.
+     *
+     * @param task task to run on the lane
+     * @return true if the task has been queued, false if it has to be run directly
+     */
+    public boolean offerTask(final Runnable task) {
+        if (queued == 0) {
+            return false;
+        }
+
+        enqueue(new PendingPacket(null, task, null));
+        return true;
+    }
+
+    /**
+     * Defers a send made by a handler while the lane transforms a packet on the current thread.
+     * The send is run on the event loop right before the transformed packet is written or passed on.
+     * Ownership of the buffer is transferred to the queue if the send has been deferred.
+     *
+     * @param buf  buffer to be sent
+     * @param send action sending the buffer
+     * @return true if the send has been deferred, false if it has to be run directly
+     */
+    public boolean deferSend(final ByteBuf buf, final Runnable send) {
+        final PendingPacket packet = transforming;
+        if (packet == null || transformThread != Thread.currentThread()) {
+            return false;
+        }
+
+        if (packet.sends == null) {
+            packet.sends = new ArrayList<>(1);
+        }
+        packet.sends.add(new DeferredSend(buf, send));
+        return true;
+    }
+
+    private void enqueue(final PendingPacket packet) {
+        packet.sequence = nextSequence++;
+        queued++;
+
+        final boolean startLane;
+        synchronized (this) {
+            pending.add(packet);
+            startLane = !laneActive;
+            laneActive = true;
+        }
+
+        if (queued > maxQueued) {
+            // Too far behind, take over the lane and catch up right here
+            if (startLane) {
+                runLane();
+            } else if (!awaitLane()) {
+                return;
+            }
+            writeCompleted();
+            return;
+        }
+
+        if (startLane) {
+            try {
+                workers.execute(this::runLane);
+            } catch (final RejectedExecutionException ignored) {
+                // Workers are saturated, transform them right here
+                runLane();
+            }
+        }
+    }
+
+    private void runLane() {
+        while (true) {
+            final PendingPacket packet;
+            synchronized (this) {
+                packet = pending.poll();
+                if (packet == null) {
+                    laneActive = false;
+                    notifyAll();
+                    return;
+                }
+            }
+
+            transforming = packet;
+            transformThread = Thread.currentThread();
+            try {
+                transform(packet);
+            } finally {
+                transforming = null;
+                transformThread = null;
+            }
+
+            final boolean scheduleWrite;
+            synchronized (this) {
+                completed.add(packet);
+                scheduleWrite = !writeScheduled;
+                writeScheduled = true;
+            }
+
+            if (scheduleWrite) {
+                try {
+                    connection.getChannel().eventLoop().execute(this::writeCompleted);
+                } catch (final RejectedExecutionException e) {
+                    // The event loop is shutting down
+                    releaseCompleted();
+                }
+            }
+        }
+    }
+
+    private synchronized boolean awaitLane() {
+        try {
+            while (laneActive) {
+                wait();
+            }
+            return true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void transform(final PendingPacket packet) {
+        if (packet.ctx == null) {
+            try {
+                ((Runnable) packet.msg).run();
+            } catch (final Throwable t) {
+                packet.failure = t;
+            }
+            return;
+        }
+        if (!(packet.msg instanceof ByteBuf)) {
+            packet.out.add(packet.msg);
+            return;
+        }
+
+        final ByteBuf buf = (ByteBuf) packet.msg;
+        try {
+            (packet.promise != null ? encoder : decoder).transform(packet.ctx, buf, packet.out);
+        } catch (final Throwable t) {
+            packet.failure = t;
+        } finally {
+            buf.release();
+        }
+    }
+
+    private void writeCompleted() {
+        synchronized (this) {
+            writeScheduled = false;
+            for (final PendingPacket packet : completed) {
+                reorderBuffer.put(packet.sequence, packet);
+            }
+            completed.clear();
+        }
+
+        ChannelHandlerContext flushCtx = null;
+        ChannelHandlerContext readCtx = null;
+        PendingPacket packet;
+        while ((packet = reorderBuffer.remove(nextWriteSequence)) != null) {
+            nextWriteSequence++;
+            queued--;
+            if (packet.sends != null) {
+                for (final DeferredSend send : packet.sends) {
+                    send.send.run();
+                }
+            }
+
+            if (packet.ctx == null) {
+                if (packet.failure != null) {
+                    Via.getPlatform().getLogger().log(Level.WARNING, "Failed to send scheduled packet", packet.failure);
+                }
+            } else if (packet.promise != null) {
+                write(packet);
+                flushCtx = packet.ctx;
+            } else {
+                read(packet);
+                readCtx = packet.ctx;
+            }
+        }
+
+        if (readCtx != null) {
+            readCtx.fireChannelReadComplete();
+        }
+        if (flushCtx != null) {
+            // Earlier flushes have already passed
+            flushCtx.flush();
+        }
+    }
+
+    private synchronized void releaseCompleted() {
+        writeScheduled = false;
+        for (final PendingPacket packet : completed) {
+            if (packet.sends != null) {
+                for (final DeferredSend send : packet.sends) {
+                    send.buf.release();
+                }
+            }
+            for (final Object o : packet.out) {
+                ReferenceCountUtil.release(o);
+            }
+        }
+        completed.clear();
+    }
+
+    private static void write(final PendingPacket packet) {
+        final ChannelHandlerContext ctx = packet.ctx;
+        final List<Object> out = packet.out;
+        if (packet.failure != null) {
+            for (final Object o : out) {
+                ReferenceCountUtil.release(o);
+            }
+            packet.promise.tryFailure(packet.failure instanceof EncoderException ? packet.failure : new EncoderException(packet.failure));
+            return;
+        }
+        if (out.isEmpty()) {
+            packet.promise.tryFailure(new EncoderException("Transformation did not produce a message"));
+            return;
+        }
+
+        final int last = out.size() - 1;
+        for (int i = 0; i < last; i++) {
+            ctx.write(out.get(i), ctx.voidPromise());
+        }
+        ctx.write(out.get(last), packet.promise);
+    }
+
+    private static void read(final PendingPacket packet) {
+        final ChannelHandlerContext ctx = packet.ctx;
+        if (packet.failure != null) {
+            for (final Object o : packet.out) {
+                ReferenceCountUtil.release(o);
+            }
+
+            // Same as if thrown from the decode handler itself
+            final Throwable cause = packet.failure instanceof DecoderException ? packet.failure : new DecoderException(packet.failure);
+            try {
+                ((ChannelInboundHandler) ctx.handler()).exceptionCaught(ctx, cause);
+            } catch (final Throwable t) {
+                ctx.fireExceptionCaught(t);
+            }
+            return;
+        }
+
+        for (final Object o : packet.out) {
+            ctx.fireChannelRead(o);
+        }
+    }
+
+    private boolean isHeavy(final Object msg) {
+        if (!(msg instanceof ByteBuf) || !connection.shouldTransformPacket()) {
+            return false;
+        }
+
+        final ProtocolInfo protocolInfo = connection.getProtocolInfo();
+        final ProtocolPipeline pipeline = protocolInfo.getPipeline();
+        if (!(pipeline instanceof ProtocolPipelineImpl)) {
+            return false;
+        }
+
+        final ByteBuf buf = (ByteBuf) msg;
+        final int readerIndex = buf.readerIndex();
+        final int packetId;
+        try {
+            packetId = Type.VAR_INT.readPrimitive(buf);
+        } catch (final RuntimeException e) {
+            return false;
+        } finally {
+            buf.readerIndex(readerIndex);
+        }
+        return ((ProtocolPipelineImpl) pipeline).isHeavy(Direction.CLIENTBOUND, protocolInfo.getState(Direction.CLIENTBOUND), packetId);
+    }
+
+    @FunctionalInterface
+    public interface Codec {
+
+        void transform(ChannelHandlerContext ctx, ByteBuf buf, List<Object> out) throws Exception;
+    }
+
+    private static final class PendingPacket {
+        private final List<Object> out = new ArrayList<>(1);
+        private final @Nullable ChannelHandlerContext ctx; // Null for tasks
+        private final Object msg;
+        private final @Nullable ChannelPromise promise;
+        private @Nullable List<DeferredSend> sends;
+        private @Nullable Throwable failure;
+        private int sequence;
+
+        private PendingPacket(@Nullable final ChannelHandlerContext ctx, final Object msg, @Nullable final ChannelPromise promise) {
+            this.ctx = ctx;
+            this.msg = msg;
+            this.promise = promise;
+        }
+    }
+
+    private static final class DeferredSend {
+        private final ByteBuf buf;
+        private final Runnable send;
+
+        private DeferredSend(final ByteBuf buf, final Runnable send) {
+            this.buf = buf;
+            this.send = send;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.metrics;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.viaversion.viaversion.ViaManagerImpl;
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.ViaManager;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Records wall time, cpu time and allocated bytes of the phases of Via's startup and of each protocol's setup.
+ * Cpu time and allocations are measured on the thread running a section. They are 0 if unsupported by the JVM,
+ * only wall time is recorded on JVMs without HotSpot's thread management extensions.
+ */
+public final class BootProfiler {
+    private static final BootProfiler NO_OP = new BootProfiler(false);
+    private static final Comparator<Map.Entry<String, Timing>> BY_WALL_TIME = Comparator.comparingLong(entry -> -entry.getValue().wallNanos());
+    private final Map<String, Timing> phases = new ConcurrentHashMap<>();
+    private final Map<String, ProtocolTiming> protocols = new ConcurrentHashMap<>();
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final boolean enabled;
+    private final boolean cpuTime;
+    private final boolean allocations;
+
+    public BootProfiler() {
+        this(true);
+    }
+
+    private BootProfiler(final boolean enabled) {
+        this.enabled = enabled;
+        final boolean hotSpot = enabled && isHotSpotThreadBean(threadBean);
+        this.cpuTime = hotSpot && threadBean.isCurrentThreadCpuTimeSupported() && threadBean.isThreadCpuTimeEnabled();
+        this.allocations = hotSpot && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemoryEnabled();
+    }
+
+    private static boolean isHotSpotThreadBean(final ThreadMXBean threadBean) {
+        try {
+            // Looked up by name, as the class is missing on some JVMs
+            return Class.forName("com.sun.management.ThreadMXBean", false, BootProfiler.class.getClassLoader()).isInstance(threadBean);
+        } catch (final ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the boot profiler of the current Via manager, or a profiler not recording anything
+     * if the manager is not Via's own implementation.
+     *
+     * @return boot profiler of the current Via manager
+     */
+    public static BootProfiler get() {
+        final ViaManager manager = Via.getManager();
+        return manager instanceof ViaManagerImpl ? ((ViaManagerImpl) manager).getBootProfiler() : NO_OP;
+    }
+
+    /**
+     * Starts timing a startup phase, to be closed once the phase has finished.
+     *
+     * @param name name of the phase
+     * @return section to close once finished
+     */
+    public Section phase(final String name) {
+        return new Section(enabled ? phases.computeIfAbsent(name, key -> new Timing()) : null);
+    }
+
+    /**
+     * Starts timing a setup step of the given protocol, to be closed once the step has finished.
+     *
+     * @param protocolClass protocol class
+     * @param step          name of the step, e.g. initialize or mappings
+     * @return section to close once finished
+     */
+    public Section protocol(final Class<? extends Protocol> protocolClass, final String step) {
+        if (!enabled) {
+            return new Section(null);
+        }
+
+        final ProtocolTiming timing = protocols.computeIfAbsent(protocolClass.getSimpleName(), key -> new ProtocolTiming());
+        return new Section(timing.steps.computeIfAbsent(step, key -> new Timing()), timing);
+    }
+
+    /**
+     * Times the given startup phase.
+     *
+     * @param name     name of the phase
+     * @param runnable phase to run
+     */
+    public void phase(final String name, final Runnable runnable) {
+        try (final Section ignored = phase(name)) {
+            runnable.run();
+        }
+    }
+
+    /**
+     * Returns the report lines of all phases and protocols, each sorted by wall time.
+     *
+     * @param maxProtocols max number of protocols to include
+     * @return report lines
+     */
+    public List<String> report(final int maxProtocols) {
+        final List<String> lines = new ArrayList<>();
+        lines.add("Phases:");
+        for (final Map.Entry<String, Timing> entry : sorted(phases)) {
+            lines.add(" " + entry.getKey() + ": " + entry.getValue().format());
+        }
+
+        final List<Map.Entry<String, Timing>> protocolEntries = sorted(protocols);
+        lines.add("Protocols (" + protocolEntries.size() + "):");
+        for (final Map.Entry<String, Timing> entry : protocolEntries.subList(0, Math.min(maxProtocols, protocolEntries.size()))) {
+            final StringBuilder builder = new StringBuilder(" ").append(entry.getKey()).append(": ").append(entry.getValue().format()).append(" (");
+            boolean first = true;
+            for (final Map.Entry<String, Timing> step : sorted(((ProtocolTiming) entry.getValue()).steps)) {
+                if (!first) {
+                    builder.append(", ");
+                }
+                builder.append(step.getKey()).append(' ').append(TimeUnit.NANOSECONDS.toMillis(step.getValue().wallNanos())).append("ms");
+                first = false;
+            }
+            lines.add(builder.append(')').toString());
+        }
+        return lines;
+    }
+
+    public void logReport(final Logger logger, final int maxProtocols) {
+        for (final String line : report(maxProtocols)) {
+            logger.info(line);
+        }
+    }
+
+    public JsonObject toJson() {
+        final JsonObject object = new JsonObject();
+        final JsonArray phaseArray = new JsonArray();
+        for (final Map.Entry<String, Timing> entry : sorted(phases)) {
+            phaseArray.add(entry.getValue().toJson(entry.getKey()));
+        }
+        object.add("phases", phaseArray);
+
+        final JsonArray protocolArray = new JsonArray();
+        for (final Map.Entry<String, Timing> entry : sorted(protocols)) {
+            final JsonObject protocolObject = entry.getValue().toJson(entry.getKey());
+            final JsonArray stepArray = new JsonArray();
+            for (final Map.Entry<String, Timing> step : sorted(((ProtocolTiming) entry.getValue()).steps)) {
+                stepArray.add(step.getValue().toJson(step.getKey()));
+            }
+            protocolObject.add("steps", stepArray);
+            protocolArray.add(protocolObject);
+        }
+        object.add("protocols", protocolArray);
+        return object;
+    }
+
+    private static List<Map.Entry<String, Timing>> sorted(final Map<String, ? extends Timing> timings) {
+        final List<Map.Entry<String, Timing>> entries = new ArrayList<>(timings.size());
+        for (final Map.Entry<String, ? extends Timing> entry : timings.entrySet()) {
+            entries.add(new AbstractMap.SimpleEntry<>(entry.getKey(), entry.getValue()));
+        }
+        entries.sort(BY_WALL_TIME);
+        return entries;
+    }
+
+    private long cpuNanos() {
+        return cpuTime ? threadBean.getCurrentThreadCpuTime() : 0;
+    }
+
+    private long allocatedBytes() {
+        return allocations ? ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    public final class Section implements AutoCloseable {
+        private final Timing timing;
+        private final Timing parent;
+        private final long startWall = System.nanoTime();
+        private final long startCpu = cpuNanos();
+        private final long startAllocated = allocatedBytes();
+
+        private Section(final Timing timing) {
+            this(timing, null);
+        }
+
+        private Section(final Timing timing, final Timing parent) {
+            this.timing = timing;
+            this.parent = parent;
+        }
+
+        @Override
+        public void close() {
+            if (timing == null) {
+                return;
+            }
+
+            final long wall = System.nanoTime() - startWall;
+            final long cpu = cpuNanos() - startCpu;
+            final long allocated = allocatedBytes() - startAllocated;
+            timing.add(wall, cpu, allocated);
+            if (parent != null) {
+                parent.add(wall, cpu, allocated);
+            }
+        }
+    }
+
+    private static class Timing {
+        private final LongAdder wallNanos = new LongAdder();
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder invocations = new LongAdder();
+
+        void add(final long wall, final long cpu, final long allocated) {
+            wallNanos.add(wall);
+            cpuNanos.add(cpu);
+            allocatedBytes.add(allocated);
+            invocations.increment();
+        }
+
+        long wallNanos() {
+            return wallNanos.sum();
+        }
+
+        String format() {
+            return String.format("%dms wall, %dms cpu, %d KiB allocated", TimeUnit.NANOSECONDS.toMillis(wallNanos.sum()),
+                    TimeUnit.NANOSECONDS.toMillis(cpuNanos.sum()), allocatedBytes.sum() / 1024);
+        }
+
+        JsonObject toJson(final String name) {
+            final JsonObject object = new JsonObject();
+            object.addProperty("name", name);
+            object.addProperty("wallMillis", TimeUnit.NANOSECONDS.toMillis(wallNanos.sum()));
+            object.addProperty("cpuMillis", TimeUnit.NANOSECONDS.toMillis(cpuNanos.sum()));
+            object.addProperty("allocatedKiB", allocatedBytes.sum() / 1024);
+            object.addProperty("invocations", invocations.sum());
+            return object;
+        }
+    }
+
+    private static final class ProtocolTiming extends Timing {
+        private final Map<String, Timing> steps = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.metrics;
+
+import com.viaversion.viaversion.ViaManagerImpl;
+import com.viaversion.viaversion.api.ViaManager;
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.metrics.PipelineStats;
+import com.viaversion.viaversion.api.metrics.TransformMetrics;
+import com.viaversion.viaversion.api.metrics.TransformStats;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.api.protocol.packet.PacketType;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import com.viaversion.viaversion.api.protocol.packet.provider.PacketTypeMap;
+import com.viaversion.viaversion.api.protocol.packet.provider.PacketTypesProvider;
+import com.viaversion.viaversion.connection.UserConnectionImpl;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+public final class TransformMetricsImpl implements TransformMetrics {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final State[] STATES = State.values();
+    private static final int MAX_PACKET_ID = 256; // Larger ids are only counted towards the protocol
+    private static final TransformMetricsImpl DISABLED = new TransformMetricsImpl();
+    private final Map<Class<? extends Protocol>, ProtocolStats> protocols = new ConcurrentHashMap<>();
+    private final PipelineStatsImpl[] pipelines = new PipelineStatsImpl[DIRECTIONS.length];
+    private volatile boolean enabled;
+    private volatile int sampleRate = 1;
+
+    public TransformMetricsImpl() {
+        for (int i = 0; i < pipelines.length; i++) {
+            pipelines[i] = new PipelineStatsImpl();
+        }
+    }
+
+    /**
+     * Returns the metrics recorded by the given manager.
+     *
+     * @param manager Via manager
+     * @return metrics of the manager, or metrics that are never enabled if it doesn't record any
+     */
+    public static TransformMetricsImpl of(final ViaManager manager) {
+        return manager instanceof ViaManagerImpl ? ((ViaManagerImpl) manager).getTransformMetrics() : DISABLED;
+    }
+
+    /**
+     * Returns the metrics packets of the given connection are recorded to.
+     *
+     * @param connection user connection
+     * @return metrics of the connection, or metrics that are never enabled if it doesn't record any
+     */
+    public static TransformMetricsImpl of(@Nullable final UserConnection connection) {
+        return connection instanceof UserConnectionImpl ? ((UserConnectionImpl) connection).getTransformMetrics() : DISABLED;
+    }
+
+    public void configure(final boolean enabled, final int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public int sampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Returns the start time of a transformation if it should be timed.
+     *
+     * @return the current nano time if the transformation should be timed, else -1
+     */
+    public long startSample() {
+        final int sampleRate = this.sampleRate;
+        if (sampleRate != 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return -1;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a single protocol having transformed a packet.
+     *
+     * @param protocol  protocol that has transformed the packet
+     * @param direction packet direction
+     * @param state     state the packet was transformed in
+     * @param packetId  unmapped packet id of the protocol
+     * @param start     start time as given by {@link #startSample()}
+     * @param cancelled whether the packet was cancelled by the protocol
+     */
+    public void recordTransform(final Protocol protocol, final Direction direction, final State state, final int packetId, final long start, final boolean cancelled) {
+        final long nanos = start != -1 ? System.nanoTime() - start : -1;
+        ProtocolStats stats = protocols.get(protocol.getClass());
+        if (stats == null) {
+            stats = protocols.computeIfAbsent(protocol.getClass(), $ -> new ProtocolStats(protocol));
+        }
+
+        stats.record(nanos, cancelled);
+        if (packetId >= 0 && packetId < MAX_PACKET_ID) {
+            stats.packet(direction, state, packetId).record(nanos, cancelled);
+        }
+    }
+
+    /**
+     * Records a packet having passed through a whole protocol pipeline.
+     *
+     * @param direction   packet direction
+     * @param inputBytes  packet size before being transformed
+     * @param outputBytes packet size after being transformed, ignored if cancelled
+     * @param start       start time as given by {@link #startSample()}
+     * @param cancelled   whether the packet was cancelled
+     */
+    public void recordPipeline(final Direction direction, final int inputBytes, final int outputBytes, final long start, final boolean cancelled) {
+        final PipelineStatsImpl stats = pipelines[direction.ordinal()];
+        stats.record(start != -1 ? System.nanoTime() - start : -1, cancelled);
+        stats.inputBytes.add(inputBytes);
+        if (!cancelled) {
+            stats.outputBytes.add(outputBytes);
+        }
+    }
+
+    /**
+     * Records a packet having been passed through a whole protocol pipeline without any protocol handling it.
+     *
+     * @param direction   packet direction
+     * @param inputBytes  packet size before its id has been changed
+     * @param outputBytes packet size after its id has been changed
+     */
+    public void recordPassthrough(final Direction direction, final int inputBytes, final int outputBytes) {
+        final PipelineStatsImpl stats = pipelines[direction.ordinal()];
+        stats.record(-1, false);
+        stats.passthroughs.increment();
+        stats.inputBytes.add(inputBytes);
+        stats.outputBytes.add(outputBytes);
+    }
+
+    @Override
+    public PipelineStats pipeline(final Direction direction) {
+        return pipelines[direction.ordinal()];
+    }
+
+    @Override
+    public Map<Class<? extends Protocol>, TransformStats> protocols() {
+        return Collections.unmodifiableMap(protocols);
+    }
+
+    @Override
+    public Map<String, TransformStats> packets(final Class<? extends Protocol> protocolClass) {
+        final ProtocolStats stats = protocols.get(protocolClass);
+        if (stats == null) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, TransformStats> packets = new HashMap<>();
+        for (int slot = 0; slot < stats.packets.length(); slot++) {
+            final AtomicReferenceArray<TransformStatsImpl> packetStats = stats.packets.get(slot);
+            if (packetStats == null) {
+                continue;
+            }
+
+            final Direction direction = DIRECTIONS[slot / STATES.length];
+            final State state = STATES[slot % STATES.length];
+            for (int id = 0; id < packetStats.length(); id++) {
+                final TransformStatsImpl packet = packetStats.get(id);
+                if (packet != null) {
+                    packets.put(state + "/" + direction + "/" + packetName(stats.protocol, direction, state, id), packet);
+                }
+            }
+        }
+        return Collections.unmodifiableMap(packets);
+    }
+
+    @Override
+    public void reset() {
+        protocols.clear();
+        for (final PipelineStatsImpl pipeline : pipelines) {
+            pipeline.reset();
+        }
+    }
+
+    private static String packetName(final Protocol<?, ?, ?, ?> protocol, final Direction direction, final State state, final int id) {
+        final PacketTypesProvider<?, ?, ?, ?> provider = protocol.getPacketTypesProvider();
+        final Map<State, ? extends PacketTypeMap<? extends PacketType>> types = direction == Direction.CLIENTBOUND
+                ? provider.unmappedClientboundPacketTypes() : provider.unmappedServerboundPacketTypes();
+        final PacketTypeMap<? extends PacketType> typeMap = types.get(state);
+        final @Nullable PacketType type = typeMap != null ? typeMap.typeById(id) : null;
+        return type != null ? type.getName() : String.format("0x%02X", id);
+    }
+
+    private static class TransformStatsImpl implements TransformStats {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder cancellations = new LongAdder();
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder sampledNanos = new LongAdder();
+
+        void record(final long nanos, final boolean cancelled) {
+            invocations.increment();
+            if (cancelled) {
+                cancellations.increment();
+            }
+            if (nanos != -1) {
+                samples.increment();
+                sampledNanos.add(nanos);
+            }
+        }
+
+        void reset() {
+            invocations.reset();
+            cancellations.reset();
+            samples.reset();
+            sampledNanos.reset();
+        }
+
+        @Override
+        public long invocations() {
+            return invocations.sum();
+        }
+
+        @Override
+        public long cancellations() {
+            return cancellations.sum();
+        }
+
+        @Override
+        public long samples() {
+            return samples.sum();
+        }
+
+        @Override
+        public long sampledNanos() {
+            return sampledNanos.sum();
+        }
+    }
+
+    private static final class PipelineStatsImpl extends TransformStatsImpl implements PipelineStats {
+        private final LongAdder inputBytes = new LongAdder();
+        private final LongAdder outputBytes = new LongAdder();
+        private final LongAdder passthroughs = new LongAdder();
+
+        @Override
+        void reset() {
+            super.reset();
+            inputBytes.reset();
+            outputBytes.reset();
+            passthroughs.reset();
+        }
+
+        @Override
+        public long inputBytes() {
+            return inputBytes.sum();
+        }
+
+        @Override
+        public long outputBytes() {
+            return outputBytes.sum();
+        }
+
+        @Override
+        public long passthroughs() {
+            return passthroughs.sum();
+        }
+    }
+
+    private static final class ProtocolStats extends TransformStatsImpl {
+        // Packet counters by direction and state, each lazily created and indexed by packet id
+        private final AtomicReferenceArray<AtomicReferenceArray<TransformStatsImpl>> packets = new AtomicReferenceArray<>(DIRECTIONS.length * STATES.length);
+        private final Protocol<?, ?, ?, ?> protocol;
+
+        ProtocolStats(final Protocol<?, ?, ?, ?> protocol) {
+            this.protocol = protocol;
+        }
+
+        TransformStatsImpl packet(final Direction direction, final State state, final int packetId) {
+            final int slot = direction.ordinal() * STATES.length + state.ordinal();
+            AtomicReferenceArray<TransformStatsImpl> packetStats = packets.get(slot);
+            if (packetStats == null) {
+                packets.compareAndSet(slot, null, new AtomicReferenceArray<>(MAX_PACKET_ID));
+                packetStats = packets.get(slot);
+            }
+
+            TransformStatsImpl stats = packetStats.get(packetId);
+            if (stats == null) {
+                packetStats.compareAndSet(packetId, null, new TransformStatsImpl());
+                stats = packetStats.get(packetId);
+            }
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocol;
+
+import com.viaversion.viaversion.api.data.IntArrayMappings;
+import com.viaversion.viaversion.api.data.MappingData;
+import com.viaversion.viaversion.api.data.Mappings;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Block state mappings composed across runs of consecutive protocols in a clientbound protocol chain.
+ * <p>
+ * Only the first protocol of a run applies the composed mappings, the following ones in the run skip the id step,
+ * turning one palette pass per protocol into a single one.
+ */
+public final class ComposedMappings {
+    public static final ComposedMappings EMPTY = new ComposedMappings(Collections.emptyMap());
+    private final Map<Protocol, Run> blockStateRuns;
+
+    private ComposedMappings(final Map<Protocol, Run> blockStateRuns) {
+        this.blockStateRuns = blockStateRuns;
+    }
+
+    /**
+     * Composes the block state mappings of all runs of at least two consecutive composable protocols.
+     *
+     * @param clientboundProtocols protocols in order of clientbound transformation
+     * @param composable           whether a protocol class opted into composed block state mappings
+     * @return composed mappings of the chain
+     */
+    public static ComposedMappings compose(final Protocol[] clientboundProtocols, final Predicate<Class<? extends Protocol>> composable) {
+        final Map<Protocol, Run> blockStateRuns = new IdentityHashMap<>();
+        final List<Protocol> run = new ArrayList<>();
+        for (final Protocol protocol : clientboundProtocols) {
+            if (composable.test(protocol.getClass()) && protocol.getMappingData() != null && protocol.getMappingData().getBlockStateMappings() != null) {
+                run.add(protocol);
+                continue;
+            }
+
+            addRun(blockStateRuns, run);
+            run.clear();
+        }
+        addRun(blockStateRuns, run);
+        return blockStateRuns.isEmpty() ? EMPTY : new ComposedMappings(blockStateRuns);
+    }
+
+    private static void addRun(final Map<Protocol, Run> blockStateRuns, final List<Protocol> protocols) {
+        if (protocols.size() < 2) {
+            return;
+        }
+
+        final MappingData[] hops = new MappingData[protocols.size()];
+        for (int i = 0; i < hops.length; i++) {
+            hops[i] = protocols.get(i).getMappingData();
+        }
+
+        final Mappings firstMappings = hops[0].getBlockStateMappings();
+        final int[] mappings = new int[firstMappings.size()];
+        for (int id = 0; id < mappings.length; id++) {
+            int mappedId = id;
+            for (final MappingData hop : hops) {
+                mappedId = hop.getBlockStateMappings().getNewId(mappedId);
+                if (mappedId == -1) {
+                    break;
+                }
+            }
+            mappings[id] = mappedId;
+        }
+
+        final Run run = new Run(protocols.get(0), hops, IntArrayMappings.of(mappings, hops[hops.length - 1].getBlockStateMappings().mappedSize()));
+        for (final Protocol protocol : protocols) {
+            blockStateRuns.put(protocol, run);
+        }
+    }
+
+    /**
+     * Returns the composed block state run the given protocol is part of.
+     *
+     * @param protocol protocol
+     * @return composed block state run, or null if the protocol has to apply its own mappings
+     */
+    public @Nullable Run blockStates(final Protocol protocol) {
+        return blockStateRuns.get(protocol);
+    }
+
+    public static final class Run {
+        private final Protocol head;
+        private final MappingData[] hops;
+        private final Mappings mappings;
+
+        private Run(final Protocol head, final MappingData[] hops, final Mappings mappings) {
+            this.head = head;
+            this.hops = hops;
+            this.mappings = mappings;
+        }
+
+        /**
+         * Returns whether the given protocol applies the composed mappings, or otherwise skips the id step.
+         *
+         * @param protocol protocol of the run
+         * @return whether the protocol is the first one of the run
+         */
+        public boolean isHead(final Protocol protocol) {
+            return head == protocol;
+        }
+
+        /**
+         * Returns the block state id mapped through all protocols of the run.
+         *
+         * @param id unmapped block state id
+         * @return mapped block state id
+         */
+        public int getNewId(final int id) {
+            final int mappedId = mappings.getNewId(id);
+            if (mappedId != -1) {
+                return mappedId;
+            }
+
+            // Go through the single protocols to keep their fallback and warnings
+            int newId = id;
+            for (final MappingData hop : hops) {
+                newId = hop.getNewBlockStateId(newId);
+            }
+            return newId;
+        }
+
+        /**
+         * Returns the amount of block states after the last protocol of the run.
+         *
+         * @return amount of mapped block states
+         */
+        public int mappedSize() {
+            return mappings.mappedSize();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocol;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.data.BiMappings;
+import com.viaversion.viaversion.api.data.MappingData;
+import com.viaversion.viaversion.api.data.Mappings;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Runs mapping loaders on a thread pool bounded by the available processors.
+ * <p>
+ * Loaders depending on another protocol's data are only queued once that has finished loading.
+ * Queued loaders are ordered by the length of the longest chain of loaders known to depend on them,
+ * so that long dependency chains are started first.
+ */
+final class MappingLoaderScheduler {
+    private final Map<Class<? extends Protocol>, Set<Class<? extends Protocol>>> dependents = new ConcurrentHashMap<>();
+    private final Map<Class<? extends Protocol>, Timing> timings = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ThreadPoolExecutor executor;
+    private final long startNanos = System.nanoTime();
+    private final long startHeap = usedHeap();
+
+    MappingLoaderScheduler() {
+        // Leave a core for the network threads, logins are already being accepted while loading
+        final int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        executor = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS, new PriorityBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("Via-Mappingloader-%d").build());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queues the given loader.
+     *
+     * @param protocolClass protocol class the loader belongs to
+     * @param runnable      loader
+     * @return future completed once the loader has run
+     */
+    CompletableFuture<Void> submit(final Class<? extends Protocol> protocolClass, final Runnable runnable) {
+        final Task task = new Task(protocolClass, runnable, criticalPathLength(protocolClass, new HashSet<>()), sequence.getAndIncrement());
+        executor.execute(task);
+        return task.future;
+    }
+
+    /**
+     * Queues the given loader once the dependency has completed, regardless of whether it completed exceptionally.
+     *
+     * @param protocolClass protocol class the loader belongs to
+     * @param dependsOn     protocol class of the dependency
+     * @param dependency    future of the dependency, or null if already completed
+     * @param runnable      loader
+     * @return future completed once the loader has run
+     */
+    CompletableFuture<Void> submit(final Class<? extends Protocol> protocolClass, final Class<? extends Protocol> dependsOn,
+                                   @Nullable final CompletableFuture<Void> dependency, final Runnable runnable) {
+        dependents.computeIfAbsent(dependsOn, c -> ConcurrentHashMap.newKeySet()).add(protocolClass);
+        if (dependency == null) {
+            return submit(protocolClass, runnable);
+        }
+        return dependency.handle((v, throwable) -> null).thenCompose(v -> submit(protocolClass, runnable));
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Logs the load times of all loaders as well as the estimated memory retained by their mapping data.
+     * Timings of individual protocols are only logged in debug mode.
+     *
+     * @param logger logger
+     */
+    void logReport(final Logger logger) {
+        final List<Map.Entry<Class<? extends Protocol>, Timing>> entries = new ArrayList<>(timings.entrySet());
+        entries.sort((e1, e2) -> Long.compare(e2.getValue().loadNanos(), e1.getValue().loadNanos()));
+
+        long totalNanos = 0;
+        long totalRetained = 0;
+        final List<String> lines = new ArrayList<>(entries.size());
+        for (final Map.Entry<Class<? extends Protocol>, Timing> entry : entries) {
+            final Timing timing = entry.getValue();
+            final Protocol<?, ?, ?, ?> protocol = Via.getManager().getProtocolManager().getProtocol(entry.getKey());
+            final long retained = protocol != null ? estimateRetainedBytes(protocol.getMappingData()) : 0;
+            totalNanos += timing.loadNanos();
+            totalRetained += retained;
+            lines.add(String.format(" %s: %dms (queued %dms), ~%d KiB", entry.getKey().getSimpleName(),
+                    TimeUnit.NANOSECONDS.toMillis(timing.loadNanos()), TimeUnit.NANOSECONDS.toMillis(timing.queuedNanos()), retained / 1024));
+        }
+
+        logger.info(String.format("Loaded mapping data of %d protocols in %dms on %d threads (%dms total, ~%d KiB mappings, heap %+d MiB)",
+                entries.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), executor.getMaximumPoolSize(),
+                TimeUnit.NANOSECONDS.toMillis(totalNanos), totalRetained / 1024, (usedHeap() - startHeap) / (1024 * 1024)));
+        if (Via.getManager().isDebug()) {
+            for (final String line : lines) {
+                logger.info(line);
+            }
+        }
+    }
+
+    private int criticalPathLength(final Class<? extends Protocol> protocolClass, final Set<Class<? extends Protocol>> visited) {
+        if (!visited.add(protocolClass)) {
+            return 0;
+        }
+
+        int longest = 0;
+        final Set<Class<? extends Protocol>> protocolDependents = dependents.get(protocolClass);
+        if (protocolDependents != null) {
+            for (final Class<? extends Protocol> dependent : protocolDependents) {
+                longest = Math.max(longest, criticalPathLength(dependent, visited));
+            }
+        }
+        visited.remove(protocolClass);
+        return longest + 1;
+    }
+
+    private static long estimateRetainedBytes(@Nullable final MappingData mappingData) {
+        if (mappingData == null) {
+            return 0;
+        }
+
+        long bytes = 0;
+        bytes += estimateRetainedBytes(mappingData.getBlockMappings());
+        bytes += estimateRetainedBytes(mappingData.getBlockStateMappings());
+        bytes += estimateRetainedBytes(mappingData.getBlockEntityMappings());
+        bytes += estimateRetainedBytes(mappingData.getSoundMappings());
+        bytes += estimateRetainedBytes(mappingData.getStatisticsMappings());
+        bytes += estimateRetainedBytes(mappingData.getMenuMappings());
+        bytes += estimateRetainedBytes(mappingData.getEnchantmentMappings());
+        bytes += estimateRetainedBytes(mappingData.getPaintingMappings());
+        bytes += estimateRetainedBytes(mappingData.getEntityMappings());
+        bytes += estimateRetainedBytes(mappingData.getArgumentTypeMappings());
+        bytes += estimateRetainedBytes(mappingData.getParticleMappings());
+        final BiMappings itemMappings = mappingData.getItemMappings();
+        if (itemMappings != null) {
+            bytes += estimateRetainedBytes(itemMappings) + estimateRetainedBytes(itemMappings.inverse());
+        }
+        return bytes;
+    }
+
+    private static long estimateRetainedBytes(@Nullable final Mappings mappings) {
+        return mappings != null ? mappings.memoryUsage() : 0;
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private final class Task implements Runnable, Comparable<Task> {
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final Class<? extends Protocol> protocolClass;
+        private final Runnable runnable;
+        private final int criticalPathLength;
+        private final long sequence;
+        private final long queuedAt = System.nanoTime();
+
+        private Task(final Class<? extends Protocol> protocolClass, final Runnable runnable, final int criticalPathLength, final long sequence) {
+            this.protocolClass = protocolClass;
+            this.runnable = runnable;
+            this.criticalPathLength = criticalPathLength;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            final long start = System.nanoTime();
+            try {
+                runnable.run();
+                future.complete(null);
+            } catch (final Throwable throwable) {
+                future.completeExceptionally(throwable);
+            } finally {
+                final long end = System.nanoTime();
+                timings.merge(protocolClass, new Timing(start - queuedAt, end - start), Timing::add);
+            }
+        }
+
+        @Override
+        public int compareTo(final Task other) {
+            // Longest chain first, otherwise in order of submission
+            final int compare = Integer.compare(other.criticalPathLength, criticalPathLength);
+            return compare != 0 ? compare : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static final class Timing {
+        private final long queuedNanos;
+        private final long loadNanos;
+
+        private Timing(final long queuedNanos, final long loadNanos) {
+            this.queuedNanos = queuedNanos;
+            this.loadNanos = loadNanos;
+        }
+
+        long queuedNanos() {
+            return queuedNanos;
+        }
+
+        long loadNanos() {
+            return loadNanos;
+        }
+
+        Timing add(final Timing other) {
+            return new Timing(queuedNanos + other.queuedNanos, loadNanos + other.loadNanos);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocol;
+
+import com.viaversion.viaversion.api.protocol.AbstractProtocol;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import com.viaversion.viaversion.api.protocol.packet.mapping.PacketMapping;
+import com.viaversion.viaversion.metrics.TransformMetricsImpl;
+
+/**
+ * Lazily filled table of packet routes through a fixed list of protocols, per direction, state, and packet id.
+ * <p>
+ * A route either holds the final packet id of a packet that none of the protocols has a handler for,
+ * or marks the packet as needing the full transformation through a packet wrapper.
+ * Packets marked as expensive to transform by any of the protocols are tracked alongside.
+ * Tables are immutable with regard to their protocols and have to be replaced when the pipeline changes.
+ */
+final class PacketRouteTable {
+    static final int TRANSFORM = -1;
+    // Routes are stored offset by this, so that zero-initialized entries are unknown and safely published
+    private static final int ROUTE_OFFSET = 2;
+    private static final int MAX_PACKET_ID = 0xFF;
+    private static final byte LIGHT = 1;
+    private static final byte HEAVY = 2;
+    private static final int DIRECTIONS = Direction.values().length;
+    private final Protocol[][] protocols = new Protocol[DIRECTIONS][];
+    private final int[][] routes = new int[DIRECTIONS * State.values().length][];
+    private final byte[][] heavy = new byte[DIRECTIONS * State.values().length][];
+
+    PacketRouteTable(final Protocol[] serverboundProtocols, final Protocol[] clientboundProtocols) {
+        this.protocols[Direction.SERVERBOUND.ordinal()] = serverboundProtocols;
+        this.protocols[Direction.CLIENTBOUND.ordinal()] = clientboundProtocols;
+    }
+
+    /**
+     * Returns the final packet id if no protocol in the chain has a handler for the packet.
+     *
+     * @param direction packet direction
+     * @param state     protocol state
+     * @param packetId  unmapped packet id
+     * @return final packet id, or {@link #TRANSFORM} if the packet has to be transformed
+     */
+    int route(final Direction direction, final State state, final int packetId) {
+        if (packetId < 0 || packetId > MAX_PACKET_ID) {
+            return TRANSFORM;
+        }
+
+        final int index = state.ordinal() * DIRECTIONS + direction.ordinal();
+        int[] stateRoutes = routes[index];
+        if (stateRoutes == null) {
+            stateRoutes = new int[MAX_PACKET_ID + 1];
+            routes[index] = stateRoutes;
+        }
+
+        final int route = stateRoutes[packetId];
+        if (route != 0) {
+            return route - ROUTE_OFFSET;
+        }
+
+        // Concurrent computations result in the same value
+        final int computedRoute = computeRoute(direction, state, packetId);
+        stateRoutes[packetId] = computedRoute + ROUTE_OFFSET;
+        return computedRoute;
+    }
+
+    private int computeRoute(final Direction direction, final State state, final int packetId) {
+        int id = packetId;
+        for (final Protocol protocol : protocols[direction.ordinal()]) {
+            if (!(protocol instanceof AbstractProtocol)) {
+                return TRANSFORM;
+            }
+
+            final AbstractProtocol<?, ?, ?, ?> abstractProtocol = (AbstractProtocol<?, ?, ?, ?>) protocol;
+            if (!abstractProtocol.hasPlainTransform(direction, state)) {
+                return TRANSFORM;
+            }
+
+            final PacketMapping mapping = abstractProtocol.packetMapping(direction, state, id);
+            if (mapping == null) {
+                continue;
+            }
+            if (mapping.handler() != null) {
+                return TRANSFORM;
+            }
+
+            id = mapping.mappedPacketId(id);
+            if (id < 0) {
+                return TRANSFORM;
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Records the protocols of a packet's passthrough route as having transformed it, as they would have through a packet wrapper.
+     *
+     * @param metrics   metrics to record to
+     * @param direction packet direction
+     * @param state     protocol state
+     * @param packetId  unmapped packet id, which must have a passthrough route
+     */
+    void recordPassthrough(final TransformMetricsImpl metrics, final Direction direction, final State state, final int packetId) {
+        int id = packetId;
+        for (final Protocol protocol : protocols[direction.ordinal()]) {
+            metrics.recordTransform(protocol, direction, state, id, -1, false);
+            final PacketMapping mapping = ((AbstractProtocol<?, ?, ?, ?>) protocol).packetMapping(direction, state, id);
+            if (mapping != null) {
+                id = mapping.mappedPacketId(id);
+            }
+        }
+    }
+
+    /**
+     * Returns whether any protocol in the chain marked the packet as expensive to transform.
+     *
+     * @param direction packet direction
+     * @param state     protocol state
+     * @param packetId  unmapped packet id
+     * @return whether the packet is expensive to transform
+     */
+    boolean heavy(final Direction direction, final State state, final int packetId) {
+        if (packetId < 0 || packetId > MAX_PACKET_ID) {
+            return false;
+        }
+
+        final int index = state.ordinal() * DIRECTIONS + direction.ordinal();
+        byte[] stateHeavy = heavy[index];
+        if (stateHeavy == null) {
+            stateHeavy = new byte[MAX_PACKET_ID + 1];
+            heavy[index] = stateHeavy;
+        }
+
+        final byte value = stateHeavy[packetId];
+        if (value != 0) {
+            return value == HEAVY;
+        }
+
+        final boolean computedHeavy = computeHeavy(direction, state, packetId);
+        stateHeavy[packetId] = computedHeavy ? HEAVY : LIGHT;
+        return computedHeavy;
+    }
+
+    private boolean computeHeavy(final Direction direction, final State state, final int packetId) {
+        if (direction != Direction.CLIENTBOUND) {
+            return false;
+        }
+
+        int id = packetId;
+        for (final Protocol protocol : protocols[direction.ordinal()]) {
+            if (!(protocol instanceof AbstractProtocol)) {
+                return false;
+            }
+
+            final AbstractProtocol<?, ?, ?, ?> abstractProtocol = (AbstractProtocol<?, ?, ?, ?>) protocol;
+            if (abstractProtocol.isHeavyClientbound(state, id)) {
+                return true;
+            }
+            if (!abstractProtocol.hasPlainTransform(direction, state)) {
+                // Can't follow the packet id any further
+                return false;
+            }
+
+            final PacketMapping mapping = abstractProtocol.packetMapping(direction, state, id);
+            if (mapping == null) {
+                continue;
+            }
+
+            id = mapping.mappedPacketId(id);
+            if (id < 0) {
+                return false;
+            }
+        }
+        return false;
+    }
+}
@@ -20,14 +20,12 @@ package com.viaversion.viaversion.protocol;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Range;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.data.MappingDataLoader;
 import com.viaversion.viaversion.api.protocol.Protocol;
 import com.viaversion.viaversion.api.protocol.ProtocolManager;
 import com.viaversion.viaversion.api.protocol.ProtocolPathEntry;
-import com.viaversion.viaversion.api.protocol.ProtocolPathKey;
 import com.viaversion.viaversion.api.protocol.packet.ClientboundPacketType;
 import com.viaversion.viaversion.api.protocol.packet.PacketType;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
@@ -35,6 +33,7 @@ import com.viaversion.viaversion.api.protocol.packet.ServerboundPacketType;
 import com.viaversion.viaversion.api.protocol.packet.VersionedPacketTransformer;
 import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
 import com.viaversion.viaversion.api.protocol.version.ServerProtocolVersion;
+import com.viaversion.viaversion.metrics.BootProfiler;
 import com.viaversion.viaversion.protocol.packet.PacketWrapperImpl;
 import com.viaversion.viaversion.protocol.packet.VersionedPacketTransformerImpl;
 import com.viaversion.viaversion.protocols.base.BaseProtocol;
@@ -78,10 +77,8 @@ import com.viaversion.viaversion.protocols.protocol1_9_3to1_9_1_2.Protocol1_9_3T
 import com.viaversion.viaversion.protocols.protocol1_9to1_8.Protocol1_9To1_8;
 import com.viaversion.viaversion.util.Pair;
 import io.netty.buffer.ByteBuf;
-import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectSortedMap;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import us.myles.ViaVersion.api.protocol.ProtocolRegistry;
@@ -99,10 +96,6 @@ import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.SynchronousQueue;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
@@ -113,26 +106,29 @@ public class ProtocolManagerImpl implements ProtocolManager {
     // Input Version -> Output Version & Protocol (Allows fast lookup)
     private final Int2ObjectMap<Int2ObjectMap<Protocol>> registryMap = new Int2ObjectOpenHashMap<>(32);
     private final Map<Class<? extends Protocol>, Protocol<?, ?, ?, ?>> protocols = new HashMap<>(64);
-    private final Map<ProtocolPathKey, List<ProtocolPathEntry>> pathCache = new ConcurrentHashMap<>();
+    private final Map<List<Class<? extends Protocol>>, CompletableFuture<ComposedMappings>> composedMappingsCache = new ConcurrentHashMap<>();
+    private final Set<Class<? extends Protocol>> composableBlockStateProtocols = ConcurrentHashMap.newKeySet();
     private final Set<Integer> supportedVersions = new HashSet<>();
     private final List<Pair<Range<Integer>, Protocol>> baseProtocols = Lists.newCopyOnWriteArrayList();
 
     private final ReadWriteLock mappingLoaderLock = new ReentrantReadWriteLock();
     private Map<Class<? extends Protocol>, CompletableFuture<Void>> mappingLoaderFutures = new HashMap<>();
-    private ThreadPoolExecutor mappingLoaderExecutor;
+    private final Map<Class<? extends Protocol>, Runnable> deferredMappingLoaders = new HashMap<>();
+    private final Map<Class<? extends Protocol>, CompletableFuture<Void>> lateMappingLoaderFutures = new ConcurrentHashMap<>();
+    private final Map<Class<? extends Protocol>, Set<Class<? extends Protocol>>> mappingDataDependencies = new ConcurrentHashMap<>();
+    private MappingLoaderScheduler mappingLoaderScheduler = new MappingLoaderScheduler();
     private boolean mappingsLoaded;
+    private boolean deferMappingDataLoading = true;
 
     private ServerProtocolVersion serverProtocolVersion = new ServerProtocolVersionSingleton(-1);
     private int maxPathDeltaIncrease; // Only allow lowering path entries by default
     private int maxProtocolPathSize = 50;
-
-    public ProtocolManagerImpl() {
-        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("Via-Mappingloader-%d").build();
-        mappingLoaderExecutor = new ThreadPoolExecutor(12, Integer.MAX_VALUE, 30L, TimeUnit.SECONDS, new SynchronousQueue<>(), threadFactory);
-        mappingLoaderExecutor.allowCoreThreadTimeOut(true);
-    }
+    private volatile ProtocolPathTable pathTable = new ProtocolPathTable(registryMap, maxPathDeltaIncrease, maxProtocolPathSize);
 
     public void registerProtocols() {
+        // Keep shared files around until all mapping data has been loaded
+        MappingDataLoader.retainCache();
+
         // Base Protocol
         registerBaseProtocol(BASE_PROTOCOL, Range.lessThan(Integer.MIN_VALUE));
         registerBaseProtocol(new BaseProtocol1_7(), Range.lessThan(ProtocolVersion.v1_16.getVersion()));
@@ -185,6 +181,11 @@ public class ProtocolManagerImpl implements ProtocolManager {
         registerProtocol(new Protocol1_20To1_19_4(), ProtocolVersion.v1_20, ProtocolVersion.v1_19_4);
         registerProtocol(new Protocol1_20_2To1_20(), ProtocolVersion.v1_20_2, ProtocolVersion.v1_20);
         registerProtocol(new Protocol1_20_3To1_20_2(), ProtocolVersion.v1_20_3, ProtocolVersion.v1_20_2);
+
+        // Start loading what is needed for the server version right away, addon protocols are checked once the server has loaded
+        if (serverProtocolVersion.isKnown()) {
+            loadReachableMappingData();
+        }
     }
 
     @Override
@@ -194,12 +195,11 @@ public class ProtocolManagerImpl implements ProtocolManager {
 
     @Override
     public void registerProtocol(Protocol protocol, List<Integer> supportedClientVersion, int serverVersion) {
-        // Register the protocol's handlers
-        protocol.initialize();
+        final BootProfiler bootProfiler = BootProfiler.get();
 
-        // Clear cache as this may make new routes.
-        if (!pathCache.isEmpty()) {
-            pathCache.clear();
+        // Register the protocol's handlers
+        try (BootProfiler.Section ignored = bootProfiler.protocol(protocol.getClass(), "initialize")) {
+            protocol.initialize();
         }
 
         protocols.put(protocol.getClass(), protocol);
@@ -212,18 +212,33 @@ public class ProtocolManagerImpl implements ProtocolManager {
             protocolMap.put(serverVersion, protocol);
         }
 
-        protocol.register(Via.getManager().getProviders());
+        // Only recomputes paths this may change
+        pathTable = pathTable.withProtocol(registryMap, supportedClientVersion, serverVersion);
+
+        try (BootProfiler.Section ignored = bootProfiler.protocol(protocol.getClass(), "register")) {
+            protocol.register(Via.getManager().getProviders());
+        }
         if (Via.getManager().isInitialized()) {
             refreshVersions();
         }
 
         if (protocol.hasMappingDataToLoad()) {
-            if (mappingLoaderExecutor != null) {
-                // Submit mapping data loading
-                addMappingLoaderFuture(protocol.getClass(), protocol::loadMappingData);
+            final Runnable mappingLoader = () -> {
+                try (BootProfiler.Section ignored = bootProfiler.protocol(protocol.getClass(), "mappings")) {
+                    protocol.loadMappingData();
+                }
+            };
+            if (mappingLoaderScheduler != null) {
+                if (deferMappingDataLoading) {
+                    // Only submitted once known to be reachable from the server version, or when first needed
+                    deferMappingLoader(protocol.getClass(), mappingLoader);
+                } else {
+                    // Submit mapping data loading
+                    addMappingLoaderFuture(protocol.getClass(), mappingLoader);
+                }
             } else {
                 // Late protocol adding - just do it on the current thread
-                protocol.loadMappingData();
+                mappingLoader.run();
             }
         }
     }
@@ -240,6 +255,143 @@ public class ProtocolManagerImpl implements ProtocolManager {
         }
     }
 
+    /**
+     * Starts loading the mapping data of all protocols that can be part of a connection's protocol path to
+     * the server version. Mapping data of other protocols is only loaded when first needed, protocols registered
+     * after this call are loaded right away.
+     */
+    public void stopDeferringMappingData() {
+        loadReachableMappingData();
+        deferMappingDataLoading = false;
+    }
+
+    /**
+     * Registers a protocol whose packet handlers make use of another protocol's mapping data.
+     * Loading the dependent protocol's mapping data also loads that of the given protocol.
+     *
+     * @param protocolClass protocol class
+     * @param dependsOn     class of the protocol whose mapping data is used
+     */
+    public void addMappingDataDependency(final Class<? extends Protocol> protocolClass, final Class<? extends Protocol> dependsOn) {
+        mappingDataDependencies.computeIfAbsent(protocolClass, c -> ConcurrentHashMap.newKeySet()).add(dependsOn);
+    }
+
+    private void loadReachableMappingData() {
+        final Set<Class<? extends Protocol>> reachable = reachableProtocols();
+        final List<Class<? extends Protocol>> deferred;
+        mappingLoaderLock.readLock().lock();
+        try {
+            deferred = new ArrayList<>(deferredMappingLoaders.keySet());
+        } finally {
+            mappingLoaderLock.readLock().unlock();
+        }
+
+        int skipped = 0;
+        for (final Class<? extends Protocol> protocolClass : deferred) {
+            // Load everything if the server version is still unknown
+            if (reachable == null || reachable.contains(protocolClass)) {
+                loadDeferredMappingData(protocolClass);
+            } else {
+                skipped++;
+            }
+        }
+
+        if (skipped != 0 && Via.getManager().isDebug()) {
+            Via.getPlatform().getLogger().info("Deferred mapping data loading of " + skipped + " protocols not reachable from the server version");
+        }
+    }
+
+    private @Nullable Set<Class<? extends Protocol>> reachableProtocols() {
+        if (!serverProtocolVersion.isKnown()) {
+            return null;
+        }
+
+        final Set<Class<? extends Protocol>> reachable = new HashSet<>();
+        for (final int serverVersion : serverProtocolVersion.supportedVersions()) {
+            for (final ProtocolVersion version : ProtocolVersion.getProtocols()) {
+                // Same check as in the base protocol
+                if (version.getVersion() < serverVersion && !Via.getPlatform().isOldClientsAllowed()) {
+                    continue;
+                }
+
+                final List<ProtocolPathEntry> protocolPath = getProtocolPath(version.getVersion(), serverVersion);
+                if (protocolPath == null) {
+                    continue;
+                }
+
+                for (final ProtocolPathEntry entry : protocolPath) {
+                    addWithDependencies(reachable, entry.protocol().getClass());
+                }
+            }
+        }
+        return reachable;
+    }
+
+    private void addWithDependencies(final Set<Class<? extends Protocol>> protocolClasses, final Class<? extends Protocol> protocolClass) {
+        if (!protocolClasses.add(protocolClass)) {
+            return;
+        }
+
+        final Set<Class<? extends Protocol>> dependencies = mappingDataDependencies.get(protocolClass);
+        if (dependencies != null) {
+            for (final Class<? extends Protocol> dependency : dependencies) {
+                addWithDependencies(protocolClasses, dependency);
+            }
+        }
+    }
+
+    private void deferMappingLoader(final Class<? extends Protocol> protocolClass, final Runnable runnable) {
+        mappingLoaderLock.writeLock().lock();
+        try {
+            deferredMappingLoaders.put(protocolClass, runnable);
+        } finally {
+            mappingLoaderLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Starts loading the mapping data of the given protocol and the protocols it depends on if it has been deferred.
+     * Once the loader executor has been shut down, the data is loaded on the current thread instead.
+     *
+     * @param protocolClass protocol class
+     */
+    private void loadDeferredMappingData(final Class<? extends Protocol> protocolClass) {
+        final Set<Class<? extends Protocol>> dependencies = mappingDataDependencies.get(protocolClass);
+        if (dependencies != null) {
+            for (final Class<? extends Protocol> dependency : dependencies) {
+                loadDeferredMappingData(dependency);
+            }
+        }
+
+        final Runnable loader;
+        final CompletableFuture<Void> lateFuture;
+        mappingLoaderLock.writeLock().lock();
+        try {
+            loader = deferredMappingLoaders.remove(protocolClass);
+            if (loader == null) {
+                return;
+            }
+
+            if (mappingLoaderScheduler != null) {
+                addMappingLoaderFuture(protocolClass, loader);
+                return;
+            }
+
+            lateFuture = new CompletableFuture<>();
+            lateMappingLoaderFutures.put(protocolClass, lateFuture);
+        } finally {
+            mappingLoaderLock.writeLock().unlock();
+        }
+
+        try {
+            loader.run();
+        } catch (final Throwable throwable) {
+            mappingLoaderThrowable(protocolClass).apply(throwable);
+        } finally {
+            lateFuture.complete(null);
+        }
+    }
+
     public void refreshVersions() {
         supportedVersions.clear();
 
@@ -259,85 +411,66 @@ public class ProtocolManagerImpl implements ProtocolManager {
     public @Nullable List<ProtocolPathEntry> getProtocolPath(int clientVersion, int serverVersion) {
         if (clientVersion == serverVersion) return null; // Nothing to do!
 
-        // Check cache
-        ProtocolPathKey protocolKey = new ProtocolPathKeyImpl(clientVersion, serverVersion);
-        List<ProtocolPathEntry> protocolList = pathCache.get(protocolKey);
-        if (protocolList != null) {
-            return protocolList;
-        }
-
-        // Calculate path
-        Int2ObjectSortedMap<Protocol> outputPath = getProtocolPath(new Int2ObjectLinkedOpenHashMap<>(), clientVersion, serverVersion);
-        if (outputPath == null) {
-            return null;
-        }
-
-        List<ProtocolPathEntry> path = new ArrayList<>(outputPath.size());
-        for (Int2ObjectMap.Entry<Protocol> entry : outputPath.int2ObjectEntrySet()) {
-            path.add(new ProtocolPathEntryImpl(entry.getIntKey(), entry.getValue()));
-        }
-        pathCache.put(protocolKey, path);
-        return path;
+        return pathTable.path(clientVersion, serverVersion);
     }
 
-    @Override
-    public <C extends ClientboundPacketType,
-            S extends ServerboundPacketType
-            > VersionedPacketTransformer<C, S> createPacketTransformer(ProtocolVersion inputVersion,
-                                                                       @Nullable Class<C> clientboundPacketsClass,
-                                                                       @Nullable Class<S> serverboundPacketsClass) {
-        Preconditions.checkArgument(clientboundPacketsClass != ClientboundPacketType.class && serverboundPacketsClass != ServerboundPacketType.class);
-        return new VersionedPacketTransformerImpl<>(inputVersion, clientboundPacketsClass, serverboundPacketsClass);
+    /**
+     * Lets the given protocol's block state mappings be composed with those of neighbouring protocols that opted in as well.
+     *
+     * @param protocolClass protocol class
+     * @see ComposedMappings
+     */
+    public void registerComposableBlockStateMappings(final Class<? extends Protocol> protocolClass) {
+        composableBlockStateProtocols.add(protocolClass);
     }
 
     /**
-     * Calculates a path to get from an input protocol to the server's protocol.
+     * Returns the mappings composed across the given protocol chain, cached per chain.
+     * The first call for a chain composes the mappings asynchronously once the chain's mapping data has been loaded,
+     * so that the calling thread never has to wait for it.
      *
-     * @param current       current items in the path
-     * @param clientVersion current input version
-     * @param serverVersion desired output version
-     * @return path that has been generated, null if failed
+     * @param clientboundProtocols protocols in order of clientbound transformation
+     * @return composed mappings, or null if they are not available yet
      */
-    private @Nullable Int2ObjectSortedMap<Protocol> getProtocolPath(Int2ObjectSortedMap<Protocol> current, int clientVersion, int serverVersion) {
-        if (current.size() > maxProtocolPathSize) return null; // Fail-safe, protocol too complicated.
-
-        // First, check if there is any protocols for this
-        Int2ObjectMap<Protocol> toServerProtocolMap = registryMap.get(clientVersion);
-        if (toServerProtocolMap == null) {
-            return null; // Not supported
+    public @Nullable ComposedMappings getComposedMappings(final Protocol[] clientboundProtocols) {
+        if (composableBlockStateProtocols.isEmpty()) {
+            return ComposedMappings.EMPTY;
         }
 
-        // Next, check if there is a direct, single Protocol path
-        Protocol protocol = toServerProtocolMap.get(serverVersion);
-        if (protocol != null) {
-            current.put(serverVersion, protocol);
-            return current; // Easy solution
+        final List<Class<? extends Protocol>> key = new ArrayList<>(clientboundProtocols.length);
+        for (final Protocol protocol : clientboundProtocols) {
+            key.add(protocol.getClass());
         }
 
-        // There might be a more advanced solution... So we'll see if any of the others can get us there
-        Int2ObjectSortedMap<Protocol> shortest = null;
-        for (Int2ObjectMap.Entry<Protocol> entry : toServerProtocolMap.int2ObjectEntrySet()) {
-            // Ensure we don't go back to already contained versions
-            int translatedToVersion = entry.getIntKey();
-            if (current.containsKey(translatedToVersion)) continue;
-
-            // Check if the new version is farther away than the current client version
-            if (maxPathDeltaIncrease != -1 && Math.abs(serverVersion - translatedToVersion) - Math.abs(serverVersion - clientVersion) > maxPathDeltaIncrease) {
-                continue;
-            }
-
-            // Create a copy
-            Int2ObjectSortedMap<Protocol> newCurrent = new Int2ObjectLinkedOpenHashMap<>(current);
-            newCurrent.put(translatedToVersion, entry.getValue());
+        final CompletableFuture<ComposedMappings> future = composedMappingsCache.computeIfAbsent(key, k -> composeMappings(k, clientboundProtocols));
+        return future.getNow(null);
+    }
 
-            // Calculate the rest of the protocol starting from translatedToVersion and take the shortest
-            newCurrent = getProtocolPath(newCurrent, translatedToVersion, serverVersion);
-            if (newCurrent != null && (shortest == null || newCurrent.size() < shortest.size())) {
-                shortest = newCurrent;
+    private CompletableFuture<ComposedMappings> composeMappings(final List<Class<? extends Protocol>> protocolClasses, final Protocol[] clientboundProtocols) {
+        final CompletableFuture<ComposedMappings> future = new CompletableFuture<>();
+        Via.getPlatform().runAsync(() -> {
+            try {
+                for (final Class<? extends Protocol> protocolClass : protocolClasses) {
+                    completeMappingDataLoading(protocolClass);
+                }
+                future.complete(ComposedMappings.compose(clientboundProtocols, composableBlockStateProtocols::contains));
+            } catch (final Throwable throwable) {
+                // Keep applying the mappings of every protocol on its own
+                Via.getPlatform().getLogger().log(Level.SEVERE, "Error composing block state mappings", throwable);
+                future.complete(ComposedMappings.EMPTY);
             }
-        }
+        });
+        return future;
+    }
 
-        return shortest; // null if none found
+    @Override
+    public <C extends ClientboundPacketType,
+            S extends ServerboundPacketType
+            > VersionedPacketTransformer<C, S> createPacketTransformer(ProtocolVersion inputVersion,
+                                                                       @Nullable Class<C> clientboundPacketsClass,
+                                                                       @Nullable Class<S> serverboundPacketsClass) {
+        Preconditions.checkArgument(clientboundPacketsClass != ClientboundPacketType.class && serverboundPacketsClass != ServerboundPacketType.class);
+        return new VersionedPacketTransformerImpl<>(inputVersion, clientboundPacketsClass, serverboundPacketsClass);
     }
 
     @Override
@@ -397,6 +530,7 @@ public class ProtocolManagerImpl implements ProtocolManager {
     @Override
     public void setMaxPathDeltaIncrease(final int maxPathDeltaIncrease) {
         this.maxPathDeltaIncrease = Math.max(-1, maxPathDeltaIncrease);
+        this.pathTable = new ProtocolPathTable(registryMap, this.maxPathDeltaIncrease, maxProtocolPathSize);
     }
 
     @Override
@@ -412,6 +546,7 @@ public class ProtocolManagerImpl implements ProtocolManager {
     @Override
     public void setMaxProtocolPathSize(int maxProtocolPathSize) {
         this.maxProtocolPathSize = maxProtocolPathSize;
+        this.pathTable = new ProtocolPathTable(registryMap, maxPathDeltaIncrease, maxProtocolPathSize);
     }
 
     @Override
@@ -421,7 +556,22 @@ public class ProtocolManagerImpl implements ProtocolManager {
 
     @Override
     public void completeMappingDataLoading(Class<? extends Protocol> protocolClass) throws Exception {
-        if (mappingsLoaded) return;
+        final Set<Class<? extends Protocol>> dependencies = mappingDataDependencies.get(protocolClass);
+        if (dependencies != null) {
+            for (final Class<? extends Protocol> dependency : dependencies) {
+                completeMappingDataLoading(dependency);
+            }
+        }
+
+        loadDeferredMappingData(protocolClass);
+        if (mappingsLoaded) {
+            // Only wait for data loaded on demand after shutting down the executor
+            final CompletableFuture<Void> lateFuture = lateMappingLoaderFutures.get(protocolClass);
+            if (lateFuture != null) {
+                lateFuture.get();
+            }
+            return;
+        }
 
         CompletableFuture<Void> future = getMappingLoaderFuture(protocolClass);
         if (future != null) {
@@ -454,7 +604,7 @@ public class ProtocolManagerImpl implements ProtocolManager {
 
     @Override
     public void addMappingLoaderFuture(Class<? extends Protocol> protocolClass, Runnable runnable) {
-        CompletableFuture<Void> future = CompletableFuture.runAsync(runnable, mappingLoaderExecutor).exceptionally(mappingLoaderThrowable(protocolClass));
+        CompletableFuture<Void> future = mappingLoaderScheduler.submit(protocolClass, runnable).exceptionally(mappingLoaderThrowable(protocolClass));
 
         mappingLoaderLock.writeLock().lock();
         try {
@@ -466,8 +616,10 @@ public class ProtocolManagerImpl implements ProtocolManager {
 
     @Override
     public void addMappingLoaderFuture(Class<? extends Protocol> protocolClass, Class<? extends Protocol> dependsOn, Runnable runnable) {
-        CompletableFuture<Void> future = getMappingLoaderFuture(dependsOn)
-                .whenCompleteAsync((v, throwable) -> runnable.run(), mappingLoaderExecutor).exceptionally(mappingLoaderThrowable(protocolClass));
+        addMappingDataDependency(protocolClass, dependsOn);
+        loadDeferredMappingData(dependsOn);
+        CompletableFuture<Void> future = mappingLoaderScheduler.submit(protocolClass, dependsOn, getMappingLoaderFuture(dependsOn), runnable)
+                .exceptionally(mappingLoaderThrowable(protocolClass));
 
         mappingLoaderLock.writeLock().lock();
         try {
@@ -504,13 +656,14 @@ public class ProtocolManagerImpl implements ProtocolManager {
         // If this log message is missing, something is wrong
         Via.getPlatform().getLogger().info("Finished mapping loading, shutting down loader executor!");
         mappingsLoaded = true;
-        mappingLoaderExecutor.shutdown();
-        mappingLoaderExecutor = null;
+        mappingLoaderScheduler.shutdown();
+        mappingLoaderScheduler.logReport(Via.getPlatform().getLogger());
+        mappingLoaderScheduler = null;
         mappingLoaderFutures.clear();
         mappingLoaderFutures = null;
 
-        // Clear cached mapping files
-        MappingDataLoader.clearCache();
+        // Only keep cached mapping files softly referenced for late loads
+        MappingDataLoader.releaseCache();
     }
 
     private Function<Throwable, Void> mappingLoaderThrowable(Class<? extends Protocol> protocolClass) {
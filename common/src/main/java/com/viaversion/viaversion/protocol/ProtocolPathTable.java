@@ -0,0 +1,226 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocol;
+
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.ProtocolPathEntry;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntAVLTreeSet;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntSortedSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Immutable snapshot of the protocol graph, holding the shortest protocol paths between all versions.
+ * <p>
+ * The paths to a server version are computed at once with a breadth-first search backwards from it
+ * and are stored densely by the index of the client version. Registering protocols creates a new table
+ * that keeps all paths the new protocols cannot change.
+ */
+final class ProtocolPathTable {
+    private static final int UNREACHABLE = -1;
+    private final Int2IntMap indexes = new Int2IntOpenHashMap();
+    private final int[] versions;
+    private final Int2ObjectMap<Protocol>[] outgoing;
+    private final int[][] incoming;
+    private final int maxPathDeltaIncrease;
+    private final int maxProtocolPathSize;
+    private final AtomicReferenceArray<Column> columns;
+
+    @SuppressWarnings("unchecked")
+    ProtocolPathTable(final Int2ObjectMap<Int2ObjectMap<Protocol>> registryMap, final int maxPathDeltaIncrease, final int maxProtocolPathSize) {
+        this.maxPathDeltaIncrease = maxPathDeltaIncrease;
+        this.maxProtocolPathSize = maxProtocolPathSize;
+
+        // Sorted for the indexes to stay the same as long as no new versions are added
+        final IntSortedSet versionSet = new IntAVLTreeSet(registryMap.keySet());
+        for (final Int2ObjectMap<Protocol> protocolMap : registryMap.values()) {
+            versionSet.addAll(protocolMap.keySet());
+        }
+        versions = versionSet.toIntArray();
+        indexes.defaultReturnValue(UNREACHABLE);
+        for (int i = 0; i < versions.length; i++) {
+            indexes.put(versions[i], i);
+        }
+
+        outgoing = new Int2ObjectMap[versions.length];
+        final IntList[] incomingLists = new IntList[versions.length];
+        for (int i = 0; i < versions.length; i++) {
+            final Int2ObjectMap<Protocol> protocolMap = registryMap.get(versions[i]);
+            outgoing[i] = protocolMap != null ? new Int2ObjectOpenHashMap<>(protocolMap) : new Int2ObjectOpenHashMap<>();
+            incomingLists[i] = new IntArrayList(2);
+        }
+        for (int i = 0; i < versions.length; i++) {
+            for (final int outputVersion : outgoing[i].keySet()) {
+                incomingLists[indexes.get(outputVersion)].add(i);
+            }
+        }
+
+        incoming = new int[versions.length][];
+        for (int i = 0; i < versions.length; i++) {
+            incoming[i] = incomingLists[i].toIntArray();
+        }
+        columns = new AtomicReferenceArray<>(versions.length);
+    }
+
+    /**
+     * Returns a table including newly registered protocols, keeping the paths of this table that they cannot change.
+     *
+     * @param registryMap    updated protocol registry
+     * @param clientVersions client versions of the registered protocol
+     * @param serverVersion  server version of the registered protocol
+     * @return updated table
+     */
+    ProtocolPathTable withProtocol(final Int2ObjectMap<Int2ObjectMap<Protocol>> registryMap, final Collection<Integer> clientVersions, final int serverVersion) {
+        final ProtocolPathTable table = new ProtocolPathTable(registryMap, maxPathDeltaIncrease, maxProtocolPathSize);
+        if (table.versions.length != versions.length) {
+            // New versions, so the indexes have changed
+            return table;
+        }
+
+        final int outputIndex = indexes.get(serverVersion);
+        for (int serverIndex = 0; serverIndex < versions.length; serverIndex++) {
+            final Column column = columns.get(serverIndex);
+            if (column != null && !isAffected(column, serverIndex, clientVersions, outputIndex)) {
+                table.columns.set(serverIndex, column);
+            }
+        }
+        return table;
+    }
+
+    private boolean isAffected(final Column column, final int serverIndex, final Collection<Integer> clientVersions, final int outputIndex) {
+        for (final int clientVersion : clientVersions) {
+            final int clientIndex = indexes.get(clientVersion);
+            if (outgoing[clientIndex].containsKey(versions[outputIndex])) {
+                // Replaced protocol, which may be part of existing paths
+                return true;
+            }
+
+            final int distance = column.distances[outputIndex];
+            if (distance == UNREACHABLE || !canExtend(distance) || !isAllowed(clientIndex, outputIndex, serverIndex)) {
+                continue;
+            }
+
+            final int clientDistance = column.distances[clientIndex];
+            if (clientDistance == UNREACHABLE || distance + 1 < clientDistance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the shortest path of protocols from the client version to the server version.
+     *
+     * @param clientVersion input version
+     * @param serverVersion desired output version
+     * @return shortest path, or null if none exists
+     */
+    @Nullable List<ProtocolPathEntry> path(final int clientVersion, final int serverVersion) {
+        final int clientIndex = indexes.get(clientVersion);
+        final int serverIndex = indexes.get(serverVersion);
+        if (clientIndex == UNREACHABLE || serverIndex == UNREACHABLE) {
+            return null;
+        }
+
+        Column column = columns.get(serverIndex);
+        if (column == null) {
+            column = computeColumn(serverIndex);
+            if (!columns.compareAndSet(serverIndex, null, column)) {
+                column = columns.get(serverIndex);
+            }
+        }
+        return column.paths[clientIndex];
+    }
+
+    private Column computeColumn(final int serverIndex) {
+        final int[] distances = new int[versions.length];
+        final int[] next = new int[versions.length];
+        Arrays.fill(distances, UNREACHABLE);
+        distances[serverIndex] = 0;
+
+        // Search backwards from the server version, the queue is in order of distance
+        final int[] queue = new int[versions.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = serverIndex;
+        while (head < tail) {
+            final int index = queue[head++];
+            if (!canExtend(distances[index])) {
+                continue;
+            }
+
+            for (final int clientIndex : incoming[index]) {
+                if (distances[clientIndex] != UNREACHABLE || !isAllowed(clientIndex, index, serverIndex)) {
+                    continue;
+                }
+
+                distances[clientIndex] = distances[index] + 1;
+                next[clientIndex] = index;
+                queue[tail++] = clientIndex;
+            }
+        }
+
+        @SuppressWarnings("unchecked") final List<ProtocolPathEntry>[] paths = new List[versions.length];
+        for (int i = 1; i < tail; i++) {
+            final int clientIndex = queue[i];
+            final int nextIndex = next[clientIndex];
+            final List<ProtocolPathEntry> path = new ArrayList<>(distances[clientIndex]);
+            path.add(new ProtocolPathEntryImpl(versions[nextIndex], outgoing[clientIndex].get(versions[nextIndex])));
+            if (nextIndex != serverIndex) {
+                path.addAll(paths[nextIndex]);
+            }
+            paths[clientIndex] = path;
+        }
+        return new Column(distances, paths);
+    }
+
+    private boolean canExtend(final int distance) {
+        // Same limit as the previous recursive search, which gave up once the path was larger than the max size
+        return distance <= maxProtocolPathSize;
+    }
+
+    private boolean isAllowed(final int clientIndex, final int outputIndex, final int serverIndex) {
+        if (outputIndex == serverIndex || maxPathDeltaIncrease == -1) {
+            return true;
+        }
+
+        // Check if the new version is farther away than the current client version
+        final int serverVersion = versions[serverIndex];
+        return Math.abs(serverVersion - versions[outputIndex]) - Math.abs(serverVersion - versions[clientIndex]) <= maxPathDeltaIncrease;
+    }
+
+    private static final class Column {
+        private final int[] distances;
+        private final @Nullable List<ProtocolPathEntry>[] paths;
+
+        private Column(final int[] distances, final @Nullable List<ProtocolPathEntry>[] paths) {
+            this.distances = distances;
+            this.paths = paths;
+        }
+    }
+}
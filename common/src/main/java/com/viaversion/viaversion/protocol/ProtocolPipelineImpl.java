@@ -26,24 +26,29 @@ import com.viaversion.viaversion.api.protocol.ProtocolPipeline;
 import com.viaversion.viaversion.api.protocol.packet.Direction;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.packet.State;
+import com.viaversion.viaversion.metrics.TransformMetricsImpl;
+import com.viaversion.viaversion.protocol.packet.PacketWrapperImpl;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements ProtocolPipeline {
+    private static final Protocol[] EMPTY = new Protocol[0];
     private final UserConnection userConnection;
+    private final Set<Class<? extends Protocol>> protocolSet = new HashSet<>();
     /**
-     * Protocol list ordered from client to server transformation with the base protocols at the end.
+     * Immutable protocol chains, replaced whenever protocols are added or removed.
      */
-    private final List<Protocol> protocolList = new CopyOnWriteArrayList<>();
-    private final Set<Class<? extends Protocol>> protocolSet = new HashSet<>();
-    private List<Protocol> reversedProtocolList = new CopyOnWriteArrayList<>();
+    private volatile Chains chains = new Chains(EMPTY, EMPTY);
+    private volatile PacketRouteTable routeTable;
     private int baseProtocols;
 
     public ProtocolPipelineImpl(UserConnection userConnection) {
@@ -56,8 +61,8 @@ public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements Prot
     protected synchronized void registerPackets() {
         // This is a pipeline so we register basic pipes
         final Protocol<?, ?, ?, ?> baseProtocol = Via.getManager().getProtocolManager().getBaseProtocol();
-        protocolList.add(baseProtocol);
-        reversedProtocolList.add(baseProtocol);
+        final Chains chains = this.chains;
+        this.chains = new Chains(append(chains.protocols, baseProtocol), append(chains.reversedProtocols, baseProtocol));
         protocolSet.add(baseProtocol.getClass());
         baseProtocols++;
     }
@@ -69,37 +74,55 @@ public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements Prot
 
     @Override
     public synchronized void add(final Protocol protocol) {
+        final Chains chains = this.chains;
         if (protocol.isBaseProtocol()) {
             // Add base protocol on top of previous ones
-            protocolList.add(baseProtocols, protocol);
-            reversedProtocolList.add(baseProtocols, protocol);
+            this.chains = new Chains(insert(chains.protocols, baseProtocols, protocol), insert(chains.reversedProtocols, baseProtocols, protocol));
             baseProtocols++;
         } else {
-            protocolList.add(protocol);
-            reversedProtocolList.add(0, protocol);
+            this.chains = new Chains(append(chains.protocols, protocol), insert(chains.reversedProtocols, 0, protocol));
         }
 
         protocolSet.add(protocol.getClass());
+        routeTable = null;
         protocol.init(userConnection);
     }
 
     @Override
     public synchronized void add(final Collection<Protocol> protocols) {
-        protocolList.addAll(protocols);
+        final Protocol[] protocolArray = chains.protocols;
+        final Protocol[] newProtocols = Arrays.copyOf(protocolArray, protocolArray.length + protocols.size());
+        int i = protocolArray.length;
+        for (final Protocol protocol : protocols) {
+            newProtocols[i++] = protocol;
+        }
+
+        // Base protocols first, followed by the others in reverse order
+        final Protocol[] reversedProtocols = Arrays.copyOf(newProtocols, newProtocols.length);
+        final List<Protocol> additionalProtocols = Arrays.asList(reversedProtocols).subList(this.baseProtocols, reversedProtocols.length);
+        Collections.reverse(additionalProtocols);
+
+        this.chains = new Chains(newProtocols, reversedProtocols);
         for (final Protocol protocol : protocols) {
             protocol.init(userConnection);
             protocolSet.add(protocol.getClass());
         }
+        routeTable = null;
 
-        refreshReversedList();
+        // Start composing the mappings of the new chain before its first packets arrive
+        composedMappings();
     }
 
-    private synchronized void refreshReversedList() {
-        final List<Protocol> protocols = new ArrayList<>(protocolList.subList(0, this.baseProtocols));
-        final List<Protocol> additionalProtocols = new ArrayList<>(protocolList.subList(this.baseProtocols, protocolList.size()));
-        Collections.reverse(additionalProtocols);
-        protocols.addAll(additionalProtocols);
-        reversedProtocolList = new CopyOnWriteArrayList<>(protocols);
+    private static Protocol[] append(final Protocol[] protocols, final Protocol protocol) {
+        return insert(protocols, protocols.length, protocol);
+    }
+
+    private static Protocol[] insert(final Protocol[] protocols, final int index, final Protocol protocol) {
+        final Protocol[] newProtocols = new Protocol[protocols.length + 1];
+        System.arraycopy(protocols, 0, newProtocols, 0, index);
+        newProtocols[index] = protocol;
+        System.arraycopy(protocols, index, newProtocols, index + 1, protocols.length - index);
+        return newProtocols;
     }
 
     @Override
@@ -112,7 +135,11 @@ public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements Prot
         }
 
         // Apply protocols
-        packetWrapper.apply(direction, state, 0, protocolListFor(direction));
+        if (packetWrapper instanceof PacketWrapperImpl) {
+            ((PacketWrapperImpl) packetWrapper).apply(direction, state, 0, protocolsFor(direction));
+        } else {
+            packetWrapper.apply(direction, state, 0, Arrays.asList(protocolsFor(direction)));
+        }
         super.transform(direction, state, packetWrapper);
 
         if (debugHandler.enabled() && debugHandler.logPostPacketTransform() && debugHandler.shouldLog(packetWrapper, direction)) {
@@ -120,8 +147,143 @@ public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements Prot
         }
     }
 
-    private List<Protocol> protocolListFor(final Direction direction) {
-        return Collections.unmodifiableList(direction == Direction.SERVERBOUND ? protocolList : reversedProtocolList);
+    /**
+     * Returns the immutable protocol chain for the given direction. The returned array must not be modified.
+     *
+     * @param direction packet direction
+     * @return protocols in order of transformation
+     */
+    public Protocol[] protocolsFor(final Direction direction) {
+        final Chains chains = this.chains;
+        return direction == Direction.SERVERBOUND ? chains.protocols : chains.reversedProtocols;
+    }
+
+    /**
+     * Returns the protocol chain a packet sent from the given protocol has to go through,
+     * with base protocols always at the head. The returned array must not be modified.
+     *
+     * @param direction           packet direction
+     * @param protocolClass       protocol class the packet is sent from
+     * @param skipCurrentPipeline whether the given protocol should be skipped
+     * @return protocols in order of transformation, or null if the protocol is not in the pipeline
+     */
+    public Protocol @Nullable [] protocolsFrom(final Direction direction, final Class<? extends Protocol> protocolClass, final boolean skipCurrentPipeline) {
+        final Chains chains = this.chains;
+        final Map<Class<? extends Protocol>, Protocol[]> cache = chains.subChains[direction.ordinal() * 2 + (skipCurrentPipeline ? 1 : 0)];
+        Protocol[] protocols = cache.get(protocolClass);
+        if (protocols == null) {
+            protocols = protocolsFrom(direction == Direction.SERVERBOUND ? chains.protocols : chains.reversedProtocols, protocolClass, skipCurrentPipeline);
+            if (protocols == null) {
+                return null;
+            }
+            cache.put(protocolClass, protocols);
+        }
+        return protocols;
+    }
+
+    /**
+     * Computes the protocol chain a packet sent from the given protocol has to go through.
+     *
+     * @param pipes               protocols in order of transformation
+     * @param protocolClass       protocol class the packet is sent from
+     * @param skipCurrentPipeline whether the given protocol should be skipped
+     * @return protocols in order of transformation, or null if the protocol is not in the given chain
+     */
+    public static Protocol @Nullable [] protocolsFrom(final Protocol[] pipes, final Class<? extends Protocol> protocolClass, final boolean skipCurrentPipeline) {
+        final List<Protocol> protocols = new ArrayList<>();
+        int index = -1;
+        for (int i = 0; i < pipes.length; i++) {
+            // Always add base protocols to the head
+            final Protocol protocol = pipes[i];
+            if (protocol.isBaseProtocol()) {
+                protocols.add(protocol);
+            }
+
+            if (protocol.getClass() == protocolClass) {
+                index = i;
+                break;
+            }
+        }
+
+        if (index == -1) {
+            return null;
+        }
+
+        if (skipCurrentPipeline) {
+            index = Math.min(index + 1, pipes.length);
+        }
+
+        // Add remaining protocols on top
+        protocols.addAll(Arrays.asList(pipes).subList(index, pipes.length));
+        return protocols.toArray(EMPTY);
+    }
+
+    /**
+     * Returns the mappings composed across the current clientbound protocol chain.
+     * Until they have been composed, each protocol applies its own mappings.
+     *
+     * @return composed mappings of the current chain, or null if they are not available yet
+     * @see ComposedMappings
+     */
+    public @Nullable ComposedMappings composedMappings() {
+        final Chains chains = this.chains;
+        ComposedMappings composedMappings = chains.composedMappings;
+        if (composedMappings == null) {
+            final ProtocolManagerImpl protocolManager = (ProtocolManagerImpl) Via.getManager().getProtocolManager();
+            composedMappings = protocolManager.getComposedMappings(chains.reversedProtocols);
+            chains.composedMappings = composedMappings;
+        }
+        return composedMappings;
+    }
+
+    @Override
+    public int passthroughPacketId(final Direction direction, final State state, final int packetId) {
+        if (Via.getManager().debugHandler().enabled()) {
+            // Packets have to be logged
+            return -1;
+        }
+
+        final int route = routeTable().route(direction, state, packetId);
+        return route != PacketRouteTable.TRANSFORM ? route : -1;
+    }
+
+    /**
+     * Records a packet passed on by {@link #passthroughPacketId(Direction, State, int)} to the protocols it passed through.
+     *
+     * @param metrics   metrics to record to
+     * @param direction packet direction
+     * @param state     protocol state
+     * @param packetId  unmapped packet id
+     */
+    public void recordPassthrough(final TransformMetricsImpl metrics, final Direction direction, final State state, final int packetId) {
+        routeTable().recordPassthrough(metrics, direction, state, packetId);
+    }
+
+    /**
+     * Returns whether any protocol of the pipeline marked the packet as expensive to transform.
+     *
+     * @param direction packet direction
+     * @param state     protocol state
+     * @param packetId  unmapped packet id
+     * @return whether the packet is expensive to transform
+     */
+    public boolean isHeavy(final Direction direction, final State state, final int packetId) {
+        return routeTable().heavy(direction, state, packetId);
+    }
+
+    private PacketRouteTable routeTable() {
+        PacketRouteTable table = routeTable;
+        if (table == null) {
+            synchronized (this) {
+                table = routeTable;
+                if (table == null) {
+                    final Chains chains = this.chains;
+                    table = new PacketRouteTable(chains.protocols, chains.reversedProtocols);
+                    routeTable = table;
+                }
+            }
+        }
+        return table;
     }
 
     private void logPacket(Direction direction, State state, PacketWrapper packetWrapper, int originalID) {
@@ -148,7 +310,7 @@ public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements Prot
 
     @Override
     public @Nullable <P extends Protocol> P getProtocol(Class<P> pipeClass) {
-        for (Protocol protocol : protocolList) {
+        for (Protocol protocol : chains.protocols) {
             if (protocol.getClass() == pipeClass) {
                 return (P) protocol;
             }
@@ -158,17 +320,17 @@ public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements Prot
 
     @Override
     public List<Protocol> pipes() {
-        return Collections.unmodifiableList(protocolList);
+        return Collections.unmodifiableList(Arrays.asList(chains.protocols));
     }
 
     @Override
     public List<Protocol> reversedPipes() {
-        return Collections.unmodifiableList(reversedProtocolList);
+        return Collections.unmodifiableList(Arrays.asList(chains.reversedProtocols));
     }
 
     @Override
     public boolean hasNonBaseProtocols() {
-        for (Protocol protocol : protocolList) {
+        for (Protocol protocol : chains.protocols) {
             if (!protocol.isBaseProtocol()) {
                 return true;
             }
@@ -178,10 +340,10 @@ public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements Prot
 
     @Override
     public synchronized void cleanPipes() {
-        protocolList.clear();
-        reversedProtocolList.clear();
+        chains = new Chains(EMPTY, EMPTY);
         protocolSet.clear();
         baseProtocols = 0;
+        routeTable = null;
 
         registerPackets();
     }
@@ -189,7 +351,30 @@ public class ProtocolPipelineImpl extends AbstractSimpleProtocol implements Prot
     @Override
     public String toString() {
         return "ProtocolPipelineImpl{" +
-                "protocolList=" + protocolList +
+                "protocolList=" + Arrays.toString(chains.protocols) +
                 '}';
     }
+
+    private static final class Chains {
+        /**
+         * Protocols ordered from client to server transformation with the base protocols at the head.
+         */
+        private final Protocol[] protocols;
+        private final Protocol[] reversedProtocols;
+        /**
+         * Memoized chains for packets sent from a protocol, indexed by direction and whether the protocol is skipped.
+         */
+        private final Map<Class<? extends Protocol>, Protocol[]>[] subChains;
+        private volatile ComposedMappings composedMappings;
+
+        @SuppressWarnings("unchecked")
+        private Chains(final Protocol[] protocols, final Protocol[] reversedProtocols) {
+            this.protocols = protocols;
+            this.reversedProtocols = reversedProtocols;
+            this.subChains = new Map[Direction.values().length * 2];
+            for (int i = 0; i < subChains.length; i++) {
+                subChains[i] = new ConcurrentHashMap<>();
+            }
+        }
+    }
 }
@@ -22,22 +22,27 @@ import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.ProtocolInfo;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.ProtocolPipeline;
 import com.viaversion.viaversion.api.protocol.packet.Direction;
 import com.viaversion.viaversion.api.protocol.packet.PacketType;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.packet.State;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandler;
+import com.viaversion.viaversion.api.type.PrimitiveType;
 import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.TypeConverter;
 import com.viaversion.viaversion.exception.CancelException;
 import com.viaversion.viaversion.exception.InformativeException;
+import com.viaversion.viaversion.handlers.OrderedTransformQueue;
+import com.viaversion.viaversion.metrics.TransformMetricsImpl;
+import com.viaversion.viaversion.protocol.ComposedMappings;
+import com.viaversion.viaversion.protocol.ProtocolPipelineImpl;
 import com.viaversion.viaversion.util.PipelineUtil;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelFuture;
 import java.io.IOException;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
@@ -45,10 +50,25 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class PacketWrapperImpl implements PacketWrapper {
     private static final Protocol[] PROTOCOL_ARRAY = new Protocol[0];
-
-    private final Deque<PacketValue<?>> readableObjects = new ArrayDeque<>();
-    private final List<PacketValue<?>> packetValues = new ArrayList<>();
-    private final ByteBuf inputBuffer;
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * Marker value for values stored unboxed in the raw array.
+     */
+    private static final Object RAW = new Object();
+
+    // Written values, indexed by their write order
+    private Type<?>[] types = new Type[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private long[] raws = new long[INITIAL_CAPACITY];
+    private int size;
+    // Values written by the previous protocol that have not been read yet
+    private Type<?>[] readableTypes = new Type[INITIAL_CAPACITY];
+    private Object[] readableValues = new Object[INITIAL_CAPACITY];
+    private long[] readableRaws = new long[INITIAL_CAPACITY];
+    private int readerIndex;
+    private int readableSize;
+    private final TypeIndex typeIndex = new TypeIndex();
+    private ByteBuf inputBuffer;
     private final UserConnection userConnection;
     private boolean send = true;
     /**
@@ -56,6 +76,10 @@ public class PacketWrapperImpl implements PacketWrapper {
      */
     private PacketType packetType;
     private int id;
+    /**
+     * Composed block state run already applied to the packet's block states by its first protocol
+     */
+    private ComposedMappings.Run appliedBlockStateRun;
 
     public PacketWrapperImpl(int packetId, @Nullable ByteBuf inputBuffer, UserConnection userConnection) {
         this.id = packetId;
@@ -70,42 +94,67 @@ public class PacketWrapperImpl implements PacketWrapper {
         this.userConnection = userConnection;
     }
 
+    /**
+     * Resets this wrapper to a fresh state so that it can be reused for another packet of the same connection.
+     *
+     * @param packetId    packet id
+     * @param inputBuffer input buffer
+     * @see PacketWrapperPool
+     */
+    void reset(int packetId, @Nullable ByteBuf inputBuffer) {
+        clearValues();
+        clearReadable();
+        this.packetType = null;
+        this.id = packetId;
+        this.inputBuffer = inputBuffer;
+        this.send = true;
+        this.appliedBlockStateRun = null;
+    }
+
+    /**
+     * Returns the composed block state run whose mappings have already been applied to this packet.
+     *
+     * @return applied composed block state run, or null if none
+     * @see ComposedMappings
+     */
+    public ComposedMappings.@Nullable Run appliedBlockStateRun() {
+        return appliedBlockStateRun;
+    }
+
+    public void setAppliedBlockStateRun(final ComposedMappings.@Nullable Run appliedBlockStateRun) {
+        this.appliedBlockStateRun = appliedBlockStateRun;
+    }
+
+    /**
+     * Returns whether any values have been read into or written to this wrapper.
+     *
+     * @return true if values are held, false if the input buffer is the only content
+     */
+    public boolean hasValues() {
+        return size != 0 || readerIndex != readableSize;
+    }
+
     @Override
     public <T> T get(Type<T> type, int index) throws Exception {
-        int currentIndex = 0;
-        for (PacketValue<?> packetValue : packetValues) {
-            if (packetValue.type() != type) {
-                continue;
-            }
-            if (currentIndex == index) {
-                //noinspection unchecked
-                return (T) packetValue.value();
-            }
-            currentIndex++;
+        final int slot = typeIndex.slot(type, index);
+        if (slot == -1) {
+            throw createInformativeException(new ArrayIndexOutOfBoundsException("Could not find type " + type.getTypeName() + " at " + index), type, index);
         }
-        throw createInformativeException(new ArrayIndexOutOfBoundsException("Could not find type " + type.getTypeName() + " at " + index), type, index);
+        final Object value = values[slot];
+        //noinspection unchecked
+        return (T) (value == RAW ? fromRaw(type.getOutputClass(), raws[slot]) : value);
     }
 
     @Override
     public boolean is(Type type, int index) {
-        int currentIndex = 0;
-        for (PacketValue<?> packetValue : packetValues) {
-            if (packetValue.type() != type) {
-                continue;
-            }
-            if (currentIndex == index) {
-                return true;
-            }
-            currentIndex++;
-        }
-        return false;
+        return typeIndex.slot(type, index) != -1;
     }
 
     @Override
     public boolean isReadable(Type type, int index) {
         int currentIndex = 0;
-        for (PacketValue<?> packetValue : readableObjects) {
-            if (packetValue.type().getBaseClass() != type.getBaseClass()) {
+        for (int i = readerIndex; i < readableSize; i++) {
+            if (readableTypes[i].getBaseClass() != type.getBaseClass()) {
                 continue;
             }
             if (currentIndex == index) {
@@ -119,47 +168,254 @@ public class PacketWrapperImpl implements PacketWrapper {
 
     @Override
     public <T> void set(Type<T> type, int index, T value) throws Exception {
-        int currentIndex = 0;
-        for (PacketValue packetValue : packetValues) {
-            if (packetValue.type() != type) {
-                continue;
-            }
-            if (currentIndex == index) {
-                packetValue.setValue(attemptTransform(type, value));
-                return;
-            }
-            currentIndex++;
+        final int slot = typeIndex.slot(type, index);
+        if (slot == -1) {
+            throw createInformativeException(new ArrayIndexOutOfBoundsException("Could not find type " + type.getTypeName() + " at " + index), type, index);
         }
-        throw createInformativeException(new ArrayIndexOutOfBoundsException("Could not find type " + type.getTypeName() + " at " + index), type, index);
+        values[slot] = attemptTransform(type, value);
     }
 
     @Override
     public <T> T read(Type<T> type) throws Exception {
-        if (readableObjects.isEmpty()) {
+        if (readerIndex == readableSize) {
             Preconditions.checkNotNull(inputBuffer, "This packet does not have an input buffer.");
             // We could in the future log input read values, but honestly for things like bulk maps, mem waste D:
             try {
                 return type.read(inputBuffer);
             } catch (Exception e) {
-                throw createInformativeException(e, type, packetValues.size() + 1);
+                throw createInformativeException(e, type, size + 1);
             }
         }
 
-        PacketValue readValue = readableObjects.poll();
-        Type<?> readType = readValue.type();
+        final int index = pollReadable(type);
+        final Object readValue = readableValues[index];
+        readableValues[index] = null;
+        //noinspection unchecked
+        return (T) (readValue == RAW ? fromRaw(type.getOutputClass(), readableRaws[index]) : readValue);
+    }
+
+    /**
+     * Returns the index of the next readable value after checking it against the given type.
+     */
+    private int pollReadable(Type<?> type) throws InformativeException {
+        final int index = readerIndex++;
+        final Type<?> readType = readableTypes[index];
+        readableTypes[index] = null;
         if (readType == type
                 || (type.getBaseClass() == readType.getBaseClass()
                 && type.getOutputClass() == readType.getOutputClass())) {
-            //noinspection unchecked
-            return (T) readValue.value();
+            return index;
         } else {
-            throw createInformativeException(new IOException("Unable to read type " + type.getTypeName() + ", found " + readValue.type().getTypeName()), type, readableObjects.size());
+            readableValues[index] = null;
+            throw createInformativeException(new IOException("Unable to read type " + type.getTypeName() + ", found " + readType.getTypeName()), type, readableSize - readerIndex);
         }
     }
 
     @Override
     public <T> void write(Type<T> type, T value) {
-        packetValues.add(new PacketValue<>(type, attemptTransform(type, value)));
+        write0(type, attemptTransform(type, value), 0);
+    }
+
+    private void write0(Type<?> type, @Nullable Object value, long raw) {
+        if (size == types.length) {
+            grow(size << 1);
+        }
+        types[size] = type;
+        values[size] = value;
+        raws[size] = raw;
+        typeIndex.add(type, size);
+        size++;
+    }
+
+    private void grow(int capacity) {
+        types = Arrays.copyOf(types, capacity);
+        values = Arrays.copyOf(values, capacity);
+        raws = Arrays.copyOf(raws, capacity);
+    }
+
+    private long readRaw(Type<?> type) throws Exception {
+        if (readerIndex == readableSize) {
+            Preconditions.checkNotNull(inputBuffer, "This packet does not have an input buffer.");
+            try {
+                if (type instanceof PrimitiveType<?>) {
+                    return ((PrimitiveType<?>) type).readRaw(inputBuffer);
+                }
+                return toRaw(type.getOutputClass(), type.read(inputBuffer));
+            } catch (Exception e) {
+                throw createInformativeException(e, type, size + 1);
+            }
+        }
+
+        final int index = pollReadable(type);
+        final Object readValue = readableValues[index];
+        readableValues[index] = null;
+        return readValue == RAW ? readableRaws[index] : toRaw(type.getOutputClass(), readValue);
+    }
+
+    private void writeRaw(Type<?> type, long raw) {
+        if (type instanceof PrimitiveType<?>) {
+            write0(type, RAW, raw);
+        } else {
+            write0(type, fromRaw(type.getOutputClass(), raw), 0);
+        }
+    }
+
+    private long getRaw(Type<?> type, int index) throws InformativeException {
+        final int slot = typeIndex.slot(type, index);
+        if (slot == -1) {
+            throw createInformativeException(new ArrayIndexOutOfBoundsException("Could not find type " + type.getTypeName() + " at " + index), type, index);
+        }
+        final Object value = values[slot];
+        return value == RAW ? raws[slot] : toRaw(type.getOutputClass(), value);
+    }
+
+    private void setRaw(Type<?> type, int index, long raw) throws InformativeException {
+        final int slot = typeIndex.slot(type, index);
+        if (slot == -1) {
+            throw createInformativeException(new ArrayIndexOutOfBoundsException("Could not find type " + type.getTypeName() + " at " + index), type, index);
+        }
+        if (type instanceof PrimitiveType<?>) {
+            values[slot] = RAW;
+            raws[slot] = raw;
+        } else {
+            values[slot] = fromRaw(type.getOutputClass(), raw);
+        }
+    }
+
+    /**
+     * Returns the raw bits of a boxed value as described in {@link PrimitiveType}.
+     */
+    private static long toRaw(Class<?> outputClass, Object value) {
+        if (outputClass == Float.class) {
+            return Float.floatToRawIntBits(((Number) value).floatValue());
+        } else if (outputClass == Double.class) {
+            return Double.doubleToRawLongBits(((Number) value).doubleValue());
+        } else if (outputClass == Boolean.class) {
+            return ((Boolean) value) ? 1 : 0;
+        }
+        return ((Number) value).longValue();
+    }
+
+    /**
+     * Returns the boxed value of raw bits as described in {@link PrimitiveType}.
+     */
+    private static Object fromRaw(Class<?> outputClass, long raw) {
+        if (outputClass == Integer.class) {
+            return (int) raw;
+        } else if (outputClass == Long.class) {
+            return raw;
+        } else if (outputClass == Float.class) {
+            return Float.intBitsToFloat((int) raw);
+        } else if (outputClass == Double.class) {
+            return Double.longBitsToDouble(raw);
+        } else if (outputClass == Boolean.class) {
+            return raw != 0;
+        } else if (outputClass == Short.class) {
+            return (short) raw;
+        } else if (outputClass == Byte.class) {
+            return (byte) raw;
+        }
+        throw new IllegalArgumentException("Unsupported primitive output class " + outputClass);
+    }
+
+    @Override
+    public int readInt(Type<Integer> type) throws Exception {
+        return (int) readRaw(type);
+    }
+
+    @Override
+    public void writeInt(Type<Integer> type, int value) {
+        writeRaw(type, value);
+    }
+
+    @Override
+    public int getInt(Type<Integer> type, int index) throws Exception {
+        return (int) getRaw(type, index);
+    }
+
+    @Override
+    public void setInt(Type<Integer> type, int index, int value) throws Exception {
+        setRaw(type, index, value);
+    }
+
+    @Override
+    public long readLong(Type<Long> type) throws Exception {
+        return readRaw(type);
+    }
+
+    @Override
+    public void writeLong(Type<Long> type, long value) {
+        writeRaw(type, value);
+    }
+
+    @Override
+    public long getLong(Type<Long> type, int index) throws Exception {
+        return getRaw(type, index);
+    }
+
+    @Override
+    public void setLong(Type<Long> type, int index, long value) throws Exception {
+        setRaw(type, index, value);
+    }
+
+    @Override
+    public float readFloat(Type<Float> type) throws Exception {
+        return Float.intBitsToFloat((int) readRaw(type));
+    }
+
+    @Override
+    public void writeFloat(Type<Float> type, float value) {
+        writeRaw(type, Float.floatToRawIntBits(value));
+    }
+
+    @Override
+    public float getFloat(Type<Float> type, int index) throws Exception {
+        return Float.intBitsToFloat((int) getRaw(type, index));
+    }
+
+    @Override
+    public void setFloat(Type<Float> type, int index, float value) throws Exception {
+        setRaw(type, index, Float.floatToRawIntBits(value));
+    }
+
+    @Override
+    public double readDouble(Type<Double> type) throws Exception {
+        return Double.longBitsToDouble(readRaw(type));
+    }
+
+    @Override
+    public void writeDouble(Type<Double> type, double value) {
+        writeRaw(type, Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public double getDouble(Type<Double> type, int index) throws Exception {
+        return Double.longBitsToDouble(getRaw(type, index));
+    }
+
+    @Override
+    public void setDouble(Type<Double> type, int index, double value) throws Exception {
+        setRaw(type, index, Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public boolean readBoolean(Type<Boolean> type) throws Exception {
+        return readRaw(type) != 0;
+    }
+
+    @Override
+    public void writeBoolean(Type<Boolean> type, boolean value) {
+        writeRaw(type, value ? 1 : 0);
+    }
+
+    @Override
+    public boolean getBoolean(Type<Boolean> type, int index) throws Exception {
+        return getRaw(type, index) != 0;
+    }
+
+    @Override
+    public void setBoolean(Type<Boolean> type, int index, boolean value) throws Exception {
+        setRaw(type, index, value ? 1 : 0);
     }
 
     /**
@@ -192,8 +448,7 @@ public class PacketWrapperImpl implements PacketWrapper {
     @Override
     public void passthroughAll() throws Exception {
         // Copy previous objects
-        packetValues.addAll(readableObjects);
-        readableObjects.clear();
+        moveReadableToWritten();
         // If the buffer has readable bytes, copy them.
         if (inputBuffer.isReadable()) {
             passthrough(Type.REMAINING_BYTES);
@@ -205,30 +460,39 @@ public class PacketWrapperImpl implements PacketWrapper {
         if (id != -1) {
             Type.VAR_INT.writePrimitive(buffer, id);
         }
-        if (!readableObjects.isEmpty()) {
-            packetValues.addAll(readableObjects);
-            readableObjects.clear();
-        }
+        moveReadableToWritten();
 
-        int index = 0;
-        for (final PacketValue<?> packetValue : packetValues) {
+        for (int i = 0; i < size; i++) {
+            //noinspection unchecked
+            final Type<Object> type = (Type<Object>) types[i];
             try {
-                packetValue.write(buffer);
+                final Object value = values[i];
+                if (value == RAW) {
+                    ((PrimitiveType<?>) type).writeRaw(buffer, raws[i]);
+                } else {
+                    type.write(buffer, value);
+                }
             } catch (final Exception e) {
-                throw createInformativeException(e, packetValue.type(), index);
+                throw createInformativeException(e, type, i);
             }
-            index++;
         }
         writeRemaining(buffer);
     }
 
+    private void moveReadableToWritten() {
+        for (int i = readerIndex; i < readableSize; i++) {
+            write0(readableTypes[i], readableValues[i], readableRaws[i]);
+        }
+        clearReadable();
+    }
+
     private InformativeException createInformativeException(final Exception cause, final Type<?> type, final int index) {
         return new InformativeException(cause)
                 .set("Index", index)
                 .set("Type", type.getTypeName())
                 .set("Packet ID", this.id)
                 .set("Packet Type", this.packetType)
-                .set("Data", this.packetValues);
+                .set("Data", packetValues());
     }
 
     @Override
@@ -236,13 +500,27 @@ public class PacketWrapperImpl implements PacketWrapper {
         if (inputBuffer != null) {
             inputBuffer.clear();
         }
-        readableObjects.clear(); // :(
+        clearReadable(); // :(
     }
 
     @Override
     public void clearPacket() {
         clearInputBuffer();
-        packetValues.clear();
+        clearValues();
+    }
+
+    private void clearValues() {
+        Arrays.fill(types, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        typeIndex.clear();
+    }
+
+    private void clearReadable() {
+        Arrays.fill(readableTypes, readerIndex, readableSize, null);
+        Arrays.fill(readableValues, readerIndex, readableSize, null);
+        readerIndex = 0;
+        readableSize = 0;
     }
 
     private void writeRemaining(ByteBuf output) {
@@ -279,7 +557,8 @@ public class PacketWrapperImpl implements PacketWrapper {
             return;
         }
 
-        connection.getChannel().eventLoop().submit(() -> {
+        // Transformed on the transform lane instead if it is busy with earlier packets
+        OrderedTransformQueue.schedule(connection, () -> {
             try {
                 final ByteBuf output = constructPacket(protocol, skipCurrentPipeline, Direction.CLIENTBOUND);
                 connection.sendRawPacket(output);
@@ -305,39 +584,25 @@ public class PacketWrapperImpl implements PacketWrapper {
      */
     private ByteBuf constructPacket(Class<? extends Protocol> packetProtocol, boolean skipCurrentPipeline, Direction direction) throws Exception {
         final ProtocolInfo protocolInfo = user().getProtocolInfo();
-        final List<Protocol> pipes = direction == Direction.SERVERBOUND ? protocolInfo.getPipeline().pipes() : protocolInfo.getPipeline().reversedPipes();
-        final List<Protocol> protocols = new ArrayList<>();
-        int index = -1;
-        for (int i = 0; i < pipes.size(); i++) {
-            // Always add base protocols to the head
-            final Protocol protocol = pipes.get(i);
-            if (protocol.isBaseProtocol()) {
-                protocols.add(protocol);
-            }
-
-            if (protocol.getClass() == packetProtocol) {
-                index = i;
-                break;
-            }
+        final ProtocolPipeline pipeline = protocolInfo.getPipeline();
+        final Protocol[] protocols;
+        if (pipeline instanceof ProtocolPipelineImpl) {
+            protocols = ((ProtocolPipelineImpl) pipeline).protocolsFrom(direction, packetProtocol, skipCurrentPipeline);
+        } else {
+            final List<Protocol> pipes = direction == Direction.SERVERBOUND ? pipeline.pipes() : pipeline.reversedPipes();
+            protocols = ProtocolPipelineImpl.protocolsFrom(pipes.toArray(PROTOCOL_ARRAY), packetProtocol, skipCurrentPipeline);
         }
 
-        if (index == -1) {
+        if (protocols == null) {
             // The given protocol is not in the pipeline
             throw new NoSuchElementException(packetProtocol.getCanonicalName());
         }
 
-        if (skipCurrentPipeline) {
-            index = Math.min(index + 1, pipes.size());
-        }
-
-        // Add remaining protocols on top
-        protocols.addAll(pipes.subList(index, pipes.size()));
-
         // Reset reader before we start
         resetReader();
 
         // Apply other protocols
-        apply(direction, protocolInfo.getState(direction), 0, protocols);
+        apply(direction, protocolInfo.getState(direction), 0, protocols, false);
         final ByteBuf output = inputBuffer == null ? user().getChannel().alloc().buffer() : inputBuffer.alloc().buffer();
         try {
             writeToBuffer(output);
@@ -407,29 +672,55 @@ public class PacketWrapperImpl implements PacketWrapper {
         return apply(direction, state, index, pipeline.toArray(PROTOCOL_ARRAY), false);
     }
 
+    /**
+     * Applies the given protocol chain without copying it. The array must not be modified while being applied.
+     *
+     * @param direction the direction
+     * @param state     the state
+     * @param index     the index to start from
+     * @param pipeline  the protocols to apply
+     * @return the current packet wrapper
+     * @throws Exception if a protocol fails to transform the packet
+     */
+    public PacketWrapperImpl apply(Direction direction, State state, int index, Protocol[] pipeline) throws Exception {
+        return apply(direction, state, index, pipeline, false);
+    }
+
     private PacketWrapperImpl apply(Direction direction, State state, int index, Protocol[] pipeline, boolean reverse) throws Exception {
         // Reset the reader after every transformation for the packetWrapper, so it can be recycled across packets
         State updatedState = state; // The state might change while transforming, so we need to check for that
+        final TransformMetricsImpl metrics = TransformMetricsImpl.of(userConnection);
         if (reverse) {
             for (int i = index; i >= 0; i--) {
-                pipeline[i].transform(direction, updatedState, this);
-                resetReader();
-                if (this.packetType != null) {
-                    updatedState = this.packetType.state();
-                }
+                updatedState = transform(pipeline[i], direction, updatedState, metrics);
             }
         } else {
             for (int i = index; i < pipeline.length; i++) {
-                pipeline[i].transform(direction, updatedState, this);
-                resetReader();
-                if (this.packetType != null) {
-                    updatedState = this.packetType.state();
-                }
+                updatedState = transform(pipeline[i], direction, updatedState, metrics);
             }
         }
         return this;
     }
 
+    private State transform(Protocol protocol, Direction direction, State state, TransformMetricsImpl metrics) throws Exception {
+        if (!metrics.isEnabled()) {
+            protocol.transform(direction, state, this);
+        } else {
+            final int packetId = this.id;
+            final long start = metrics.startSample();
+            try {
+                protocol.transform(direction, state, this);
+            } catch (CancelException e) {
+                metrics.recordTransform(protocol, direction, state, packetId, start, true);
+                throw e;
+            }
+            metrics.recordTransform(protocol, direction, state, packetId, start, false);
+        }
+
+        resetReader();
+        return this.packetType != null ? this.packetType.state() : state;
+    }
+
     @Override
     public boolean isCancelled() {
         return !this.send;
@@ -447,11 +738,33 @@ public class PacketWrapperImpl implements PacketWrapper {
 
     @Override
     public void resetReader() {
-        // Move all packet values to the readable for next packet.
-        for (int i = packetValues.size() - 1; i >= 0; i--) {
-            this.readableObjects.addFirst(this.packetValues.get(i));
+        // Move all packet values to the readable for next packet, followed by the ones still left unread
+        final int remaining = readableSize - readerIndex;
+        if (remaining != 0) {
+            if (size + remaining > types.length) {
+                grow(Math.max(types.length << 1, size + remaining));
+            }
+            System.arraycopy(readableTypes, readerIndex, types, size, remaining);
+            System.arraycopy(readableValues, readerIndex, values, size, remaining);
+            System.arraycopy(readableRaws, readerIndex, raws, size, remaining);
+            clearReadable();
+            size += remaining;
         }
-        this.packetValues.clear();
+
+        // Swap the backing arrays instead of moving values one by one, the readable ones are empty at this point
+        final Type<?>[] emptyTypes = readableTypes;
+        final Object[] emptyValues = readableValues;
+        final long[] emptyRaws = readableRaws;
+        readableTypes = types;
+        readableValues = values;
+        readableRaws = raws;
+        readerIndex = 0;
+        readableSize = size;
+        types = emptyTypes;
+        values = emptyValues;
+        raws = emptyRaws;
+        size = 0;
+        typeIndex.clear();
     }
 
     @Override
@@ -510,7 +823,8 @@ public class PacketWrapperImpl implements PacketWrapper {
             return;
         }
 
-        connection.getChannel().eventLoop().submit(() -> {
+        // Transformed on the transform lane instead if it is busy with earlier packets
+        OrderedTransformQueue.schedule(connection, () -> {
             try {
                 final ByteBuf output = constructPacket(protocol, skipCurrentPipeline, Direction.SERVERBOUND);
                 connection.sendRawPacketToServer(output);
@@ -559,11 +873,130 @@ public class PacketWrapperImpl implements PacketWrapper {
         return "PacketWrapper{" +
                 "type=" + packetType +
                 ", id=" + id +
-                ", values=" + packetValues +
-                ", readable=" + readableObjects +
+                ", values=" + packetValues() +
+                ", readable=" + readableValues() +
                 '}';
     }
 
+    private List<PacketValue<?>> packetValues() {
+        final List<PacketValue<?>> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(new PacketValue(types[i], values[i] == RAW ? fromRaw(types[i].getOutputClass(), raws[i]) : values[i]));
+        }
+        return list;
+    }
+
+    private List<PacketValue<?>> readableValues() {
+        final List<PacketValue<?>> list = new ArrayList<>(readableSize - readerIndex);
+        for (int i = readerIndex; i < readableSize; i++) {
+            final Object value = readableValues[i];
+            list.add(new PacketValue(readableTypes[i], value == RAW ? fromRaw(readableTypes[i].getOutputClass(), readableRaws[i]) : value));
+        }
+        return list;
+    }
+
+    /**
+     * Identity based lookup from a type to the slots it has been written to, so that values
+     * can be found by type and occurrence without scanning through all values.
+     */
+    private static final class TypeIndex {
+        private static final int INITIAL_SLOTS = 4;
+        private Type<?>[] keys = new Type[16];
+        private int[][] slots = new int[16][];
+        private int[] counts = new int[16];
+        private int size;
+
+        void add(final Type<?> type, final int slot) {
+            int index = find(type);
+            if (index < 0) {
+                if ((size + 1) << 1 > keys.length) {
+                    rehash(keys.length << 1);
+                    index = find(type);
+                }
+
+                index = -index - 1;
+                keys[index] = type;
+                counts[index] = 0;
+                if (slots[index] == null) {
+                    slots[index] = new int[INITIAL_SLOTS];
+                }
+                size++;
+            }
+
+            final int count = counts[index];
+            int[] typeSlots = slots[index];
+            if (count == typeSlots.length) {
+                typeSlots = slots[index] = Arrays.copyOf(typeSlots, count << 1);
+            }
+            typeSlots[count] = slot;
+            counts[index] = count + 1;
+        }
+
+        /**
+         * Returns the slot of the given occurrence of the type, or -1 if not present.
+         */
+        int slot(final Type<?> type, final int occurrence) {
+            if (size == 0) {
+                return -1;
+            }
+
+            final int index = find(type);
+            if (index < 0 || occurrence < 0 || occurrence >= counts[index]) {
+                return -1;
+            }
+            return slots[index][occurrence];
+        }
+
+        void clear() {
+            if (size != 0) {
+                // Keep the slot arrays around for reuse
+                Arrays.fill(keys, null);
+                size = 0;
+            }
+        }
+
+        /**
+         * Returns the index of the key, or {@code -(insertion point) - 1} if absent.
+         */
+        private int find(final Type<?> type) {
+            final int mask = keys.length - 1;
+            int index = mix(System.identityHashCode(type)) & mask;
+            Type<?> key;
+            while ((key = keys[index]) != null) {
+                if (key == type) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -index - 1;
+        }
+
+        private void rehash(final int capacity) {
+            final Type<?>[] oldKeys = keys;
+            final int[][] oldSlots = slots;
+            final int[] oldCounts = counts;
+            keys = new Type[capacity];
+            slots = new int[capacity][];
+            counts = new int[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                final Type<?> key = oldKeys[i];
+                if (key == null) {
+                    continue;
+                }
+
+                final int index = -find(key) - 1;
+                keys[index] = key;
+                slots[index] = oldSlots[i];
+                counts[index] = oldCounts[i];
+            }
+        }
+
+        private static int mix(final int hash) {
+            final int h = hash * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
     public static final class PacketValue<T> {
         private final Type<T> type;
         private T value;
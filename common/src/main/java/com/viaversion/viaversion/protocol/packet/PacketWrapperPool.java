@@ -0,0 +1,72 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocol.packet;
+
+import com.viaversion.viaversion.api.connection.UserConnection;
+import io.netty.buffer.ByteBuf;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Small per-connection pool of packet wrappers to avoid allocating a new wrapper and its value storage for every packet.
+ * <p>
+ * Not thread-safe, it should only be used by the thread currently transforming the connection's packets, which the
+ * connection's transform lane keeps to one at a time. Wrappers must not be used anymore after being released;
+ * nested transformations simply draw another wrapper.
+ */
+public final class PacketWrapperPool {
+    private static final int MAX_POOLED_WRAPPERS = 4;
+    private final Deque<PacketWrapperImpl> wrappers = new ArrayDeque<>(MAX_POOLED_WRAPPERS);
+    private final UserConnection connection;
+
+    public PacketWrapperPool(final UserConnection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Returns a pooled or new packet wrapper for the given packet id and input buffer.
+     *
+     * @param packetId    packet id
+     * @param inputBuffer input buffer
+     * @return packet wrapper to be released via {@link #release(PacketWrapperImpl)}
+     */
+    public PacketWrapperImpl acquire(final int packetId, @Nullable final ByteBuf inputBuffer) {
+        final PacketWrapperImpl wrapper = wrappers.pollFirst();
+        if (wrapper == null) {
+            return new PacketWrapperImpl(packetId, inputBuffer, connection);
+        }
+
+        wrapper.reset(packetId, inputBuffer);
+        return wrapper;
+    }
+
+    /**
+     * Clears and returns the wrapper to the pool.
+     *
+     * @param wrapper packet wrapper previously acquired from this pool
+     */
+    public void release(final PacketWrapperImpl wrapper) {
+        if (wrapper.user() != connection || wrappers.size() >= MAX_POOLED_WRAPPERS) {
+            return;
+        }
+
+        wrapper.reset(-1, null);
+        wrappers.addFirst(wrapper);
+    }
+}
@@ -108,6 +108,11 @@ public class BaseProtocol extends AbstractProtocol {
         providers.register(VersionProvider.class, new BaseVersionProvider());
     }
 
+    @Override
+    public boolean hasPlainTransform(Direction direction, State state) {
+        return direction != Direction.SERVERBOUND || state != State.HANDSHAKE;
+    }
+
     @Override
     public void transform(Direction direction, State state, PacketWrapper packetWrapper) throws Exception {
         super.transform(direction, state, packetWrapper);
@@ -19,7 +19,6 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
 import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
@@ -45,7 +44,7 @@ public abstract class AbstractFenceConnectionHandler extends ConnectionHandler {
                 }
 
                 blockStates.add(blockData.getSavedBlockStateId());
-                ConnectionData.connectionHandlerMap.put(blockData.getSavedBlockStateId(), handler);
+                ConnectionData.setConnectionHandler(blockData.getSavedBlockStateId(), handler);
                 byte internalStateId = getStates(blockData);
                 connectedBlockStates[internalStateId] = blockData.getSavedBlockStateId();
             }
@@ -61,13 +60,13 @@ public abstract class AbstractFenceConnectionHandler extends ConnectionHandler {
         return states;
     }
 
-    protected byte getStates(UserConnection user, Position position, int blockState) {
+    protected byte getStates(UserConnection user, long position, int blockState) {
         byte states = 0;
         boolean pre1_12 = user.getProtocolInfo().getServerProtocolVersion() < ProtocolVersion.v1_12.getVersion();
-        if (connects(BlockFace.EAST, getBlockData(user, position.getRelative(BlockFace.EAST)), pre1_12)) states |= 1;
-        if (connects(BlockFace.NORTH, getBlockData(user, position.getRelative(BlockFace.NORTH)), pre1_12)) states |= 2;
-        if (connects(BlockFace.SOUTH, getBlockData(user, position.getRelative(BlockFace.SOUTH)), pre1_12)) states |= 4;
-        if (connects(BlockFace.WEST, getBlockData(user, position.getRelative(BlockFace.WEST)), pre1_12)) states |= 8;
+        if (connects(BlockFace.EAST, getBlockData(user, PackedPosition.relative(position, BlockFace.EAST)), pre1_12)) states |= 1;
+        if (connects(BlockFace.NORTH, getBlockData(user, PackedPosition.relative(position, BlockFace.NORTH)), pre1_12)) states |= 2;
+        if (connects(BlockFace.SOUTH, getBlockData(user, PackedPosition.relative(position, BlockFace.SOUTH)), pre1_12)) states |= 4;
+        if (connects(BlockFace.WEST, getBlockData(user, PackedPosition.relative(position, BlockFace.WEST)), pre1_12)) states |= 8;
         return states;
     }
 
@@ -76,12 +75,12 @@ public abstract class AbstractFenceConnectionHandler extends ConnectionHandler {
     }
 
     @Override
-    public int getBlockData(UserConnection user, Position position) {
+    public int getBlockData(UserConnection user, long position) {
         return STAIR_CONNECTION_HANDLER.connect(user, position, super.getBlockData(user, position));
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
+    public int connect(UserConnection user, long position, int blockState) {
         final int newBlockState = connectedBlockStates[getStates(user, position, blockState)];
         return newBlockState == -1 ? blockState : newBlockState;
     }
@@ -90,8 +89,7 @@ public abstract class AbstractFenceConnectionHandler extends ConnectionHandler {
         if (blockStates.contains(blockState)) return true;
         if (blockConnectionsTypeId == -1) return false;
 
-        BlockData blockData = ConnectionData.blockConnectionData.get(blockState);
-        return blockData != null && blockData.connectsTo(blockConnectionsTypeId, side.opposite(), pre1_12);
+        return ConnectionData.connectsTo(blockState, blockConnectionsTypeId, side.opposite(), pre1_12);
     }
 
     public IntSet getBlockStates() {
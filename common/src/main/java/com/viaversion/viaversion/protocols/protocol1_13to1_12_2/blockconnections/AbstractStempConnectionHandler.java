@@ -19,7 +19,6 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import java.util.EnumMap;
@@ -45,22 +44,23 @@ public abstract class AbstractStempConnectionHandler extends ConnectionHandler {
                 if (blockData.getSavedBlockStateId() != baseStateId) {
                     handler.blockId.add(blockData.getSavedBlockStateId());
                 }
-                ConnectionData.connectionHandlerMap.put(blockData.getSavedBlockStateId(), handler);
+                ConnectionData.setConnectionHandler(blockData.getSavedBlockStateId(), handler);
             }
             if (blockData.getMinecraftKey().equals(toKey)) {
                 String facing = blockData.getValue("facing").toUpperCase(Locale.ROOT);
                 stemps.put(BlockFace.valueOf(facing), blockData.getSavedBlockStateId());
+                ConnectionData.keepState(blockData.getSavedBlockStateId());
             }
         };
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
+    public int connect(UserConnection user, long position, int blockState) {
         if (blockState != baseStateId) {
             return blockState;
         }
         for (BlockFace blockFace : BLOCK_FACES) {
-            if (blockId.contains(getBlockData(user, position.getRelative(blockFace)))) {
+            if (blockId.contains(getBlockData(user, PackedPosition.relative(position, blockFace)))) {
                 return stemps.get(blockFace);
             }
         }
@@ -19,27 +19,46 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.google.common.base.Preconditions;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import java.util.Arrays;
 import java.util.List;
 
 public final class BlockData {
     private static final List<String> CONNECTION_TYPES = Arrays.asList("fence", "netherFence", "pane", "cobbleWall", "redstone", "allFalseIfStairPre1_12");
     private static final int MAGIC_STAIRS_ID = connectionTypeId("allFalseIfStairPre1_12");
-    private final Int2ObjectMap<boolean[]> connectData = new Int2ObjectArrayMap<>();
+    private static final int TYPE_BITS = 5;
+    private static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+    private static final int PRESENT = 1 << 4;
 
-    public void put(final int blockConnectionTypeId, final boolean[] booleans) {
-        connectData.put(blockConnectionTypeId, booleans);
+    private BlockData() {
     }
 
-    public boolean connectsTo(final int blockConnectionTypeId, final BlockFace face, final boolean pre1_12AbstractFence) {
-        if (pre1_12AbstractFence && connectData.containsKey(MAGIC_STAIRS_ID)) {
+    /**
+     * Returns the packed connection data with the given connection type added.
+     * Per connection type, it holds the horizontal faces it connects to and whether the type is present.
+     *
+     * @param connectData           packed connection data, 0 if none
+     * @param blockConnectionTypeId connection type id
+     * @param faceIds               ordinals of the horizontal faces connected to
+     * @return packed connection data
+     */
+    public static int withConnections(final int connectData, final int blockConnectionTypeId, final byte[] faceIds) {
+        int data = PRESENT;
+        for (final byte faceId : faceIds) {
+            data |= 1 << faceId;
+        }
+        return connectData | data << (blockConnectionTypeId * TYPE_BITS);
+    }
+
+    public static boolean connectsTo(final int connectData, final int blockConnectionTypeId, final BlockFace face, final boolean pre1_12AbstractFence) {
+        if (pre1_12AbstractFence && typeData(connectData, MAGIC_STAIRS_ID) != 0) {
             return false;
         }
 
-        final boolean[] booleans = connectData.get(blockConnectionTypeId);
-        return booleans != null && booleans[face.ordinal()];
+        return face.ordinal() < 4 && (typeData(connectData, blockConnectionTypeId) & (1 << face.ordinal())) != 0;
+    }
+
+    private static int typeData(final int connectData, final int blockConnectionTypeId) {
+        return (connectData >>> (blockConnectionTypeId * TYPE_BITS)) & TYPE_MASK;
     }
 
     public static int connectionTypeId(final String blockConnection) {
@@ -0,0 +1,85 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections;
+
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.minecraft.BlockChangeRecord1_8;
+import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
+import com.viaversion.viaversion.api.protocol.remapper.PacketHandler;
+import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.ClientboundPackets1_13;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.Protocol1_13To1_12_2;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects block updates caused by block connections, to be sent as one multi block change per chunk instead of one packet per block.
+ */
+public final class BlockUpdateCollector {
+    private static final BlockChangeRecord1_8[] EMPTY_RECORDS = new BlockChangeRecord1_8[0];
+    private final Long2ObjectMap<List<BlockChangeRecord1_8>> updates = new Long2ObjectLinkedOpenHashMap<>();
+    private final UserConnection user;
+
+    public BlockUpdateCollector(UserConnection user) {
+        this.user = user;
+    }
+
+    public void add(int x, int y, int z, int blockState) {
+        long chunkKey = (long) (x >> 4) << 32 | ((z >> 4) & 0xFFFFFFFFL);
+        List<BlockChangeRecord1_8> records = updates.get(chunkKey);
+        if (records == null) {
+            updates.put(chunkKey, records = new ArrayList<>());
+        }
+        records.add(new BlockChangeRecord1_8(x & 0xF, y, z & 0xF, blockState));
+    }
+
+    /**
+     * Sends and clears the collected updates, using a single block change if only one block of a chunk changed.
+     *
+     * @throws Exception if sending failed
+     */
+    public void flush() throws Exception {
+        flush(wrapper -> wrapper.send(Protocol1_13To1_12_2.class));
+    }
+
+    void flush(PacketHandler sender) throws Exception {
+        for (Long2ObjectMap.Entry<List<BlockChangeRecord1_8>> entry : updates.long2ObjectEntrySet()) {
+            int chunkX = (int) (entry.getLongKey() >> 32);
+            int chunkZ = (int) entry.getLongKey();
+            List<BlockChangeRecord1_8> records = entry.getValue();
+            if (records.size() == 1) {
+                BlockChangeRecord1_8 record = records.get(0);
+                PacketWrapper wrapper = PacketWrapper.create(ClientboundPackets1_13.BLOCK_CHANGE, null, user);
+                wrapper.write(Type.POSITION1_8, new Position((chunkX << 4) + record.getSectionX(), record.getY(), (chunkZ << 4) + record.getSectionZ()));
+                wrapper.write(Type.VAR_INT, record.getBlockId());
+                sender.handle(wrapper);
+                continue;
+            }
+
+            PacketWrapper wrapper = PacketWrapper.create(ClientboundPackets1_13.MULTI_BLOCK_CHANGE, null, user);
+            wrapper.write(Type.INT, chunkX);
+            wrapper.write(Type.INT, chunkZ);
+            wrapper.write(Type.BLOCK_CHANGE_RECORD_ARRAY, records.toArray(EMPTY_RECORDS));
+            sender.handle(wrapper);
+        }
+        updates.clear();
+    }
+}
@@ -19,7 +19,6 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
@@ -47,7 +46,7 @@ class ChestConnectionHandler extends ConnectionHandler {
                 TRAPPED_CHESTS.add(blockData.getSavedBlockStateId());
             }
             CONNECTED_STATES[getStates(blockData)] = blockData.getSavedBlockStateId();
-            ConnectionData.connectionHandlerMap.put(blockData.getSavedBlockStateId(), connectionHandler);
+            ConnectionData.setConnectionHandler(blockData.getSavedBlockStateId(), connectionHandler);
         };
     }
 
@@ -62,7 +61,7 @@ class ChestConnectionHandler extends ConnectionHandler {
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
+    public int connect(UserConnection user, long position, int blockState) {
         BlockFace facing = CHEST_FACINGS.get(blockState);
         byte states = 0;
         states |= (facing.ordinal() << 2);
@@ -73,13 +72,13 @@ class ChestConnectionHandler extends ConnectionHandler {
         }
 
         int relative;
-        if (CHEST_FACINGS.containsKey(relative = getBlockData(user, position.getRelative(BlockFace.NORTH))) && trapped == TRAPPED_CHESTS.contains(relative)) {
+        if (CHEST_FACINGS.containsKey(relative = getBlockData(user, PackedPosition.relative(position, BlockFace.NORTH))) && trapped == TRAPPED_CHESTS.contains(relative)) {
             states |= facing == BlockFace.WEST ? 1 : 2;
-        } else if (CHEST_FACINGS.containsKey(relative = getBlockData(user, position.getRelative(BlockFace.SOUTH))) && trapped == TRAPPED_CHESTS.contains(relative)) {
+        } else if (CHEST_FACINGS.containsKey(relative = getBlockData(user, PackedPosition.relative(position, BlockFace.SOUTH))) && trapped == TRAPPED_CHESTS.contains(relative)) {
             states |= facing == BlockFace.EAST ? 1 : 2;
-        } else if (CHEST_FACINGS.containsKey(relative = getBlockData(user, position.getRelative(BlockFace.WEST))) && trapped == TRAPPED_CHESTS.contains(relative)) {
+        } else if (CHEST_FACINGS.containsKey(relative = getBlockData(user, PackedPosition.relative(position, BlockFace.WEST))) && trapped == TRAPPED_CHESTS.contains(relative)) {
             states |= facing == BlockFace.NORTH ? 2 : 1;
-        } else if (CHEST_FACINGS.containsKey(relative = getBlockData(user, position.getRelative(BlockFace.EAST))) && trapped == TRAPPED_CHESTS.contains(relative)) {
+        } else if (CHEST_FACINGS.containsKey(relative = getBlockData(user, PackedPosition.relative(position, BlockFace.EAST))) && trapped == TRAPPED_CHESTS.contains(relative)) {
             states |= facing == BlockFace.SOUTH ? 2 : 1;
         }
 
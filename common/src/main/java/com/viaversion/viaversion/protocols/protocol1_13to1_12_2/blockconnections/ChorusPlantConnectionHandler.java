@@ -19,7 +19,6 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -43,6 +42,7 @@ public class ChorusPlantConnectionHandler extends AbstractFenceConnectionHandler
         return blockData -> {
             if (blockData.getMinecraftKey().equals("minecraft:chorus_flower")) {
                 getBlockStates().add(blockData.getSavedBlockStateId());
+                ConnectionData.keepState(blockData.getSavedBlockStateId());
             }
         };
     }
@@ -61,10 +61,10 @@ public class ChorusPlantConnectionHandler extends AbstractFenceConnectionHandler
     }
 
     @Override
-    protected byte getStates(UserConnection user, Position position, int blockState) {
+    protected byte getStates(UserConnection user, long position, int blockState) {
         byte states = super.getStates(user, position, blockState);
-        if (connects(BlockFace.TOP, getBlockData(user, position.getRelative(BlockFace.TOP)), false)) states |= 16;
-        if (connects(BlockFace.BOTTOM, getBlockData(user, position.getRelative(BlockFace.BOTTOM)), false)) states |= 32;
+        if (connects(BlockFace.TOP, getBlockData(user, PackedPosition.relative(position, BlockFace.TOP)), false)) states |= 16;
+        if (connects(BlockFace.BOTTOM, getBlockData(user, PackedPosition.relative(position, BlockFace.BOTTOM)), false)) states |= 32;
         return states;
     }
 
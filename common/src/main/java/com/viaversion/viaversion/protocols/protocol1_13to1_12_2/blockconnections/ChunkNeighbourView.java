@@ -0,0 +1,73 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections;
+
+import com.viaversion.viaversion.api.minecraft.chunks.Chunk;
+import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
+import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
+import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
+
+/**
+ * Serves block reads inside of the chunk being connected straight from its palettes.
+ * Only blocks that would be stored for connections are returned, so reads match the block storage.
+ */
+public final class ChunkNeighbourView {
+    private final int chunkX;
+    private final int chunkZ;
+    private final DataPalette[] blocks;
+
+    public ChunkNeighbourView(Chunk chunk) {
+        this.chunkX = chunk.getX();
+        this.chunkZ = chunk.getZ();
+
+        final ChunkSection[] sections = chunk.getSections();
+        this.blocks = new DataPalette[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            if (sections[i] != null) {
+                blocks[i] = sections[i].palette(PaletteType.BLOCKS);
+            }
+        }
+    }
+
+    /**
+     * Returns the block state at the given position if it is part of this chunk.
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @param z z coordinate
+     * @return block state, 0 if not relevant for connections, or -1 if the position is not part of the sent chunk
+     */
+    public int blockData(int x, int y, int z) {
+        if (x >> 4 != chunkX || z >> 4 != chunkZ || y < 0) {
+            return -1;
+        }
+
+        final int sectionY = y >> 4;
+        if (sectionY >= blocks.length) {
+            return -1;
+        }
+
+        final DataPalette palette = blocks[sectionY];
+        if (palette == null) {
+            return -1;
+        }
+
+        final int blockState = palette.idAt(ChunkSection.index(x & 0xF, y & 0xF, z & 0xF));
+        return ConnectionData.isWelcome(blockState) ? blockState : 0;
+    }
+}
@@ -25,51 +25,69 @@ import com.github.steveice10.opennbt.tag.builtin.NumberTag;
 import com.github.steveice10.opennbt.tag.builtin.Tag;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.data.MappingCache;
 import com.viaversion.viaversion.api.data.MappingDataLoader;
-import com.viaversion.viaversion.api.minecraft.BlockChangeRecord1_8;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
 import com.viaversion.viaversion.api.minecraft.Position;
 import com.viaversion.viaversion.api.minecraft.chunks.Chunk;
 import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
 import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
 import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
-import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
-import com.viaversion.viaversion.api.type.Type;
-import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.ClientboundPackets1_13;
-import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.Protocol1_13To1_12_2;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.providers.BlockConnectionProvider;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.providers.PacketBlockConnectionProvider;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.providers.UserBlockData;
 import com.viaversion.viaversion.util.Key;
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
-import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
-import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class ConnectionData {
+    private static final String CACHE_NAME = "block-connections-1.13";
     public static BlockConnectionProvider blockConnectionProvider;
     static final Object2IntMap<String> KEY_TO_ID = new Object2IntOpenHashMap<>(8582, .99F);
-    static final IntSet OCCLUDING_STATES = new IntOpenHashSet(377, .99F);
-    static Int2ObjectMap<ConnectionHandler> connectionHandlerMap = new Int2ObjectOpenHashMap<>();
-    static Int2ObjectMap<BlockData> blockConnectionData = new Int2ObjectOpenHashMap<>();
-    private static final BlockChangeRecord1_8[] EMPTY_RECORDS = new BlockChangeRecord1_8[0];
+    // Block state ids are dense, so all of these are indexed by them directly
+    static final BitSet OCCLUDING_STATES = new BitSet();
+    // Only filled during init
+    private static final BitSet KEPT_STATES = new BitSet();
+    private static final int NO_HANDLER = -1;
+    private static final int KEPT_STATE = -2;
+    static ConnectionHandler[] connectionHandlers = new ConnectionHandler[0];
+    static int[] blockConnectionData = new int[0];
 
     static {
         KEY_TO_ID.defaultReturnValue(-1);
     }
 
     public static void update(UserConnection user, Position position) throws Exception {
+        BlockUpdateCollector updates = new BlockUpdateCollector(user);
+        update(user, position, updates);
+        updates.flush();
+    }
+
+    /**
+     * Updates the connections of the neighbours of the given position, collecting the resulting block changes.
+     *
+     * @param user     user connection
+     * @param position position of the changed block
+     * @param updates  collector to add the changed neighbours to
+     */
+    public static void update(UserConnection user, Position position, BlockUpdateCollector updates) {
         Boolean inSync = null;
 
+        long packedPosition = PackedPosition.pack(position);
         for (BlockFace face : BlockFace.values()) {
-            Position pos = position.getRelative(face);
-            int blockState = blockConnectionProvider.getBlockData(user, pos.x(), pos.y(), pos.z());
-            ConnectionHandler handler = connectionHandlerMap.get(blockState);
+            long pos = PackedPosition.relative(packedPosition, face);
+            int blockState = blockConnectionProvider.getBlockData(user, pos);
+            ConnectionHandler handler = getConnectionHandler(blockState);
             if (handler == null) {
                 continue;
             }
@@ -85,12 +103,11 @@ public final class ConnectionData {
                 }
             }
 
-            updateBlockStorage(user, pos.x(), pos.y(), pos.z(), newBlockState);
-
-            PacketWrapper blockUpdatePacket = PacketWrapper.create(ClientboundPackets1_13.BLOCK_CHANGE, null, user);
-            blockUpdatePacket.write(Type.POSITION1_8, pos);
-            blockUpdatePacket.write(Type.VAR_INT, newBlockState);
-            blockUpdatePacket.send(Protocol1_13To1_12_2.class);
+            int x = PackedPosition.x(pos);
+            int y = PackedPosition.y(pos);
+            int z = PackedPosition.z(pos);
+            updateBlockStorage(user, x, y, z, newBlockState);
+            updates.add(x, y, z, newBlockState);
         }
     }
 
@@ -118,6 +135,21 @@ public final class ConnectionData {
     }
 
     public static void connectBlocks(UserConnection user, Chunk chunk) {
+        // Neighbour reads inside of this chunk only match its palettes if the provider stores the sent blocks
+        boolean chunkView = needStoreBlocks();
+        if (chunkView) {
+            blockConnectionProvider.setChunkView(user, new ChunkNeighbourView(chunk));
+        }
+        try {
+            connectSections(user, chunk);
+        } finally {
+            if (chunkView) {
+                blockConnectionProvider.setChunkView(user, null);
+            }
+        }
+    }
+
+    private static void connectSections(UserConnection user, Chunk chunk) {
         int xOff = chunk.getX() << 4;
         int zOff = chunk.getZ() << 4;
 
@@ -150,11 +182,13 @@ public final class ConnectionData {
                     continue;
                 }
 
-                Position position = new Position(xOff + ChunkSection.xFromIndex(idx), yOff + ChunkSection.yFromIndex(idx), zOff + ChunkSection.zFromIndex(idx));
-                int connectedId = handler.connect(user, position, id);
+                int x = xOff + ChunkSection.xFromIndex(idx);
+                int y = yOff + ChunkSection.yFromIndex(idx);
+                int z = zOff + ChunkSection.zFromIndex(idx);
+                int connectedId = handler.connect(user, PackedPosition.pack(x, y, z), id);
                 if (connectedId != id) {
                     blocks.setIdAt(idx, connectedId);
-                    updateBlockStorage(user, position.x(), position.y(), position.z(), connectedId);
+                    updateBlockStorage(user, x, y, z, connectedId);
                 }
             }
         }
@@ -166,55 +200,72 @@ public final class ConnectionData {
         }
 
         Via.getPlatform().getLogger().info("Loading block connection mappings ...");
-        ListTag blockStates = MappingDataLoader.loadNBT("blockstates-1.13.nbt").get("blockstates");
-        for (int id = 0; id < blockStates.size(); id++) {
-            String key = (String) blockStates.get(id).getValue();
-            KEY_TO_ID.put(key, id);
+        final boolean vineClimbFix = Via.getConfig().isVineClimbFix();
+        final boolean cache = Via.getConfig().isMappingCache();
+        MappingCache.Entries cached = cache ? MappingCache.read(CACHE_NAME) : null;
+        if (cached != null && !isValidCache(cached, vineClimbFix)) {
+            cached = null;
         }
 
-        connectionHandlerMap = new Int2ObjectOpenHashMap<>(3650, .99F);
+        final List<String> blockStates = cached != null ? cached.identifiers("blockstates") : loadBlockStates();
+        final int[] blockConnections = cached != null ? cached.intArray("blockconnections") : loadBlockConnections(blockStates.size());
+        for (int id = 0; id < blockStates.size(); id++) {
+            KEY_TO_ID.put(blockStates.get(id), id);
+        }
 
+        connectionHandlers = new ConnectionHandler[blockStates.size()];
         if (!Via.getConfig().isReduceBlockStorageMemory()) {
-            blockConnectionData = new Int2ObjectOpenHashMap<>(2048);
-
-            ListTag blockConnectionMappings = MappingDataLoader.loadNBT("blockConnections.nbt").get("data");
-            for (Tag blockTag : blockConnectionMappings) {
-                CompoundTag blockCompoundTag = (CompoundTag) blockTag;
-                BlockData blockData = new BlockData();
-                for (Entry<String, Tag> entry : blockCompoundTag.entrySet()) {
-                    String key = entry.getKey();
-                    if (key.equals("id") || key.equals("ids")) {
-                        continue;
-                    }
-
+            blockConnectionData = blockConnections;
+        }
 
-                    boolean[] attachingFaces = new boolean[4];
-                    ByteArrayTag connections = (ByteArrayTag) entry.getValue();
-                    for (byte blockFaceId : connections.getValue()) {
-                        attachingFaces[blockFaceId] = true;
-                    }
+        final int[] occludingStates = cached != null ? cached.intArray("occluding") : loadOccludingStates();
+        for (final int id : occludingStates) {
+            OCCLUDING_STATES.set(id);
+        }
 
-                    int connectionTypeId = Integer.parseInt(key);
-                    blockData.put(connectionTypeId, attachingFaces);
+        final List<ConnectorInitAction> initActions = initActions(vineClimbFix);
+        boolean initialized = false;
+        if (cached != null) {
+            // Only pass the states known to have a handler or to be kept by one
+            final int[] cachedHandlerIds = cached.intArray("handlers");
+            for (int id = 0; id < cachedHandlerIds.length; id++) {
+                if (cachedHandlerIds[id] != NO_HANDLER) {
+                    runInitActions(initActions, blockStates.get(id));
                 }
+            }
 
-                NumberTag idTag = blockCompoundTag.get("id");
-                if (idTag != null) {
-                    blockConnectionData.put(idTag.asInt(), blockData);
-                } else {
-                    IntArrayTag idsTag = blockCompoundTag.get("ids");
-                    for (int id : idsTag.getValue()) {
-                        blockConnectionData.put(id, blockData);
-                    }
-                }
+            initialized = Arrays.equals(handlerIds(), cachedHandlerIds);
+            if (!initialized) {
+                Via.getPlatform().getLogger().warning("Cached block connection handlers do not match, initializing all block states");
+            }
+        }
+
+        if (!initialized) {
+            // Running the actions again for the same states does not change their result
+            for (final String key : blockStates) {
+                runInitActions(initActions, key);
             }
         }
 
-        for (String state : occludingBlockStates()) {
-            OCCLUDING_STATES.add(KEY_TO_ID.getInt(state));
+        if (cache && !initialized) {
+            final MappingCache.Entries entries = new MappingCache.Entries();
+            entries.putIdentifiers("blockstates", blockStates);
+            entries.putIntArray("blockconnections", blockConnections);
+            entries.putIntArray("occluding", occludingStates);
+            entries.putIntArray("handlers", handlerIds());
+            entries.putIntArray("options", cacheOptions(vineClimbFix));
+            MappingCache.write(CACHE_NAME, entries);
+        }
+        KEPT_STATES.clear();
+
+        if (Via.getConfig().getBlockConnectionMethod().equalsIgnoreCase("packet")) {
+            blockConnectionProvider = new PacketBlockConnectionProvider();
+            Via.getManager().getProviders().register(BlockConnectionProvider.class, blockConnectionProvider);
         }
+    }
 
-        List<ConnectorInitAction> initActions = new ArrayList<>();
+    private static List<ConnectorInitAction> initActions(final boolean vineClimbFix) {
+        final List<ConnectorInitAction> initActions = new ArrayList<>();
         initActions.add(PumpkinConnectionHandler.init());
         initActions.addAll(BasicFenceConnectionHandler.init());
         initActions.add(NetherFenceConnectionHandler.init());
@@ -230,38 +281,151 @@ public final class ConnectionData {
         initActions.add(TripwireConnectionHandler.init());
         initActions.add(SnowyGrassConnectionHandler.init());
         initActions.add(FireConnectionHandler.init());
-        if (Via.getConfig().isVineClimbFix()) {
+        if (vineClimbFix) {
             initActions.add(VineConnectionHandler.init());
         }
+        return initActions;
+    }
 
-        for (String key : KEY_TO_ID.keySet()) {
-            WrappedBlockData wrappedBlockData = WrappedBlockData.fromString(key);
-            for (ConnectorInitAction action : initActions) {
-                action.check(wrappedBlockData);
+    private static void runInitActions(final List<ConnectorInitAction> initActions, final String key) {
+        final WrappedBlockData wrappedBlockData = WrappedBlockData.fromString(key);
+        for (final ConnectorInitAction action : initActions) {
+            action.check(wrappedBlockData);
+        }
+    }
+
+    /**
+     * Returns the handler id of every block state, numbering the handlers in the order of their first block state.
+     * States without a handler are {@link #KEPT_STATE} if a handler keeps their id, else {@link #NO_HANDLER}.
+     *
+     * @return handler ids indexed by block state
+     */
+    private static int[] handlerIds() {
+        final Map<ConnectionHandler, Integer> ids = new IdentityHashMap<>();
+        final int[] handlerIds = new int[connectionHandlers.length];
+        for (int id = 0; id < handlerIds.length; id++) {
+            final ConnectionHandler handler = connectionHandlers[id];
+            if (handler != null) {
+                handlerIds[id] = ids.computeIfAbsent(handler, h -> ids.size());
+            } else {
+                handlerIds[id] = KEPT_STATES.get(id) ? KEPT_STATE : NO_HANDLER;
             }
         }
+        return handlerIds;
+    }
 
-        if (Via.getConfig().getBlockConnectionMethod().equalsIgnoreCase("packet")) {
-            blockConnectionProvider = new PacketBlockConnectionProvider();
-            Via.getManager().getProviders().register(BlockConnectionProvider.class, blockConnectionProvider);
+    private static boolean isValidCache(final MappingCache.Entries cached, final boolean vineClimbFix) {
+        final List<String> blockStates = cached.identifiers("blockstates");
+        final int[] blockConnections = cached.intArray("blockconnections");
+        final int[] handlerIds = cached.intArray("handlers");
+        return blockStates != null && blockConnections != null && handlerIds != null && cached.intArray("occluding") != null
+                && blockConnections.length == blockStates.size() && handlerIds.length == blockStates.size()
+                && Arrays.equals(cached.intArray("options"), cacheOptions(vineClimbFix));
+    }
+
+    private static int[] cacheOptions(final boolean vineClimbFix) {
+        // Options changing the init actions
+        return new int[]{vineClimbFix ? 1 : 0};
+    }
+
+    private static List<String> loadBlockStates() {
+        final ListTag blockStates = MappingDataLoader.loadNBT("blockstates-1.13.nbt").get("blockstates");
+        final List<String> keys = new ArrayList<>(blockStates.size());
+        for (final Tag blockState : blockStates) {
+            keys.add((String) blockState.getValue());
+        }
+        return keys;
+    }
+
+    private static int[] loadOccludingStates() {
+        final IntList occludingStates = new IntArrayList();
+        for (final String state : occludingBlockStates()) {
+            final int id = KEY_TO_ID.getInt(state);
+            if (id != -1) {
+                occludingStates.add(id);
+            }
         }
+        return occludingStates.toIntArray();
+    }
+
+    private static int[] loadBlockConnections(final int size) {
+        // Connection data packed per block state, -1 if none
+        final int[] blockConnections = new int[size];
+        Arrays.fill(blockConnections, -1);
+
+        final ListTag blockConnectionMappings = MappingDataLoader.loadNBT("blockConnections.nbt").get("data");
+        for (final Tag blockTag : blockConnectionMappings) {
+            final CompoundTag blockCompoundTag = (CompoundTag) blockTag;
+            int connectData = 0;
+            for (final Entry<String, Tag> entry : blockCompoundTag.entrySet()) {
+                final String key = entry.getKey();
+                if (key.equals("id") || key.equals("ids")) {
+                    continue;
+                }
+
+                final ByteArrayTag connections = (ByteArrayTag) entry.getValue();
+                connectData = BlockData.withConnections(connectData, Integer.parseInt(key), connections.getValue());
+            }
+
+            final NumberTag idTag = blockCompoundTag.get("id");
+            if (idTag != null) {
+                blockConnections[idTag.asInt()] = connectData;
+            } else {
+                final IntArrayTag idsTag = blockCompoundTag.get("ids");
+                for (final int id : idsTag.getValue()) {
+                    blockConnections[id] = connectData;
+                }
+            }
+        }
+        return blockConnections;
     }
 
     public static boolean isWelcome(int blockState) {
-        return blockConnectionData.containsKey(blockState) || connectionHandlerMap.containsKey(blockState);
+        return connectData(blockState) != -1 || getConnectionHandler(blockState) != null;
     }
 
     public static boolean connects(int blockState) {
-        return connectionHandlerMap.containsKey(blockState);
+        return getConnectionHandler(blockState) != null;
     }
 
     public static int connect(UserConnection user, Position position, int blockState) {
-        ConnectionHandler handler = connectionHandlerMap.get(blockState);
+        ConnectionHandler handler = getConnectionHandler(blockState);
         return handler != null ? handler.connect(user, position, blockState) : blockState;
     }
 
-    public static ConnectionHandler getConnectionHandler(int blockstate) {
-        return connectionHandlerMap.get(blockstate);
+    public static @Nullable ConnectionHandler getConnectionHandler(int blockstate) {
+        final ConnectionHandler[] handlers = connectionHandlers;
+        return blockstate >= 0 && blockstate < handlers.length ? handlers[blockstate] : null;
+    }
+
+    /**
+     * Marks a block state without a connection handler as kept by one, so that it still goes through the init actions
+     * when the handlers are restored from the cache.
+     *
+     * @param blockState block state id
+     */
+    static void keepState(final int blockState) {
+        KEPT_STATES.set(blockState);
+    }
+
+    static void setConnectionHandler(final int blockState, final ConnectionHandler handler) {
+        if (blockState >= 0 && blockState < connectionHandlers.length) {
+            connectionHandlers[blockState] = handler;
+        }
+    }
+
+    static boolean isOccluding(final int blockState) {
+        return blockState >= 0 && OCCLUDING_STATES.get(blockState);
+    }
+
+    static boolean connectsTo(final int blockState, final int blockConnectionTypeId, final BlockFace face, final boolean pre1_12AbstractFence) {
+        final int connectData = connectData(blockState);
+        return connectData != -1 && BlockData.connectsTo(connectData, blockConnectionTypeId, face, pre1_12AbstractFence);
+    }
+
+    private static int connectData(final int blockState) {
+        final int[] data = blockConnectionData;
+        return blockState >= 0 && blockState < data.length ? data[blockState] : -1;
     }
 
     public static int getId(String key) {
@@ -663,15 +827,24 @@ public final class ConnectionData {
     public static final class NeighbourUpdater {
         private final UserConnection user;
         private final UserBlockData userBlockData;
+        private final BlockUpdateCollector updates;
 
         public NeighbourUpdater(UserConnection user) {
             this.user = user;
             this.userBlockData = blockConnectionProvider.forUser(user);
+            this.updates = new BlockUpdateCollector(user);
         }
 
-        public void updateChunkSectionNeighbours(int chunkX, int chunkZ, int chunkSectionY) throws Exception {
+        /**
+         * Updates the blocks bordering the given chunk section in neighbouring chunks.
+         * The changes are only sent on {@link #flush()}.
+         *
+         * @param chunkX        chunk x
+         * @param chunkZ        chunk z
+         * @param chunkSectionY chunk section y
+         */
+        public void updateChunkSectionNeighbours(int chunkX, int chunkZ, int chunkSectionY) {
             int chunkMinY = chunkSectionY << 4;
-            List<BlockChangeRecord1_8> updates = new ArrayList<>();
             for (int chunkDeltaX = -1; chunkDeltaX <= 1; chunkDeltaX++) {
                 for (int chunkDeltaZ = -1; chunkDeltaZ <= 1; chunkDeltaZ++) {
                     int distance = Math.abs(chunkDeltaX) + Math.abs(chunkDeltaZ);
@@ -683,7 +856,7 @@ public final class ConnectionData {
                         for (int blockY = chunkMinY; blockY < chunkMinY + 16; blockY++) {
                             int blockPosX = chunkDeltaX == 1 ? 0 : 15;
                             int blockPosZ = chunkDeltaZ == 1 ? 0 : 15;
-                            updateBlock(chunkMinX + blockPosX, blockY, chunkMinZ + blockPosZ, updates);
+                            updateBlock(chunkMinX + blockPosX, blockY, chunkMinZ + blockPosZ);
                         }
                     } else {
                         for (int blockY = chunkMinY; blockY < chunkMinY + 16; blockY++) {
@@ -712,35 +885,34 @@ public final class ConnectionData {
                             }
                             for (int blockX = xStart; blockX < xEnd; blockX++) {
                                 for (int blockZ = zStart; blockZ < zEnd; blockZ++) {
-                                    updateBlock(chunkMinX + blockX, blockY, chunkMinZ + blockZ, updates);
+                                    updateBlock(chunkMinX + blockX, blockY, chunkMinZ + blockZ);
                                 }
                             }
                         }
                     }
-
-                    if (!updates.isEmpty()) {
-                        PacketWrapper wrapper = PacketWrapper.create(ClientboundPackets1_13.MULTI_BLOCK_CHANGE, null, user);
-                        wrapper.write(Type.INT, chunkX + chunkDeltaX);
-                        wrapper.write(Type.INT, chunkZ + chunkDeltaZ);
-                        wrapper.write(Type.BLOCK_CHANGE_RECORD_ARRAY, updates.toArray(EMPTY_RECORDS));
-                        wrapper.send(Protocol1_13To1_12_2.class);
-                        updates.clear();
-                    }
                 }
             }
         }
 
-        private void updateBlock(int x, int y, int z, List<BlockChangeRecord1_8> records) {
+        /**
+         * Sends the collected changes, one packet per neighbouring chunk.
+         *
+         * @throws Exception if sending failed
+         */
+        public void flush() throws Exception {
+            updates.flush();
+        }
+
+        private void updateBlock(int x, int y, int z) {
             int blockState = userBlockData.getBlockData(x, y, z);
             ConnectionHandler handler = getConnectionHandler(blockState);
             if (handler == null) {
                 return;
             }
 
-            Position pos = new Position(x, y, z);
-            int newBlockState = handler.connect(user, pos, blockState);
+            int newBlockState = handler.connect(user, PackedPosition.pack(x, y, z), blockState);
             if (blockState != newBlockState || !blockConnectionProvider.storesBlocks(user, null)) {
-                records.add(new BlockChangeRecord1_8(x & 0xF, y, z & 0xF, newBlockState));
+                updates.add(x, y, z, newBlockState);
                 updateBlockStorage(user, x, y, z, newBlockState);
             }
         }
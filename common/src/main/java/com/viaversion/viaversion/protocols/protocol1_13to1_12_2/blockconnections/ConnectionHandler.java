@@ -22,9 +22,21 @@ import com.viaversion.viaversion.api.minecraft.Position;
 
 public abstract class ConnectionHandler {
 
-    public abstract int connect(UserConnection user, Position position, int blockState);
+    /**
+     * Returns the connected block state for the given block.
+     *
+     * @param user       user connection
+     * @param position   position packed with {@link PackedPosition#pack(int, int, int)}
+     * @param blockState current block state
+     * @return connected block state
+     */
+    public abstract int connect(UserConnection user, long position, int blockState);
 
-    public int getBlockData(UserConnection user, Position position) {
-        return ConnectionData.blockConnectionProvider.getBlockData(user, position.x(), position.y(), position.z());
+    public int connect(UserConnection user, Position position, int blockState) {
+        return connect(user, PackedPosition.pack(position), blockState);
+    }
+
+    public int getBlockData(UserConnection user, long position) {
+        return ConnectionData.blockConnectionProvider.getBlockData(user, position);
     }
 }
@@ -19,7 +19,6 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import java.util.HashMap;
@@ -62,7 +61,7 @@ public class DoorConnectionHandler extends ConnectionHandler {
 
             CONNECTED_STATES.put(getStates(doorData), id);
 
-            ConnectionData.connectionHandlerMap.put(id, connectionHandler);
+            ConnectionData.setConnectionHandler(id, connectionHandler);
         };
     }
 
@@ -78,13 +77,13 @@ public class DoorConnectionHandler extends ConnectionHandler {
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
+    public int connect(UserConnection user, long position, int blockState) {
         DoorData doorData = DOOR_DATA_MAP.get(blockState);
         if (doorData == null) return blockState;
         short s = 0;
         s |= (doorData.getType() & 0x7) << 6;
         if (doorData.isLower()) {
-            DoorData upperHalf = DOOR_DATA_MAP.get(getBlockData(user, position.getRelative(BlockFace.TOP)));
+            DoorData upperHalf = DOOR_DATA_MAP.get(getBlockData(user, PackedPosition.relative(position, BlockFace.TOP)));
             if (upperHalf == null) return blockState;
             s |= 1;
             if (doorData.isOpen()) s |= 2;
@@ -92,7 +91,7 @@ public class DoorConnectionHandler extends ConnectionHandler {
             if (upperHalf.isRightHinge()) s |= 8;
             s |= doorData.getFacing().ordinal() << 4;
         } else {
-            DoorData lowerHalf = DOOR_DATA_MAP.get(getBlockData(user, position.getRelative(BlockFace.BOTTOM)));
+            DoorData lowerHalf = DOOR_DATA_MAP.get(getBlockData(user, PackedPosition.relative(position, BlockFace.BOTTOM)));
             if (lowerHalf == null) return blockState;
             if (lowerHalf.isOpen()) s |= 2;
             if (doorData.isPowered()) s |= 4;
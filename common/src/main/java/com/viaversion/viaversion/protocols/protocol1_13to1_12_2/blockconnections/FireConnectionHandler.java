@@ -19,7 +19,6 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
 import com.viaversion.viaversion.util.Key;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
@@ -58,10 +57,11 @@ public class FireConnectionHandler extends ConnectionHandler {
             String key = blockData.getMinecraftKey();
             if (key.contains("_wool") || key.contains("_carpet") || flammabeIds.contains(key)) {
                 FLAMMABLE_BLOCKS.add(blockData.getSavedBlockStateId());
+                ConnectionData.keepState(blockData.getSavedBlockStateId());
             } else if (key.equals("minecraft:fire")) {
                 int id = blockData.getSavedBlockStateId();
                 CONNECTED_BLOCKS[getStates(blockData)] = id;
-                ConnectionData.connectionHandlerMap.put(id, connectionHandler);
+                ConnectionData.setConnectionHandler(id, connectionHandler);
             }
         };
     }
@@ -77,13 +77,13 @@ public class FireConnectionHandler extends ConnectionHandler {
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
+    public int connect(UserConnection user, long position, int blockState) {
         byte states = 0;
-        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, position.getRelative(BlockFace.EAST)))) states |= 1;
-        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, position.getRelative(BlockFace.NORTH)))) states |= 2;
-        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, position.getRelative(BlockFace.SOUTH)))) states |= 4;
-        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, position.getRelative(BlockFace.TOP)))) states |= 8;
-        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, position.getRelative(BlockFace.WEST)))) states |= 16;
+        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, PackedPosition.relative(position, BlockFace.EAST)))) states |= 1;
+        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, PackedPosition.relative(position, BlockFace.NORTH)))) states |= 2;
+        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, PackedPosition.relative(position, BlockFace.SOUTH)))) states |= 4;
+        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, PackedPosition.relative(position, BlockFace.TOP)))) states |= 8;
+        if (FLAMMABLE_BLOCKS.contains(getBlockData(user, PackedPosition.relative(position, BlockFace.WEST)))) states |= 16;
         return CONNECTED_BLOCKS[states];
     }
 }
@@ -20,7 +20,6 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
 import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import java.util.HashSet;
@@ -42,7 +41,7 @@ public class FlowerConnectionHandler extends ConnectionHandler {
         final FlowerConnectionHandler handler = new FlowerConnectionHandler();
         return blockData -> {
             if (baseFlower.contains(blockData.getMinecraftKey())) {
-                ConnectionData.connectionHandlerMap.put(blockData.getSavedBlockStateId(), handler);
+                ConnectionData.setConnectionHandler(blockData.getSavedBlockStateId(), handler);
                 if (blockData.getValue("half").equals("lower")) {
                     blockData.set("half", "upper");
                     FLOWERS.put(blockData.getSavedBlockStateId(), blockData.getBlockStateId());
@@ -52,11 +51,11 @@ public class FlowerConnectionHandler extends ConnectionHandler {
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
-        int blockBelowId = getBlockData(user, position.getRelative(BlockFace.BOTTOM));
+    public int connect(UserConnection user, long position, int blockState) {
+        int blockBelowId = getBlockData(user, PackedPosition.relative(position, BlockFace.BOTTOM));
         int connectBelow = FLOWERS.get(blockBelowId);
         if (connectBelow != 0) {
-            int blockAboveId = getBlockData(user, position.getRelative(BlockFace.TOP));
+            int blockAboveId = getBlockData(user, PackedPosition.relative(position, BlockFace.TOP));
             if (Via.getConfig().isStemWhenBlockAbove()) {
                 if (blockAboveId == 0) {
                     return connectBelow;
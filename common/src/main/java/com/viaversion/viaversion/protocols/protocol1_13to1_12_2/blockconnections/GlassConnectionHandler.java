@@ -19,7 +19,6 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.ProtocolInfo;
 import com.viaversion.viaversion.api.connection.UserConnection;
-import com.viaversion.viaversion.api.minecraft.Position;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -53,7 +52,7 @@ public class GlassConnectionHandler extends AbstractFenceConnectionHandler {
     }
 
     @Override
-    protected byte getStates(UserConnection user, Position position, int blockState) {
+    protected byte getStates(UserConnection user, long position, int blockState) {
         byte states = super.getStates(user, position, blockState);
         if (states != 0) return states;
 
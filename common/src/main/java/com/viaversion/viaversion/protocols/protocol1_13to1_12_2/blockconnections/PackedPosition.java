@@ -0,0 +1,59 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections;
+
+import com.viaversion.viaversion.api.minecraft.BlockFace;
+import com.viaversion.viaversion.api.minecraft.Position;
+
+/**
+ * Block positions packed into a single long, laid out the same way as the 1.8 position type.
+ * Used by the block connection handlers to look at neighbours without allocating positions.
+ */
+public final class PackedPosition {
+
+    private PackedPosition() {
+    }
+
+    public static long pack(int x, int y, int z) {
+        return ((x & 0x3FFFFFFL) << 38) | ((y & 0xFFFL) << 26) | (z & 0x3FFFFFFL);
+    }
+
+    public static long pack(Position position) {
+        return pack(position.x(), position.y(), position.z());
+    }
+
+    public static int x(long position) {
+        return (int) (position >> 38);
+    }
+
+    public static int y(long position) {
+        return (int) (position << 26 >> 52);
+    }
+
+    public static int z(long position) {
+        return (int) (position << 38 >> 38);
+    }
+
+    public static long relative(long position, BlockFace face) {
+        return pack(x(position) + face.modX(), y(position) + face.modY(), z(position) + face.modZ());
+    }
+
+    public static Position toPosition(long position) {
+        return new Position(x(position), y(position), z(position));
+    }
+}
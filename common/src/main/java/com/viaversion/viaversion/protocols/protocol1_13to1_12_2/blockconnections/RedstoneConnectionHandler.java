@@ -19,7 +19,6 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
 import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
@@ -40,7 +39,7 @@ public class RedstoneConnectionHandler extends ConnectionHandler {
             }
 
             REDSTONE.add(blockData.getSavedBlockStateId());
-            ConnectionData.connectionHandlerMap.put(blockData.getSavedBlockStateId(), connectionHandler);
+            ConnectionData.setConnectionHandler(blockData.getSavedBlockStateId(), connectionHandler);
             CONNECTED_BLOCK_STATES.put(getStates(blockData), blockData.getSavedBlockStateId());
             POWER_MAPPINGS.put(blockData.getSavedBlockStateId(), Integer.parseInt(blockData.getValue("power")));
         };
@@ -70,7 +69,7 @@ public class RedstoneConnectionHandler extends ConnectionHandler {
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
+    public int connect(UserConnection user, long position, int blockState) {
         short b = 0;
         b |= connects(user, position, BlockFace.EAST);
         b |= connects(user, position, BlockFace.NORTH) << 2;
@@ -80,25 +79,24 @@ public class RedstoneConnectionHandler extends ConnectionHandler {
         return CONNECTED_BLOCK_STATES.getOrDefault(b, blockState);
     }
 
-    private int connects(UserConnection user, Position position, BlockFace side) {
-        final Position relative = position.getRelative(side);
+    private int connects(UserConnection user, long position, BlockFace side) {
+        final long relative = PackedPosition.relative(position, side);
         int blockState = getBlockData(user, relative);
         if (connects(side, blockState)) {
             return 1; //side
         }
-        int up = getBlockData(user, relative.getRelative(BlockFace.TOP));
-        if (REDSTONE.contains(up) && !ConnectionData.OCCLUDING_STATES.contains(getBlockData(user, position.getRelative(BlockFace.TOP)))) {
+        int up = getBlockData(user, PackedPosition.relative(relative, BlockFace.TOP));
+        if (REDSTONE.contains(up) && !ConnectionData.isOccluding(getBlockData(user, PackedPosition.relative(position, BlockFace.TOP)))) {
             return 2; //"up"
         }
-        int down = getBlockData(user, relative.getRelative(BlockFace.BOTTOM));
-        if (REDSTONE.contains(down) && !ConnectionData.OCCLUDING_STATES.contains(getBlockData(user, relative))) {
+        int down = getBlockData(user, PackedPosition.relative(relative, BlockFace.BOTTOM));
+        if (REDSTONE.contains(down) && !ConnectionData.isOccluding(getBlockData(user, relative))) {
             return 1; //side
         }
         return 0; //none
     }
 
     private boolean connects(BlockFace side, int blockState) {
-        final BlockData blockData = ConnectionData.blockConnectionData.get(blockState);
-        return blockData != null && blockData.connectsTo(BLOCK_CONNECTION_TYPE_ID, side.opposite(), false);
+        return ConnectionData.connectsTo(blockState, BLOCK_CONNECTION_TYPE_ID, side.opposite(), false);
     }
 }
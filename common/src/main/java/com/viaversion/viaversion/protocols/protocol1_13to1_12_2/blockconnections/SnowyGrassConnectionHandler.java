@@ -19,7 +19,6 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
@@ -41,22 +40,22 @@ public class SnowyGrassConnectionHandler extends ConnectionHandler {
         final SnowyGrassConnectionHandler handler = new SnowyGrassConnectionHandler();
         return blockData -> {
             if (snowyGrassBlocks.contains(blockData.getMinecraftKey())) {
-                ConnectionData.connectionHandlerMap.put(blockData.getSavedBlockStateId(), handler);
+                ConnectionData.setConnectionHandler(blockData.getSavedBlockStateId(), handler);
                 blockData.set("snowy", "true");
                 GRASS_BLOCKS.put(new GrassBlock(blockData.getSavedBlockStateId(), true), blockData.getBlockStateId());
                 blockData.set("snowy", "false");
                 GRASS_BLOCKS.put(new GrassBlock(blockData.getSavedBlockStateId(), false), blockData.getBlockStateId());
             }
             if (blockData.getMinecraftKey().equals("minecraft:snow") || blockData.getMinecraftKey().equals("minecraft:snow_block")) {
-                ConnectionData.connectionHandlerMap.put(blockData.getSavedBlockStateId(), handler);
+                ConnectionData.setConnectionHandler(blockData.getSavedBlockStateId(), handler);
                 SnowyGrassConnectionHandler.SNOWY_GRASS_BLOCKS.add(blockData.getSavedBlockStateId());
             }
         };
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
-        int blockUpId = getBlockData(user, position.getRelative(BlockFace.TOP));
+    public int connect(UserConnection user, long position, int blockState) {
+        int blockUpId = getBlockData(user, PackedPosition.relative(position, BlockFace.TOP));
         int newId = GRASS_BLOCKS.getInt(new GrassBlock(blockState, SNOWY_GRASS_BLOCKS.contains(blockUpId)));
         return newId != -1 ? newId : blockState;
     }
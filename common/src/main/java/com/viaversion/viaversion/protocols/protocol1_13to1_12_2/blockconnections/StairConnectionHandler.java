@@ -19,7 +19,6 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import java.util.HashMap;
@@ -89,7 +88,7 @@ public class StairConnectionHandler extends ConnectionHandler {
             STAIR_DATA_MAP.put(blockData.getSavedBlockStateId(), stairData);
             CONNECTED_BLOCKS.put(getStates(stairData), blockData.getSavedBlockStateId());
 
-            ConnectionData.connectionHandlerMap.put(blockData.getSavedBlockStateId(), connectionHandler);
+            ConnectionData.setConnectionHandler(blockData.getSavedBlockStateId(), connectionHandler);
         };
     }
 
@@ -103,7 +102,7 @@ public class StairConnectionHandler extends ConnectionHandler {
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
+    public int connect(UserConnection user, long position, int blockState) {
         StairData stairData = STAIR_DATA_MAP.get(blockState);
         if (stairData == null) return blockState;
 
@@ -117,10 +116,10 @@ public class StairConnectionHandler extends ConnectionHandler {
         return newBlockState == null ? blockState : newBlockState;
     }
 
-    private int getShape(UserConnection user, Position position, StairData stair) {
+    private int getShape(UserConnection user, long position, StairData stair) {
         BlockFace facing = stair.getFacing();
 
-        StairData relativeStair = STAIR_DATA_MAP.get(getBlockData(user, position.getRelative(facing)));
+        StairData relativeStair = STAIR_DATA_MAP.get(getBlockData(user, PackedPosition.relative(position, facing)));
         if (relativeStair != null && relativeStair.isBottom() == stair.isBottom()) {
             BlockFace facing2 = relativeStair.getFacing();
             if (facing.axis() != facing2.axis() && checkOpposite(user, stair, position, facing2.opposite())) {
@@ -128,7 +127,7 @@ public class StairConnectionHandler extends ConnectionHandler {
             }
         }
 
-        relativeStair = STAIR_DATA_MAP.get(getBlockData(user, position.getRelative(facing.opposite())));
+        relativeStair = STAIR_DATA_MAP.get(getBlockData(user, PackedPosition.relative(position, facing.opposite())));
         if (relativeStair != null && relativeStair.isBottom() == stair.isBottom()) {
             BlockFace facing2 = relativeStair.getFacing();
             if (facing.axis() != facing2.axis() && checkOpposite(user, stair, position, facing2)) {
@@ -139,8 +138,8 @@ public class StairConnectionHandler extends ConnectionHandler {
         return 0; // straight
     }
 
-    private boolean checkOpposite(UserConnection user, StairData stair, Position position, BlockFace face) {
-        StairData relativeStair = STAIR_DATA_MAP.get(getBlockData(user, position.getRelative(face)));
+    private boolean checkOpposite(UserConnection user, StairData stair, long position, BlockFace face) {
+        StairData relativeStair = STAIR_DATA_MAP.get(getBlockData(user, PackedPosition.relative(position, face)));
         return relativeStair == null || relativeStair.getFacing() != stair.getFacing() || relativeStair.isBottom() != stair.isBottom();
     }
 
@@ -19,7 +19,6 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
 import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
@@ -37,6 +36,7 @@ public class TripwireConnectionHandler extends ConnectionHandler {
         return blockData -> {
             if (blockData.getMinecraftKey().equals("minecraft:tripwire_hook")) {
                 TRIPWIRE_HOOKS.put(blockData.getSavedBlockStateId(), BlockFace.valueOf(blockData.getValue("facing").toUpperCase(Locale.ROOT)));
+                ConnectionData.keepState(blockData.getSavedBlockStateId());
             } else if (blockData.getMinecraftKey().equals("minecraft:tripwire")) {
                 TripwireData tripwireData = new TripwireData(
                         blockData.getValue("attached").equals("true"),
@@ -47,7 +47,7 @@ public class TripwireConnectionHandler extends ConnectionHandler {
                 TRIPWIRE_DATA_MAP.put(blockData.getSavedBlockStateId(), tripwireData);
                 CONNECTED_BLOCKS[getStates(blockData)] = blockData.getSavedBlockStateId();
 
-                ConnectionData.connectionHandlerMap.put(blockData.getSavedBlockStateId(), connectionHandler);
+                ConnectionData.setConnectionHandler(blockData.getSavedBlockStateId(), connectionHandler);
             }
         };
     }
@@ -65,7 +65,7 @@ public class TripwireConnectionHandler extends ConnectionHandler {
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
+    public int connect(UserConnection user, long position, int blockState) {
         TripwireData tripwireData = TRIPWIRE_DATA_MAP.get(blockState);
         if (tripwireData == null) return blockState;
         byte b = 0;
@@ -73,10 +73,10 @@ public class TripwireConnectionHandler extends ConnectionHandler {
         if (tripwireData.isDisarmed()) b |= 2;
         if (tripwireData.isPowered()) b |= 4;
 
-        int east = getBlockData(user, position.getRelative(BlockFace.EAST));
-        int north = getBlockData(user, position.getRelative(BlockFace.NORTH));
-        int south = getBlockData(user, position.getRelative(BlockFace.SOUTH));
-        int west = getBlockData(user, position.getRelative(BlockFace.WEST));
+        int east = getBlockData(user, PackedPosition.relative(position, BlockFace.EAST));
+        int north = getBlockData(user, PackedPosition.relative(position, BlockFace.NORTH));
+        int south = getBlockData(user, PackedPosition.relative(position, BlockFace.SOUTH));
+        int west = getBlockData(user, PackedPosition.relative(position, BlockFace.WEST));
 
         if (TRIPWIRE_DATA_MAP.containsKey(east) || TRIPWIRE_HOOKS.get(east) == BlockFace.WEST) {
             b |= 8;
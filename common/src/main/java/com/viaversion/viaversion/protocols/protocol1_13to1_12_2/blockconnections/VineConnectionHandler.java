@@ -19,7 +19,6 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 
@@ -32,15 +31,15 @@ class VineConnectionHandler extends ConnectionHandler {
             if (!blockData.getMinecraftKey().equals("minecraft:vine")) return;
 
             VINES.add(blockData.getSavedBlockStateId());
-            ConnectionData.connectionHandlerMap.put(blockData.getSavedBlockStateId(), connectionHandler);
+            ConnectionData.setConnectionHandler(blockData.getSavedBlockStateId(), connectionHandler);
         };
     }
 
     @Override
-    public int connect(UserConnection user, Position position, int blockState) {
+    public int connect(UserConnection user, long position, int blockState) {
         if (isAttachedToBlock(user, position)) return blockState;
 
-        Position upperPos = position.getRelative(BlockFace.TOP);
+        long upperPos = PackedPosition.relative(position, BlockFace.TOP);
         int upperBlock = getBlockData(user, upperPos);
         if (VINES.contains(upperBlock) && isAttachedToBlock(user, upperPos)) return blockState;
 
@@ -48,14 +47,14 @@ class VineConnectionHandler extends ConnectionHandler {
         return 0;
     }
 
-    private boolean isAttachedToBlock(UserConnection user, Position position) {
+    private boolean isAttachedToBlock(UserConnection user, long position) {
         return isAttachedToBlock(user, position, BlockFace.EAST)
                 || isAttachedToBlock(user, position, BlockFace.WEST)
                 || isAttachedToBlock(user, position, BlockFace.NORTH)
                 || isAttachedToBlock(user, position, BlockFace.SOUTH);
     }
 
-    private boolean isAttachedToBlock(UserConnection user, Position position, BlockFace blockFace) {
-        return ConnectionData.OCCLUDING_STATES.contains(getBlockData(user, position.getRelative(blockFace)));
+    private boolean isAttachedToBlock(UserConnection user, long position, BlockFace blockFace) {
+        return ConnectionData.isOccluding(getBlockData(user, PackedPosition.relative(position, blockFace)));
     }
 }
@@ -19,7 +19,6 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockFace;
-import com.viaversion.viaversion.api.minecraft.Position;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -47,7 +46,7 @@ public class WallConnectionHandler extends AbstractFenceConnectionHandler {
     }
 
     @Override
-    protected byte getStates(UserConnection user, Position position, int blockState) {
+    protected byte getStates(UserConnection user, long position, int blockState) {
         byte states = super.getStates(user, position, blockState);
         if (up(user, position)) states |= 16;
         return states;
@@ -58,8 +57,8 @@ public class WallConnectionHandler extends AbstractFenceConnectionHandler {
         return 32;
     }
 
-    public boolean up(UserConnection user, Position position) {
-        if (isWall(getBlockData(user, position.getRelative(BlockFace.BOTTOM))) || isWall(getBlockData(user, position.getRelative(BlockFace.TOP))))
+    public boolean up(UserConnection user, long position) {
+        if (isWall(getBlockData(user, PackedPosition.relative(position, BlockFace.BOTTOM))) || isWall(getBlockData(user, PackedPosition.relative(position, BlockFace.TOP))))
             return true;
         int blockFaces = getBlockFaces(user, position);
         if (blockFaces == 0 || blockFaces == 0xF) return true;
@@ -69,10 +68,10 @@ public class WallConnectionHandler extends AbstractFenceConnectionHandler {
         return false;
     }
 
-    private int getBlockFaces(UserConnection user, Position position) {
+    private int getBlockFaces(UserConnection user, long position) {
         int blockFaces = 0;
         for (int i = 0; i < BLOCK_FACES.length; i++) {
-            if (isWall(getBlockData(user, position.getRelative(BLOCK_FACES[i])))) {
+            if (isWall(getBlockData(user, PackedPosition.relative(position, BLOCK_FACES[i])))) {
                 blockFaces |= 1 << i;
             }
         }
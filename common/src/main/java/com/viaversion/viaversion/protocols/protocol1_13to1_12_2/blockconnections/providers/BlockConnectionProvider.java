@@ -21,6 +21,8 @@ import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.Position;
 import com.viaversion.viaversion.api.platform.providers.Provider;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.Protocol1_13To1_12_2;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.ChunkNeighbourView;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.PackedPosition;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class BlockConnectionProvider implements Provider {
@@ -30,6 +32,10 @@ public class BlockConnectionProvider implements Provider {
         return Protocol1_13To1_12_2.MAPPINGS.getBlockMappings().getNewId(oldId);
     }
 
+    public int getBlockData(UserConnection connection, long position) {
+        return getBlockData(connection, PackedPosition.x(position), PackedPosition.y(position), PackedPosition.z(position));
+    }
+
     public int getWorldBlockData(UserConnection connection, int x, int y, int z) {
         return -1;
     }
@@ -69,6 +75,16 @@ public class BlockConnectionProvider implements Provider {
         return false;
     }
 
+    /**
+     * Sets the view of the chunk currently being connected, so that reads inside of it don't have to go through the storage.
+     *
+     * @param connection user connection
+     * @param view       view of the chunk being connected, or null once done
+     */
+    public void setChunkView(UserConnection connection, @Nullable ChunkNeighbourView view) {
+
+    }
+
     public UserBlockData forUser(UserConnection connection) {
         return (x, y, z) -> getBlockData(connection, x, y, z);
     }
@@ -19,6 +19,7 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnection
 
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.ChunkNeighbourView;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.BlockConnectionStorage;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -65,6 +66,11 @@ public class PacketBlockConnectionProvider extends BlockConnectionProvider {
         return !connection.get(BlockConnectionStorage.class).recentlyModified(pos);
     }
 
+    @Override
+    public void setChunkView(UserConnection connection, @Nullable ChunkNeighbourView view) {
+        connection.get(BlockConnectionStorage.class).setChunkView(view);
+    }
+
     @Override
     public UserBlockData forUser(UserConnection connection) {
         final BlockConnectionStorage storage = connection.get(BlockConnectionStorage.class);
@@ -40,12 +40,15 @@ import com.viaversion.viaversion.protocols.protocol1_12_1to1_12.ClientboundPacke
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.ClientboundPackets1_13;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.Protocol1_13To1_12_2;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.ServerboundPackets1_13;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.BlockUpdateCollector;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.ConnectionData;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.ConnectionHandler;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.PackedPosition;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.data.NamedSoundRewriter;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.data.ParticleRewriter;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.providers.BlockEntityProvider;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.providers.PaintingProvider;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.BlockConnectionStorage;
 import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage.BlockStorage;
 import com.viaversion.viaversion.util.Key;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
@@ -229,17 +232,14 @@ public class WorldPackets {
                     if (Via.getConfig().isServersideBlockConnections()) {
                         for (BlockChangeRecord record : records) {
                             int blockState = record.getBlockId();
-
-                            Position position = new Position(
-                                    record.getSectionX() + (chunkX * 16),
-                                    record.getY(),
-                                    record.getSectionZ() + (chunkZ * 16));
-
                             ConnectionHandler handler = ConnectionData.getConnectionHandler(blockState);
                             if (handler != null) {
-                                blockState = handler.connect(userConnection, position, blockState);
+                                int x = record.getSectionX() + (chunkX * 16);
+                                int y = record.getY();
+                                int z = record.getSectionZ() + (chunkZ * 16);
+                                blockState = handler.connect(userConnection, PackedPosition.pack(x, y, z), blockState);
                                 record.setBlockId(blockState);
-                                ConnectionData.updateBlockStorage(userConnection, position.x(), position.y(), position.z(), blockState);
+                                ConnectionData.updateBlockStorage(userConnection, x, y, z, blockState);
                             }
                         }
 
@@ -247,13 +247,15 @@ public class WorldPackets {
                         wrapper.send(Protocol1_13To1_12_2.class);
                         wrapper.cancel();
 
+                        BlockUpdateCollector updates = new BlockUpdateCollector(userConnection);
                         for (BlockChangeRecord record : records) {
                             Position position = new Position(
                                     record.getSectionX() + (chunkX * 16),
                                     record.getY(),
                                     record.getSectionZ() + (chunkZ * 16));
-                            ConnectionData.update(userConnection, position);
+                            ConnectionData.update(userConnection, position, updates);
                         }
+                        updates.flush();
                     }
                 });
             }
@@ -295,9 +297,11 @@ public class WorldPackets {
                     wrapper.send(Protocol1_13To1_12_2.class);
                     wrapper.cancel();
 
+                    BlockUpdateCollector updates = new BlockUpdateCollector(userConnection);
                     for (int i = 0; i < recordCount; i++) {
-                        ConnectionData.update(userConnection, records[i]);
+                        ConnectionData.update(userConnection, records[i], updates);
                     }
+                    updates.flush();
                 });
             }
         });
@@ -327,6 +331,7 @@ public class WorldPackets {
             }
         });
 
+        protocol.registerHeavyClientbound(ClientboundPackets1_12_1.CHUNK_DATA);
         protocol.registerClientbound(ClientboundPackets1_12_1.CHUNK_DATA, wrapper -> {
             ClientWorld clientWorld = wrapper.user().get(ClientWorld.class);
             BlockStorage storage = wrapper.user().get(BlockStorage.class);
@@ -361,11 +366,18 @@ public class WorldPackets {
                     }
                     for (int idx = 0; idx < ChunkSection.SIZE; idx++) {
                         int id = blocks.idAt(idx);
-                        Position position = new Position(ChunkSection.xFromIndex(idx) + (chunk.getX() << 4), ChunkSection.yFromIndex(idx) + (s << 4), ChunkSection.zFromIndex(idx) + (chunk.getZ() << 4));
-                        if (storage.isWelcome(id)) {
-                            storage.store(position, id);
-                        } else if (!chunk.isFullChunk()) { // Update
-                            storage.remove(position);
+                        boolean welcome = storage.isWelcome(id);
+                        if (!welcome && chunk.isFullChunk()) {
+                            continue;
+                        }
+
+                        int x = ChunkSection.xFromIndex(idx) + (chunk.getX() << 4);
+                        int y = ChunkSection.yFromIndex(idx) + (s << 4);
+                        int z = ChunkSection.zFromIndex(idx) + (chunk.getZ() << 4);
+                        if (welcome) {
+                            storage.store(x, y, z, id);
+                        } else { // Update
+                            storage.remove(x, y, z);
                         }
                     }
                 }
@@ -466,6 +478,7 @@ public class WorldPackets {
 
                     updater.updateChunkSectionNeighbours(chunk.getX(), chunk.getZ(), i);
                 }
+                updater.flush();
             }
         });
 
@@ -562,6 +575,23 @@ public class WorldPackets {
             }
         });
 
+        if (Via.getConfig().isServersideBlockConnections() && Via.getConfig().getBlockStorageMemoryLimit() > 0) {
+            // Only needed to evict the block storage sections farthest from the player first
+            protocol.registerServerbound(ServerboundPackets1_13.PLAYER_POSITION, WorldPackets::updatePlayerPosition);
+            protocol.registerServerbound(ServerboundPackets1_13.PLAYER_POSITION_AND_ROTATION, WorldPackets::updatePlayerPosition);
+        }
+
+    }
+
+    private static void updatePlayerPosition(PacketWrapper wrapper) throws Exception {
+        double x = wrapper.passthrough(Type.DOUBLE);
+        wrapper.passthrough(Type.DOUBLE); // Feet y
+        double z = wrapper.passthrough(Type.DOUBLE);
+
+        BlockConnectionStorage storage = wrapper.user().get(BlockConnectionStorage.class);
+        if (storage != null) {
+            storage.setPlayerPosition(x, z);
+        }
     }
 
     public static int toNewId(int oldId) {
@@ -599,10 +629,10 @@ public class WorldPackets {
                 storage.remove(position);
                 // Check if the new id has to be stored
                 if (storage.isWelcome(newId))
-                    storage.store(position, newId);
+                    storage.store(position.x(), position.y(), position.z(), newId);
             }
         } else if (storage.isWelcome(newId))
-            storage.store(position, newId);
+            storage.store(position.x(), position.y(), position.z(), newId);
         return newId;
     }
 }
@@ -20,39 +20,56 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage;
 import com.google.common.collect.EvictingQueue;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.StorableObject;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Queue;
-
 import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.ChunkNeighbourView;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class BlockConnectionStorage implements StorableObject {
-    private static Constructor<?> fastUtilLongObjectHashMap;
+    private static final int MAP_ENTRY_BYTES = 48; // Rough estimate of key, value, links and section object headers
+    private static final AtomicLong TOTAL_BYTES = new AtomicLong();
 
-    private final Map<Long, SectionData> blockStorage = createLongObjectMap();
+    // Ordered by last access to evict the least recently used of equally far sections first
+    private final Long2ObjectLinkedOpenHashMap<SectionData> blockStorage = new Long2ObjectLinkedOpenHashMap<>();
     @SuppressWarnings("UnstableApiUsage")
     private final Queue<Position> modified = EvictingQueue.create(5);
+    private final long memoryLimit;
+    private long bytes;
+
+    // Chunk the player was last seen in, only tracked with a memory limit
+    private boolean playerPositionKnown;
+    private int playerChunkX;
+    private int playerChunkZ;
 
     // Cache to retrieve section quicker
     private long lastIndex = -1;
     private SectionData lastSection;
+    // Chunk currently being connected, read directly from its palettes
+    private ChunkNeighbourView chunkView;
 
-    static {
-        try {
-            //noinspection StringBufferReplaceableByString - prevent relocation
-            String className = new StringBuilder("it").append(".unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap").toString();
-            fastUtilLongObjectHashMap = Class.forName(className).getConstructor();
-            Via.getPlatform().getLogger().info("Using FastUtil Long2ObjectOpenHashMap for block connections");
-        } catch (ClassNotFoundException | NoSuchMethodException ignored) {
-        }
+    public BlockConnectionStorage() {
+        this(Via.getConfig().getBlockStorageMemoryLimit() * 1024L);
+    }
+
+    BlockConnectionStorage(long memoryLimit) {
+        this.memoryLimit = memoryLimit;
     }
 
     public static void init() {
     }
 
+    /**
+     * Returns the estimated memory used by the block storages of all connections.
+     *
+     * @return estimated memory in bytes
+     */
+    public static long totalMemoryUsage() {
+        return TOTAL_BYTES.get();
+    }
+
     public void store(int x, int y, int z, int blockState) {
         long index = getChunkSectionIndex(x, y, z);
         SectionData section = getSection(index);
@@ -62,15 +79,32 @@ public class BlockConnectionStorage implements StorableObject {
                 return;
             }
 
-            blockStorage.put(index, section = new SectionData());
+            blockStorage.putAndMoveToLast(index, section = new SectionData());
             lastSection = section;
             lastIndex = index;
+            addBytes(section.memoryUsage() + MAP_ENTRY_BYTES);
         }
 
+        int previousUsage = section.memoryUsage();
         section.setBlockAt(x, y, z, blockState);
+        int usage = section.memoryUsage();
+        if (usage != previousUsage) {
+            addBytes(usage - previousUsage);
+        }
+
+        if (memoryLimit > 0 && bytes > memoryLimit) {
+            evict();
+        }
     }
 
     public int get(int x, int y, int z) {
+        if (chunkView != null) {
+            int blockState = chunkView.blockData(x, y, z);
+            if (blockState != -1) {
+                return blockState;
+            }
+        }
+
         long pair = getChunkSectionIndex(x, y, z);
         SectionData section = getSection(pair);
         if (section == null) {
@@ -115,6 +149,12 @@ public class BlockConnectionStorage implements StorableObject {
         lastSection = null;
         lastIndex = -1;
         modified.clear();
+        addBytes(-bytes);
+    }
+
+    @Override
+    public void onRemove() {
+        clear();
     }
 
     public void unloadChunk(int x, int z) {
@@ -127,56 +167,124 @@ public class BlockConnectionStorage implements StorableObject {
         removeSection(getChunkSectionIndex(x << 4, y << 4, z << 4));
     }
 
+    /**
+     * Sets the position of the player, so that sections farthest from it are evicted first once over the memory limit.
+     *
+     * @param x x coordinate of the player
+     * @param z z coordinate of the player
+     */
+    public void setPlayerPosition(double x, double z) {
+        playerPositionKnown = true;
+        playerChunkX = (int) Math.floor(x) >> 4;
+        playerChunkZ = (int) Math.floor(z) >> 4;
+    }
+
+    public void setChunkView(@Nullable ChunkNeighbourView chunkView) {
+        this.chunkView = chunkView;
+    }
+
+    /**
+     * Returns the estimated memory used by this storage.
+     *
+     * @return estimated memory in bytes
+     */
+    public long memoryUsage() {
+        return bytes;
+    }
+
     private @Nullable SectionData getSection(long index) {
         if (lastIndex == index) {
             return lastSection;
         }
         lastIndex = index;
-        return lastSection = blockStorage.get(index);
+        return lastSection = blockStorage.getAndMoveToLast(index);
     }
 
     private void removeSection(long index) {
-        blockStorage.remove(index);
+        SectionData section = blockStorage.remove(index);
+        if (section != null) {
+            addBytes(-section.memoryUsage() - MAP_ENTRY_BYTES);
+        }
         if (lastIndex == index) {
             lastIndex = -1;
             lastSection = null;
         }
     }
 
-    private static long getChunkSectionIndex(int x, int y, int z) {
-        return (((x >> 4) & 0x3FFFFFFL) << 38) | (((y >> 4) & 0xFFFL) << 26) | ((z >> 4) & 0x3FFFFFFL);
-    }
+    private void evict() {
+        // Evict down to 3/4 of the limit, so that not every following store has to evict again
+        long targetBytes = memoryLimit * 3 / 4;
+        long[] indexes = blockStorage.keySet().toLongArray();
+        // Sort by distance to the player, then by last access; without a known position, only the last access counts
+        long[] order = new long[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            long distance = playerPositionKnown ? distanceToPlayer(indexes[i]) : 0;
+            order[i] = distance << 32 | (Integer.MAX_VALUE - i);
+        }
+        Arrays.sort(order);
 
-    private <T> Map<Long, T> createLongObjectMap() {
-        if (fastUtilLongObjectHashMap != null) {
-            try {
-                //noinspection unchecked
-                return (Map<Long, T>) fastUtilLongObjectHashMap.newInstance();
-            } catch (IllegalAccessException | InstantiationException | InvocationTargetException e) {
-                e.printStackTrace();
+        // Keep at least the section that was just written to
+        long writtenIndex = lastIndex;
+        for (int i = order.length - 1; i >= 0 && bytes > targetBytes; i--) {
+            long index = indexes[Integer.MAX_VALUE - (int) order[i]];
+            if (index != writtenIndex) {
+                removeSection(index);
             }
         }
-        return new HashMap<>();
     }
 
-    private static final class SectionData {
-        private final short[] blockStates = new short[4096];
+    private int distanceToPlayer(long index) {
+        int chunkX = (int) (index >> 38);
+        int chunkZ = (int) (index << 38 >> 38);
+        return Math.max(Math.abs(chunkX - playerChunkX), Math.abs(chunkZ - playerChunkZ));
+    }
+
+    private void addBytes(long delta) {
+        bytes += delta;
+        TOTAL_BYTES.addAndGet(delta);
+    }
+
+    private static long getChunkSectionIndex(int x, int y, int z) {
+        return (((x >> 4) & 0x3FFFFFFL) << 38) | (((y >> 4) & 0xFFFL) << 26) | ((z >> 4) & 0x3FFFFFFL);
+    }
+
+    /**
+     * Block states of a section, stored as indexes into a palette of the section's states.
+     * Indexes start out as nibbles and grow to bytes, with states only being stored directly past 256 distinct states.
+     */
+    static final class SectionData {
+        private static final int SIZE = 4096;
+        private static final int OBJECT_BYTES = 64; // Rough estimate of the object and array headers
+        private int[] palette = new int[4]; // Air is always at index 0
+        private int paletteSize = 1;
+        private byte[] indexes = new byte[SIZE / 2];
+        private int bitsPerIndex = 4;
+        private short[] blockStates; // Only used once the palette has outgrown byte indexes
         private short nonEmptyBlocks;
 
         public int blockAt(int x, int y, int z) {
-            return blockStates[encodeBlockPos(x, y, z)];
+            int index = encodeBlockPos(x, y, z);
+            return blockStates != null ? blockStates[index] : palette[paletteIndex(index)];
         }
 
         public void setBlockAt(int x, int y, int z, int blockState) {
             int index = encodeBlockPos(x, y, z);
-            if (blockState == blockStates[index]) {
+            int previousState = blockAt(x, y, z);
+            if (blockState == previousState) {
                 return;
             }
 
-            blockStates[index] = (short) blockState;
+            int paletteIndex = blockStates == null ? paletteIndexOf(blockState) : -1;
+            if (blockStates != null) {
+                // Set directly, possibly after having grown out of the palette just now
+                blockStates[index] = (short) blockState;
+            } else {
+                setPaletteIndex(index, paletteIndex);
+            }
+
             if (blockState == 0) {
                 nonEmptyBlocks--;
-            } else {
+            } else if (previousState == 0) {
                 nonEmptyBlocks++;
             }
         }
@@ -185,8 +293,91 @@ public class BlockConnectionStorage implements StorableObject {
             return nonEmptyBlocks;
         }
 
+        public int memoryUsage() {
+            return OBJECT_BYTES + (blockStates != null ? blockStates.length * 2 : indexes.length + palette.length * 4);
+        }
+
+        private int paletteIndex(int index) {
+            if (bitsPerIndex == 8) {
+                return indexes[index] & 0xFF;
+            }
+            return (indexes[index >> 1] >> ((index & 1) << 2)) & 0xF;
+        }
+
+        private void setPaletteIndex(int index, int paletteIndex) {
+            if (bitsPerIndex == 8) {
+                indexes[index] = (byte) paletteIndex;
+            } else {
+                int shift = (index & 1) << 2;
+                indexes[index >> 1] = (byte) (indexes[index >> 1] & ~(0xF << shift) | paletteIndex << shift);
+            }
+        }
+
+        private int paletteIndexOf(int blockState) {
+            for (int i = 0; i < paletteSize; i++) {
+                if (palette[i] == blockState) {
+                    return i;
+                }
+            }
+
+            if (paletteSize == 1 << bitsPerIndex) {
+                // Drop states no longer used before growing the indexes
+                compactPalette();
+                if (paletteSize == 1 << bitsPerIndex) {
+                    grow();
+                    if (blockStates != null) {
+                        return -1;
+                    }
+                }
+            }
+
+            if (paletteSize == palette.length) {
+                palette = Arrays.copyOf(palette, Math.min(palette.length * 2, 1 << bitsPerIndex));
+            }
+            palette[paletteSize] = blockState;
+            return paletteSize++;
+        }
+
+        private void compactPalette() {
+            int[] remapped = new int[paletteSize];
+            Arrays.fill(remapped, -1);
+            remapped[0] = 0;
+            int[] newPalette = new int[palette.length];
+            int newSize = 1;
+            for (int i = 0; i < SIZE; i++) {
+                int paletteIndex = paletteIndex(i);
+                if (remapped[paletteIndex] == -1) {
+                    remapped[paletteIndex] = newSize;
+                    newPalette[newSize++] = palette[paletteIndex];
+                }
+                setPaletteIndex(i, remapped[paletteIndex]);
+            }
+            palette = newPalette;
+            paletteSize = newSize;
+        }
+
+        private void grow() {
+            if (bitsPerIndex == 4) {
+                byte[] byteIndexes = new byte[SIZE];
+                for (int i = 0; i < SIZE; i++) {
+                    byteIndexes[i] = (byte) paletteIndex(i);
+                }
+                indexes = byteIndexes;
+                bitsPerIndex = 8;
+                return;
+            }
+
+            // Too many distinct states, store them directly
+            blockStates = new short[SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                blockStates[i] = (short) palette[paletteIndex(i)];
+            }
+            indexes = null;
+            palette = null;
+        }
+
         private static int encodeBlockPos(int x, int y, int z) {
             return ((y & 0xF) << 8) | ((x & 0xF) << 4) | (z & 0xF);
         }
     }
-}
\ No newline at end of file
+}
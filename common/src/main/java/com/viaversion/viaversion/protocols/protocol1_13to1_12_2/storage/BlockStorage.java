@@ -19,15 +19,18 @@ package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage;
 
 import com.viaversion.viaversion.api.connection.StorableObject;
 import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections.PackedPosition;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
-import java.util.Map;
-import space.vectrix.flare.SyncMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 
 // TODO Fix memory leak lolz (only a smol one tho)
 public class BlockStorage implements StorableObject {
     private static final IntSet WHITELIST = new IntOpenHashSet(46, .99F);
-    private final Map<Position, ReplacementData> blocks = SyncMap.hashmap();
+    // Keyed by packed positions, so that storing the blocks of a chunk does not allocate a position per block
+    private final Long2ObjectMap<ReplacementData> blocks = Long2ObjectMaps.synchronize(new Long2ObjectOpenHashMap<>());
 
     static {
         // Flower pots
@@ -59,6 +62,14 @@ public class BlockStorage implements StorableObject {
     }
 
     public void store(Position position, int block, int replacementId) {
+        store(PackedPosition.pack(position), block, replacementId);
+    }
+
+    public void store(int x, int y, int z, int block) {
+        store(PackedPosition.pack(x, y, z), block, -1);
+    }
+
+    private void store(long position, int block, int replacementId) {
         if (!WHITELIST.contains(block))
             return;
 
@@ -70,15 +81,19 @@ public class BlockStorage implements StorableObject {
     }
 
     public boolean contains(Position position) {
-        return blocks.containsKey(position);
+        return blocks.containsKey(PackedPosition.pack(position));
     }
 
     public ReplacementData get(Position position) {
-        return blocks.get(position);
+        return blocks.get(PackedPosition.pack(position));
     }
 
     public ReplacementData remove(Position position) {
-        return blocks.remove(position);
+        return remove(position.x(), position.y(), position.z());
+    }
+
+    public ReplacementData remove(int x, int y, int z) {
+        return blocks.remove(PackedPosition.pack(x, y, z));
     }
 
     public static final class ReplacementData {
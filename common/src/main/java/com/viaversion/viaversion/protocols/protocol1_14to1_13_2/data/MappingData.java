@@ -45,6 +45,11 @@ public class MappingData extends MappingDataBase {
         }
     }
 
+    @Override
+    protected boolean loadsExtrasFromMappingsData() {
+        return false;
+    }
+
     public IntSet getMotionBlocking() {
         return motionBlocking;
     }
@@ -124,6 +124,7 @@ public class WorldPackets {
             }
         });
 
+        protocol.registerHeavyClientbound(ClientboundPackets1_13.CHUNK_DATA);
         protocol.registerClientbound(ClientboundPackets1_13.CHUNK_DATA, wrapper -> {
             ClientWorld clientWorld = wrapper.user().get(ClientWorld.class);
             Chunk chunk = wrapper.read(ChunkType1_13.forEnvironment(clientWorld.getEnvironment()));
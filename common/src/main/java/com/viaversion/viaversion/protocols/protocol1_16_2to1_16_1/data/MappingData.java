@@ -48,6 +48,11 @@ public class MappingData extends MappingDataBase {
         }
     }
 
+    @Override
+    protected boolean loadsExtrasFromMappingsData() {
+        return false;
+    }
+
     public Map<String, CompoundTag> getDimensionDataMap() {
         return dimensionDataMap;
     }
@@ -44,6 +44,11 @@ public class MappingData extends MappingDataBase {
         attributeMappings.put("generic.armorToughness", "minecraft:generic.armor_toughness");
     }
 
+    @Override
+    protected boolean loadsExtrasFromMappingsData() {
+        return false;
+    }
+
     public BiMap<String, String> getAttributeMappings() {
         return attributeMappings;
     }
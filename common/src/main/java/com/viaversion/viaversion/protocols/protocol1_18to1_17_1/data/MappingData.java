@@ -39,6 +39,11 @@ public final class MappingData extends MappingDataBase {
         }
     }
 
+    @Override
+    protected boolean loadsExtrasFromMappingsData() {
+        return false;
+    }
+
     public Object2IntMap<String> blockEntityIds() {
         return blockEntityIds;
     }
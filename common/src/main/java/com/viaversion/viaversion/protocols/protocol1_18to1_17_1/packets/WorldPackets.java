@@ -101,6 +101,7 @@ public final class WorldPackets {
                             emptySkyLightMask, emptyBlockLightMask, skyLight, blockLight));
         });
 
+        protocol.registerHeavyClientbound(ClientboundPackets1_17_1.CHUNK_DATA);
         protocol.registerClientbound(ClientboundPackets1_17_1.CHUNK_DATA, wrapper -> {
             final EntityTracker tracker = protocol.getEntityRewriter().tracker(wrapper.user());
             final Chunk oldChunk = wrapper.read(new ChunkType1_17(tracker.currentWorldSectionHeight()));
@@ -39,7 +39,7 @@ public final class InventoryPackets extends ItemRewriter<ClientboundPackets1_19_
 
     @Override
     public void registerPackets() {
-        final BlockRewriter<ClientboundPackets1_19_1> blockRewriter = BlockRewriter.for1_14(protocol);
+        final BlockRewriter<ClientboundPackets1_19_1> blockRewriter = BlockRewriter.for1_14(protocol).composeBlockStateMappings();
         blockRewriter.registerBlockAction(ClientboundPackets1_19_1.BLOCK_ACTION);
         blockRewriter.registerBlockChange(ClientboundPackets1_19_1.BLOCK_CHANGE);
         blockRewriter.registerVarLongMultiBlockChange(ClientboundPackets1_19_1.MULTI_BLOCK_CHANGE);
@@ -34,6 +34,11 @@ public final class MappingData extends MappingDataBase {
         damageTypesRegistry = MappingDataLoader.loadNBTFromFile("damage-types-1.19.4.nbt");
     }
 
+    @Override
+    protected boolean loadsExtrasFromMappingsData() {
+        return false;
+    }
+
     public CompoundTag damageTypesRegistry() {
         return damageTypesRegistry.copy();
     }
@@ -45,6 +45,11 @@ public final class MappingData extends MappingDataBase {
         }
     }
 
+    @Override
+    protected boolean loadsExtrasFromMappingsData() {
+        return false;
+    }
+
     public @Nullable CompoundTag chatType(final int id) {
         return defaultChatTypes.get(id);
     }
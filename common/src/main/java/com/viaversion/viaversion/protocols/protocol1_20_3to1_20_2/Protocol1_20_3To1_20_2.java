@@ -32,6 +32,7 @@ import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.types.misc.ParticleType;
 import com.viaversion.viaversion.api.type.types.version.Types1_20_3;
 import com.viaversion.viaversion.data.entity.EntityTrackerBase;
+import com.viaversion.viaversion.metrics.BootProfiler;
 import com.viaversion.viaversion.protocols.protocol1_19_4to1_19_3.rewriter.CommandRewriter1_19_4;
 import com.viaversion.viaversion.protocols.protocol1_20_2to1_20.packet.ClientboundConfigurationPackets1_20_2;
 import com.viaversion.viaversion.protocols.protocol1_20_2to1_20.packet.ClientboundPackets1_20_2;
@@ -346,7 +347,7 @@ public final class Protocol1_20_3To1_20_2 extends AbstractProtocol<ClientboundPa
     @Override
     protected void onMappingDataLoaded() {
         super.onMappingDataLoaded();
-        EntityTypes1_20_3.initialize(this);
+        BootProfiler.get().phase("entity types 1.20.3", () -> EntityTypes1_20_3.initialize(this));
         Types1_20_3.PARTICLE.filler(this)
                 .reader("block", ParticleType.Readers.BLOCK)
                 .reader("block_marker", ParticleType.Readers.BLOCK)
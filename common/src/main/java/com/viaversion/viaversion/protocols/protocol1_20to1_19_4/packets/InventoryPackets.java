@@ -21,7 +21,6 @@ import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import com.github.steveice10.opennbt.tag.builtin.ListTag;
 import com.github.steveice10.opennbt.tag.builtin.StringTag;
 import com.github.steveice10.opennbt.tag.builtin.Tag;
-import com.viaversion.viaversion.api.minecraft.BlockChangeRecord;
 import com.viaversion.viaversion.api.minecraft.blockentity.BlockEntity;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandlers;
 import com.viaversion.viaversion.api.type.Type;
@@ -44,7 +43,7 @@ public final class InventoryPackets extends ItemRewriter<ClientboundPackets1_19_
 
     @Override
     public void registerPackets() {
-        final BlockRewriter<ClientboundPackets1_19_4> blockRewriter = BlockRewriter.for1_14(protocol);
+        final BlockRewriter<ClientboundPackets1_19_4> blockRewriter = BlockRewriter.for1_14(protocol).composeBlockStateMappings();
         blockRewriter.registerBlockAction(ClientboundPackets1_19_4.BLOCK_ACTION);
         blockRewriter.registerBlockChange(ClientboundPackets1_19_4.BLOCK_CHANGE);
         blockRewriter.registerEffect(ClientboundPackets1_19_4.EFFECT, 1010, 2001);
@@ -127,11 +126,7 @@ public final class InventoryPackets extends ItemRewriter<ClientboundPackets1_19_
             public void register() {
                 map(Type.LONG); // Chunk position
                 read(Type.BOOLEAN); // Suppress light updates
-                handler(wrapper -> {
-                    for (final BlockChangeRecord record : wrapper.passthrough(Type.VAR_LONG_BLOCK_CHANGE_RECORD_ARRAY)) {
-                        record.setBlockId(protocol.getMappingData().getNewBlockStateId(record.getBlockId()));
-                    }
-                });
+                handler(blockRewriter.varLongMultiBlockChangeHandler());
             }
         });
 
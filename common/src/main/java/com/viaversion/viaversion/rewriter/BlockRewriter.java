@@ -19,6 +19,7 @@ package com.viaversion.viaversion.rewriter;
 
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag;
 import com.google.common.base.Preconditions;
+import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.data.Mappings;
 import com.viaversion.viaversion.api.data.entity.EntityTracker;
 import com.viaversion.viaversion.api.minecraft.BlockChangeRecord;
@@ -27,13 +28,19 @@ import com.viaversion.viaversion.api.minecraft.blockentity.BlockEntity;
 import com.viaversion.viaversion.api.minecraft.blockentity.BlockEntityImpl;
 import com.viaversion.viaversion.api.minecraft.chunks.Chunk;
 import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
-import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
 import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
+import com.viaversion.viaversion.api.protocol.AbstractProtocol;
 import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.ProtocolPipeline;
 import com.viaversion.viaversion.api.protocol.packet.ClientboundPacketType;
+import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandler;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandlers;
 import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.protocol.ComposedMappings;
+import com.viaversion.viaversion.protocol.ProtocolManagerImpl;
+import com.viaversion.viaversion.protocol.ProtocolPipelineImpl;
+import com.viaversion.viaversion.protocol.packet.PacketWrapperImpl;
 import com.viaversion.viaversion.util.MathUtil;
 import java.util.List;
 import java.util.function.Consumer;
@@ -43,6 +50,7 @@ public class BlockRewriter<C extends ClientboundPacketType> {
     private final Protocol<C, ?, ?, ?> protocol;
     private final Type<Position> positionType;
     private final Type<CompoundTag> compoundTagType;
+    private boolean composeBlockStates;
 
     @Deprecated/*(forRemoval = true)*/
     public BlockRewriter(Protocol<C, ?, ?, ?> protocol, Type<Position> positionType) {
@@ -67,6 +75,22 @@ public class BlockRewriter<C extends ClientboundPacketType> {
         return new BlockRewriter<>(protocol, Type.POSITION1_14, Type.COMPOUND_TAG);
     }
 
+    /**
+     * Lets block states in chunks and block changes be mapped in a single step for runs of consecutive protocols that
+     * opted into this as well, with the first protocol of a run applying the composed mappings and the others skipping it.
+     * <p>
+     * Only opt in if all chunk and block change packets of the protocol are handled by this rewriter,
+     * and nothing else relies on their block state ids.
+     *
+     * @return self
+     * @see ComposedMappings
+     */
+    public BlockRewriter<C> composeBlockStateMappings() {
+        composeBlockStates = true;
+        ((ProtocolManagerImpl) Via.getManager().getProtocolManager()).registerComposableBlockStateMappings(protocol.getClass());
+        return this;
+    }
+
     public void registerBlockAction(C packetType) {
         protocol.registerClientbound(packetType, new PacketHandlers() {
             @Override
@@ -100,7 +124,10 @@ public class BlockRewriter<C extends ClientboundPacketType> {
             public void register() {
                 map(positionType);
                 map(Type.VAR_INT);
-                handler(wrapper -> wrapper.set(Type.VAR_INT, 0, protocol.getMappingData().getNewBlockStateId(wrapper.get(Type.VAR_INT, 0))));
+                handler(wrapper -> {
+                    final ComposedMappings.Run run = blockStateRun(wrapper);
+                    wrapper.set(Type.VAR_INT, 0, newBlockStateId(run, wrapper.get(Type.VAR_INT, 0)));
+                });
             }
         });
     }
@@ -112,8 +139,9 @@ public class BlockRewriter<C extends ClientboundPacketType> {
                 map(Type.INT); // 0 - Chunk X
                 map(Type.INT); // 1 - Chunk Z
                 handler(wrapper -> {
+                    final ComposedMappings.Run run = blockStateRun(wrapper);
                     for (BlockChangeRecord record : wrapper.passthrough(Type.BLOCK_CHANGE_RECORD_ARRAY)) {
-                        record.setBlockId(protocol.getMappingData().getNewBlockStateId(record.getBlockId()));
+                        record.setBlockId(newBlockStateId(run, record.getBlockId()));
                     }
                 });
             }
@@ -126,11 +154,7 @@ public class BlockRewriter<C extends ClientboundPacketType> {
             public void register() {
                 map(Type.LONG); // Chunk position
                 map(Type.BOOLEAN); // Suppress light updates
-                handler(wrapper -> {
-                    for (BlockChangeRecord record : wrapper.passthrough(Type.VAR_LONG_BLOCK_CHANGE_RECORD_ARRAY)) {
-                        record.setBlockId(protocol.getMappingData().getNewBlockStateId(record.getBlockId()));
-                    }
-                });
+                handler(varLongMultiBlockChangeHandler());
             }
         });
     }
@@ -140,15 +164,20 @@ public class BlockRewriter<C extends ClientboundPacketType> {
             @Override
             public void register() {
                 map(Type.LONG); // Chunk position
-                handler(wrapper -> {
-                    for (BlockChangeRecord record : wrapper.passthrough(Type.VAR_LONG_BLOCK_CHANGE_RECORD_ARRAY)) {
-                        record.setBlockId(protocol.getMappingData().getNewBlockStateId(record.getBlockId()));
-                    }
-                });
+                handler(varLongMultiBlockChangeHandler());
             }
         });
     }
 
+    public PacketHandler varLongMultiBlockChangeHandler() {
+        return wrapper -> {
+            final ComposedMappings.Run run = blockStateRun(wrapper);
+            for (BlockChangeRecord record : wrapper.passthrough(Type.VAR_LONG_BLOCK_CHANGE_RECORD_ARRAY)) {
+                record.setBlockId(newBlockStateId(run, record.getBlockId()));
+            }
+        };
+    }
+
     public void registerAcknowledgePlayerDigging(C packetType) {
         // Same exact handler
         registerBlockChange(packetType);
@@ -179,23 +208,47 @@ public class BlockRewriter<C extends ClientboundPacketType> {
     }
 
     public void registerChunkData1_19(C packetType, ChunkTypeSupplier chunkTypeSupplier, @Nullable Consumer<BlockEntity> blockEntityHandler) {
+        if (protocol instanceof AbstractProtocol) {
+            ((AbstractProtocol<C, ?, ?, ?>) protocol).registerHeavyClientbound(packetType);
+        }
         protocol.registerClientbound(packetType, chunkDataHandler1_19(chunkTypeSupplier, blockEntityHandler));
     }
 
     public PacketHandler chunkDataHandler1_19(ChunkTypeSupplier chunkTypeSupplier, @Nullable Consumer<BlockEntity> blockEntityHandler) {
+        return chunkDataHandler1_19(chunkTypeSupplier, chunkTypeSupplier, blockEntityHandler);
+    }
+
+    /**
+     * Returns a chunk data handler reading the chunk with the given type and writing it with the new type.
+     *
+     * @param chunkTypeSupplier    supplier of the unmapped chunk type
+     * @param newChunkTypeSupplier supplier of the mapped chunk type
+     * @param blockEntityHandler   optional handler of block entities with data
+     * @return chunk data handler
+     */
+    public PacketHandler chunkDataHandler1_19(ChunkTypeSupplier chunkTypeSupplier, ChunkTypeSupplier newChunkTypeSupplier,
+                                              @Nullable Consumer<BlockEntity> blockEntityHandler) {
         return wrapper -> {
             final EntityTracker tracker = protocol.getEntityRewriter().tracker(wrapper.user());
             Preconditions.checkArgument(tracker.biomesSent() != -1, "Biome count not set");
             Preconditions.checkArgument(tracker.currentWorldSectionHeight() != -1, "Section height not set");
+            final ComposedMappings.Run run = blockStateRun(wrapper);
+            final Mappings blockStateMappings = protocol.getMappingData().getBlockStateMappings();
+            final int mappedSize = blockStateMappings.mappedSize();
+            final int globalPaletteBiomeBits = MathUtil.ceilLog2(tracker.biomesSent());
+            // Within a run, global palette ids are written in the size of the run's last protocol after its head
             final Type<Chunk> chunkType = chunkTypeSupplier.supply(tracker.currentWorldSectionHeight(),
-                    MathUtil.ceilLog2(protocol.getMappingData().getBlockStateMappings().mappedSize()),
-                    MathUtil.ceilLog2(tracker.biomesSent()));
-            final Chunk chunk = wrapper.passthrough(chunkType);
-            for (final ChunkSection section : chunk.getSections()) {
-                final DataPalette blockPalette = section.palette(PaletteType.BLOCKS);
-                for (int i = 0; i < blockPalette.size(); i++) {
-                    final int id = blockPalette.idByIndex(i);
-                    blockPalette.setIdByIndex(i, protocol.getMappingData().getNewBlockStateId(id));
+                    MathUtil.ceilLog2(run != null && !run.isHead(protocol) ? run.mappedSize() : blockStateMappings.size()),
+                    globalPaletteBiomeBits);
+            final Type<Chunk> newChunkType = newChunkTypeSupplier.supply(tracker.currentWorldSectionHeight(),
+                    MathUtil.ceilLog2(run != null ? run.mappedSize() : mappedSize),
+                    globalPaletteBiomeBits);
+            final Chunk chunk = wrapper.read(chunkType);
+            wrapper.write(newChunkType, chunk);
+
+            if (run == null || run.isHead(protocol)) {
+                for (final ChunkSection section : chunk.getSections()) {
+                    section.palette(PaletteType.BLOCKS).mapIds(id -> newBlockStateId(run, id));
                 }
             }
 
@@ -240,6 +293,44 @@ public class BlockRewriter<C extends ClientboundPacketType> {
         });
     }
 
+    /**
+     * Returns the composed block state run the packet is mapped with, marking it as applied if this protocol is its head.
+     *
+     * @param wrapper packet wrapper
+     * @return composed block state run, or null if the protocol has to apply its own mappings
+     */
+    private ComposedMappings.@Nullable Run blockStateRun(final PacketWrapper wrapper) {
+        if (!composeBlockStates || !(wrapper instanceof PacketWrapperImpl)) {
+            return null;
+        }
+
+        final ProtocolPipeline pipeline = wrapper.user().getProtocolInfo().getPipeline();
+        if (!(pipeline instanceof ProtocolPipelineImpl)) {
+            return null;
+        }
+
+        final ComposedMappings composedMappings = ((ProtocolPipelineImpl) pipeline).composedMappings();
+        final ComposedMappings.Run run = composedMappings != null ? composedMappings.blockStates(protocol) : null;
+        if (run == null) {
+            return null;
+        }
+
+        final PacketWrapperImpl packetWrapper = (PacketWrapperImpl) wrapper;
+        if (run.isHead(protocol)) {
+            packetWrapper.setAppliedBlockStateRun(run);
+            return run;
+        }
+        // Packets that did not pass the head of the run, e.g. ones sent from within it, are mapped per protocol
+        return packetWrapper.appliedBlockStateRun() == run ? run : null;
+    }
+
+    private int newBlockStateId(final ComposedMappings.@Nullable Run run, final int id) {
+        if (run == null) {
+            return protocol.getMappingData().getNewBlockStateId(id);
+        }
+        return run.isHead(protocol) ? run.getNewId(id) : id;
+    }
+
     @FunctionalInterface
     public interface ChunkTypeSupplier {
 
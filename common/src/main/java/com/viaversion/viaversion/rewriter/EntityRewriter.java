@@ -285,10 +285,10 @@ public abstract class EntityRewriter<C extends ClientboundPacketType, T extends
                 map(Type.INT); // 8 - Data
                 handler(trackerHandler());
                 handler(wrapper -> {
-                    int entityId = wrapper.get(Type.VAR_INT, 0);
+                    int entityId = wrapper.getInt(Type.VAR_INT, 0);
                     EntityType entityType = tracker(wrapper.user()).entityType(entityId);
                     if (entityType == fallingBlockType) {
-                        wrapper.set(Type.INT, 0, protocol.getMappingData().getNewBlockStateId(wrapper.get(Type.INT, 0)));
+                        wrapper.setInt(Type.INT, 0, protocol.getMappingData().getNewBlockStateId(wrapper.getInt(Type.INT, 0)));
                     }
                 });
             }
@@ -315,10 +315,10 @@ public abstract class EntityRewriter<C extends ClientboundPacketType, T extends
                         return;
                     }
 
-                    int entityId = wrapper.get(Type.VAR_INT, 0);
+                    int entityId = wrapper.getInt(Type.VAR_INT, 0);
                     EntityType entityType = tracker(wrapper.user()).entityType(entityId);
                     if (entityType == fallingBlockType) {
-                        wrapper.set(Type.VAR_INT, 2, protocol.getMappingData().getNewBlockStateId(wrapper.get(Type.VAR_INT, 2)));
+                        wrapper.setInt(Type.VAR_INT, 2, protocol.getMappingData().getNewBlockStateId(wrapper.getInt(Type.VAR_INT, 2)));
                     }
                 });
             }
@@ -519,12 +519,12 @@ public abstract class EntityRewriter<C extends ClientboundPacketType, T extends
      */
     public PacketHandler trackerAndRewriterHandler(@Nullable Type<List<Metadata>> metaType) {
         return wrapper -> {
-            int entityId = wrapper.get(Type.VAR_INT, 0);
-            int type = wrapper.get(Type.VAR_INT, 1);
+            int entityId = wrapper.getInt(Type.VAR_INT, 0);
+            int type = wrapper.getInt(Type.VAR_INT, 1);
 
             int newType = newEntityId(type);
             if (newType != type) {
-                wrapper.set(Type.VAR_INT, 1, newType);
+                wrapper.setInt(Type.VAR_INT, 1, newType);
             }
 
             EntityType entType = typeFromId(trackMappedType ? newType : type);
@@ -539,7 +539,7 @@ public abstract class EntityRewriter<C extends ClientboundPacketType, T extends
 
     public PacketHandler trackerAndRewriterHandler(@Nullable Type<List<Metadata>> metaType, EntityType entityType) {
         return wrapper -> {
-            int entityId = wrapper.get(Type.VAR_INT, 0);
+            int entityId = wrapper.getInt(Type.VAR_INT, 0);
             // Register Type ID
             tracker(wrapper.user()).addEntity(entityId, entityType);
 
@@ -556,7 +556,7 @@ public abstract class EntityRewriter<C extends ClientboundPacketType, T extends
      */
     public PacketHandler objectTrackerHandler() {
         return wrapper -> {
-            int entityId = wrapper.get(Type.VAR_INT, 0);
+            int entityId = wrapper.getInt(Type.VAR_INT, 0);
             byte type = wrapper.get(Type.BYTE, 0);
 
             EntityType entType = objectTypeFromId(type);
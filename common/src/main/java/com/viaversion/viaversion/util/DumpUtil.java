@@ -26,6 +26,7 @@ import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
 import com.viaversion.viaversion.dump.DumpTemplate;
 import com.viaversion.viaversion.dump.VersionInfo;
+import com.viaversion.viaversion.metrics.BootProfiler;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -66,7 +67,8 @@ public final class DumpUtil {
                 Via.getManager().getSubPlatforms()
         );
         final Map<String, Object> configuration = ((Config) Via.getConfig()).getValues();
-        final DumpTemplate template = new DumpTemplate(version, configuration, Via.getPlatform().getDump(), Via.getManager().getInjector().getDump(), getPlayerSample(playerToSample));
+        final DumpTemplate template = new DumpTemplate(version, configuration, Via.getPlatform().getDump(), Via.getManager().getInjector().getDump(), getPlayerSample(playerToSample),
+                BootProfiler.get().toJson());
         final CompletableFuture<String> result = new CompletableFuture<>();
         Via.getPlatform().runAsync(() -> {
             final HttpURLConnection con;
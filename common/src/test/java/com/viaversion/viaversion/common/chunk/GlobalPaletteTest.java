@@ -0,0 +1,163 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.common.chunk;
+
+import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
+import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
+import com.viaversion.viaversion.api.minecraft.chunks.DataPaletteImpl;
+import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
+import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.api.type.types.chunk.ChunkSectionType1_16;
+import com.viaversion.viaversion.api.type.types.chunk.PaletteType1_18;
+import com.viaversion.viaversion.util.CompactArrayUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GlobalPaletteTest {
+
+    private static final int GLOBAL_PALETTE_BITS = 15;
+
+    @Test
+    public void testPackWithPadding() {
+        final Random random = new Random(1);
+        for (int bits = 1; bits <= 32; bits++) {
+            final int[] values = randomValues(random, 1000, bits);
+            final long[] expected = CompactArrayUtil.createCompactArrayWithPadding(bits, values.length, index -> values[index] & 0xFFFFFFFFL);
+            Assertions.assertArrayEquals(expected, CompactArrayUtil.packWithPadding(bits, values.length, values), bits + " bits");
+        }
+    }
+
+    @Test
+    public void testUnpackWithPadding() {
+        final Random random = new Random(2);
+        for (int bits = 1; bits <= 32; bits++) {
+            final int[] values = randomValues(random, 1000, bits);
+            final long[] data = CompactArrayUtil.createCompactArrayWithPadding(bits, values.length, index -> values[index] & 0xFFFFFFFFL);
+
+            // Longer than needed, the rest has to stay untouched
+            final int[] output = new int[values.length + 1];
+            output[values.length] = 42;
+            CompactArrayUtil.unpackWithPadding(bits, values.length, data, output);
+            for (int i = 0; i < values.length; i++) {
+                Assertions.assertEquals(values[i], output[i], bits + " bits, index " + i);
+            }
+            Assertions.assertEquals(42, output[values.length]);
+        }
+    }
+
+    @Test
+    public void testSetIds() {
+        final Random random = new Random(3);
+        for (final int distinctIds : new int[]{1, 16, 256, 257, 2000}) {
+            final int[] ids = new int[ChunkSection.SIZE];
+            for (int i = 0; i < ids.length; i++) {
+                // Runs of the same id, as in most sections
+                ids[i] = i % 8 != 0 && i != 0 ? ids[i - 1] : random.nextInt(distinctIds) * 7;
+            }
+
+            final DataPaletteImpl palette = new DataPaletteImpl(ChunkSection.SIZE);
+            palette.setIds(ids.clone());
+            Assertions.assertEquals(distinctCount(ids), palette.size(), distinctIds + " ids");
+            for (int i = 0; i < ids.length; i++) {
+                Assertions.assertEquals(ids[i], palette.idAt(i));
+            }
+
+            final int[] output = new int[ids.length];
+            palette.ids(output);
+            Assertions.assertArrayEquals(ids, output, distinctIds + " ids");
+
+            // Still usable as a normal palette afterwards
+            palette.setIdAt(5, 123456);
+            Assertions.assertEquals(123456, palette.idAt(5));
+            Assertions.assertEquals(ids[6], palette.idAt(6));
+        }
+    }
+
+    @Test
+    public void testSectionRoundTrip() throws Exception {
+        final int[] ids = randomIds(new Random(4), ChunkSection.SIZE, 1000);
+        Assertions.assertTrue(distinctCount(ids) > 256);
+
+        final ByteBuf input = Unpooled.buffer();
+        input.writeByte(GLOBAL_PALETTE_BITS);
+        Type.LONG_ARRAY_PRIMITIVE.write(input, CompactArrayUtil.createCompactArrayWithPadding(GLOBAL_PALETTE_BITS, ids.length, index -> ids[index]));
+
+        final ChunkSectionType1_16 type = new ChunkSectionType1_16();
+        final ChunkSection section = type.read(input.copy());
+        assertIds(ids, section.palette(PaletteType.BLOCKS));
+
+        final ByteBuf output = Unpooled.buffer();
+        type.write(output, section);
+        Assertions.assertEquals(ByteBufUtil.hexDump(input), ByteBufUtil.hexDump(output));
+    }
+
+    @Test
+    public void testPaletteRoundTrip() throws Exception {
+        final int[] ids = randomIds(new Random(5), ChunkSection.SIZE, 1000);
+        Assertions.assertTrue(distinctCount(ids) > 256);
+
+        final ByteBuf input = Unpooled.buffer();
+        input.writeByte(GLOBAL_PALETTE_BITS);
+        Type.LONG_ARRAY_PRIMITIVE.write(input, CompactArrayUtil.createCompactArrayWithPadding(GLOBAL_PALETTE_BITS, ids.length, index -> ids[index]));
+
+        final PaletteType1_18 type = new PaletteType1_18(PaletteType.BLOCKS, GLOBAL_PALETTE_BITS);
+        final DataPalette palette = type.read(input.copy());
+        assertIds(ids, palette);
+
+        // Remapping the palette has to show up in the written ids
+        palette.mapIds(id -> id + 1);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i]++;
+        }
+
+        final ByteBuf output = Unpooled.buffer();
+        type.write(output, palette);
+        assertIds(ids, type.read(output));
+    }
+
+    private static void assertIds(final int[] ids, final DataPalette palette) {
+        for (int i = 0; i < ids.length; i++) {
+            Assertions.assertEquals(ids[i], palette.idAt(i), "index " + i);
+        }
+    }
+
+    private static int[] randomIds(final Random random, final int length, final int bound) {
+        final int[] ids = new int[length];
+        for (int i = 0; i < length; i++) {
+            ids[i] = random.nextInt(bound);
+        }
+        return ids;
+    }
+
+    private static int[] randomValues(final Random random, final int length, final int bits) {
+        final int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = random.nextInt() >>> 32 - bits;
+        }
+        return values;
+    }
+
+    private static int distinctCount(final int[] ids) {
+        return new IntOpenHashSet(ids).size();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.common.chunk;
+
+import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
+import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
+import com.viaversion.viaversion.api.minecraft.chunks.DataPaletteImpl;
+import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
+import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.api.type.types.chunk.ChunkSectionType1_16;
+import com.viaversion.viaversion.api.type.types.chunk.PaletteType1_18;
+import com.viaversion.viaversion.util.CompactArrayUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PackedPaletteTest {
+
+    private static final int BIOME_GLOBAL_PALETTE_BITS = 6;
+
+    @Test
+    public void testSectionReadWriteKeepsData() throws Exception {
+        final Random random = new Random(4);
+        for (int paletteSize = 2; paletteSize <= 256; paletteSize *= 2) {
+            final ChunkSectionType1_16 type = new ChunkSectionType1_16();
+            final ByteBuf input = section1_16(random, paletteSize);
+            final ChunkSection section = type.read(input.copy());
+
+            final ByteBuf output = Unpooled.buffer();
+            type.write(output, section);
+            Assertions.assertEquals(ByteBufUtil.hexDump(input), ByteBufUtil.hexDump(output), "palette size " + paletteSize);
+        }
+    }
+
+    @Test
+    public void testPaletteReadWriteKeepsData() throws Exception {
+        final Random random = new Random(5);
+        final PaletteType1_18 type = new PaletteType1_18(PaletteType.BLOCKS, 15);
+        for (int paletteSize = 2; paletteSize <= 256; paletteSize *= 2) {
+            final ByteBuf input = palette1_18(random, PaletteType.BLOCKS, paletteSize, Math.max(4, bits(paletteSize)));
+            final DataPalette palette = type.read(input.copy());
+
+            final ByteBuf output = Unpooled.buffer();
+            type.write(output, palette);
+            Assertions.assertEquals(ByteBufUtil.hexDump(input), ByteBufUtil.hexDump(output), "palette size " + paletteSize);
+        }
+    }
+
+    @Test
+    public void testBiomePaletteRoundTrip() throws Exception {
+        final Random random = new Random(6);
+        final PaletteType1_18 type = new PaletteType1_18(PaletteType.BIOMES, BIOME_GLOBAL_PALETTE_BITS);
+        for (int bits = 1; bits <= 3; bits++) {
+            final int paletteSize = 1 << bits;
+            final ByteBuf input = palette1_18(random, PaletteType.BIOMES, paletteSize, bits);
+            final DataPalette palette = type.read(input.copy());
+            Assertions.assertEquals(paletteSize, palette.size());
+
+            final ByteBuf output = Unpooled.buffer();
+            type.write(output, palette);
+            Assertions.assertEquals(ByteBufUtil.hexDump(input), ByteBufUtil.hexDump(output), bits + " bits");
+        }
+    }
+
+    @Test
+    public void testSetWithinBitsStaysPacked() throws Exception {
+        final DataPaletteImpl palette = (DataPaletteImpl) new PaletteType1_18(PaletteType.BLOCKS, 15).read(palette1_18(new Random(7), PaletteType.BLOCKS, 16, 4));
+        final long[] data = palette.packedPaletteIndexes(4);
+        Assertions.assertNotNull(data);
+
+        palette.setPaletteIndexAt(100, 15);
+        palette.setIdAt(101, palette.idByIndex(3));
+        Assertions.assertSame(data, palette.packedPaletteIndexes(4));
+        Assertions.assertEquals(15, palette.paletteIndexAt(100));
+        Assertions.assertEquals(3, palette.paletteIndexAt(101));
+        Assertions.assertNull(palette.packedPaletteIndexes(5));
+    }
+
+    @Test
+    public void testSetIdOverflowUnpacks() throws Exception {
+        final PaletteType1_18 type = new PaletteType1_18(PaletteType.BLOCKS, 15);
+        final DataPaletteImpl palette = (DataPaletteImpl) type.read(palette1_18(new Random(8), PaletteType.BLOCKS, 16, 4));
+        final int[] ids = new int[ChunkSection.SIZE];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = palette.idAt(i);
+        }
+
+        // A 17th palette entry doesn't fit into 4 bits anymore
+        palette.setIdAt(1234, 999);
+        ids[1234] = 999;
+        Assertions.assertEquals(17, palette.size());
+        Assertions.assertNull(palette.packedPaletteIndexes(4));
+        for (int i = 0; i < ids.length; i++) {
+            Assertions.assertEquals(ids[i], palette.idAt(i));
+        }
+
+        final ByteBuf output = Unpooled.buffer();
+        type.write(output, palette);
+        final DataPalette readPalette = type.read(output);
+        for (int i = 0; i < ids.length; i++) {
+            Assertions.assertEquals(ids[i], readPalette.idAt(i));
+        }
+    }
+
+    private static ByteBuf section1_16(final Random random, final int paletteSize) throws Exception {
+        final int bits = Math.max(4, bits(paletteSize));
+        final ByteBuf buffer = Unpooled.buffer();
+        buffer.writeByte(bits);
+        writePalette(buffer, random, paletteSize);
+        Type.LONG_ARRAY_PRIMITIVE.write(buffer, randomIndexes(random, ChunkSection.SIZE, paletteSize, bits));
+        return buffer;
+    }
+
+    private static ByteBuf palette1_18(final Random random, final PaletteType paletteType, final int paletteSize, final int bits) throws Exception {
+        final ByteBuf buffer = Unpooled.buffer();
+        buffer.writeByte(bits);
+        writePalette(buffer, random, paletteSize);
+        Type.LONG_ARRAY_PRIMITIVE.write(buffer, randomIndexes(random, paletteType.size(), paletteSize, bits));
+        return buffer;
+    }
+
+    private static void writePalette(final ByteBuf buffer, final Random random, final int paletteSize) {
+        Type.VAR_INT.writePrimitive(buffer, paletteSize);
+        for (int i = 0; i < paletteSize; i++) {
+            // Distinct ids, as written palettes never contain duplicates
+            Type.VAR_INT.writePrimitive(buffer, i * 20 + random.nextInt(20));
+        }
+    }
+
+    private static long[] randomIndexes(final Random random, final int entries, final int paletteSize, final int bits) {
+        return CompactArrayUtil.createCompactArrayWithPadding(bits, entries, index -> random.nextInt(paletteSize));
+    }
+
+    private static int bits(final int paletteSize) {
+        return 32 - Integer.numberOfLeadingZeros(paletteSize - 1);
+    }
+}
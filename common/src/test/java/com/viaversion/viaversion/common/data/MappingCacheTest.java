@@ -0,0 +1,163 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.common.data;
+
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.data.IdentityMappings;
+import com.viaversion.viaversion.api.data.IntArrayMappings;
+import com.viaversion.viaversion.api.data.MappingCache;
+import com.viaversion.viaversion.api.data.MappingDataBase;
+import com.viaversion.viaversion.api.data.Mappings;
+import com.viaversion.viaversion.api.minecraft.TagData;
+import com.viaversion.viaversion.common.dummy.DummyInitializer;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class MappingCacheTest {
+
+    @BeforeAll
+    public static void init() {
+        DummyInitializer.init();
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final MappingCache.Entries entries = new MappingCache.Entries();
+        entries.putMappings("mappings", IntArrayMappings.of(new int[]{3, -1, 0, 2}, 5));
+        entries.putMappings("identity", new IdentityMappings(10, 12));
+        entries.putIdentifiers("identifiers", Arrays.asList("stone", "", "oak_log"));
+        entries.putTags("tags", Arrays.asList(new TagData("logs", new int[]{1, 2}), new TagData("empty", new int[0])));
+        entries.putIntArray("array", new int[]{Integer.MIN_VALUE, 0, Integer.MAX_VALUE});
+        MappingCache.write("test-round-trip", entries);
+
+        final MappingCache.Entries read = MappingCache.read("test-round-trip");
+        Assertions.assertNotNull(read);
+        assertSameMappings(entries.mappings("mappings"), read.mappings("mappings"));
+        assertSameMappings(entries.mappings("identity"), read.mappings("identity"));
+        Assertions.assertInstanceOf(IdentityMappings.class, read.mappings("identity"));
+        Assertions.assertEquals(entries.identifiers("identifiers"), read.identifiers("identifiers"));
+        Assertions.assertArrayEquals(entries.intArray("array"), read.intArray("array"));
+
+        final List<TagData> tags = read.tags("tags");
+        Assertions.assertNotNull(tags);
+        Assertions.assertEquals(2, tags.size());
+        Assertions.assertEquals("logs", tags.get(0).identifier());
+        Assertions.assertArrayEquals(new int[]{1, 2}, tags.get(0).entries());
+        Assertions.assertEquals("empty", tags.get(1).identifier());
+        Assertions.assertArrayEquals(new int[0], tags.get(1).entries());
+
+        Assertions.assertNull(read.mappings("missing"));
+        Assertions.assertNull(read.intArray("missing"));
+    }
+
+    @Test
+    public void testMissing() {
+        Assertions.assertNull(MappingCache.read("test-missing"));
+    }
+
+    @Test
+    public void testCorruptFile() throws IOException {
+        writeIntArray("test-corrupt");
+        final File file = cacheFile("test-corrupt");
+        try (final RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            // Cut off in the middle of the array
+            out.setLength(out.length() - 2);
+        }
+
+        Assertions.assertNull(MappingCache.read("test-corrupt"));
+        Assertions.assertFalse(file.exists());
+    }
+
+    @Test
+    public void testWrongFormatVersion() throws IOException {
+        writeIntArray("test-format-version");
+        final File file = cacheFile("test-format-version");
+        try (final RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            // Format version after the magic
+            out.seek(Integer.BYTES);
+            out.writeInt(out.readInt() + 1);
+        }
+
+        Assertions.assertNull(MappingCache.read("test-format-version"));
+        Assertions.assertFalse(file.exists());
+    }
+
+    @Test
+    public void testLoadFromMappingsFileWhenInvalid() throws IOException {
+        final CachedMappingData data = new CachedMappingData();
+        data.load();
+        final File file = cacheFile(CachedMappingData.CACHE_NAME);
+        Assertions.assertTrue(file.isFile());
+
+        try (final RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.seek(Integer.BYTES);
+            out.writeInt(-1);
+        }
+
+        final CachedMappingData reloaded = new CachedMappingData();
+        reloaded.load();
+        assertSameMappings(data.getBlockStateMappings(), reloaded.getBlockStateMappings());
+        assertSameMappings(data.getBlockMappings(), reloaded.getBlockMappings());
+
+        // Written again after loading from the mappings file
+        Assertions.assertNotNull(MappingCache.read(CachedMappingData.CACHE_NAME));
+    }
+
+    private static void writeIntArray(final String name) {
+        final MappingCache.Entries entries = new MappingCache.Entries();
+        entries.putIntArray("array", new int[]{1, 2, 3});
+        MappingCache.write(name, entries);
+        Assertions.assertNotNull(MappingCache.read(name));
+    }
+
+    private static File cacheFile(final String name) {
+        final File[] versions = new File(Via.getPlatform().getDataFolder(), "cache" + File.separator + "mappings").listFiles();
+        Assertions.assertNotNull(versions);
+        Assertions.assertEquals(1, versions.length);
+        return new File(versions[0], name + ".bin");
+    }
+
+    private static void assertSameMappings(final Mappings expected, final Mappings actual) {
+        Assertions.assertNotNull(expected);
+        Assertions.assertNotNull(actual);
+        Assertions.assertEquals(expected.size(), actual.size());
+        Assertions.assertEquals(expected.mappedSize(), actual.mappedSize());
+        for (int id = 0; id < expected.size(); id++) {
+            Assertions.assertEquals(expected.getNewId(id), actual.getNewId(id), "id " + id);
+        }
+    }
+
+    private static final class CachedMappingData extends MappingDataBase {
+        private static final String CACHE_NAME = "test-mapping-data";
+
+        private CachedMappingData() {
+            super("1.17", "1.18");
+        }
+
+        @Override
+        protected String cacheName() {
+            return CACHE_NAME;
+        }
+    }
+}
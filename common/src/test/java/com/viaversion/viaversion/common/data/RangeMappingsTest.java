@@ -0,0 +1,141 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.common.data;
+
+import com.viaversion.viaversion.api.data.IntArrayMappings;
+import com.viaversion.viaversion.api.data.Mappings;
+import com.viaversion.viaversion.api.data.RangeMappings;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class RangeMappingsTest {
+
+    @Test
+    public void testShiftedRuns() {
+        final int[] mappings = new int[1000];
+        for (int id = 0; id < mappings.length; id++) {
+            // Shift changes right at and around block boundaries
+            if (id < 64) {
+                mappings[id] = id;
+            } else if (id < 128) {
+                mappings[id] = id + 5;
+            } else if (id < 129) {
+                mappings[id] = 2;
+            } else if (id < 191) {
+                mappings[id] = -1;
+            } else if (id < 640) {
+                mappings[id] = id - 100;
+            } else {
+                mappings[id] = id + 1000;
+            }
+        }
+        assertSameMappings(mappings, 2000);
+    }
+
+    @Test
+    public void testUnmappedRuns() {
+        final int[] mappings = new int[300];
+        Arrays.fill(mappings, -1);
+        for (int id = 63; id < 65; id++) {
+            mappings[id] = id + 10;
+        }
+        mappings[299] = 0;
+        assertSameMappings(mappings, 400);
+
+        final int[] allUnmapped = new int[130];
+        Arrays.fill(allUnmapped, -1);
+        assertSameMappings(allUnmapped, 10);
+    }
+
+    @Test
+    public void testRandomMappings() {
+        final Random random = new Random(1);
+        for (int i = 0; i < 20; i++) {
+            final int[] mappings = new int[1 + random.nextInt(2000)];
+            int shift = 0;
+            for (int id = 0; id < mappings.length; id++) {
+                if (random.nextInt(40) == 0) {
+                    shift = random.nextInt(200) - 100;
+                }
+                final int mappedId = id + shift;
+                mappings[id] = mappedId < 0 || random.nextInt(50) == 0 ? -1 : mappedId;
+            }
+            assertSameMappings(mappings, mappings.length + 100);
+        }
+    }
+
+    @Test
+    public void testSetNewId() {
+        final int[] mappings = new int[200];
+        for (int id = 0; id < mappings.length; id++) {
+            mappings[id] = id < 100 ? id : -1;
+        }
+
+        final Mappings rangeMappings = RangeMappings.of(mappings, 200);
+        final Mappings arrayMappings = IntArrayMappings.of(mappings.clone(), 200);
+        for (final Mappings m : new Mappings[]{rangeMappings, arrayMappings}) {
+            m.setNewId(0, 150);
+            m.setNewId(63, 1);
+            m.setNewId(64, -1);
+            m.setNewId(150, 10);
+            m.setNewId(199, 199);
+        }
+        assertSameIds(arrayMappings, rangeMappings);
+        assertSameIds(arrayMappings.inverse(), rangeMappings.inverse());
+
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> rangeMappings.setNewId(200, 0));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> rangeMappings.setNewId(-1, 0));
+    }
+
+    @Test
+    public void testOfIfSmaller() {
+        final int[] shifted = new int[1000];
+        for (int id = 0; id < shifted.length; id++) {
+            shifted[id] = id + 3;
+        }
+        final RangeMappings rangeMappings = RangeMappings.ofIfSmaller(shifted, 1003);
+        Assertions.assertNotNull(rangeMappings);
+        Assertions.assertEquals(1, rangeMappings.runs());
+        assertSameIds(IntArrayMappings.of(shifted, 1003), rangeMappings);
+
+        // Every id in its own run
+        final int[] scattered = new int[1000];
+        for (int id = 0; id < scattered.length; id++) {
+            scattered[id] = (id * 7) % scattered.length;
+        }
+        Assertions.assertNull(RangeMappings.ofIfSmaller(scattered, scattered.length));
+        Assertions.assertNull(RangeMappings.ofIfSmaller(new int[0], 0));
+    }
+
+    private static void assertSameMappings(final int[] mappings, final int mappedIds) {
+        final Mappings arrayMappings = IntArrayMappings.of(mappings, mappedIds);
+        final Mappings rangeMappings = RangeMappings.of(mappings, mappedIds);
+        assertSameIds(arrayMappings, rangeMappings);
+        assertSameIds(arrayMappings.inverse(), rangeMappings.inverse());
+    }
+
+    private static void assertSameIds(final Mappings expected, final Mappings actual) {
+        Assertions.assertEquals(expected.size(), actual.size());
+        Assertions.assertEquals(expected.mappedSize(), actual.mappedSize());
+        for (int id = -2; id < expected.size() + 70; id++) {
+            Assertions.assertEquals(expected.getNewId(id), actual.getNewId(id), "Id " + id);
+        }
+    }
+}
@@ -119,7 +119,7 @@ public final class TestPlatform implements ViaPlatform {
 
     @Override
     public File getDataFolder() {
-        return null;
+        return new File("build", "test-data");
     }
 
     @Override
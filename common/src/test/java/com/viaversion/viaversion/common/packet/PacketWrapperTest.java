@@ -0,0 +1,149 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.common.packet;
+
+import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.exception.InformativeException;
+import com.viaversion.viaversion.protocol.packet.PacketWrapperImpl;
+import com.viaversion.viaversion.protocol.packet.PacketWrapperPool;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the array based value storage of packet wrappers.
+ */
+public class PacketWrapperTest {
+
+    @Test
+    void testReadWritePassthroughOrder() throws Exception {
+        final ByteBuf input = Unpooled.buffer();
+        Type.VAR_INT.writePrimitive(input, 5);
+        Type.STRING.write(input, "a");
+        Type.INT.write(input, 7);
+        input.writeByte(42);
+
+        final PacketWrapperImpl wrapper = new PacketWrapperImpl(1, input, null);
+        Assertions.assertEquals(5, wrapper.passthrough(Type.VAR_INT));
+        Assertions.assertEquals("a", wrapper.read(Type.STRING));
+        wrapper.write(Type.STRING, "b");
+        Assertions.assertEquals(7, wrapper.passthroughInt(Type.INT));
+        wrapper.write(Type.BOOLEAN, true);
+
+        final ByteBuf output = Unpooled.buffer();
+        wrapper.writeToBuffer(output);
+        Assertions.assertEquals(1, Type.VAR_INT.readPrimitive(output));
+        Assertions.assertEquals(5, Type.VAR_INT.readPrimitive(output));
+        Assertions.assertEquals("b", Type.STRING.read(output));
+        Assertions.assertEquals(7, Type.INT.read(output));
+        Assertions.assertTrue(Type.BOOLEAN.read(output));
+        Assertions.assertEquals(42, output.readByte());
+        Assertions.assertFalse(output.isReadable());
+    }
+
+    @Test
+    void testResetReader() throws Exception {
+        final PacketWrapperImpl wrapper = new PacketWrapperImpl(1, null, null);
+        wrapper.write(Type.VAR_INT, 1);
+        wrapper.write(Type.STRING, "a");
+        wrapper.resetReader();
+
+        Assertions.assertFalse(wrapper.is(Type.VAR_INT, 0));
+        Assertions.assertTrue(wrapper.isReadable(Type.VAR_INT, 0));
+        Assertions.assertEquals(1, wrapper.read(Type.VAR_INT));
+        wrapper.write(Type.VAR_INT, 2);
+
+        // Written values come before the ones left unread
+        wrapper.resetReader();
+        Assertions.assertEquals(2, wrapper.read(Type.VAR_INT));
+        Assertions.assertEquals("a", wrapper.read(Type.STRING));
+        Assertions.assertFalse(wrapper.hasValues());
+        Assertions.assertThrows(NullPointerException.class, () -> wrapper.read(Type.VAR_INT));
+    }
+
+    @Test
+    void testReadMismatchedType() {
+        final PacketWrapperImpl wrapper = new PacketWrapperImpl(1, null, null);
+        wrapper.write(Type.VAR_INT, 1);
+        wrapper.resetReader();
+        Assertions.assertThrows(InformativeException.class, () -> wrapper.read(Type.STRING));
+    }
+
+    @Test
+    void testGetSetAfterResetReader() throws Exception {
+        final PacketWrapperImpl wrapper = new PacketWrapperImpl(1, null, null);
+        wrapper.write(Type.VAR_INT, 1);
+        wrapper.write(Type.STRING, "a");
+        wrapper.write(Type.VAR_INT, 2);
+        wrapper.writeInt(Type.INT, 3);
+        Assertions.assertEquals(2, wrapper.get(Type.VAR_INT, 1));
+        wrapper.resetReader();
+
+        // Nothing has been written for the next protocol yet
+        Assertions.assertThrows(InformativeException.class, () -> wrapper.get(Type.VAR_INT, 0));
+
+        wrapper.passthrough(Type.VAR_INT);
+        wrapper.passthrough(Type.STRING);
+        wrapper.passthrough(Type.VAR_INT);
+        wrapper.passthroughInt(Type.INT);
+        Assertions.assertEquals(1, wrapper.get(Type.VAR_INT, 0));
+        Assertions.assertEquals(2, wrapper.get(Type.VAR_INT, 1));
+        Assertions.assertEquals("a", wrapper.get(Type.STRING, 0));
+        Assertions.assertEquals(3, wrapper.getInt(Type.INT, 0));
+        Assertions.assertFalse(wrapper.is(Type.VAR_INT, 2));
+
+        wrapper.set(Type.VAR_INT, 1, 5);
+        wrapper.setInt(Type.INT, 0, 6);
+        Assertions.assertEquals(5, wrapper.get(Type.VAR_INT, 1));
+        Assertions.assertEquals(6, wrapper.get(Type.INT, 0));
+        Assertions.assertEquals(1, wrapper.get(Type.VAR_INT, 0));
+    }
+
+    @Test
+    void testPooledWrapperReuse() throws Exception {
+        final PacketWrapperPool pool = new PacketWrapperPool(null);
+        final PacketWrapperImpl wrapper = pool.acquire(3, Unpooled.buffer());
+        wrapper.write(Type.VAR_INT, 1);
+        wrapper.write(Type.STRING, "a");
+        wrapper.resetReader();
+        wrapper.write(Type.VAR_INT, 2);
+        wrapper.setCancelled(true);
+        pool.release(wrapper);
+
+        final ByteBuf input = Unpooled.buffer();
+        Type.STRING.write(input, "b");
+        final PacketWrapperImpl reused = pool.acquire(4, input);
+        Assertions.assertSame(wrapper, reused);
+        Assertions.assertEquals(4, reused.getId());
+        Assertions.assertNull(reused.getPacketType());
+        Assertions.assertFalse(reused.isCancelled());
+        Assertions.assertFalse(reused.hasValues());
+        Assertions.assertFalse(reused.is(Type.VAR_INT, 0));
+        Assertions.assertFalse(reused.isReadable(Type.VAR_INT, 0));
+
+        // Reads go to the new input buffer instead of stale values
+        Assertions.assertEquals("b", reused.read(Type.STRING));
+        reused.write(Type.STRING, "c");
+        final ByteBuf output = Unpooled.buffer();
+        reused.writeToBuffer(output);
+        Assertions.assertEquals(4, Type.VAR_INT.readPrimitive(output));
+        Assertions.assertEquals("c", Type.STRING.read(output));
+        Assertions.assertFalse(output.isReadable());
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocol;
+
+import com.viaversion.viaversion.api.protocol.AbstractSimpleProtocol;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.ProtocolPathEntry;
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectSortedMap;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ProtocolPathTableTest {
+    private static final int VERSIONS = 30;
+
+    @Test
+    public void testPathsMatchSearch() {
+        final Random random = new Random(1);
+        for (int i = 0; i < 10; i++) {
+            final Int2ObjectMap<Int2ObjectMap<Protocol>> registryMap = randomRegistry(random);
+            assertMatchesSearch(registryMap, -1, 50);
+        }
+    }
+
+    @Test
+    public void testMaxPathDeltaIncrease() {
+        final Random random = new Random(2);
+        for (int i = 0; i < 10; i++) {
+            final Int2ObjectMap<Int2ObjectMap<Protocol>> registryMap = randomRegistry(random);
+            assertMatchesSearch(registryMap, 0, 50);
+            assertMatchesSearch(registryMap, 3, 50);
+        }
+
+        // Going through 10 from 5 to reach 1 is farther away than the client version
+        final Int2ObjectMap<Int2ObjectMap<Protocol>> registryMap = new Int2ObjectOpenHashMap<>();
+        register(registryMap, 5, 10);
+        register(registryMap, 10, 1);
+        Assertions.assertNull(new ProtocolPathTable(registryMap, 0, 50).path(5, 1));
+        Assertions.assertEquals(2, new ProtocolPathTable(registryMap, 5, 50).path(5, 1).size());
+        Assertions.assertEquals(2, new ProtocolPathTable(registryMap, -1, 50).path(5, 1).size());
+    }
+
+    @Test
+    public void testMaxProtocolPathSize() {
+        final Int2ObjectMap<Int2ObjectMap<Protocol>> registryMap = new Int2ObjectOpenHashMap<>();
+        for (int version = 0; version < 10; version++) {
+            register(registryMap, version + 1, version);
+        }
+
+        // The search gives up once a path is larger than the max size
+        Assertions.assertEquals(4, new ProtocolPathTable(registryMap, -1, 3).path(4, 0).size());
+        Assertions.assertNull(new ProtocolPathTable(registryMap, -1, 3).path(5, 0));
+        Assertions.assertEquals(10, new ProtocolPathTable(registryMap, -1, 50).path(10, 0).size());
+
+        final Random random = new Random(3);
+        for (int i = 0; i < 10; i++) {
+            assertMatchesSearch(randomRegistry(random), -1, 2);
+        }
+    }
+
+    @Test
+    public void testReplacedProtocol() {
+        final Int2ObjectMap<Int2ObjectMap<Protocol>> registryMap = new Int2ObjectOpenHashMap<>();
+        for (int version = 0; version < 5; version++) {
+            register(registryMap, version + 1, version);
+        }
+
+        ProtocolPathTable table = new ProtocolPathTable(registryMap, -1, 50);
+        Assertions.assertEquals(5, table.path(5, 0).size());
+
+        // Replace an edge in the middle of cached paths
+        final Protocol replacement = register(registryMap, 3, 2);
+        table = table.withProtocol(registryMap, Collections.singletonList(3), 2);
+        final List<ProtocolPathEntry> path = table.path(5, 0);
+        Assertions.assertEquals(5, path.size());
+        Assertions.assertSame(replacement, path.get(2).protocol());
+        Assertions.assertSame(replacement, table.path(3, 2).get(0).protocol());
+        assertMatchesTable(registryMap, table, -1, 50);
+    }
+
+    @Test
+    public void testShortenedPath() {
+        final Int2ObjectMap<Int2ObjectMap<Protocol>> registryMap = new Int2ObjectOpenHashMap<>();
+        for (int version = 0; version < 8; version++) {
+            register(registryMap, version + 1, version);
+        }
+
+        ProtocolPathTable table = new ProtocolPathTable(registryMap, -1, 50);
+        Assertions.assertEquals(8, table.path(8, 0).size());
+        Assertions.assertEquals(3, table.path(6, 3).size());
+
+        // A shortcut only changes the paths through it
+        final Protocol shortcut = register(registryMap, 6, 2);
+        table = table.withProtocol(registryMap, Collections.singletonList(6), 2);
+        Assertions.assertEquals(5, table.path(8, 0).size());
+        Assertions.assertSame(shortcut, table.path(8, 0).get(2).protocol());
+        Assertions.assertEquals(3, table.path(6, 3).size());
+        assertMatchesTable(registryMap, table, -1, 50);
+
+        // New versions shift all indexes
+        register(registryMap, 20, 8);
+        table = table.withProtocol(registryMap, Collections.singletonList(20), 8);
+        Assertions.assertEquals(6, table.path(20, 0).size());
+        assertMatchesTable(registryMap, table, -1, 50);
+    }
+
+    @Test
+    public void testRandomRegistrations() {
+        final Random random = new Random(4);
+        final Int2ObjectMap<Int2ObjectMap<Protocol>> registryMap = randomRegistry(random);
+        ProtocolPathTable table = new ProtocolPathTable(registryMap, 2, 6);
+        for (int i = 0; i < 30; i++) {
+            // Keep all columns cached before registering the next protocol
+            for (int serverVersion = 0; serverVersion < VERSIONS; serverVersion++) {
+                table.path(0, serverVersion);
+            }
+
+            final int clientVersion = random.nextInt(VERSIONS);
+            final int serverVersion = random.nextInt(VERSIONS);
+            if (clientVersion == serverVersion) {
+                continue;
+            }
+
+            register(registryMap, clientVersion, serverVersion);
+            table = table.withProtocol(registryMap, Collections.singletonList(clientVersion), serverVersion);
+            assertMatchesTable(registryMap, table, 2, 6);
+        }
+    }
+
+    private static Int2ObjectMap<Int2ObjectMap<Protocol>> randomRegistry(final Random random) {
+        final Int2ObjectMap<Int2ObjectMap<Protocol>> registryMap = new Int2ObjectOpenHashMap<>();
+        for (int version = 0; version < VERSIONS - 1; version++) {
+            if (random.nextInt(8) != 0) {
+                register(registryMap, version + 1, version);
+            }
+            if (random.nextInt(3) == 0) {
+                register(registryMap, version, version + 1);
+            }
+            if (random.nextInt(4) == 0) {
+                final int other = random.nextInt(VERSIONS);
+                if (other != version) {
+                    register(registryMap, version, other);
+                }
+            }
+        }
+        return registryMap;
+    }
+
+    private static Protocol register(final Int2ObjectMap<Int2ObjectMap<Protocol>> registryMap, final int clientVersion, final int serverVersion) {
+        final Protocol protocol = new TestProtocol();
+        registryMap.computeIfAbsent(clientVersion, s -> new Int2ObjectOpenHashMap<>(2)).put(serverVersion, protocol);
+        return protocol;
+    }
+
+    private static void assertMatchesSearch(final Int2ObjectMap<Int2ObjectMap<Protocol>> registryMap, final int maxPathDeltaIncrease, final int maxProtocolPathSize) {
+        assertMatchesTable(registryMap, new ProtocolPathTable(registryMap, maxPathDeltaIncrease, maxProtocolPathSize), maxPathDeltaIncrease, maxProtocolPathSize);
+    }
+
+    private static void assertMatchesTable(final Int2ObjectMap<Int2ObjectMap<Protocol>> registryMap, final ProtocolPathTable table,
+                                           final int maxPathDeltaIncrease, final int maxProtocolPathSize) {
+        for (final int clientVersion : registryMap.keySet()) {
+            for (int serverVersion = 0; serverVersion < VERSIONS; serverVersion++) {
+                if (clientVersion == serverVersion) {
+                    continue;
+                }
+
+                final Int2ObjectSortedMap<Protocol> expected = search(registryMap, new Int2ObjectLinkedOpenHashMap<>(), clientVersion, serverVersion,
+                        maxPathDeltaIncrease, maxProtocolPathSize);
+                final List<ProtocolPathEntry> path = table.path(clientVersion, serverVersion);
+                final String pair = clientVersion + " -> " + serverVersion;
+                if (expected == null) {
+                    Assertions.assertNull(path, pair);
+                    continue;
+                }
+
+                // Paths of the same length may differ in the chosen versions
+                Assertions.assertNotNull(path, pair);
+                Assertions.assertEquals(expected.size(), path.size(), pair);
+                int version = clientVersion;
+                for (final ProtocolPathEntry entry : path) {
+                    final int outputVersion = entry.outputProtocolVersion();
+                    Assertions.assertSame(registryMap.get(version).get(outputVersion), entry.protocol(), pair);
+                    Assertions.assertTrue(maxPathDeltaIncrease == -1 || outputVersion == serverVersion
+                            || Math.abs(serverVersion - outputVersion) - Math.abs(serverVersion - version) <= maxPathDeltaIncrease, pair);
+                    version = outputVersion;
+                }
+                Assertions.assertEquals(serverVersion, version, pair);
+            }
+        }
+    }
+
+    /**
+     * The recursive search used before the path table.
+     */
+    private static Int2ObjectSortedMap<Protocol> search(final Int2ObjectMap<Int2ObjectMap<Protocol>> registryMap, final Int2ObjectSortedMap<Protocol> current,
+                                                       final int clientVersion, final int serverVersion, final int maxPathDeltaIncrease, final int maxProtocolPathSize) {
+        if (current.size() > maxProtocolPathSize) return null;
+
+        final Int2ObjectMap<Protocol> toServerProtocolMap = registryMap.get(clientVersion);
+        if (toServerProtocolMap == null) {
+            return null;
+        }
+
+        final Protocol protocol = toServerProtocolMap.get(serverVersion);
+        if (protocol != null) {
+            current.put(serverVersion, protocol);
+            return current;
+        }
+
+        Int2ObjectSortedMap<Protocol> shortest = null;
+        for (final Int2ObjectMap.Entry<Protocol> entry : toServerProtocolMap.int2ObjectEntrySet()) {
+            final int translatedToVersion = entry.getIntKey();
+            if (current.containsKey(translatedToVersion)) continue;
+
+            if (maxPathDeltaIncrease != -1 && Math.abs(serverVersion - translatedToVersion) - Math.abs(serverVersion - clientVersion) > maxPathDeltaIncrease) {
+                continue;
+            }
+
+            Int2ObjectSortedMap<Protocol> newCurrent = new Int2ObjectLinkedOpenHashMap<>(current);
+            newCurrent.put(translatedToVersion, entry.getValue());
+            newCurrent = search(registryMap, newCurrent, translatedToVersion, serverVersion, maxPathDeltaIncrease, maxProtocolPathSize);
+            if (newCurrent != null && (shortest == null || newCurrent.size() < shortest.size())) {
+                shortest = newCurrent;
+            }
+        }
+        return shortest;
+    }
+
+    private static final class TestProtocol extends AbstractSimpleProtocol {
+    }
+}
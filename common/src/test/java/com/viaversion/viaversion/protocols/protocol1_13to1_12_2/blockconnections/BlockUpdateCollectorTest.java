@@ -0,0 +1,107 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections;
+
+import com.viaversion.viaversion.api.minecraft.BlockChangeRecord;
+import com.viaversion.viaversion.api.minecraft.Position;
+import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
+import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.common.dummy.DummyInitializer;
+import com.viaversion.viaversion.protocols.protocol1_13to1_12_2.ClientboundPackets1_13;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class BlockUpdateCollectorTest {
+
+    @BeforeAll
+    public static void init() {
+        DummyInitializer.init();
+    }
+
+    @Test
+    public void testGroupedPerChunk() throws Exception {
+        final BlockUpdateCollector collector = new BlockUpdateCollector(null);
+        collector.add(1, 64, 2, 100);
+        collector.add(-1, 10, 33, 200);
+        collector.add(15, 65, 0, 101);
+        collector.add(16, 0, -16, 300);
+        collector.add(17, 255, -1, 301);
+
+        final List<PacketWrapper> packets = flush(collector);
+        Assertions.assertEquals(3, packets.size());
+
+        // Chunks in the order they were first updated in
+        assertMultiBlockChange(packets.get(0), 0, 0, new int[][]{{1, 64, 2, 100}, {15, 65, 0, 101}});
+        assertBlockChange(packets.get(1), new Position(-1, 10, 33), 200);
+        assertMultiBlockChange(packets.get(2), 1, -1, new int[][]{{0, 0, 0, 300}, {1, 255, 15, 301}});
+    }
+
+    @Test
+    public void testSingleBlockChange() throws Exception {
+        final BlockUpdateCollector collector = new BlockUpdateCollector(null);
+        collector.add(-17, 3, -33, 5);
+
+        final List<PacketWrapper> packets = flush(collector);
+        Assertions.assertEquals(1, packets.size());
+        assertBlockChange(packets.get(0), new Position(-17, 3, -33), 5);
+    }
+
+    @Test
+    public void testClearedAfterFlush() throws Exception {
+        final BlockUpdateCollector collector = new BlockUpdateCollector(null);
+        collector.add(0, 0, 0, 1);
+        collector.add(1, 0, 0, 2);
+        Assertions.assertEquals(1, flush(collector).size());
+        Assertions.assertTrue(flush(collector).isEmpty());
+
+        collector.add(2, 0, 0, 3);
+        final List<PacketWrapper> packets = flush(collector);
+        Assertions.assertEquals(1, packets.size());
+        assertBlockChange(packets.get(0), new Position(2, 0, 0), 3);
+    }
+
+    private static List<PacketWrapper> flush(final BlockUpdateCollector collector) throws Exception {
+        final List<PacketWrapper> packets = new ArrayList<>();
+        collector.flush(packets::add);
+        return packets;
+    }
+
+    private static void assertBlockChange(final PacketWrapper wrapper, final Position position, final int blockState) throws Exception {
+        Assertions.assertEquals(ClientboundPackets1_13.BLOCK_CHANGE, wrapper.getPacketType());
+        Assertions.assertEquals(position, wrapper.get(Type.POSITION1_8, 0));
+        Assertions.assertEquals(blockState, wrapper.get(Type.VAR_INT, 0));
+    }
+
+    private static void assertMultiBlockChange(final PacketWrapper wrapper, final int chunkX, final int chunkZ, final int[][] records) throws Exception {
+        Assertions.assertEquals(ClientboundPackets1_13.MULTI_BLOCK_CHANGE, wrapper.getPacketType());
+        Assertions.assertEquals(chunkX, wrapper.get(Type.INT, 0));
+        Assertions.assertEquals(chunkZ, wrapper.get(Type.INT, 1));
+
+        final BlockChangeRecord[] written = wrapper.get(Type.BLOCK_CHANGE_RECORD_ARRAY, 0);
+        Assertions.assertEquals(records.length, written.length);
+        for (int i = 0; i < records.length; i++) {
+            Assertions.assertEquals(records[i][0], written[i].getSectionX());
+            Assertions.assertEquals(records[i][1], written[i].getY());
+            Assertions.assertEquals(records[i][2], written[i].getSectionZ());
+            Assertions.assertEquals(records[i][3], written[i].getBlockId());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections;
+
+import com.viaversion.viaversion.api.minecraft.BlockFace;
+import com.viaversion.viaversion.api.minecraft.chunks.BaseChunk;
+import com.viaversion.viaversion.api.minecraft.chunks.Chunk;
+import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
+import com.viaversion.viaversion.api.minecraft.chunks.ChunkSectionImpl;
+import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
+import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ChunkNeighbourViewTest {
+
+    private static final int CHUNK_X = -1;
+    private static final int CHUNK_Z = 2;
+    private static final int FENCE = 5;
+    private static final int WALL = 7;
+    private static final int STONE = 9;
+    private int[] previousConnectionData;
+    private ChunkNeighbourView view;
+
+    @BeforeEach
+    public void setUp() {
+        previousConnectionData = ConnectionData.blockConnectionData;
+        final int[] connectionData = new int[16];
+        Arrays.fill(connectionData, -1);
+        connectionData[FENCE] = 0;
+        connectionData[WALL] = 3;
+        ConnectionData.blockConnectionData = connectionData;
+
+        // Sections 0 and 2 present, 1 missing
+        final ChunkSection[] sections = new ChunkSection[16];
+        sections[0] = airSection();
+        sections[2] = airSection();
+        sections[0].palette(PaletteType.BLOCKS).setIdAt(0, 0, 0, FENCE);
+        sections[0].palette(PaletteType.BLOCKS).setIdAt(15, 15, 15, WALL);
+        sections[0].palette(PaletteType.BLOCKS).setIdAt(3, 4, 5, STONE);
+        sections[2].palette(PaletteType.BLOCKS).setIdAt(8, 1, 8, WALL);
+        final Chunk chunk = new BaseChunk(CHUNK_X, CHUNK_Z, true, false, 0b101, sections, null, new ArrayList<>());
+        view = new ChunkNeighbourView(chunk);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ConnectionData.blockConnectionData = previousConnectionData;
+    }
+
+    @Test
+    public void testBlocksInChunk() {
+        Assertions.assertEquals(FENCE, view.blockData(-16, 0, 32));
+        Assertions.assertEquals(WALL, view.blockData(-1, 15, 47));
+        Assertions.assertEquals(WALL, view.blockData(-8, 33, 40));
+        // States not relevant for connections and air
+        Assertions.assertEquals(0, view.blockData(-13, 4, 37));
+        Assertions.assertEquals(0, view.blockData(-15, 0, 32));
+    }
+
+    @Test
+    public void testOutsideOfChunk() {
+        Assertions.assertEquals(-1, view.blockData(-17, 0, 32));
+        Assertions.assertEquals(-1, view.blockData(0, 0, 32));
+        Assertions.assertEquals(-1, view.blockData(-16, 0, 31));
+        Assertions.assertEquals(-1, view.blockData(-16, 0, 48));
+        Assertions.assertEquals(-1, view.blockData(-16, -1, 32));
+        Assertions.assertEquals(-1, view.blockData(-16, 256, 32));
+        // Missing section
+        Assertions.assertEquals(-1, view.blockData(-16, 16, 32));
+    }
+
+    @Test
+    public void testNeighboursAcrossChunkBorders() {
+        // Lower corner, west and north lead into other chunks
+        final long fence = PackedPosition.pack(-16, 0, 32);
+        Assertions.assertEquals(-1, blockData(PackedPosition.relative(fence, BlockFace.WEST)));
+        Assertions.assertEquals(-1, blockData(PackedPosition.relative(fence, BlockFace.NORTH)));
+        Assertions.assertEquals(-1, blockData(PackedPosition.relative(fence, BlockFace.BOTTOM)));
+        Assertions.assertEquals(0, blockData(PackedPosition.relative(fence, BlockFace.EAST)));
+        Assertions.assertEquals(0, blockData(PackedPosition.relative(fence, BlockFace.SOUTH)));
+        Assertions.assertEquals(0, blockData(PackedPosition.relative(fence, BlockFace.TOP)));
+
+        // Upper corner, east and south lead into other chunks, top into the missing section
+        final long wall = PackedPosition.pack(-1, 15, 47);
+        Assertions.assertEquals(-1, blockData(PackedPosition.relative(wall, BlockFace.EAST)));
+        Assertions.assertEquals(-1, blockData(PackedPosition.relative(wall, BlockFace.SOUTH)));
+        Assertions.assertEquals(-1, blockData(PackedPosition.relative(wall, BlockFace.TOP)));
+        Assertions.assertEquals(0, blockData(PackedPosition.relative(wall, BlockFace.WEST)));
+        Assertions.assertEquals(0, blockData(PackedPosition.relative(wall, BlockFace.NORTH)));
+        Assertions.assertEquals(0, blockData(PackedPosition.relative(wall, BlockFace.BOTTOM)));
+    }
+
+    private static ChunkSection airSection() {
+        final ChunkSection section = new ChunkSectionImpl(true);
+        final DataPalette palette = section.palette(PaletteType.BLOCKS);
+        for (int i = 0; i < ChunkSection.SIZE; i++) {
+            palette.setIdAt(i, 0);
+        }
+        return section;
+    }
+
+    private int blockData(final long position) {
+        return view.blockData(PackedPosition.x(position), PackedPosition.y(position), PackedPosition.z(position));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2023 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.blockconnections;
+
+import com.viaversion.viaversion.api.minecraft.BlockFace;
+import com.viaversion.viaversion.api.minecraft.Position;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PackedPositionTest {
+
+    private static final int MIN_XZ = -(1 << 25);
+    private static final int MAX_XZ = (1 << 25) - 1;
+    private static final int MIN_Y = -(1 << 11);
+    private static final int MAX_Y = (1 << 11) - 1;
+
+    @Test
+    public void testRoundTrip() {
+        final int[] horizontal = {0, 1, -1, 15, 16, -16, -17, 123456, -654321, MIN_XZ, MAX_XZ};
+        final int[] vertical = {0, 1, -1, 255, 256, -64, MIN_Y, MAX_Y};
+        for (final int x : horizontal) {
+            for (final int y : vertical) {
+                for (final int z : horizontal) {
+                    assertRoundTrip(x, y, z);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testComponentsDoNotOverlap() {
+        // All bits of one component set, the others empty
+        Assertions.assertEquals(0, PackedPosition.y(PackedPosition.pack(-1, 0, 0)));
+        Assertions.assertEquals(0, PackedPosition.z(PackedPosition.pack(-1, 0, 0)));
+        Assertions.assertEquals(0, PackedPosition.x(PackedPosition.pack(0, -1, 0)));
+        Assertions.assertEquals(0, PackedPosition.z(PackedPosition.pack(0, -1, 0)));
+        Assertions.assertEquals(0, PackedPosition.x(PackedPosition.pack(0, 0, -1)));
+        Assertions.assertEquals(0, PackedPosition.y(PackedPosition.pack(0, 0, -1)));
+    }
+
+    @Test
+    public void testPosition() {
+        final Position position = new Position(-30000000 / 2, 255, 29999999 / 3);
+        final long packed = PackedPosition.pack(position);
+        Assertions.assertEquals(PackedPosition.pack(position.x(), position.y(), position.z()), packed);
+        Assertions.assertEquals(position, PackedPosition.toPosition(packed));
+    }
+
+    @Test
+    public void testRelative() {
+        final long position = PackedPosition.pack(-1, 0, 15);
+        for (final BlockFace face : BlockFace.values()) {
+            final long relative = PackedPosition.relative(position, face);
+            Assertions.assertEquals(-1 + face.modX(), PackedPosition.x(relative));
+            Assertions.assertEquals(face.modY(), PackedPosition.y(relative));
+            Assertions.assertEquals(15 + face.modZ(), PackedPosition.z(relative));
+            Assertions.assertEquals(position, PackedPosition.relative(relative, face.opposite()));
+        }
+    }
+
+    private static void assertRoundTrip(final int x, final int y, final int z) {
+        final long packed = PackedPosition.pack(x, y, z);
+        Assertions.assertEquals(x, PackedPosition.x(packed));
+        Assertions.assertEquals(y, PackedPosition.y(packed));
+        Assertions.assertEquals(z, PackedPosition.z(packed));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * This file is part of ViaVersion - https://github.com/ViaVersion/ViaVersion
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viaversion.protocols.protocol1_13to1_12_2.storage;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BlockConnectionStorageTest {
+
+    private static final int NIBBLE_SECTION_BYTES = 64 + 2048 + 16 * 4;
+    private static final int BYTE_SECTION_BYTES = 64 + 4096;
+    private static final int DIRECT_SECTION_BYTES = 64 + 8192;
+    // Map entry and section with a single block
+    private static final int SMALL_SECTION_BYTES = 48 + 64 + 2048 + 4 * 4;
+
+    @Test
+    public void testPaletteGrowth() {
+        final BlockConnectionStorage.SectionData section = new BlockConnectionStorage.SectionData();
+        // Air and 15 states still fit into nibbles
+        setStates(section, 0, 15, 1);
+        Assertions.assertEquals(NIBBLE_SECTION_BYTES, section.memoryUsage());
+
+        setStates(section, 15, 16, 1);
+        Assertions.assertTrue(section.memoryUsage() > BYTE_SECTION_BYTES);
+        Assertions.assertTrue(section.memoryUsage() < DIRECT_SECTION_BYTES);
+
+        setStates(section, 16, 255, 1);
+        Assertions.assertTrue(section.memoryUsage() < DIRECT_SECTION_BYTES);
+
+        // Past 256 distinct states, they are stored directly
+        setStates(section, 255, 2000, 1);
+        Assertions.assertEquals(DIRECT_SECTION_BYTES, section.memoryUsage());
+        assertStates(section, 0, 2000, 1);
+        Assertions.assertEquals(2000, section.nonEmptyBlocks());
+    }
+
+    @Test
+    public void testPaletteCompaction() {
+        final BlockConnectionStorage.SectionData section = new BlockConnectionStorage.SectionData();
+        setStates(section, 0, 15, 1);
+
+        // Leave only one of the states in use
+        for (int i = 1; i < 15; i++) {
+            setBlock(section, i, 1);
+        }
+
+        // Would overflow the nibbles without dropping the unused states first
+        setStates(section, 15, 29, 100);
+        Assertions.assertEquals(NIBBLE_SECTION_BYTES, section.memoryUsage());
+        for (int i = 0; i < 15; i++) {
+            Assertions.assertEquals(1, blockAt(section, i));
+        }
+        assertStates(section, 15, 29, 100);
+        Assertions.assertEquals(0, blockAt(section, 29));
+        Assertions.assertEquals(29, section.nonEmptyBlocks());
+    }
+
+    @Test
+    public void testRemoveToEmptySection() {
+        final BlockConnectionStorage storage = new BlockConnectionStorage(0);
+        for (int i = 0; i < 100; i++) {
+            storage.store(i & 0xF, 64 + (i >> 4), 3, 10 + i);
+        }
+        Assertions.assertTrue(storage.memoryUsage() > 0);
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(10 + i, storage.get(i & 0xF, 64 + (i >> 4), 3));
+            storage.remove(i & 0xF, 64 + (i >> 4), 3);
+        }
+        Assertions.assertEquals(0, storage.memoryUsage());
+        Assertions.assertEquals(0, storage.get(0, 64, 3));
+
+        // Storing air doesn't create a section
+        storage.store(0, 64, 3, 0);
+        Assertions.assertEquals(0, storage.memoryUsage());
+    }
+
+    @Test
+    public void testClearReleasesMemory() {
+        final long totalBefore = BlockConnectionStorage.totalMemoryUsage();
+        final BlockConnectionStorage storage = new BlockConnectionStorage(0);
+        for (int i = 0; i < 5000; i++) {
+            storage.store(i * 7, i & 0xFF, -i * 3, 1 + i % 300);
+        }
+        Assertions.assertTrue(storage.memoryUsage() > 0);
+        Assertions.assertEquals(totalBefore + storage.memoryUsage(), BlockConnectionStorage.totalMemoryUsage());
+
+        storage.clear();
+        Assertions.assertEquals(0, storage.memoryUsage());
+        Assertions.assertEquals(totalBefore, BlockConnectionStorage.totalMemoryUsage());
+    }
+
+    @Test
+    public void testEvictFarthestFromPlayer() {
+        final BlockConnectionStorage storage = new BlockConnectionStorage(SMALL_SECTION_BYTES * 3 + 100);
+        storage.setPlayerPosition(8.5, 3.5);
+        storage.store(160, 0, 0, 1);
+        storage.store(0, 0, 0, 2);
+        storage.store(16, 0, 0, 3);
+        // Most recently used, but farthest away
+        Assertions.assertEquals(1, storage.get(160, 0, 0));
+
+        storage.store(32, 0, 0, 4);
+        Assertions.assertEquals(0, storage.get(160, 0, 0));
+        Assertions.assertEquals(2, storage.get(0, 0, 0));
+        Assertions.assertEquals(0, storage.get(16, 0, 0));
+        Assertions.assertEquals(4, storage.get(32, 0, 0));
+        Assertions.assertEquals(SMALL_SECTION_BYTES * 2, storage.memoryUsage());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        final BlockConnectionStorage storage = new BlockConnectionStorage(SMALL_SECTION_BYTES * 3 + 100);
+        storage.store(0, 0, 0, 1);
+        storage.store(16, 0, 0, 2);
+        storage.store(32, 0, 0, 3);
+        Assertions.assertEquals(1, storage.get(0, 0, 0));
+
+        // Without a player position, only the last access counts
+        storage.store(480, 0, 0, 4);
+        Assertions.assertEquals(1, storage.get(0, 0, 0));
+        Assertions.assertEquals(0, storage.get(16, 0, 0));
+        Assertions.assertEquals(0, storage.get(32, 0, 0));
+        Assertions.assertEquals(4, storage.get(480, 0, 0));
+    }
+
+    private static void setStates(final BlockConnectionStorage.SectionData section, final int from, final int to, final int firstState) {
+        for (int i = from; i < to; i++) {
+            setBlock(section, i, firstState + i);
+        }
+    }
+
+    private static void assertStates(final BlockConnectionStorage.SectionData section, final int from, final int to, final int firstState) {
+        for (int i = from; i < to; i++) {
+            Assertions.assertEquals(firstState + i, blockAt(section, i), "index " + i);
+        }
+    }
+
+    private static void setBlock(final BlockConnectionStorage.SectionData section, final int index, final int blockState) {
+        section.setBlockAt(index & 0xF, index >> 8, index >> 4 & 0xF, blockState);
+    }
+
+    private static int blockAt(final BlockConnectionStorage.SectionData section, final int index) {
+        return section.blockAt(index & 0xF, index >> 8, index >> 4 & 0xF);
+    }
+}
@@ -44,11 +44,11 @@ public class SpongeDecodeHandler extends ByteToMessageDecoder {
             throw CancelDecoderException.generate(null);
         }
 
+        boolean transform = info.shouldTransformPacket();
         ByteBuf transformedBuf = null;
         try {
-            if (info.shouldTransformPacket()) {
-                transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
-                info.transformServerbound(transformedBuf, CancelDecoderException::generate);
+            if (transform) {
+                transformedBuf = info.transformServerboundBuffer(bytebuf, CancelDecoderException::generate);
             }
 
             try {
@@ -61,6 +61,10 @@ public class SpongeDecodeHandler extends ByteToMessageDecoder {
                 }
             }
         } finally {
+            if (transform) {
+                // The whole frame has been handled, even if transforming failed or returned a new buffer
+                bytebuf.skipBytes(bytebuf.readableBytes());
+            }
             if (transformedBuf != null) {
                 transformedBuf.release();
             }
@@ -51,10 +51,23 @@ public class SpongeEncodeHandler extends MessageToByteEncoder<Object> implements
                     throw (Error) e.getCause();
                 }
             }
-        } else {
+            transform(bytebuf);
+            return;
+        }
+
+        if (!info.checkClientboundPacket()) throw CancelEncoderException.generate(null);
+        if (!info.shouldTransformPacket()) {
             bytebuf.writeBytes((ByteBuf) o);
+            return;
+        }
+
+        // Transform the already encoded packet straight into the output buffer
+        ByteBuf transformed = info.transformClientboundBuffer((ByteBuf) o, CancelEncoderException::generate);
+        try {
+            bytebuf.writeBytes(transformed);
+        } finally {
+            transformed.release();
         }
-        transform(bytebuf);
     }
 
     @Override
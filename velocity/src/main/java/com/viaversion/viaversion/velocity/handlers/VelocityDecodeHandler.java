@@ -20,6 +20,7 @@ package com.viaversion.viaversion.velocity.handlers;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.exception.CancelCodecException;
 import com.viaversion.viaversion.exception.CancelDecoderException;
+import com.viaversion.viaversion.handlers.OrderedTransformQueue;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
@@ -30,9 +31,19 @@ import java.util.List;
 @ChannelHandler.Sharable
 public class VelocityDecodeHandler extends MessageToMessageDecoder<ByteBuf> {
     private final UserConnection info;
+    private final OrderedTransformQueue transformQueue;
 
     public VelocityDecodeHandler(UserConnection info) {
         this.info = info;
+        this.transformQueue = OrderedTransformQueue.serverbound(info, this::decode);
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (transformQueue != null && transformQueue.offerServerbound(ctx, msg)) {
+            return;
+        }
+        super.channelRead(ctx, msg);
     }
 
     @Override
@@ -43,13 +54,7 @@ public class VelocityDecodeHandler extends MessageToMessageDecoder<ByteBuf> {
             return;
         }
 
-        ByteBuf transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
-        try {
-            info.transformIncoming(transformedBuf, CancelDecoderException::generate);
-            out.add(transformedBuf.retain());
-        } finally {
-            transformedBuf.release();
-        }
+        out.add(info.transformIncomingBuffer(bytebuf, CancelDecoderException::generate));
     }
 
     @Override
@@ -20,18 +20,30 @@ package com.viaversion.viaversion.velocity.handlers;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.exception.CancelCodecException;
 import com.viaversion.viaversion.exception.CancelEncoderException;
+import com.viaversion.viaversion.handlers.OrderedTransformQueue;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToMessageEncoder;
 import java.util.List;
 
 @ChannelHandler.Sharable
 public class VelocityEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
     private final UserConnection info;
+    private final OrderedTransformQueue transformQueue;
 
     public VelocityEncodeHandler(UserConnection info) {
         this.info = info;
+        this.transformQueue = OrderedTransformQueue.clientbound(info, this::encode);
+    }
+
+    @Override
+    public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) throws Exception {
+        if (transformQueue != null && transformQueue.offerClientbound(ctx, msg, promise)) {
+            return;
+        }
+        super.write(ctx, msg, promise);
     }
 
     @Override
@@ -42,13 +54,7 @@ public class VelocityEncodeHandler extends MessageToMessageEncoder<ByteBuf> {
             return;
         }
 
-        ByteBuf transformedBuf = ctx.alloc().buffer().writeBytes(bytebuf);
-        try {
-            info.transformOutgoing(transformedBuf, CancelEncoderException::generate);
-            out.add(transformedBuf.retain());
-        } finally {
-            transformedBuf.release();
-        }
+        out.add(info.transformOutgoingBuffer(bytebuf, CancelEncoderException::generate));
     }
 
     @Override